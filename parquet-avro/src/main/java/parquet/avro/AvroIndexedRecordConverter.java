@@ -43,15 +43,29 @@ class AvroIndexedRecordConverter<T extends IndexedRecord> extends GroupConverter
 
   private final Schema avroSchema;
   private final Class<? extends IndexedRecord> specificClass;
+  private final boolean reuseRecords;
 
   public AvroIndexedRecordConverter(MessageType parquetSchema, Schema avroSchema) {
-    this(null, parquetSchema, avroSchema);
+    this(parquetSchema, avroSchema, false);
+  }
+
+  /**
+   * @param reuseRecords if true the same records are reset and refilled for every record read
+   */
+  public AvroIndexedRecordConverter(MessageType parquetSchema, Schema avroSchema, boolean reuseRecords) {
+    this(null, parquetSchema, avroSchema, reuseRecords);
   }
 
   public AvroIndexedRecordConverter(ParentValueContainer parent, GroupType
       parquetSchema, Schema avroSchema) {
+    this(parent, parquetSchema, avroSchema, false);
+  }
+
+  AvroIndexedRecordConverter(ParentValueContainer parent, GroupType
+      parquetSchema, Schema avroSchema, boolean reuseRecords) {
     this.parent = parent;
     this.avroSchema = avroSchema;
+    this.reuseRecords = reuseRecords;
     int schemaSize = parquetSchema.getFieldCount();
     this.converters = new Converter[schemaSize];
     this.specificClass = SpecificData.get().getClass(avroSchema);
@@ -75,12 +89,16 @@ class AvroIndexedRecordConverter<T extends IndexedRecord> extends GroupConverter
         void add(Object value) {
           AvroIndexedRecordConverter.this.set(finalAvroIndex, value);
         }
-      });
+      }, reuseRecords);
     }
   }
 
+  /**
+   * @param reuseRecords whether the converter can reuse the same record, array or map instance.
+   * false for the elements of arrays and maps as there can be more than one per record.
+   */
   private static Converter newConverter(Schema schema, Type type,
-      ParentValueContainer parent) {
+      ParentValueContainer parent, boolean reuseRecords) {
     if (schema.getType().equals(Schema.Type.BOOLEAN)) {
       return new FieldBooleanConverter(parent);
     } else if (schema.getType().equals(Schema.Type.INT)) {
@@ -96,15 +114,15 @@ class AvroIndexedRecordConverter<T extends IndexedRecord> extends GroupConverter
     } else if (schema.getType().equals(Schema.Type.STRING)) {
       return new FieldStringConverter(parent);
     } else if (schema.getType().equals(Schema.Type.RECORD)) {
-      return new AvroIndexedRecordConverter(parent, type.asGroupType(), schema);
+      return new AvroIndexedRecordConverter(parent, type.asGroupType(), schema, reuseRecords);
     } else if (schema.getType().equals(Schema.Type.ENUM)) {
       return new FieldEnumConverter(parent,schema);
     } else if (schema.getType().equals(Schema.Type.ARRAY)) {
-      return new AvroArrayConverter(parent, type, schema);
+      return new AvroArrayConverter(parent, type, schema, reuseRecords);
     } else if (schema.getType().equals(Schema.Type.MAP)) {
-      return new MapConverter(parent, type, schema);
+      return new MapConverter(parent, type, schema, reuseRecords);
     } else if (schema.getType().equals(Schema.Type.UNION)) {
-      return new AvroUnionConverter(parent, type, schema);
+      return new AvroUnionConverter(parent, type, schema, reuseRecords);
     } else if (schema.getType().equals(Schema.Type.FIXED)) {
       return new FieldFixedConverter(parent, schema);
     }
@@ -123,6 +141,14 @@ class AvroIndexedRecordConverter<T extends IndexedRecord> extends GroupConverter
 
   @Override
   public void start() {
+    if (reuseRecords && this.specificClass == null && this.currentRecord != null) {
+      // generic records only: specific records can have primitive fields that can not be null
+      // the fields missing from the next record must be null
+      for (int i = 0; i < avroSchema.getFields().size(); i++) {
+        this.currentRecord.put(i, null);
+      }
+      return;
+    }
     // Should do the right thing whether it is generic or specific
     this.currentRecord = (T) ((this.specificClass == null) ?
             new GenericData.Record(avroSchema) :
@@ -321,12 +347,14 @@ class AvroIndexedRecordConverter<T extends IndexedRecord> extends GroupConverter
     private final ParentValueContainer parent;
     private final Schema avroSchema;
     private final Converter converter;
+    private final boolean reuseRecords;
     private GenericArray<T> array;
 
     public AvroArrayConverter(ParentValueContainer parent, Type parquetSchema,
-        Schema avroSchema) {
+        Schema avroSchema, boolean reuseRecords) {
       this.parent = parent;
       this.avroSchema = avroSchema;
+      this.reuseRecords = reuseRecords;
       Type elementType = parquetSchema.asGroupType().getType(0);
       Schema elementSchema = avroSchema.getElementType();
       converter = newConverter(elementSchema, elementType, new ParentValueContainer() {
@@ -335,7 +363,7 @@ class AvroIndexedRecordConverter<T extends IndexedRecord> extends GroupConverter
         void add(Object value) {
           array.add((T) value);
         }
-      });
+      }, false);
     }
 
     @Override
@@ -345,7 +373,11 @@ class AvroIndexedRecordConverter<T extends IndexedRecord> extends GroupConverter
 
     @Override
     public void start() {
-      array = new GenericData.Array<T>(0, avroSchema);
+      if (reuseRecords && array != null) {
+        array.clear();
+      } else {
+        array = new GenericData.Array<T>(0, avroSchema);
+      }
     }
 
     @Override
@@ -361,7 +393,7 @@ class AvroIndexedRecordConverter<T extends IndexedRecord> extends GroupConverter
     private Object memberValue = null;
 
     public AvroUnionConverter(ParentValueContainer parent, Type parquetSchema,
-                              Schema avroSchema) {
+                              Schema avroSchema, boolean reuseRecords) {
       this.parent = parent;
       GroupType parquetGroup = parquetSchema.asGroupType();
       this.memberConverters = new Converter[ parquetGroup.getFieldCount()];
@@ -377,7 +409,7 @@ class AvroIndexedRecordConverter<T extends IndexedRecord> extends GroupConverter
               Preconditions.checkArgument(memberValue==null, "Union is resolving to more than one type");
               memberValue = value;
             }
-          });
+          }, reuseRecords);
           parquetIndex++; // Note for nulls the parquetIndex id not increased
         }
       }
@@ -403,11 +435,13 @@ class AvroIndexedRecordConverter<T extends IndexedRecord> extends GroupConverter
 
     private final ParentValueContainer parent;
     private final Converter keyValueConverter;
+    private final boolean reuseRecords;
     private Map<String, V> map;
 
     public MapConverter(ParentValueContainer parent, Type parquetSchema,
-        Schema avroSchema) {
+        Schema avroSchema, boolean reuseRecords) {
       this.parent = parent;
+      this.reuseRecords = reuseRecords;
       this.keyValueConverter = new MapKeyValueConverter(parquetSchema, avroSchema);
     }
 
@@ -418,7 +452,11 @@ class AvroIndexedRecordConverter<T extends IndexedRecord> extends GroupConverter
 
     @Override
     public void start() {
-      this.map = new HashMap<String, V>();
+      if (reuseRecords && map != null) {
+        map.clear();
+      } else {
+        this.map = new HashMap<String, V>();
+      }
     }
 
     @Override
@@ -449,7 +487,7 @@ class AvroIndexedRecordConverter<T extends IndexedRecord> extends GroupConverter
           void add(Object value) {
             MapKeyValueConverter.this.value = (V) value;
           }
-        });
+        }, false);
       }
 
       @Override
@@ -52,6 +52,6 @@ public class AvroReadSupport<T extends IndexedRecord> extends ReadSupport<T> {
   @Override
   public RecordMaterializer<T> prepareForRead(Configuration configuration, Map<String, String> keyValueMetaData, MessageType fileSchema, ReadContext readContext) {
     Schema avroSchema = new Schema.Parser().parse(keyValueMetaData.get("avro.schema"));
-    return new AvroRecordMaterializer<T>(readContext.getRequestedSchema(), avroSchema);
+    return new AvroRecordMaterializer<T>(readContext.getRequestedSchema(), avroSchema, isReuseRecords(configuration));
   }
 }
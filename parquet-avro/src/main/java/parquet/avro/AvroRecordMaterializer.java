@@ -26,7 +26,11 @@ class AvroRecordMaterializer<T extends IndexedRecord> extends RecordMaterializer
   private AvroIndexedRecordConverter<T> root;
 
   public AvroRecordMaterializer(MessageType requestedSchema, Schema avroSchema) {
-    this.root = new AvroIndexedRecordConverter<T>(requestedSchema, avroSchema);
+    this(requestedSchema, avroSchema, false);
+  }
+
+  public AvroRecordMaterializer(MessageType requestedSchema, Schema avroSchema, boolean reuseRecords) {
+    this.root = new AvroIndexedRecordConverter<T>(requestedSchema, avroSchema, reuseRecords);
   }
 
   @Override
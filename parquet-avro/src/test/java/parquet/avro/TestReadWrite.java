@@ -31,12 +31,17 @@ import org.apache.avro.generic.GenericFixed;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.generic.GenericRecordBuilder;
 import org.apache.avro.util.Utf8;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.junit.Test;
+import parquet.hadoop.api.ReadSupport;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 public class TestReadWrite {
 
@@ -121,6 +126,139 @@ public class TestReadWrite {
     assertEquals(ImmutableMap.of("a", 1, "b", 2), nextRecord.get("mymap"));
   }
 
+  @Test
+  public void testReuseRecords() throws Exception {
+    Schema schema = new Schema.Parser().parse(
+        Resources.getResource("array.avsc").openStream());
+
+    File tmp = File.createTempFile(getClass().getSimpleName(), ".tmp");
+    tmp.deleteOnExit();
+    tmp.delete();
+    Path file = new Path(tmp.getPath());
+
+    AvroParquetWriter<GenericRecord> writer =
+        new AvroParquetWriter<GenericRecord>(file, schema);
+    List<List<Integer>> arrays = Arrays.asList(
+        Arrays.asList(1, 2, 3), Arrays.asList(4), new ArrayList<Integer>(), Arrays.asList(5, 6));
+    for (List<Integer> array : arrays) {
+      writer.write(new GenericRecordBuilder(schema).set("myarray", array).build());
+    }
+    writer.close();
+
+    Configuration conf = new Configuration();
+    conf.setBoolean(ReadSupport.PARQUET_READ_REUSE_RECORDS, true);
+    AvroParquetReader<GenericRecord> reader = new AvroParquetReader<GenericRecord>(conf, file);
+    GenericRecord first = null;
+    for (List<Integer> array : arrays) {
+      GenericRecord nextRecord = reader.read();
+      if (first == null) {
+        first = nextRecord;
+      }
+      assertSame("the record should be reused", first, nextRecord);
+      assertEquals(array, nextRecord.get("myarray"));
+    }
+    reader.close();
+  }
+
+  @Test
+  public void testReuseNestedRecords() throws Exception {
+    Schema schema = new Schema.Parser().parse(
+        Resources.getResource("all.avsc").openStream()).getField("mynestedrecord").schema();
+    Schema outer = Schema.createRecord("outer", null, "parquet.avro", false);
+    outer.setFields(Arrays.asList(
+        new Schema.Field("myint", Schema.create(Schema.Type.INT), null, null),
+        new Schema.Field("mynestedrecord", schema, null, null)));
+
+    Path file = tempFile();
+    AvroParquetWriter<GenericRecord> writer =
+        new AvroParquetWriter<GenericRecord>(file, outer);
+    for (int i = 0; i < 3; i++) {
+      writer.write(new GenericRecordBuilder(outer)
+          .set("myint", i)
+          .set("mynestedrecord", new GenericRecordBuilder(schema).set("mynestedint", i * 10).build())
+          .build());
+    }
+    writer.close();
+
+    Configuration conf = new Configuration();
+    conf.setBoolean(ReadSupport.PARQUET_READ_REUSE_RECORDS, true);
+    AvroParquetReader<GenericRecord> reader = new AvroParquetReader<GenericRecord>(conf, file);
+    GenericRecord first = null;
+    Object firstNested = null;
+    for (int i = 0; i < 3; i++) {
+      GenericRecord nextRecord = reader.read();
+      GenericRecord nested = (GenericRecord) nextRecord.get("mynestedrecord");
+      if (first == null) {
+        first = nextRecord;
+        firstNested = nested;
+      }
+      assertSame("the record should be reused", first, nextRecord);
+      assertSame("the nested record should be reused", firstNested, nested);
+      assertEquals(i, nextRecord.get("myint"));
+      assertEquals(i * 10, nested.get("mynestedint"));
+    }
+    assertNull(reader.read());
+    reader.close();
+  }
+
+  @Test
+  public void testReuseMapsAndArraysOfRecords() throws Exception {
+    Schema map = new Schema.Parser().parse(
+        Resources.getResource("map.avsc").openStream()).getField("mymap").schema();
+    Schema element = Schema.createRecord("element", null, "parquet.avro", false);
+    element.setFields(Arrays.asList(new Schema.Field("value", Schema.create(Schema.Type.INT), null, null)));
+    Schema schema = Schema.createRecord("myrecord", null, "parquet.avro", false);
+    schema.setFields(Arrays.asList(
+        new Schema.Field("mymap", map, null, null),
+        new Schema.Field("myrecords", Schema.createArray(element), null, null)));
+
+    Path file = tempFile();
+    AvroParquetWriter<GenericRecord> writer =
+        new AvroParquetWriter<GenericRecord>(file, schema);
+    List<ImmutableMap<String, Integer>> maps = Arrays.asList(
+        ImmutableMap.of("a", 1, "b", 2), ImmutableMap.of("c", 3), ImmutableMap.<String, Integer>of());
+    for (int i = 0; i < maps.size(); i++) {
+      List<GenericRecord> records = new ArrayList<GenericRecord>();
+      for (int j = 0; j < i + 1; j++) {
+        records.add(new GenericRecordBuilder(element).set("value", i * 10 + j).build());
+      }
+      writer.write(new GenericRecordBuilder(schema).set("mymap", maps.get(i)).set("myrecords", records).build());
+    }
+    writer.close();
+
+    Configuration conf = new Configuration();
+    conf.setBoolean(ReadSupport.PARQUET_READ_REUSE_RECORDS, true);
+    AvroParquetReader<GenericRecord> reader = new AvroParquetReader<GenericRecord>(conf, file);
+    Object firstMap = null;
+    for (int i = 0; i < maps.size(); i++) {
+      GenericRecord nextRecord = reader.read();
+      if (firstMap == null) {
+        firstMap = nextRecord.get("mymap");
+      }
+      assertSame("the map should be reused", firstMap, nextRecord.get("mymap"));
+      // the entries of the previous record are gone
+      assertEquals(maps.get(i), nextRecord.get("mymap"));
+      List<?> records = (List<?>) nextRecord.get("myrecords");
+      assertEquals(i + 1, records.size());
+      for (int j = 0; j < records.size(); j++) {
+        // the records of an array are distinct instances
+        for (int k = 0; k < j; k++) {
+          assertNotSame(records.get(k), records.get(j));
+        }
+        assertEquals(i * 10 + j, ((GenericRecord) records.get(j)).get("value"));
+      }
+    }
+    assertNull(reader.read());
+    reader.close();
+  }
+
+  private Path tempFile() throws Exception {
+    File tmp = File.createTempFile(getClass().getSimpleName(), ".tmp");
+    tmp.deleteOnExit();
+    tmp.delete();
+    return new Path(tmp.getPath());
+  }
+
   @Test
   public void testAll() throws Exception {
     Schema schema = new Schema.Parser().parse(
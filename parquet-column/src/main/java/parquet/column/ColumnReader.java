@@ -68,6 +68,14 @@ public interface ColumnReader {
    */
   void skip();
 
+  /**
+   * Skips the next rowCount records, starting from the current triplet, which must be the first of a record.
+   * The values are skipped in bulk without being decoded when the encoding allows it.
+   * Afterwards the reader points to the first triplet of the following record.
+   * @param rowCount the count of records to skip
+   */
+  void skipRows(long rowCount);
+
   /**
    * available when the underlying encoding is dictionary based
    * @return the dictionary id for the current value
@@ -80,6 +80,14 @@ public interface ColumnWriter {
    */
   void writeNull(int repetitionLevel, int definitionLevel);
 
+  /**
+   * writes a run of null values sharing the same levels
+   * @param count how many nulls to write
+   * @param repetitionLevel
+   * @param definitionLevel
+   */
+  void writeNulls(int count, int repetitionLevel, int definitionLevel);
+
   /**
    * Flushes the underlying store. This should be called when there are no
    * remaining triplets to be written.
@@ -483,6 +483,43 @@ class ColumnReaderImpl implements ColumnReader {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   * @see parquet.column.ColumnReader#skipRows(long)
+   */
+  @Override
+  public void skipRows(long rowCount) {
+    if (rowCount <= 0) {
+      return;
+    }
+    final int maxDefinitionLevel = path.getMaxDefinitionLevel();
+    // values of the current page that we went past and have not skipped yet
+    int valuesToSkip = 0;
+    long rowsSkipped = 0;
+    while (true) {
+      if (!valueRead && definitionLevel == maxDefinitionLevel) {
+        ++ valuesToSkip;
+      }
+      valueRead = false;
+      if (isPageFullyConsumed()) {
+        dataColumn.skip(valuesToSkip);
+        valuesToSkip = 0;
+        if (isFullyConsumed()) {
+          if (DEBUG) LOG.debug("end reached");
+          repetitionLevel = 0; // the next repetition level
+          valueRead = true; // nothing left to skip
+          return;
+        }
+        readPage();
+      }
+      readRepetitionAndDefinitionLevels();
+      if (repetitionLevel == 0 && ++ rowsSkipped == rowCount) {
+        break;
+      }
+    }
+    dataColumn.skip(valuesToSkip);
+  }
+
   /**
    * {@inheritDoc}
    * @see parquet.column.ColumnReader#getCurrentDefinitionLevel()
@@ -59,6 +59,11 @@ final class ColumnWriterImpl implements ColumnWriter {
   private int valueCount;
   private int valueCountForNextSizeCheck;
 
+  // consecutive nulls with the same levels are buffered here and written to the levels as a run
+  private int pendingNullCount;
+  private int pendingNullRepetitionLevel;
+  private int pendingNullDefinitionLevel;
+
   public ColumnWriterImpl(
       ColumnDescriptor path,
       PageWriter pageWriter,
@@ -140,7 +145,11 @@ final class ColumnWriterImpl implements ColumnWriter {
    *
    */
   private void accountForValueWritten() {
-    ++ valueCount;
+    accountForValuesWritten(1);
+  }
+
+  private void accountForValuesWritten(int count) {
+    valueCount += count;
     if (valueCount > valueCountForNextSizeCheck) {
       // not checking the memory used for every value
       long memSize = repetitionLevelColumn.getBufferedSize()
@@ -177,15 +186,38 @@ final class ColumnWriterImpl implements ColumnWriter {
 
   @Override
   public void writeNull(int repetitionLevel, int definitionLevel) {
-    if (DEBUG) log(null, repetitionLevel, definitionLevel);
-    repetitionLevelColumn.writeInteger(repetitionLevel);
-    definitionLevelColumn.writeInteger(definitionLevel);
-    accountForValueWritten();
+    writeNulls(1, repetitionLevel, definitionLevel);
+  }
+
+  @Override
+  public void writeNulls(int count, int repetitionLevel, int definitionLevel) {
+    if (DEBUG) log(count + " * null", repetitionLevel, definitionLevel);
+    if (pendingNullCount > 0
+        && (repetitionLevel != pendingNullRepetitionLevel || definitionLevel != pendingNullDefinitionLevel)) {
+      writePendingNulls();
+    }
+    pendingNullRepetitionLevel = repetitionLevel;
+    pendingNullDefinitionLevel = definitionLevel;
+    pendingNullCount += count;
+  }
+
+  /**
+   * writes the current run of nulls in one call to each level writer
+   */
+  private void writePendingNulls() {
+    if (pendingNullCount > 0) {
+      int count = pendingNullCount;
+      pendingNullCount = 0;
+      repetitionLevelColumn.writeRepeatedInteger(pendingNullRepetitionLevel, count);
+      definitionLevelColumn.writeRepeatedInteger(pendingNullDefinitionLevel, count);
+      accountForValuesWritten(count);
+    }
   }
 
   @Override
   public void write(double value, int repetitionLevel, int definitionLevel) {
     if (DEBUG) log(value, repetitionLevel, definitionLevel);
+    writePendingNulls();
     repetitionLevelColumn.writeInteger(repetitionLevel);
     definitionLevelColumn.writeInteger(definitionLevel);
     dataColumn.writeDouble(value);
@@ -195,6 +227,7 @@ final class ColumnWriterImpl implements ColumnWriter {
   @Override
   public void write(float value, int repetitionLevel, int definitionLevel) {
     if (DEBUG) log(value, repetitionLevel, definitionLevel);
+    writePendingNulls();
     repetitionLevelColumn.writeInteger(repetitionLevel);
     definitionLevelColumn.writeInteger(definitionLevel);
     dataColumn.writeFloat(value);
@@ -204,6 +237,7 @@ final class ColumnWriterImpl implements ColumnWriter {
   @Override
   public void write(Binary value, int repetitionLevel, int definitionLevel) {
     if (DEBUG) log(value, repetitionLevel, definitionLevel);
+    writePendingNulls();
     repetitionLevelColumn.writeInteger(repetitionLevel);
     definitionLevelColumn.writeInteger(definitionLevel);
     dataColumn.writeBytes(value);
@@ -213,6 +247,7 @@ final class ColumnWriterImpl implements ColumnWriter {
   @Override
   public void write(boolean value, int repetitionLevel, int definitionLevel) {
     if (DEBUG) log(value, repetitionLevel, definitionLevel);
+    writePendingNulls();
     repetitionLevelColumn.writeInteger(repetitionLevel);
     definitionLevelColumn.writeInteger(definitionLevel);
     dataColumn.writeBoolean(value);
@@ -222,6 +257,7 @@ final class ColumnWriterImpl implements ColumnWriter {
   @Override
   public void write(int value, int repetitionLevel, int definitionLevel) {
     if (DEBUG) log(value, repetitionLevel, definitionLevel);
+    writePendingNulls();
     repetitionLevelColumn.writeInteger(repetitionLevel);
     definitionLevelColumn.writeInteger(definitionLevel);
     dataColumn.writeInteger(value);
@@ -231,6 +267,7 @@ final class ColumnWriterImpl implements ColumnWriter {
   @Override
   public void write(long value, int repetitionLevel, int definitionLevel) {
     if (DEBUG) log(value, repetitionLevel, definitionLevel);
+    writePendingNulls();
     repetitionLevelColumn.writeInteger(repetitionLevel);
     definitionLevelColumn.writeInteger(definitionLevel);
     dataColumn.writeLong(value);
@@ -239,6 +276,7 @@ final class ColumnWriterImpl implements ColumnWriter {
 
   @Override
   public void flush() {
+    writePendingNulls();
     if (valueCount > 0) {
       writePage();
     }
@@ -258,7 +296,7 @@ final class ColumnWriterImpl implements ColumnWriter {
   public long getBufferedSizeInMemory() {
     return repetitionLevelColumn.getBufferedSize()
         + definitionLevelColumn.getBufferedSize()
-        + dataColumn.getBufferedSize()
+        + dataColumn.getEncodedSize()
         + pageWriter.getMemSize();
   }
 
@@ -110,5 +110,16 @@ public abstract class ValuesReader {
    * Skips the next value in the page
    */
   abstract public void skip();
+
+  /**
+   * Skips the next n values in the page.
+   * Implementations should override this when they can skip without decoding the values.
+   * @param n the count of values to skip
+   */
+  public void skip(int n) {
+    for (int i = 0; i < n; i++) {
+      skip();
+    }
+  }
 }
 
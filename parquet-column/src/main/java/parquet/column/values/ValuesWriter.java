@@ -34,6 +34,14 @@ public abstract class ValuesWriter {
    */
   public abstract long getBufferedSize();
 
+  /**
+   * used to decide if we want to flush the current row group
+   * @return the size the currently buffered data will take once written (in bytes)
+   */
+  public long getEncodedSize() {
+    return getBufferedSize();
+  }
+
 
   // TODO: maybe consolidate into a getPage
   /**
@@ -100,6 +108,17 @@ public abstract class ValuesWriter {
     throw new UnsupportedOperationException(getClass().getName());
   }
 
+  /**
+   * writes the same value several times
+   * @param value the value to encode
+   * @param count how many times to encode it
+   */
+  public void writeRepeatedInteger(int v, int count) {
+    for (int i = 0; i < count; i++) {
+      writeInteger(v);
+    }
+  }
+
   /**
    * @param value the value to encode
    */
@@ -72,4 +72,20 @@ public class ByteBitPackingValuesReader extends ValuesReader {
     readInteger();
   }
 
+  @Override
+  public void skip(int n) {
+    int leftInDecoded = decoded.length - 1 - decodedPosition;
+    if (n <= leftInDecoded) {
+      decodedPosition += n;
+      return;
+    }
+    n -= leftInDecoded;
+    decodedPosition = decoded.length - 1;
+    // whole groups of values are skipped without unpacking them
+    encodedPos += (n / VALUES_AT_A_TIME) * bitWidth;
+    for (int i = n % VALUES_AT_A_TIME; i > 0; i--) {
+      readInteger();
+    }
+  }
+
 }
@@ -33,6 +33,7 @@ import it.unimi.dsi.fastutil.objects.Object2IntLinkedOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import it.unimi.dsi.fastutil.objects.ObjectIterator;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.Iterator;
 
@@ -42,8 +43,8 @@ import parquet.bytes.BytesUtils;
 import parquet.column.Encoding;
 import parquet.column.page.DictionaryPage;
 import parquet.column.values.ValuesWriter;
-import parquet.column.values.dictionary.IntList.IntIterator;
 import parquet.column.values.plain.PlainValuesWriter;
+import parquet.column.values.rle.RunLengthBitPackingHybridDecoder;
 import parquet.column.values.rle.RunLengthBitPackingHybridEncoder;
 import parquet.io.ParquetEncodingException;
 import parquet.io.api.Binary;
@@ -79,8 +80,20 @@ public abstract class DictionaryValuesWriter extends ValuesWriter {
   /* size in items of the dictionary at the end of last dictionary encoded page (in case the current page falls back to PLAIN) */
   protected int lastUsedDictionarySize;
 
-  /* dictionary encoded values */
-  protected IntList encodedValues = new IntList();
+  /* initial capacity of the buffer holding the encoded dictionary ids, it grows as needed */
+  private static final int ENCODED_VALUES_INITIAL_CAPACITY = 64;
+
+  /* dictionary encoded values, bit packed as they are written on the bit width of the current dictionary */
+  private RunLengthBitPackingHybridEncoder encodedValues;
+
+  /* bit width the values are currently encoded on */
+  private int encodedValuesBitWidth;
+
+  /* count of values written to encodedValues since the last reset */
+  private int encodedValueCount;
+
+  /* content of encodedValues once it has been flushed, until the next reset */
+  private BytesInput encodedValuesBytes;
 
   /* size of raw data, even if dictionary is used, it will not have effect on raw data size, it is used to decide
    * if fall back to plain encoding is better by comparing rawDataByteSize with Encoded data size
@@ -98,6 +111,97 @@ public abstract class DictionaryValuesWriter extends ValuesWriter {
   protected DictionaryValuesWriter(int maxDictionaryByteSize, int initialSize) {
     this.maxDictionaryByteSize = maxDictionaryByteSize;
     this.plainValuesWriter = new PlainValuesWriter(initialSize);
+    // the dictionary is empty
+    this.encodedValues = new RunLengthBitPackingHybridEncoder(0, ENCODED_VALUES_INITIAL_CAPACITY);
+  }
+
+  /**
+   * (re)starts the encoded values on the bit width of the current dictionary.
+   * The bit width grows later on as needed if new entries are added to the dictionary.
+   */
+  private void initEncodedValues() {
+    int bitWidth = BytesUtils.getWidthFromMaxInt(Math.max(getDictionarySize() - 1, 0));
+    if (bitWidth == encodedValuesBitWidth) {
+      // keeps the buffer that has been sized for this column
+      encodedValues.reset();
+    } else {
+      encodedValues = new RunLengthBitPackingHybridEncoder(bitWidth, ENCODED_VALUES_INITIAL_CAPACITY);
+      encodedValuesBitWidth = bitWidth;
+    }
+    encodedValueCount = 0;
+    encodedValuesBytes = null;
+  }
+
+  /**
+   * appends a dictionary id to the current page
+   * @param id the id of the value in the dictionary
+   */
+  protected void writeDictionaryId(int id) {
+    if (BytesUtils.getWidthFromMaxInt(id) > encodedValuesBitWidth) {
+      rebaseEncodedValues(BytesUtils.getWidthFromMaxInt(id));
+    }
+    try {
+      encodedValues.writeInt(id);
+    } catch (IOException e) {
+      throw new ParquetEncodingException("could not encode the value", e);
+    }
+    ++ encodedValueCount;
+  }
+
+  /**
+   * the dictionary outgrew the bit width of the encoded values:
+   * re-encode the values of the current page on the new bit width.
+   * This happens at most once per additional bit for a given page.
+   * @param bitWidth the new bit width
+   */
+  private void rebaseEncodedValues(int bitWidth) {
+    if (DEBUG) LOG.debug("re-encoding " + encodedValueCount + " values from bit width " + encodedValuesBitWidth + " to " + bitWidth);
+    EncodedValuesIterator iterator = encodedValuesIterator();
+    // the values need at least as many bytes on the new bit width
+    int capacity = (int)Math.max(ENCODED_VALUES_INITIAL_CAPACITY, encodedValues.getBufferedSize());
+    RunLengthBitPackingHybridEncoder rebased = new RunLengthBitPackingHybridEncoder(bitWidth, capacity);
+    try {
+      while (iterator.hasNext()) {
+        rebased.writeInt(iterator.next());
+      }
+    } catch (IOException e) {
+      throw new ParquetEncodingException("could not encode the values", e);
+    }
+    encodedValues = rebased;
+    encodedValuesBitWidth = bitWidth;
+    encodedValuesBytes = null;
+  }
+
+  /**
+   * flushes the encoded values. No value can be appended afterwards until the next reset
+   * @return the encoded values of the current page
+   */
+  private BytesInput getEncodedValuesBytes() {
+    if (encodedValuesBytes == null) {
+      try {
+        encodedValuesBytes = encodedValues.toBytes();
+      } catch (IOException e) {
+        throw new ParquetEncodingException("could not encode the values", e);
+      }
+    }
+    return encodedValuesBytes;
+  }
+
+  /**
+   * decodes back the values of the current page.
+   * This is only needed in the uncommon cases of falling back to plain or growing the bit width.
+   * @return an iterator on the dictionary ids written since the last reset
+   */
+  protected EncodedValuesIterator encodedValuesIterator() {
+    if (encodedValueCount == 0) {
+      return new EncodedValuesIterator(null, 0);
+    }
+    try {
+      ByteArrayInputStream in = new ByteArrayInputStream(getEncodedValuesBytes().toByteArray());
+      return new EncodedValuesIterator(new RunLengthBitPackingHybridDecoder(encodedValuesBitWidth, in), encodedValueCount);
+    } catch (IOException e) {
+      throw new ParquetEncodingException("could not read the encoded values", e);
+    }
   }
 
   /**
@@ -120,8 +224,9 @@ public abstract class DictionaryValuesWriter extends ValuesWriter {
       // we free dictionary encoded data
       clearDictionaryContent();
       dictionaryByteSize = 0;
-      encodedValues = new IntList();
     }
+    // the values of the current page are now in the plain values writer
+    initEncodedValues();
   }
 
   protected abstract void fallBackDictionaryEncodedData();
@@ -134,41 +239,41 @@ public abstract class DictionaryValuesWriter extends ValuesWriter {
     return rawDataByteSize;
   }
 
+  @Override
+  public long getEncodedSize() {
+    if (dictionaryTooBig) {
+      // the previous pages of the row group still need their dictionary
+      return plainValuesWriter.getBufferedSize() + lastUsedDictionaryByteSize;
+    }
+    // the values are already bit packed: bit width header + encoded ids + the dictionary page to come
+    return 1 + encodedValues.getEncodedSize() + dictionaryByteSize;
+  }
+
   @Override
   public long getAllocatedSize() {
     // size used in memory
-    return encodedValues.size() * 4 + dictionaryByteSize + plainValuesWriter.getAllocatedSize();
+    return encodedValues.getAllocatedSize() + dictionaryByteSize + plainValuesWriter.getAllocatedSize();
   }
 
   @Override
   public BytesInput getBytes() {
     if (!dictionaryTooBig && getDictionarySize() > 0) {
-      int maxDicId = getDictionarySize() - 1;
-      if (DEBUG) LOG.debug("max dic id " + maxDicId);
-      int bitWidth = BytesUtils.getWidthFromMaxInt(maxDicId);
-
-      // TODO: what is a good initialCapacity?
-      RunLengthBitPackingHybridEncoder encoder = new RunLengthBitPackingHybridEncoder(bitWidth, 64 * 1024);
-      IntIterator iterator = encodedValues.iterator();
-      try {
-        while (iterator.hasNext()) {
-          encoder.writeInt(iterator.next());
-        }
-        // encodes the bit width
-        byte[] bytesHeader = new byte[] { (byte) bitWidth };
-        BytesInput rleEncodedBytes = encoder.toBytes();
-        if (DEBUG) LOG.debug("rle encoded bytes " + rleEncodedBytes.size());
-        BytesInput bytes = concat(BytesInput.from(bytesHeader), rleEncodedBytes);
-        if (firstPage && ((bytes.size() + dictionaryByteSize) > rawDataByteSize)) {
-          fallBackToPlainEncoding();
-        } else {
-          // remember size of dictionary when we last wrote a page
-          lastUsedDictionarySize = getDictionarySize();
-          lastUsedDictionaryByteSize = dictionaryByteSize;
-          return bytes;
-        }
-      } catch (IOException e) {
-        throw new ParquetEncodingException("could not encode the values", e);
+      // the values have been encoded as they were written,
+      // on the bit width of the dictionary at that time
+      int bitWidth = encodedValuesBitWidth;
+      if (DEBUG) LOG.debug("max dic id " + (getDictionarySize() - 1) + " bit width " + bitWidth);
+      // encodes the bit width
+      byte[] bytesHeader = new byte[] { (byte) bitWidth };
+      BytesInput rleEncodedBytes = getEncodedValuesBytes();
+      if (DEBUG) LOG.debug("rle encoded bytes " + rleEncodedBytes.size());
+      BytesInput bytes = concat(BytesInput.from(bytesHeader), rleEncodedBytes);
+      if (firstPage && ((bytes.size() + dictionaryByteSize) > rawDataByteSize)) {
+        fallBackToPlainEncoding();
+      } else {
+        // remember size of dictionary when we last wrote a page
+        lastUsedDictionarySize = getDictionarySize();
+        lastUsedDictionaryByteSize = dictionaryByteSize;
+        return bytes;
       }
     }
     return plainValuesWriter.getBytes();
@@ -185,7 +290,8 @@ public abstract class DictionaryValuesWriter extends ValuesWriter {
 
   @Override
   public void reset() {
-    encodedValues = new IntList();
+    // the bit width is re-based on the current dictionary at each page boundary
+    initEncodedValues();
     plainValuesWriter.reset();
     rawDataByteSize = 0;
   }
@@ -196,6 +302,7 @@ public abstract class DictionaryValuesWriter extends ValuesWriter {
     lastUsedDictionarySize = 0;
     dictionaryTooBig = false;
     clearDictionaryContent();
+    initEncodedValues();
   }
 
   /**
@@ -216,11 +323,52 @@ public abstract class DictionaryValuesWriter extends ValuesWriter {
         plainValuesWriter.
         memUsageString(prefix + " plain:"),
         prefix + " dict:" + dictionaryByteSize,
-        prefix + " values:" + String.valueOf(encodedValues.size() * 4),
+        prefix + " values:" + String.valueOf(encodedValues.getAllocatedSize()),
         prefix
         );
   }
 
+  /**
+   * to iterate on the dictionary ids of the current page
+   * not an actual iterator to avoid autoboxing
+   *
+   */
+  protected static class EncodedValuesIterator {
+
+    private final RunLengthBitPackingHybridDecoder decoder;
+    private final int count;
+    private int current;
+
+    /**
+     * @param decoder the decoder to read the ids from
+     * @param count the count of ids to read
+     */
+    EncodedValuesIterator(RunLengthBitPackingHybridDecoder decoder, int count) {
+      this.decoder = decoder;
+      this.count = count;
+    }
+
+    /**
+     * @return wether there is a next value
+     */
+    public boolean hasNext() {
+      return current < count;
+    }
+
+    /**
+     * @return the next id
+     */
+    public int next() {
+      ++ current;
+      try {
+        return decoder.readInt();
+      } catch (IOException e) {
+        throw new ParquetEncodingException("could not decode the values", e);
+      }
+    }
+
+  }
+
   /**
    *
    */
@@ -248,7 +396,7 @@ public abstract class DictionaryValuesWriter extends ValuesWriter {
           // length as int (4 bytes) + actual bytes
           dictionaryByteSize += 4 + v.length();
         }
-        encodedValues.add(id);
+        writeDictionaryId(id);
         checkAndFallbackIfNeeded();
       } else {
         plainValuesWriter.writeBytes(v);
@@ -294,7 +442,7 @@ public abstract class DictionaryValuesWriter extends ValuesWriter {
       }
 
       //fall back to plain encoding
-      IntIterator iterator = encodedValues.iterator();
+      EncodedValuesIterator iterator = encodedValuesIterator();
       while (iterator.hasNext()) {
         int id = iterator.next();
         plainValuesWriter.writeBytes(reverseDictionary[id]);
@@ -328,7 +476,7 @@ public abstract class DictionaryValuesWriter extends ValuesWriter {
           longDictionaryContent.put(v, id);
           dictionaryByteSize += 8;
         }
-        encodedValues.add(id);
+        writeDictionaryId(id);
         checkAndFallbackIfNeeded();
       } else {
         plainValuesWriter.writeLong(v);
@@ -372,7 +520,7 @@ public abstract class DictionaryValuesWriter extends ValuesWriter {
       }
 
       //fall back to plain encoding
-      IntIterator iterator = encodedValues.iterator();
+      EncodedValuesIterator iterator = encodedValuesIterator();
       while (iterator.hasNext()) {
         int id = iterator.next();
         plainValuesWriter.writeLong(reverseDictionary[id]);
@@ -406,7 +554,7 @@ public abstract class DictionaryValuesWriter extends ValuesWriter {
           doubleDictionaryContent.put(v, id);
           dictionaryByteSize += 8;
         }
-        encodedValues.add(id);
+        writeDictionaryId(id);
         checkAndFallbackIfNeeded();
       } else {
         plainValuesWriter.writeDouble(v);
@@ -450,7 +598,7 @@ public abstract class DictionaryValuesWriter extends ValuesWriter {
       }
 
       //fall back to plain encoding
-      IntIterator iterator = encodedValues.iterator();
+      EncodedValuesIterator iterator = encodedValuesIterator();
       while (iterator.hasNext()) {
         int id = iterator.next();
         plainValuesWriter.writeDouble(reverseDictionary[id]);
@@ -484,7 +632,7 @@ public abstract class DictionaryValuesWriter extends ValuesWriter {
           intDictionaryContent.put(v, id);
           dictionaryByteSize += 4;
         }
-        encodedValues.add(id);
+        writeDictionaryId(id);
         checkAndFallbackIfNeeded();
       } else {
         plainValuesWriter.writeInteger(v);
@@ -530,7 +678,7 @@ public abstract class DictionaryValuesWriter extends ValuesWriter {
       }
 
       //fall back to plain encoding
-      IntIterator iterator = encodedValues.iterator();
+      EncodedValuesIterator iterator = encodedValuesIterator();
       while (iterator.hasNext()) {
         int id = iterator.next();
         plainValuesWriter.writeInteger(reverseDictionary[id]);
@@ -564,7 +712,7 @@ public abstract class DictionaryValuesWriter extends ValuesWriter {
           floatDictionaryContent.put(v, id);
           dictionaryByteSize += 4;
         }
-        encodedValues.add(id);
+        writeDictionaryId(id);
         checkAndFallbackIfNeeded();
       } else {
         plainValuesWriter.writeFloat(v);
@@ -608,7 +756,7 @@ public abstract class DictionaryValuesWriter extends ValuesWriter {
       }
 
       //fall back to plain encoding
-      IntIterator iterator = encodedValues.iterator();
+      EncodedValuesIterator iterator = encodedValuesIterator();
       while (iterator.hasNext()) {
         int id = iterator.next();
         plainValuesWriter.writeFloat(reverseDictionary[id]);
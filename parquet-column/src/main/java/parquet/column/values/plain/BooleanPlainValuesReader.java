@@ -54,6 +54,11 @@ public class BooleanPlainValuesReader extends ValuesReader {
     in.readInteger();
   }
 
+  @Override
+  public void skip(int n) {
+    in.skip(n);
+  }
+
   /**
    * {@inheritDoc}
    * @see parquet.column.values.ValuesReader#initFromPage(byte[], int)
@@ -56,6 +56,11 @@ public class FixedLenByteArrayPlainValuesReader extends ValuesReader {
     offset += length;
   }
 
+  @Override
+  public void skip(int n) {
+    offset += n * length;
+  }
+
   @Override
   public int initFromPage(long valueCount, byte[] in, int offset)
       throws IOException {
@@ -49,14 +49,23 @@ abstract public class PlainValuesReader extends ValuesReader {
 
   public static class DoublePlainValuesReader extends PlainValuesReader {
 
-  @Override
-  public void skip() {
-    try {
-      in.skipBytes(8);
-    } catch (IOException e) {
-      throw new ParquetDecodingException("could not skip double", e);
+    @Override
+    public void skip() {
+      try {
+        in.skipBytes(8);
+      } catch (IOException e) {
+        throw new ParquetDecodingException("could not skip double", e);
+      }
+    }
+
+    @Override
+    public void skip(int n) {
+      try {
+        in.skipBytes(n * 8);
+      } catch (IOException e) {
+        throw new ParquetDecodingException("could not skip " + n + " doubles", e);
+      }
     }
-  }
 
     @Override
     public double readDouble() {
@@ -79,6 +88,15 @@ abstract public class PlainValuesReader extends ValuesReader {
       }
     }
 
+    @Override
+    public void skip(int n) {
+      try {
+        in.skipBytes(n * 4);
+      } catch (IOException e) {
+        throw new ParquetDecodingException("could not skip " + n + " floats", e);
+      }
+    }
+
     @Override
     public float readFloat() {
       try {
@@ -102,6 +120,15 @@ abstract public class PlainValuesReader extends ValuesReader {
       }
     }
 
+    @Override
+    public void skip(int n) {
+      try {
+        in.skipBytes(n * 4);
+      } catch (IOException e) {
+        throw new ParquetDecodingException("could not skip " + n + " ints", e);
+      }
+    }
+
     @Override
     public int readInteger() {
       try {
@@ -123,6 +150,15 @@ abstract public class PlainValuesReader extends ValuesReader {
       }
     }
 
+    @Override
+    public void skip(int n) {
+      try {
+        in.skipBytes(n * 8);
+      } catch (IOException e) {
+        throw new ParquetDecodingException("could not skip " + n + " longs", e);
+      }
+    }
+
     @Override
     public long readLong() {
       try {
@@ -20,7 +20,7 @@ import static parquet.Log.DEBUG;
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.util.Arrays;
 
 import parquet.Log;
 import parquet.Preconditions;
@@ -46,7 +46,13 @@ public class RunLengthBitPackingHybridDecoder {
   private MODE mode;
   private int currentCount;
   private int currentValue;
-  private int[] currentBuffer;
+
+  /* the bytes of the current bit-packed-run, unpacked 8 values at a time as they are read */
+  private byte[] packedBytes = new byte[0];
+  /* index in the current bit-packed-run of the next value to read */
+  private int packedValueIndex;
+  /* the last 8 values unpacked from packedBytes */
+  private final int[] currentBuffer = new int[8];
 
   public RunLengthBitPackingHybridDecoder(int bitWidth, ByteArrayInputStream in) {
     if (DEBUG) LOG.debug("decoding bitWidth " + bitWidth);
@@ -68,7 +74,11 @@ public class RunLengthBitPackingHybridDecoder {
       result = currentValue;
       break;
     case PACKED:
-      result = currentBuffer[currentBuffer.length - 1 - currentCount];
+      if ((packedValueIndex & 7) == 0) {
+        unpackNextGroup();
+      }
+      result = currentBuffer[packedValueIndex & 7];
+      ++ packedValueIndex;
       break;
     default:
       throw new ParquetDecodingException("not a valid mode " + mode);
@@ -76,8 +86,88 @@ public class RunLengthBitPackingHybridDecoder {
     return result;
   }
 
-  private void readNext() throws IOException {	
-	Preconditions.checkArgument(in.available() > 0, "Reading past RLE/BitPacking stream.");
+  /**
+   * Reads the next length values in bulk.
+   * rle-runs are copied with a fill and the groups of 8 values of bit-packed-runs
+   * are unpacked straight into the destination.
+   *
+   * @param values the destination
+   * @param offset where to write the first value in values
+   * @param length how many values to read
+   * @throws IOException
+   */
+  public void readInts(int[] values, int offset, int length) throws IOException {
+    final int end = offset + length;
+    while (offset < end) {
+      if (currentCount == 0) {
+        readNext();
+      }
+      final int count = Math.min(currentCount, end - offset);
+      switch (mode) {
+      case RLE:
+        Arrays.fill(values, offset, offset + count, currentValue);
+        offset += count;
+        break;
+      case PACKED:
+        final int runEnd = offset + count;
+        // values left from the group that was last unpacked
+        while (offset < runEnd && (packedValueIndex & 7) != 0) {
+          values[offset ++] = currentBuffer[packedValueIndex & 7];
+          ++ packedValueIndex;
+        }
+        // whole groups
+        for (int byteIndex = (packedValueIndex >>> 3) * bitWidth; offset + 8 <= runEnd; byteIndex += bitWidth) {
+          packer.unpack8Values(packedBytes, byteIndex, values, offset);
+          offset += 8;
+          packedValueIndex += 8;
+        }
+        // beginning of the next group
+        if (offset < runEnd) {
+          unpackNextGroup();
+          while (offset < runEnd) {
+            values[offset ++] = currentBuffer[packedValueIndex & 7];
+            ++ packedValueIndex;
+          }
+        }
+        break;
+      default:
+        throw new ParquetDecodingException("not a valid mode " + mode);
+      }
+      currentCount -= count;
+    }
+  }
+
+  /**
+   * Skips the next n values: rle-runs are jumped over
+   * and only the group of 8 values we land in is unpacked in bit-packed-runs
+   *
+   * @param n how many values to skip
+   * @throws IOException
+   */
+  public void skip(int n) throws IOException {
+    while (n > 0) {
+      if (currentCount == 0) {
+        readNext();
+      }
+      final int count = Math.min(currentCount, n);
+      currentCount -= count;
+      n -= count;
+      if (mode == MODE.PACKED) {
+        packedValueIndex += count;
+        if ((packedValueIndex & 7) != 0) {
+          // the next value is in the middle of a group
+          unpackNextGroup();
+        }
+      }
+    }
+  }
+
+  private void unpackNextGroup() {
+    packer.unpack8Values(packedBytes, (packedValueIndex >>> 3) * bitWidth, currentBuffer, 0);
+  }
+
+  private void readNext() throws IOException {
+    Preconditions.checkArgument(in.available() > 0, "Reading past RLE/BitPacking stream.");
     final int header = BytesUtils.readUnsignedVarInt(in);
     mode = (header & 1) == 0 ? MODE.RLE : MODE.PACKED;
     switch (mode) {
@@ -90,15 +180,16 @@ public class RunLengthBitPackingHybridDecoder {
       int numGroups = header >>> 1;
       currentCount = numGroups * 8;
       if (DEBUG) LOG.debug("reading " + currentCount + " values BIT PACKED");
-      currentBuffer = new int[currentCount]; // TODO: reuse a buffer
-      byte[] bytes = new byte[numGroups * bitWidth];
-      // At the end of the file RLE data though, there might not be that many bytes left. 
-      int bytesToRead = (int)Math.ceil(currentCount * bitWidth / 8.0);
-      bytesToRead = Math.min(bytesToRead, in.available());
-      new DataInputStream(in).readFully(bytes, 0, bytesToRead);
-      for (int valueIndex = 0, byteIndex = 0; valueIndex < currentCount; valueIndex += 8, byteIndex += bitWidth) {
-        packer.unpack8Values(bytes, byteIndex, currentBuffer, valueIndex);
+      packedValueIndex = 0;
+      int byteCount = numGroups * bitWidth;
+      if (packedBytes.length < byteCount) {
+        packedBytes = new byte[byteCount];
       }
+      // At the end of the file RLE data though, there might not be that many bytes left.
+      int bytesToRead = Math.min(byteCount, in.available());
+      new DataInputStream(in).readFully(packedBytes, 0, bytesToRead);
+      // the missing bytes are padding
+      Arrays.fill(packedBytes, bytesToRead, byteCount, (byte) 0);
       break;
     default:
       throw new ParquetDecodingException("not a valid mode " + mode);
@@ -180,6 +180,22 @@ public class RunLengthBitPackingHybridEncoder {
     }
   }
 
+  /**
+   * Writes the same value count times.
+   * Once the value is known to be part of an rle-run, the rest of the run is only counted
+   *
+   * @param value the value to write
+   * @param count how many times to write it
+   * @throws IOException
+   */
+  public void writeRepeatedInt(int value, int count) throws IOException {
+    for (; count > 0 && (value != previousValue || repeatCount < 8); --count) {
+      writeInt(value);
+    }
+    // all the remaining values extend the current rle-run
+    repeatCount += count;
+  }
+
   private void writeOrAppendBitPackedRun() throws IOException {
     if (bitPackedGroupCount >= 63) {
       // we've packed as many values as we can for this run,
@@ -282,6 +298,34 @@ public class RunLengthBitPackingHybridEncoder {
     return baos.size();
   }
 
+  /**
+   * @return the size of the encoded data once flushed: what has been written to the buffer
+   * plus the values still pending in the current rle-run or bit-packed group
+   */
+  public long getEncodedSize() {
+    long size = baos.size();
+    if (repeatCount >= 8) {
+      // rle-header + the repeated-value
+      size += varIntSize(repeatCount << 1) + BytesUtils.paddedByteCountFromBits(bitWidth);
+    } else if (numBufferedValues > 0) {
+      // the group is padded to 8 values, it may need a new bit-packed-header
+      size += bitWidth;
+      if (bitPackedRunHeaderPointer == -1 || bitPackedGroupCount >= 63) {
+        ++size;
+      }
+    }
+    return size;
+  }
+
+  private static int varIntSize(int value) {
+    int size = 1;
+    while ((value & 0xFFFFFF80) != 0) {
+      value >>>= 7;
+      ++size;
+    }
+    return size;
+  }
+
   public long getAllocatedSize() {
     return baos.getCapacity();
   }
@@ -24,14 +24,20 @@ import parquet.column.values.ValuesReader;
 import parquet.io.ParquetDecodingException;
 
 /**
- * This ValuesReader does all the reading in {@link #initFromPage}
- * and stores the values in an in memory buffer, which is less than ideal.
+ * This ValuesReader decodes the values in bulk, a batch at a time,
+ * and serves them from an in memory buffer.
  *
  * @author Alex Levenson
  */
 public class RunLengthBitPackingHybridValuesReader extends ValuesReader {
+  private static final int BUFFER_SIZE = 1024;
+
   private final int bitWidth;
   private RunLengthBitPackingHybridDecoder decoder;
+  private int[] buffer;
+  private int bufferedCount;
+  private int bufferIndex;
+  private int remainingCount;
 
   public RunLengthBitPackingHybridValuesReader(int bitWidth) {
     this.bitWidth = bitWidth;
@@ -43,6 +49,10 @@ public class RunLengthBitPackingHybridValuesReader extends ValuesReader {
     //       we should address this here and elsewhere
     int valueCount = Ints.checkedCast(valueCountL);
 
+    bufferedCount = 0;
+    bufferIndex = 0;
+    remainingCount = valueCount;
+
     if (valueCount <= 0) {
       // readInteger() will never be called,
       // there is no data to read
@@ -53,6 +63,11 @@ public class RunLengthBitPackingHybridValuesReader extends ValuesReader {
     int length = BytesUtils.readIntLittleEndian(in);
 
     decoder = new RunLengthBitPackingHybridDecoder(bitWidth, in);
+    // the buffer grows when a page has more values than the previous ones
+    int bufferSize = Math.min(valueCount, BUFFER_SIZE);
+    if (buffer == null || buffer.length < bufferSize) {
+      buffer = new int[bufferSize];
+    }
 
     // 4 is for the length which is stored as 4 bytes little endian
     return offset + length + 4;
@@ -60,15 +75,47 @@ public class RunLengthBitPackingHybridValuesReader extends ValuesReader {
 
   @Override
   public int readInteger() {
+    if (bufferIndex == bufferedCount) {
+      fillBuffer();
+    }
+    return buffer[bufferIndex ++];
+  }
+
+  private void fillBuffer() {
+    // we know exactly how many values are in the page, so we never read past the end of the stream
+    int count = Math.min(buffer.length, remainingCount);
+    if (count == 0) {
+      throw new ParquetDecodingException("Reading past the end of the page");
+    }
     try {
-      return decoder.readInt();
+      decoder.readInts(buffer, 0, count);
     } catch (IOException e) {
       throw new ParquetDecodingException(e);
     }
+    remainingCount -= count;
+    bufferedCount = count;
+    bufferIndex = 0;
   }
 
   @Override
   public void skip() {
     readInteger();
   }
+
+  @Override
+  public void skip(int n) {
+    int leftInBuffer = bufferedCount - bufferIndex;
+    if (n <= leftInBuffer) {
+      bufferIndex += n;
+      return;
+    }
+    n -= leftInBuffer;
+    bufferIndex = bufferedCount;
+    try {
+      decoder.skip(n);
+    } catch (IOException e) {
+      throw new ParquetDecodingException(e);
+    }
+    remainingCount -= n;
+  }
 }
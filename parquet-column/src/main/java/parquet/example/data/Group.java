@@ -78,6 +78,11 @@ abstract public class Group extends GroupValueSource {
 
   abstract public Group getGroup(int fieldIndex, int index);
 
+  /**
+   * removes all the values so that this group can be refilled
+   */
+  abstract public void clear();
+
   public Group asGroup() {
     return this;
   }
@@ -29,6 +29,8 @@ public class SimpleGroup extends Group {
 
   private final GroupType schema;
   private final List<Object>[] data;
+  // groups removed by clear() to be reused by addGroup(), created lazily
+  private List<SimpleGroup>[] clearedGroups;
 
   @SuppressWarnings("unchecked")
   public SimpleGroup(GroupType schema) {
@@ -71,11 +73,42 @@ public class SimpleGroup extends Group {
 
   @Override
   public Group addGroup(int fieldIndex) {
-    SimpleGroup g = new SimpleGroup(schema.getType(fieldIndex).asGroupType());
+    SimpleGroup g;
+    List<SimpleGroup> reusable = clearedGroups == null ? null : clearedGroups[fieldIndex];
+    if (reusable != null && !reusable.isEmpty()) {
+      g = reusable.remove(reusable.size() - 1);
+      g.clear();
+    } else {
+      g = new SimpleGroup(schema.getType(fieldIndex).asGroupType());
+    }
     data[fieldIndex].add(g);
     return g;
   }
 
+  /**
+   * removes all the values so that this group can be refilled.
+   * The nested groups are kept to be reused by {@link #addGroup(int)}
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public void clear() {
+    for (int i = 0; i < data.length; i++) {
+      List<Object> values = data[i];
+      if (!schema.getType(i).isPrimitive() && !values.isEmpty()) {
+        if (clearedGroups == null) {
+          clearedGroups = new List[data.length];
+        }
+        if (clearedGroups[i] == null) {
+          clearedGroups[i] = new ArrayList<SimpleGroup>();
+        }
+        for (Object value : values) {
+          clearedGroups[i].add((SimpleGroup)value);
+        }
+      }
+      values.clear();
+    }
+  }
+
   @Override
   public Group getGroup(int fieldIndex, int index) {
     return (Group)getValue(fieldIndex, index);
@@ -16,6 +16,7 @@
 package parquet.example.data.simple.convert;
 
 import parquet.example.data.Group;
+import parquet.example.data.GroupFactory;
 import parquet.example.data.simple.SimpleGroupFactory;
 import parquet.io.api.GroupConverter;
 import parquet.io.api.RecordMaterializer;
@@ -23,16 +24,37 @@ import parquet.schema.MessageType;
 
 public class GroupRecordConverter extends RecordMaterializer<Group> {
 
-  private final SimpleGroupFactory simpleGroupFactory;
+  private final GroupFactory groupFactory;
 
   private SimpleGroupConverter root;
 
   public GroupRecordConverter(MessageType schema) {
-    this.simpleGroupFactory = new SimpleGroupFactory(schema);
+    this(schema, false);
+  }
+
+  /**
+   * @param schema the requested schema
+   * @param reuseRecords if true the same group is cleared and refilled for every record
+   */
+  public GroupRecordConverter(MessageType schema, boolean reuseRecords) {
+    this(schema, new SimpleGroupFactory(schema), reuseRecords);
+  }
+
+  /**
+   * @param schema the requested schema
+   * @param groupFactory creates the groups for the schema (for example SimpleGroupFactory or TypedGroupFactory)
+   * @param reuseRecords if true the same group is cleared and refilled for every record
+   */
+  public GroupRecordConverter(MessageType schema, GroupFactory groupFactory, final boolean reuseRecords) {
+    this.groupFactory = groupFactory;
     this.root = new SimpleGroupConverter(null, 0, schema) {
       @Override
       public void start() {
-        this.current = simpleGroupFactory.newGroup();
+        if (reuseRecords && this.current != null) {
+          this.current.clear();
+        } else {
+          this.current = GroupRecordConverter.this.groupFactory.newGroup();
+        }
       }
 
       @Override
@@ -0,0 +1,346 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.example.data.typed;
+
+import java.util.Arrays;
+
+import parquet.example.data.Group;
+import parquet.io.api.Binary;
+import parquet.io.api.RecordConsumer;
+import parquet.schema.GroupType;
+import parquet.schema.Type;
+
+/**
+ * A Group that stores the values of each field in an array of the primitive type of the field
+ * (int[], long[], float[], double[], boolean[]) instead of boxing them.
+ * The repetition count of each field is the count of values in its array.
+ */
+public class TypedGroup extends Group {
+
+  private static final int KIND_INT = 0;
+  private static final int KIND_LONG = 1;
+  private static final int KIND_FLOAT = 2;
+  private static final int KIND_DOUBLE = 3;
+  private static final int KIND_BOOLEAN = 4;
+  private static final int KIND_BINARY = 5;
+  private static final int KIND_GROUP = 6;
+
+  /**
+   * What depends only on the schema, shared by all the groups of the same type
+   */
+  static final class Layout {
+    private final GroupType schema;
+    private final int[] kinds;
+    private final boolean[] repeated;
+    private final Layout[] children;
+
+    Layout(GroupType schema) {
+      this.schema = schema;
+      int fieldCount = schema.getFieldCount();
+      this.kinds = new int[fieldCount];
+      this.repeated = new boolean[fieldCount];
+      this.children = new Layout[fieldCount];
+      for (int i = 0; i < fieldCount; i++) {
+        Type type = schema.getType(i);
+        repeated[i] = type.isRepetition(Type.Repetition.REPEATED);
+        if (type.isPrimitive()) {
+          switch (type.asPrimitiveType().getPrimitiveTypeName()) {
+          case INT32:
+            kinds[i] = KIND_INT;
+            break;
+          case INT64:
+            kinds[i] = KIND_LONG;
+            break;
+          case FLOAT:
+            kinds[i] = KIND_FLOAT;
+            break;
+          case DOUBLE:
+            kinds[i] = KIND_DOUBLE;
+            break;
+          case BOOLEAN:
+            kinds[i] = KIND_BOOLEAN;
+            break;
+          default:
+            kinds[i] = KIND_BINARY;
+          }
+        } else {
+          kinds[i] = KIND_GROUP;
+          children[i] = new Layout(type.asGroupType());
+        }
+      }
+    }
+  }
+
+  private final Layout layout;
+  /* for each field an int[], long[], float[], double[], boolean[], Binary[] or TypedGroup[] allocated on first add */
+  private final Object[] values;
+  private final int[] counts;
+
+  public TypedGroup(GroupType schema) {
+    this(new Layout(schema));
+  }
+
+  TypedGroup(Layout layout) {
+    this.layout = layout;
+    this.values = new Object[layout.kinds.length];
+    this.counts = new int[layout.kinds.length];
+  }
+
+  @Override
+  public String toString() {
+    return toString("");
+  }
+
+  public String toString(String indent) {
+    StringBuilder result = new StringBuilder();
+    for (int field = 0; field < counts.length; field++) {
+      String name = layout.schema.getFieldName(field);
+      for (int index = 0; index < counts[field]; index++) {
+        result.append(indent).append(name);
+        if (layout.kinds[field] == KIND_GROUP) {
+          result.append("\n").append(getTypedGroup(field, index).toString(indent + "  "));
+        } else {
+          result.append(": ").append(getValueToString(field, index)).append("\n");
+        }
+      }
+    }
+    return result.toString();
+  }
+
+  /**
+   * @return the index of the next value of the field after making room for it
+   */
+  private int newValueIndex(int fieldIndex, int kind) {
+    if (layout.kinds[fieldIndex] != kind) {
+      throw new IllegalArgumentException("field " + fieldIndex + " (" + layout.schema.getFieldName(fieldIndex) + ") of type " + layout.schema.getType(fieldIndex) + " can not store this value");
+    }
+    int count = counts[fieldIndex];
+    if (count > 0 && !layout.repeated[fieldIndex]) {
+      throw new IllegalStateException("field " + fieldIndex + " (" + layout.schema.getFieldName(fieldIndex) + ") can not have more than one value: " + getValueToString(fieldIndex, 0));
+    }
+    Object array = values[fieldIndex];
+    if (array == null) {
+      values[fieldIndex] = newArray(kind, layout.repeated[fieldIndex] ? 4 : 1);
+    } else if (count == length(kind, array)) {
+      values[fieldIndex] = grow(kind, array, count * 2);
+    }
+    counts[fieldIndex] = count + 1;
+    return count;
+  }
+
+  private static Object newArray(int kind, int length) {
+    switch (kind) {
+    case KIND_INT: return new int[length];
+    case KIND_LONG: return new long[length];
+    case KIND_FLOAT: return new float[length];
+    case KIND_DOUBLE: return new double[length];
+    case KIND_BOOLEAN: return new boolean[length];
+    case KIND_BINARY: return new Binary[length];
+    default: return new TypedGroup[length];
+    }
+  }
+
+  private static int length(int kind, Object array) {
+    switch (kind) {
+    case KIND_INT: return ((int[])array).length;
+    case KIND_LONG: return ((long[])array).length;
+    case KIND_FLOAT: return ((float[])array).length;
+    case KIND_DOUBLE: return ((double[])array).length;
+    case KIND_BOOLEAN: return ((boolean[])array).length;
+    default: return ((Object[])array).length;
+    }
+  }
+
+  private static Object grow(int kind, Object array, int length) {
+    switch (kind) {
+    case KIND_INT: return Arrays.copyOf((int[])array, length);
+    case KIND_LONG: return Arrays.copyOf((long[])array, length);
+    case KIND_FLOAT: return Arrays.copyOf((float[])array, length);
+    case KIND_DOUBLE: return Arrays.copyOf((double[])array, length);
+    case KIND_BOOLEAN: return Arrays.copyOf((boolean[])array, length);
+    default: return Arrays.copyOf((Object[])array, length);
+    }
+  }
+
+  private Object getValues(int fieldIndex, int index) {
+    if (index >= counts[fieldIndex]) {
+      throw new RuntimeException("not found " + fieldIndex + "(" + layout.schema.getFieldName(fieldIndex) + ") element number " + index + " in group:\n" + this);
+    }
+    return values[fieldIndex];
+  }
+
+  @Override
+  public void add(int fieldIndex, int value) {
+    if (layout.kinds[fieldIndex] == KIND_LONG) {
+      add(fieldIndex, (long)value);
+      return;
+    }
+    int i = newValueIndex(fieldIndex, KIND_INT);
+    ((int[])values[fieldIndex])[i] = value;
+  }
+
+  @Override
+  public void add(int fieldIndex, long value) {
+    int i = newValueIndex(fieldIndex, KIND_LONG);
+    ((long[])values[fieldIndex])[i] = value;
+  }
+
+  @Override
+  public void add(int fieldIndex, float value) {
+    if (layout.kinds[fieldIndex] == KIND_DOUBLE) {
+      add(fieldIndex, (double)value);
+      return;
+    }
+    int i = newValueIndex(fieldIndex, KIND_FLOAT);
+    ((float[])values[fieldIndex])[i] = value;
+  }
+
+  @Override
+  public void add(int fieldIndex, double value) {
+    int i = newValueIndex(fieldIndex, KIND_DOUBLE);
+    ((double[])values[fieldIndex])[i] = value;
+  }
+
+  @Override
+  public void add(int fieldIndex, boolean value) {
+    int i = newValueIndex(fieldIndex, KIND_BOOLEAN);
+    ((boolean[])values[fieldIndex])[i] = value;
+  }
+
+  @Override
+  public void add(int fieldIndex, Binary value) {
+    int i = newValueIndex(fieldIndex, KIND_BINARY);
+    ((Binary[])values[fieldIndex])[i] = value;
+  }
+
+  @Override
+  public void add(int fieldIndex, String value) {
+    add(fieldIndex, Binary.fromString(value));
+  }
+
+  @Override
+  public Group addGroup(int fieldIndex) {
+    int i = newValueIndex(fieldIndex, KIND_GROUP);
+    TypedGroup[] groups = (TypedGroup[])values[fieldIndex];
+    // groups left by clear() are reused
+    if (groups[i] == null) {
+      groups[i] = new TypedGroup(layout.children[fieldIndex]);
+    } else {
+      groups[i].clear();
+    }
+    return groups[i];
+  }
+
+  /**
+   * removes all the values so that this group can be refilled.
+   * The arrays and nested groups are kept to be reused
+   */
+  @Override
+  public void clear() {
+    Arrays.fill(counts, 0);
+  }
+
+  @Override
+  public Group getGroup(int fieldIndex, int index) {
+    return getTypedGroup(fieldIndex, index);
+  }
+
+  public TypedGroup getTypedGroup(int fieldIndex, int index) {
+    return ((TypedGroup[])getValues(fieldIndex, index))[index];
+  }
+
+  @Override
+  public int getFieldRepetitionCount(int fieldIndex) {
+    return counts[fieldIndex];
+  }
+
+  @Override
+  public int getInteger(int fieldIndex, int index) {
+    return ((int[])getValues(fieldIndex, index))[index];
+  }
+
+  public long getLong(int fieldIndex, int index) {
+    return ((long[])getValues(fieldIndex, index))[index];
+  }
+
+  public float getFloat(int fieldIndex, int index) {
+    return ((float[])getValues(fieldIndex, index))[index];
+  }
+
+  public double getDouble(int fieldIndex, int index) {
+    return ((double[])getValues(fieldIndex, index))[index];
+  }
+
+  @Override
+  public boolean getBoolean(int fieldIndex, int index) {
+    return ((boolean[])getValues(fieldIndex, index))[index];
+  }
+
+  @Override
+  public Binary getBinary(int fieldIndex, int index) {
+    return ((Binary[])getValues(fieldIndex, index))[index];
+  }
+
+  @Override
+  public String getString(int fieldIndex, int index) {
+    return getBinary(fieldIndex, index).toStringUsingUTF8();
+  }
+
+  @Override
+  public String getValueToString(int fieldIndex, int index) {
+    switch (layout.kinds[fieldIndex]) {
+    case KIND_INT: return String.valueOf(getInteger(fieldIndex, index));
+    case KIND_LONG: return String.valueOf(getLong(fieldIndex, index));
+    case KIND_FLOAT: return String.valueOf(getFloat(fieldIndex, index));
+    case KIND_DOUBLE: return String.valueOf(getDouble(fieldIndex, index));
+    case KIND_BOOLEAN: return String.valueOf(getBoolean(fieldIndex, index));
+    case KIND_BINARY: return getString(fieldIndex, index);
+    default: return String.valueOf(getTypedGroup(fieldIndex, index));
+    }
+  }
+
+  @Override
+  public GroupType getType() {
+    return layout.schema;
+  }
+
+  @Override
+  public void writeValue(int field, int index, RecordConsumer recordConsumer) {
+    switch (layout.kinds[field]) {
+    case KIND_INT:
+      recordConsumer.addInteger(getInteger(field, index));
+      break;
+    case KIND_LONG:
+      recordConsumer.addLong(getLong(field, index));
+      break;
+    case KIND_FLOAT:
+      recordConsumer.addFloat(getFloat(field, index));
+      break;
+    case KIND_DOUBLE:
+      recordConsumer.addDouble(getDouble(field, index));
+      break;
+    case KIND_BOOLEAN:
+      recordConsumer.addBoolean(getBoolean(field, index));
+      break;
+    case KIND_BINARY:
+      recordConsumer.addBinary(getBinary(field, index));
+      break;
+    default:
+      throw new IllegalArgumentException("field " + field + " (" + layout.schema.getFieldName(field) + ") is a group");
+    }
+  }
+
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.example.data.typed;
+
+import parquet.example.data.Group;
+import parquet.example.data.GroupFactory;
+import parquet.schema.MessageType;
+
+/**
+ * Creates {@link TypedGroup}s, the schema dependent layout is computed once
+ */
+public class TypedGroupFactory extends GroupFactory {
+
+  private final TypedGroup.Layout layout;
+
+  public TypedGroupFactory(MessageType schema) {
+    this.layout = new TypedGroup.Layout(schema);
+  }
+
+  @Override
+  public Group newGroup() {
+    return new TypedGroup(layout);
+  }
+
+}
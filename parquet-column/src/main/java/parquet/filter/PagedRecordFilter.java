@@ -20,7 +20,7 @@ import parquet.column.ColumnReader;
 /**
  * Filter which will only materialize a page worth of results.
  */
-public final class PagedRecordFilter implements RecordFilter {
+public final class PagedRecordFilter implements SkippingRecordFilter {
 
   private final long startPos;
   private final long endPos;
@@ -58,4 +58,22 @@ public final class PagedRecordFilter implements RecordFilter {
     return (( currentPos >= startPos ) && ( currentPos < endPos ));
   }
 
+  /**
+   * The records before the page and all the records after it can be skipped.
+   */
+  @Override
+  public long skipRecords(long maxCount) {
+    final long nextPos = currentPos + 1;
+    final long toSkip;
+    if (nextPos < startPos) {
+      toSkip = Math.min(startPos - nextPos, maxCount);
+    } else if (nextPos >= endPos) {
+      toSkip = maxCount;
+    } else {
+      toSkip = 0;
+    }
+    currentPos += toSkip;
+    return toSkip;
+  }
+
 }
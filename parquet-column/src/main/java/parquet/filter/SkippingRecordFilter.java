@@ -0,0 +1,32 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.filter;
+
+/**
+ * A filter that knows in advance that a number of the upcoming records will not match.
+ * Those records are skipped in bulk in the columns instead of being assembled one at a time.
+ */
+public interface SkippingRecordFilter extends RecordFilter {
+
+  /**
+   * Called before {@link #isMatch()}. The filter accounts for the returned records as if
+   * {@link #isMatch()} had been called for each of them and returned false.
+   * @param maxCount the count of records left
+   * @return how many of the next records can be skipped (at most maxCount)
+   */
+  long skipRecords(long maxCount);
+
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.io;
+
+import parquet.column.ColumnReader;
+
+/**
+ * The base class of the readers generated by {@link RecordReaderCompiler}.
+ *
+ * @param <T> the type of the materialized records
+ */
+public abstract class CompiledRecordReader<T> extends RecordReader<T> {
+
+  private RecordReaderImplementation<T> interpreter;
+
+  void setInterpreter(RecordReaderImplementation<T> interpreter) {
+    this.interpreter = interpreter;
+  }
+
+  /**
+   * @return the interpreter this reader was compiled from
+   */
+  RecordReaderImplementation<T> getInterpreter() {
+    return interpreter;
+  }
+
+  /**
+   * binds the reader to the columns of another row group
+   * @param columnReaders the column reader of each state
+   */
+  protected abstract void bind(ColumnReader[] columnReaders);
+}
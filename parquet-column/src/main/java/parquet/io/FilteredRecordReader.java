@@ -18,6 +18,7 @@ package parquet.io;
 import parquet.column.ColumnReader;
 import parquet.column.impl.ColumnReadStoreImpl;
 import parquet.filter.RecordFilter;
+import parquet.filter.SkippingRecordFilter;
 import parquet.filter.UnboundRecordFilter;
 import parquet.io.api.RecordMaterializer;
 
@@ -28,8 +29,9 @@ import parquet.io.api.RecordMaterializer;
  */
 class FilteredRecordReader<T> extends RecordReaderImplementation<T> {
 
-  private final RecordFilter recordFilter;
-  private final long recordCount;
+  private final UnboundRecordFilter unboundFilter;
+  private RecordFilter recordFilter;
+  private long recordCount;
   private long recordsRead = 0;
 
   /**
@@ -41,6 +43,7 @@ class FilteredRecordReader<T> extends RecordReaderImplementation<T> {
   public FilteredRecordReader(MessageColumnIO root, RecordMaterializer<T> recordMaterializer, boolean validating,
                               ColumnReadStoreImpl columnStore, UnboundRecordFilter unboundFilter, long recordCount) {
     super(root, recordMaterializer, validating, columnStore);
+    this.unboundFilter = unboundFilter;
     this.recordCount = recordCount;
     if ( unboundFilter != null ) {
       recordFilter = unboundFilter.bind(getColumnReaders());
@@ -49,6 +52,23 @@ class FilteredRecordReader<T> extends RecordReaderImplementation<T> {
     }
   }
 
+  @Override
+  boolean isReusableFor(MessageColumnIO root, RecordMaterializer<?> recordMaterializer, UnboundRecordFilter unboundFilter) {
+    return super.isReusableFor(root, recordMaterializer, null) && this.unboundFilter == unboundFilter;
+  }
+
+  @Override
+  void bind(ColumnReadStoreImpl columnStore, long recordCount) {
+    super.bind(columnStore, recordCount);
+    this.recordCount = recordCount;
+    this.recordsRead = 0;
+    if ( unboundFilter != null ) {
+      recordFilter = unboundFilter.bind(getColumnReaders());
+    } else {
+      recordFilter = null;
+    }
+  }
+
   /**
    * Override read() method to provide skip.
    */
@@ -68,6 +88,16 @@ class FilteredRecordReader<T> extends RecordReaderImplementation<T> {
    * if none found.
    */
   private void skipToMatch() {
+    if (recordFilter instanceof SkippingRecordFilter) {
+      long toSkip = ((SkippingRecordFilter) recordFilter).skipRecords(recordCount - recordsRead);
+      recordsRead += toSkip;
+      if (toSkip > 0 && recordsRead < recordCount) {
+        // jump over the records in each column without assembling them
+        for (ColumnReader columnReader : getColumnReaders()) {
+          columnReader.skipRows(toSkip);
+        }
+      }
+    }
     while (recordsRead < recordCount && !recordFilter.isMatch()) {
       State currentState = getState(0);
       do {
@@ -82,6 +82,30 @@ public class MessageColumnIO extends GroupColumnIO {
     );
   }
 
+  /**
+   * Reuses the assembly automaton of a reader previously returned by this MessageColumnIO for the same
+   * materializer and filter: only the column readers are bound to the new columns.
+   * The previous reader must not be used anymore.
+   * @param columns the columns of the new row group
+   * @param recordMaterializer the materializer previousReader was created with
+   * @param unboundFilter the filter previousReader was created with (can be null)
+   * @param previousReader a reader returned for the previous row group (can be null)
+   * @return a reader for columns
+   */
+  public <T> RecordReader<T> getRecordReader(PageReadStore columns, RecordMaterializer<T> recordMaterializer,
+                                             UnboundRecordFilter unboundFilter, RecordReader<T> previousReader) {
+    if (previousReader instanceof RecordReaderImplementation) {
+      RecordReaderImplementation<T> previous = (RecordReaderImplementation<T>)previousReader;
+      if (previous.isReusableFor(this, recordMaterializer, unboundFilter)) {
+        previous.bind(
+            new ColumnReadStoreImpl(columns, recordMaterializer.getRootConverter(), getType()),
+            columns.getRowCount());
+        return previous;
+      }
+    }
+    return getRecordReader(columns, recordMaterializer, unboundFilter);
+  }
+
   private class MessageColumnIORecordConsumer extends RecordConsumer {
     private ColumnIO currentColumnIO;
     private int currentLevel = 0;
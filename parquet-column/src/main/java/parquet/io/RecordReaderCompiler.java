@@ -0,0 +1,398 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.io;
+
+import static parquet.Log.DEBUG;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Constructor;
+import java.net.URI;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import parquet.Log;
+import parquet.ParquetRuntimeException;
+import parquet.column.ColumnReader;
+import parquet.io.RecordReaderImplementation.State;
+import parquet.io.api.GroupConverter;
+import parquet.io.api.RecordMaterializer;
+
+/**
+ * Compiles the record assembly automaton of a {@link RecordReaderImplementation} into a specialized class.
+ * The state transitions are unrolled and the calls to start()/end() on the group converters
+ * are inlined so that each call site sees a single converter.
+ *
+ * The generated source only depends on the shape of the automaton (the converters and column readers
+ * are passed to the constructor) so the compiled class is shared by all the readers with the same shape.
+ * It uses the java compiler available at runtime (javax.tools).
+ * The generated source is compiled against the jars parquet was loaded from and defined in a class loader
+ * child of the one of parquet, so that it works in task and plugin class loaders.
+ * When the compiler is not available (running on a JRE) or compilation fails the interpreter is used instead.
+ */
+public class RecordReaderCompiler {
+  private static final Log LOG = Log.getLog(RecordReaderCompiler.class);
+
+  private static final String PACKAGE = "parquet.io.compiled";
+  private static final String CLASS_NAME_PLACEHOLDER = "$CLASS_NAME$";
+
+  private static final int MAX_COMPILED_READERS = 64;
+
+  /* compiled classes by digest of the generated source, the least recently used ones are evicted */
+  private static final Map<String, Constructor<?>> compiledReaders = new LinkedHashMap<String, Constructor<?>>(16, 0.75f, true) {
+    private static final long serialVersionUID = 1L;
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Constructor<?>> eldest) {
+      return size() > MAX_COMPILED_READERS;
+    }
+  };
+  private static int classCount = 0;
+  private static boolean compilerAvailable = true;
+
+  /**
+   * @param recordReader the reader to compile
+   * @return a compiled reader equivalent to recordReader or recordReader if it can not be compiled
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> RecordReader<T> compile(RecordReader<T> recordReader) {
+    if (!(recordReader instanceof RecordReaderImplementation) || recordReader instanceof FilteredRecordReader) {
+      return recordReader;
+    }
+    RecordReaderImplementation<T> interpreter = (RecordReaderImplementation<T>)recordReader;
+    Constructor<?> constructor = getCompiledReaderConstructor(generateSource(interpreter));
+    if (constructor == null) {
+      return recordReader;
+    }
+    GroupConverter[][] groupConverterPaths = new GroupConverter[interpreter.getStateCount()][];
+    for (int i = 0; i < groupConverterPaths.length; i++) {
+      groupConverterPaths[i] = interpreter.getState(i).groupConverterPath;
+    }
+    try {
+      CompiledRecordReader<T> compiled = (CompiledRecordReader<T>)constructor.newInstance(
+          interpreter.getMaterializer(),
+          interpreter.getRecordConsumer().asGroupConverter(),
+          getColumnReaders(interpreter),
+          groupConverterPaths);
+      compiled.setInterpreter(interpreter);
+      return compiled;
+    } catch (Exception e) {
+      throw new ParquetDecodingException("could not instantiate compiled record reader " + constructor.getDeclaringClass(), e);
+    }
+  }
+
+  /**
+   * compiles a reader, reusing the reader compiled for the previous row group if recordReader is the same automaton
+   * (see {@link MessageColumnIO#getRecordReader(parquet.column.page.PageReadStore, RecordMaterializer, parquet.filter.UnboundRecordFilter, RecordReader)})
+   * @param recordReader the reader to compile
+   * @param previous the reader returned for the previous row group (can be null), it must not be used anymore
+   * @return a compiled reader equivalent to recordReader or recordReader if it can not be compiled
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> RecordReader<T> compile(RecordReader<T> recordReader, RecordReader<T> previous) {
+    if (previous instanceof CompiledRecordReader && ((CompiledRecordReader<T>)previous).getInterpreter() == recordReader) {
+      // only the column readers changed
+      CompiledRecordReader<T> compiled = (CompiledRecordReader<T>)previous;
+      compiled.bind(getColumnReaders((RecordReaderImplementation<T>)recordReader));
+      return compiled;
+    }
+    return compile(recordReader);
+  }
+
+  private static ColumnReader[] getColumnReaders(RecordReaderImplementation<?> interpreter) {
+    ColumnReader[] columnReaders = new ColumnReader[interpreter.getStateCount()];
+    for (int i = 0; i < columnReaders.length; i++) {
+      columnReaders[i] = interpreter.getState(i).column;
+    }
+    return columnReaders;
+  }
+
+  private static synchronized Constructor<?> getCompiledReaderConstructor(String source) {
+    String key = digest(source);
+    if (compiledReaders.containsKey(key)) {
+      return compiledReaders.get(key);
+    }
+    if (!compilerAvailable) {
+      return null;
+    }
+    Constructor<?> constructor = null;
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) {
+      LOG.info("no java compiler available at runtime, using the record assembly interpreter");
+      compilerAvailable = false;
+      return null;
+    }
+    String simpleName = "CompiledRecordReader" + (classCount++);
+    try {
+      Class<?> compiled = compileClass(compiler, PACKAGE + "." + simpleName, source.replace(CLASS_NAME_PLACEHOLDER, simpleName));
+      constructor = compiled.getConstructor(RecordMaterializer.class, GroupConverter.class, ColumnReader[].class, GroupConverter[][].class);
+    } catch (Exception e) {
+      LOG.info("could not compile the record reader, using the record assembly interpreter: " + e.getMessage());
+      if (DEBUG) LOG.debug("compilation failure", e);
+    }
+    compiledReaders.put(key, constructor);
+    return constructor;
+  }
+
+  private static String digest(String source) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-1").digest(source.getBytes("UTF-8"));
+      StringBuilder sb = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+      }
+      return sb.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new ParquetDecodingException("SHA-1 not available", e);
+    } catch (UnsupportedEncodingException e) {
+      throw new ParquetDecodingException("UTF-8 not available", e);
+    }
+  }
+
+  private static Class<?> compileClass(JavaCompiler compiler, String className, final String source) throws IOException, ClassNotFoundException {
+    final Map<String, ByteArrayOutputStream> classBytes = new HashMap<String, ByteArrayOutputStream>();
+    StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(null, null, null);
+    ForwardingJavaFileManager<StandardJavaFileManager> fileManager = new ForwardingJavaFileManager<StandardJavaFileManager>(standardFileManager) {
+      @Override
+      public JavaFileObject getJavaFileForOutput(Location location, final String name, Kind kind, FileObject sibling) {
+        return new SimpleJavaFileObject(URI.create("mem:///" + name.replace('.', '/') + kind.extension), kind) {
+          @Override
+          public OutputStream openOutputStream() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            classBytes.put(name, out);
+            return out;
+          }
+        };
+      }
+    };
+    JavaFileObject sourceFile = new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return source;
+      }
+    };
+    StringWriter errors = new StringWriter();
+    List<String> options = Arrays.asList("-classpath", getClassPath(), "-g:none");
+    try {
+      boolean success = compiler.getTask(errors, fileManager, null, options, null, Arrays.asList(sourceFile)).call();
+      if (!success) {
+        throw new ParquetDecodingException("compilation failed: " + errors + "\n" + source);
+      }
+    } finally {
+      fileManager.close();
+    }
+    CompiledClassLoader classLoader = new CompiledClassLoader(RecordReader.class.getClassLoader());
+    for (Map.Entry<String, ByteArrayOutputStream> entry : classBytes.entrySet()) {
+      classLoader.define(entry.getKey(), entry.getValue().toByteArray());
+    }
+    if (DEBUG) LOG.debug("compiled " + className + ":\n" + source);
+    return classLoader.loadClass(className);
+  }
+
+  /**
+   * @return the jars or directories containing the classes the generated source depends on
+   * (parquet-column and parquet-common) rather than java.class.path which often does not contain them
+   */
+  private static String getClassPath() {
+    Set<String> classPath = new LinkedHashSet<String>();
+    for (Class<?> dependency : new Class<?>[] { RecordReaderImplementation.class, ParquetRuntimeException.class }) {
+      CodeSource codeSource = dependency.getProtectionDomain().getCodeSource();
+      String location = null;
+      if (codeSource != null && codeSource.getLocation() != null) {
+        try {
+          location = new File(codeSource.getLocation().toURI()).getPath();
+        } catch (Exception e) {
+          if (DEBUG) LOG.debug("could not resolve " + codeSource.getLocation(), e);
+        }
+      }
+      if (location == null) {
+        if (Log.INFO) LOG.info("could not find the location of " + dependency.getName() + ", compiling against java.class.path");
+        location = System.getProperty("java.class.path");
+      }
+      classPath.add(location);
+    }
+    StringBuilder sb = new StringBuilder();
+    for (String entry : classPath) {
+      if (sb.length() > 0) {
+        sb.append(File.pathSeparator);
+      }
+      sb.append(entry);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * generates the source of the compiled reader.
+   * The class name is left as a placeholder so that the source can be used as a cache key.
+   */
+  static String generateSource(RecordReaderImplementation<?> interpreter) {
+    final int stateCount = interpreter.getStateCount();
+    StringBuilder src = new StringBuilder();
+    src.append("package ").append(PACKAGE).append(";\n\n");
+    src.append("import parquet.column.ColumnReader;\n");
+    src.append("import parquet.io.CompiledRecordReader;\n");
+    src.append("import parquet.io.ParquetDecodingException;\n");
+    src.append("import parquet.io.api.GroupConverter;\n");
+    src.append("import parquet.io.api.RecordMaterializer;\n\n");
+    src.append("public final class ").append(CLASS_NAME_PLACEHOLDER).append(" extends CompiledRecordReader<Object> {\n");
+    src.append("  private final RecordMaterializer<?> recordMaterializer;\n");
+    src.append("  private final GroupConverter root;\n");
+    for (int i = 0; i < stateCount; i++) {
+      State state = interpreter.getState(i);
+      src.append("  private ColumnReader c").append(i).append(";\n");
+      for (int j = 0; j < state.groupConverterPath.length; j++) {
+        src.append("  private final GroupConverter g").append(i).append('_').append(j).append(";\n");
+      }
+    }
+    src.append("\n  public ").append(CLASS_NAME_PLACEHOLDER)
+       .append("(RecordMaterializer<?> recordMaterializer, GroupConverter root, ColumnReader[] c, GroupConverter[][] g) {\n");
+    src.append("    this.recordMaterializer = recordMaterializer;\n");
+    src.append("    this.root = root;\n");
+    for (int i = 0; i < stateCount; i++) {
+      State state = interpreter.getState(i);
+      for (int j = 0; j < state.groupConverterPath.length; j++) {
+        src.append("    this.g").append(i).append('_').append(j).append(" = g[").append(i).append("][").append(j).append("];\n");
+      }
+    }
+    src.append("    bind(c);\n");
+    src.append("  }\n\n");
+    src.append("  @Override\n");
+    src.append("  protected void bind(ColumnReader[] c) {\n");
+    for (int i = 0; i < stateCount; i++) {
+      src.append("    this.c").append(i).append(" = c[").append(i).append("];\n");
+    }
+    src.append("  }\n\n");
+    src.append("  @Override\n");
+    src.append("  public Object read() {\n");
+    src.append("    root.start();\n");
+    src.append("    int currentLevel = 0;\n");
+    src.append("    int state = 0;\n");
+    src.append("    automaton: while (true) {\n");
+    src.append("      switch (state) {\n");
+    for (int i = 0; i < stateCount; i++) {
+      generateState(src, interpreter.getState(i), stateCount);
+    }
+    src.append("      default:\n");
+    src.append("        throw new ParquetDecodingException(\"invalid state \" + state);\n");
+    src.append("      }\n");
+    src.append("    }\n");
+    src.append("  }\n");
+    src.append("}\n");
+    return src.toString();
+  }
+
+  private static void generateState(StringBuilder src, State state, int stateCount) {
+    final int i = state.id;
+    final String c = "c" + i;
+    src.append("      case ").append(i).append(": {\n");
+    // opening tags and value, for each definition level
+    src.append("        switch (").append(c).append(".getCurrentDefinitionLevel()) {\n");
+    for (int d = 0; d <= state.maxDefinitionLevel; d++) {
+      src.append(d == state.maxDefinitionLevel ? "        default:\n" : "        case " + d + ":\n");
+      generateStartGroups(src, state, state.getDepth(d));
+      if (d == state.maxDefinitionLevel) {
+        src.append("          ").append(c).append(".writeCurrentValueToConverter();\n");
+      }
+      src.append("          break;\n");
+    }
+    src.append("        }\n");
+    src.append("        ").append(c).append(".consume();\n");
+    // closing tags and transition, for each next repetition level
+    if (state.maxRepetitionLevel == 0) {
+      generateTransition(src, state, 0, stateCount, "        ");
+    } else {
+      src.append("        switch (").append(c).append(".getCurrentRepetitionLevel()) {\n");
+      for (int r = 0; r <= state.maxRepetitionLevel; r++) {
+        src.append(r == state.maxRepetitionLevel ? "        default:\n" : "        case " + r + ":\n");
+        generateTransition(src, state, r, stateCount, "          ");
+      }
+      src.append("        }\n");
+    }
+    src.append("      }\n");
+  }
+
+  /* unrolled: for (; currentLevel <= depth; ++currentLevel) groupConverterPath[currentLevel].start(); */
+  private static void generateStartGroups(StringBuilder src, State state, int depth) {
+    if (depth < 0) {
+      return;
+    }
+    src.append("          switch (currentLevel) {\n");
+    for (int level = 0; level <= depth; level++) {
+      src.append("          case ").append(level).append(":\n");
+      src.append("            g").append(state.id).append('_').append(level).append(".start();\n");
+    }
+    src.append("            currentLevel = ").append(depth + 1).append(";\n");
+    src.append("          }\n");
+  }
+
+  /* unrolled: for (; currentLevel > next; currentLevel--) groupConverterPath[currentLevel - 1].end(); */
+  private static void generateTransition(StringBuilder src, State state, int r, int stateCount, String indent) {
+    int next = state.nextLevel[r];
+    int maxLevel = state.groupConverterPath.length;
+    if (maxLevel > next) {
+      src.append(indent).append("switch (currentLevel) {\n");
+      for (int level = maxLevel; level > next; level--) {
+        src.append(indent).append("case ").append(level).append(":\n");
+        src.append(indent).append("  g").append(state.id).append('_').append(level - 1).append(".end();\n");
+      }
+      src.append(indent).append("  currentLevel = ").append(next).append(";\n");
+      src.append(indent).append("}\n");
+    }
+    State nextState = state.getNextState(r);
+    if (nextState == null) {
+      src.append(indent).append("root.end();\n");
+      src.append(indent).append("return recordMaterializer.getCurrentRecord();\n");
+    } else if (nextState.id == state.id + 1 && state.maxRepetitionLevel == 0) {
+      // falls through to the next state
+      src.append(indent).append("state = ").append(nextState.id).append(";\n");
+    } else {
+      src.append(indent).append("state = ").append(nextState.id).append(";\n");
+      src.append(indent).append("continue automaton;\n");
+    }
+  }
+
+  private static final class CompiledClassLoader extends ClassLoader {
+
+    CompiledClassLoader(ClassLoader parent) {
+      super(parent);
+    }
+
+    void define(String name, byte[] bytes) {
+      defineClass(name, bytes, 0, bytes.length);
+    }
+  }
+
+}
@@ -26,6 +26,7 @@ import java.util.Map;
 import parquet.Log;
 import parquet.column.ColumnReader;
 import parquet.column.impl.ColumnReadStoreImpl;
+import parquet.filter.UnboundRecordFilter;
 import parquet.io.api.Converter;
 import parquet.io.api.GroupConverter;
 import parquet.io.api.PrimitiveConverter;
@@ -176,7 +177,7 @@ class RecordReaderImplementation<T> extends RecordReader<T> {
     public final int maxDefinitionLevel;
     public final int maxRepetitionLevel;
     public final PrimitiveTypeName primitive;
-    public final ColumnReader column;
+    public ColumnReader column; // bound to the columns of the current row group
     public final String[] fieldPath; // indexed by currentLevel
     public final int[] indexFieldPath; // indexed by currentLevel
     public final GroupConverter[] groupConverterPath;
@@ -228,6 +229,7 @@ class RecordReaderImplementation<T> extends RecordReader<T> {
     }
   }
 
+  private final MessageColumnIO root;
   private final GroupConverter recordRootConverter;
   private final RecordMaterializer<T> recordMaterializer;
 
@@ -241,6 +243,7 @@ class RecordReaderImplementation<T> extends RecordReader<T> {
    * @param columnStore where to read the column data from
    */
   public RecordReaderImplementation(MessageColumnIO root, RecordMaterializer<T> recordMaterializer, boolean validating, ColumnReadStoreImpl columnStore) {
+    this.root = root;
     this.recordMaterializer = recordMaterializer;
     this.recordRootConverter = recordMaterializer.getRootConverter(); // TODO: validator(wrap(recordMaterializer), validating, root.getType());
     PrimitiveColumnIO[] leaves = root.getLeaves().toArray(new PrimitiveColumnIO[root.getLeaves().size()]);
@@ -365,6 +368,25 @@ class RecordReaderImplementation<T> extends RecordReader<T> {
     }
   }
 
+  /**
+   * @return true if the automaton of this reader can be reused to read other columns with the same parameters
+   */
+  boolean isReusableFor(MessageColumnIO root, RecordMaterializer<?> recordMaterializer, UnboundRecordFilter unboundFilter) {
+    return this.root == root && this.recordMaterializer == recordMaterializer && unboundFilter == null;
+  }
+
+  /**
+   * binds the automaton to the columns of another row group
+   * @param columnStore where to read the column data from
+   * @param recordCount the count of records in columnStore
+   */
+  void bind(ColumnReadStoreImpl columnStore, long recordCount) {
+    for (int i = 0; i < states.length; i++) {
+      columnReaders[i] = columnStore.getColumnReader(states[i].primitiveColumnIO.getColumnDescriptor());
+      states[i].column = columnReaders[i];
+    }
+  }
+
   //TODO: have those wrappers for a converter
   private RecordConsumer validator(RecordConsumer recordConsumer, boolean validating, MessageType schema) {
     return validating ? new ValidatingRecordConsumer(recordConsumer, schema) : recordConsumer;
@@ -29,6 +29,9 @@ package parquet.io.api;
 abstract public class RecordMaterializer<T> {
 
   /**
+   * Materializers created in reuse mode may return the same mutable instance for every record:
+   * it is reset and refilled in place when the next record is read.
+   * In that case the caller must copy what it needs before reading the next record.
    * @return the result of the conversion
    */
   abstract public T getCurrentRecord();
@@ -154,6 +154,54 @@ public class TestMemColumn {
     }
   }
 
+  @Test
+  public void testMemColumnNullRuns() throws Exception {
+    MessageType mt = MessageTypeParser.parseMessageType("message msg { optional group foo { optional int64 bar; } }");
+    String[] col = new String[]{"foo", "bar"};
+    MemPageStore memPageStore = new MemPageStore(10);
+    ColumnWriteStoreImpl memColumnsStore = newColumnWriteStoreImpl(memPageStore);
+    ColumnDescriptor path = mt.getColumnDescription(col);
+
+    ColumnWriter columnWriter = memColumnsStore.getColumnWriter(path);
+    int[] ds = new int[5000];
+    for (int i = 0; i < ds.length; ) {
+      if (i % 100 == 99) {
+        ds[i] = 2;
+        columnWriter.write((long)i, 0, 2);
+        ++ i;
+      } else if (i % 100 < 50) {
+        // a run of nulls in one call
+        ds[i] = 0;
+        columnWriter.writeNulls(50 - i % 100, 0, 0);
+        i += 50 - i % 100;
+      } else {
+        ds[i] = 1;
+        columnWriter.writeNull(0, 1);
+        ++ i;
+      }
+    }
+    columnWriter.flush();
+
+    ColumnReader columnReader = getColumnReader(memPageStore, path, mt);
+    assertEquals(ds.length, columnReader.getTotalValueCount());
+    int d = 0;
+    for (int i = 0; i < ds.length; i++) {
+      if (i % 100 < 50) {
+        d = 0;
+      } else if (i % 100 == 99) {
+        d = 2;
+      } else {
+        d = 1;
+      }
+      assertEquals("r row " + i, 0, columnReader.getCurrentRepetitionLevel());
+      assertEquals("d row " + i, d, columnReader.getCurrentDefinitionLevel());
+      if (d == 2) {
+        assertEquals("data row " + i, (long)i, columnReader.getLong());
+      }
+      columnReader.consume();
+    }
+  }
+
   private ColumnWriteStoreImpl newColumnWriteStoreImpl(MemPageStore memPageStore) {
     return new ColumnWriteStoreImpl(memPageStore, 2048, 2048, 2048, false);
   }
@@ -50,6 +50,69 @@ public class BitPackingPerfTest {
       float ratio = (float)b/s;
       System.out.println("                                             " + ratio + (ratio < 1 ? " < 1 => GOOD" : " >= 1 => BAD"));
     }
+    System.out.println();
+    System.out.println("generated int packers vs generated long packers");
+    for (int bitWidth : new int[] { 1, 3, 8, 17, 32 }) {
+      for (int l = 0; l < 3; l++) {
+        long i = unpackInts(bitWidth, COUNT);
+        long lo = unpackLongs(bitWidth, COUNT);
+        System.out.println("  width " + bitWidth + ": int " + i / 1000 + "us long " + lo / 1000 + "us ratio " + ((float)lo / i));
+      }
+    }
+  }
+
+  private static long unpackInts(int bitWidth, int count) {
+    BytePacker packer = Packer.LITTLE_ENDIAN.newBytePacker(bitWidth);
+    int[] values = new int[count];
+    for (int i = 0; i < count; i++) {
+      values[i] = i & (int)((1L << bitWidth) - 1);
+    }
+    byte[] packed = new byte[count / 8 * bitWidth];
+    for (int i = 0, j = 0; i < count; i += 32, j += bitWidth * 4) {
+      packer.pack32Values(values, i, packed, j);
+    }
+    int[] result = new int[count];
+    System.gc();
+    long t0 = System.nanoTime();
+    for (int k = 0; k < 10; k++) {
+      for (int i = 0, j = 0; i < count; i += 32, j += bitWidth * 4) {
+        packer.unpack32Values(packed, j, result, i);
+      }
+    }
+    long t1 = System.nanoTime();
+    for (int i = 0; i < count; i++) {
+      if (result[i] != values[i]) {
+        throw new RuntimeException("error at " + i);
+      }
+    }
+    return t1 - t0;
+  }
+
+  private static long unpackLongs(int bitWidth, int count) {
+    BytePackerForLong packer = Packer.LITTLE_ENDIAN.newBytePackerForLong(bitWidth);
+    long[] values = new long[count];
+    for (int i = 0; i < count; i++) {
+      values[i] = i & ((1L << bitWidth) - 1);
+    }
+    byte[] packed = new byte[count / 8 * bitWidth];
+    for (int i = 0, j = 0; i < count; i += 32, j += bitWidth * 4) {
+      packer.pack32Values(values, i, packed, j);
+    }
+    long[] result = new long[count];
+    System.gc();
+    long t0 = System.nanoTime();
+    for (int k = 0; k < 10; k++) {
+      for (int i = 0, j = 0; i < count; i += 32, j += bitWidth * 4) {
+        packer.unpack32Values(packed, j, result, i);
+      }
+    }
+    long t1 = System.nanoTime();
+    for (int i = 0; i < count; i++) {
+      if (result[i] != values[i]) {
+        throw new RuntimeException("error at " + i);
+      }
+    }
+    return t1 - t0;
   }
 
   private static void verify(int[] result) {
@@ -310,6 +310,48 @@ public class TestDictionary {
 
   }
   
+  @Test
+  public void testIntDictionaryGrowingBitWidth() throws IOException {
+
+    int COUNT = 10000;
+    final DictionaryValuesWriter cw = new PlainIntegerDictionaryValuesWriter(100000, 10000);
+
+    // the dictionary grows from 1 to 1000 entries while the page is written
+    for (int i = 0; i < COUNT; i++) {
+      cw.writeInteger(i / 10);
+    }
+    // includes the ids still pending in the encoder
+    long encodedSize = cw.getEncodedSize();
+    BytesInput bytes1 = BytesInput.copy(cw.getBytes());
+    assertEquals(encodedSize, cw.getEncodedSize());
+    assertEquals(encodedSize, bytes1.size() + cw.dictionaryByteSize);
+    assertEquals(PLAIN_DICTIONARY, cw.getEncoding());
+    cw.reset();
+    assertEquals(1000, cw.getDictionarySize());
+    // bit width of the largest id
+    assertEquals(10, bytes1.toByteArray()[0]);
+
+    // the next page starts on the bit width of the current dictionary and grows again
+    for (int i = COUNT; i > 0; i--) {
+      cw.writeInteger(i % 2000);
+    }
+    BytesInput bytes2 = getBytesAndCheckEncoding(cw, PLAIN_DICTIONARY);
+    assertEquals(2000, cw.getDictionarySize());
+    assertEquals(11, bytes2.toByteArray()[0]);
+
+    DictionaryValuesReader cr = initDicReader(cw, INT32);
+
+    cr.initFromPage(COUNT, bytes1.toByteArray(), 0);
+    for (int i = 0; i < COUNT; i++) {
+      assertEquals(i / 10, cr.readInteger());
+    }
+
+    cr.initFromPage(COUNT, bytes2.toByteArray(), 0);
+    for (int i = COUNT; i > 0; i--) {
+      assertEquals(i % 2000, cr.readInteger());
+    }
+  }
+
   private void roundTripInt(DictionaryValuesWriter cw,  ValuesReader reader, int maxDictionaryByteSize) throws IOException {
     int fallBackThreshold = maxDictionaryByteSize / 4;
     for (int i = 0; i < 100; i++) {
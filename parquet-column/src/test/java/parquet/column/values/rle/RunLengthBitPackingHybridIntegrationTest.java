@@ -20,6 +20,7 @@ import java.io.InputStream;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -34,6 +35,100 @@ public class RunLengthBitPackingHybridIntegrationTest {
     }
   }
 
+  @Test
+  public void bulkReadTest() throws Exception {
+    for (int i = 0; i <= 32; i++) {
+      doBulkReadTest(i);
+    }
+  }
+
+  @Test
+  public void valuesReaderPagesTest() throws Exception {
+    // an empty page and a small page first must not limit the buffer of the following pages
+    RunLengthBitPackingHybridValuesReader reader = new RunLengthBitPackingHybridValuesReader(3);
+    int[] counts = { 0, 2, 5000, 3 };
+    for (int count : counts) {
+      RunLengthBitPackingHybridValuesWriter writer = new RunLengthBitPackingHybridValuesWriter(3, 64);
+      for (int i = 0; i < count; i++) {
+        writer.writeInteger(i % 7);
+      }
+      byte[] page = writer.getBytes().toByteArray();
+      // an empty page is not read at all
+      assertEquals(count == 0 ? 0 : page.length, reader.initFromPage(count, page, 0));
+      for (int i = 0; i < count; i++) {
+        assertEquals(i % 7, reader.readInteger());
+      }
+    }
+  }
+
+  private void doBulkReadTest(int bitWidth) throws Exception {
+    long modValue = 1L << bitWidth;
+
+    RunLengthBitPackingHybridEncoder encoder = new RunLengthBitPackingHybridEncoder(bitWidth, 1000);
+    int[] expected = new int[5003];
+    int numValues = 0;
+    for (int i = 0; i < 1000; i++) {
+      expected[numValues++] = (int) (i % modValue);
+    }
+    for (int i = 0; i < 1000; i++) {
+      expected[numValues++] = (int) (77 % modValue);
+    }
+    for (int i = 0; i < 1000; i++) {
+      expected[numValues++] = (int) ((i / 3) % modValue);
+      expected[numValues++] = (int) ((i * 7) % modValue);
+    }
+    for (int i = 0; i < 1003; i++) {
+      expected[numValues++] = (int) (i % 5 % modValue);
+    }
+    for (int value : expected) {
+      encoder.writeInt(value);
+    }
+
+    byte[] encodedBytes = encoder.toBytes().toByteArray();
+    RunLengthBitPackingHybridDecoder decoder = new RunLengthBitPackingHybridDecoder(bitWidth, new ByteArrayInputStream(encodedBytes));
+
+    // mix single and bulk reads of various lengths to cross run and group boundaries
+    int[] actual = new int[expected.length];
+    int read = 0;
+    int length = 1;
+    while (read < expected.length) {
+      actual[read] = decoder.readInt();
+      ++ read;
+      int count = Math.min(length, expected.length - read);
+      decoder.readInts(actual, read, count);
+      read += count;
+      length = length * 3 % 101 + 1;
+    }
+    assertArrayEquals(expected, actual);
+  }
+
+  @Test
+  public void skipTest() throws Exception {
+    for (int bitWidth = 0; bitWidth <= 32; bitWidth++) {
+      long modValue = 1L << bitWidth;
+      RunLengthBitPackingHybridEncoder encoder = new RunLengthBitPackingHybridEncoder(bitWidth, 1000);
+      int[] expected = new int[4000];
+      for (int i = 0; i < expected.length; i++) {
+        // alternate bit-packed-runs and rle-runs
+        expected[i] = (int) (((i / 500) % 2 == 0 ? i : 42) % modValue);
+        encoder.writeInt(expected[i]);
+      }
+
+      RunLengthBitPackingHybridDecoder decoder = new RunLengthBitPackingHybridDecoder(bitWidth, new ByteArrayInputStream(encoder.toBytes().toByteArray()));
+      // skip various lengths to land in the middle of runs and groups
+      int index = 0;
+      int length = 1;
+      while (index < expected.length) {
+        assertEquals("bitWidth " + bitWidth + " at " + index, expected[index], decoder.readInt());
+        ++ index;
+        int count = Math.min(length, expected.length - index);
+        decoder.skip(count);
+        index += count;
+        length = length * 7 % 113 + 1;
+      }
+    }
+  }
+
   private void doIntegrationTest(int bitWidth) throws Exception {
     long modValue = 1L << bitWidth;
 
@@ -59,6 +59,22 @@ public class TestRunLengthBitPackingHybridEncoder {
     assertEquals(-1, is.read());
   }
 
+  @Test
+  public void testWriteRepeatedInt() throws Exception {
+    RunLengthBitPackingHybridEncoder expected = new RunLengthBitPackingHybridEncoder(3, 5);
+    RunLengthBitPackingHybridEncoder actual = new RunLengthBitPackingHybridEncoder(3, 5);
+    int[][] runs = { {0, 3}, {1, 1}, {1, 20}, {2, 5}, {3, 1}, {3, 7}, {4, 100}, {5, 2}, {6, 9}, {0, 1} };
+    for (int[] run : runs) {
+      for (int i = 0; i < run[1]; i++) {
+        expected.writeInt(run[0]);
+      }
+      actual.writeRepeatedInt(run[0], run[1]);
+    }
+    assertEquals(
+        Arrays.toString(expected.toBytes().toByteArray()),
+        Arrays.toString(actual.toBytes().toByteArray()));
+  }
+
   @Test
   public void testRepeatedZeros() throws Exception {
     // previousValue is initialized to 0
@@ -292,6 +308,33 @@ public class TestRunLengthBitPackingHybridEncoder {
     assertEquals(stream.available(), 0);
   }
 
+  @Test
+  public void testEncodedSizeIncludesPendingValues() throws Exception {
+    // pending rle-run, partial bit-packed group, group closing a full bit-packed-run
+    int[][] pages = {
+        { 0, 1, 2, 3, 4, 5, 6, 7, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5 },
+        { 1, 2, 3, 4, 5, 6, 7, 0, 3, 2, 1 },
+        { 6, 6, 6, 6, 6, 6, 6, 6, 6, 6, 6, 6, 1, 2 },
+        { }
+    };
+    for (int[] page : pages) {
+      RunLengthBitPackingHybridEncoder encoder = new RunLengthBitPackingHybridEncoder(3, 5);
+      for (int value : page) {
+        encoder.writeInt(value);
+      }
+      long estimated = encoder.getEncodedSize();
+      assertEquals(Arrays.toString(page), encoder.toBytes().size(), estimated);
+      assertEquals(estimated, encoder.getEncodedSize());
+    }
+
+    RunLengthBitPackingHybridEncoder encoder = new RunLengthBitPackingHybridEncoder(3, 5);
+    for (int i = 0; i < 63 * 8 + 3; i++) {
+      encoder.writeInt(i % 8);
+    }
+    long estimated = encoder.getEncodedSize();
+    assertEquals(encoder.toBytes().size(), estimated);
+  }
+
   private static List<Integer> unpack(int bitWidth, int numValues, ByteArrayInputStream is)
     throws Exception {
 
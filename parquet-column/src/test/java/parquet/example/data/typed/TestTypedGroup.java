@@ -0,0 +1,136 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.example.data.typed;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static parquet.example.Paper.r1;
+import static parquet.example.Paper.r2;
+import static parquet.example.Paper.schema;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import parquet.column.impl.ColumnWriteStoreImpl;
+import parquet.column.page.mem.MemPageStore;
+import parquet.example.data.Group;
+import parquet.example.data.GroupFactory;
+import parquet.example.data.GroupWriter;
+import parquet.example.data.simple.SimpleGroupFactory;
+import parquet.example.data.simple.convert.GroupRecordConverter;
+import parquet.io.ColumnIOFactory;
+import parquet.io.MessageColumnIO;
+import parquet.io.RecordReader;
+import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
+
+public class TestTypedGroup {
+
+  private static final MessageType oneOfEach = MessageTypeParser.parseMessageType(
+      "message Document {\n"
+    + "  required int64 a;\n"
+    + "  required int32 b;\n"
+    + "  required float c;\n"
+    + "  required double d;\n"
+    + "  required boolean e;\n"
+    + "  required binary f;\n"
+    + "  repeated int32 g;\n"
+    + "}\n");
+
+  @Test
+  public void testReadPaper() {
+    MemPageStore memPageStore = write(schema, Arrays.<Group>asList(r1, r2));
+    List<Group> records = read(schema, memPageStore, new TypedGroupFactory(schema), 2);
+    assertEquals(TypedGroup.class, records.get(0).getClass());
+    assertEquals(r1.toString(), records.get(0).toString());
+    assertEquals(r2.toString(), records.get(1).toString());
+  }
+
+  @Test
+  public void testOneOfEach() {
+    Group typed = new TypedGroupFactory(oneOfEach).newGroup()
+        .append("a", 2l)
+        .append("b", 3)
+        .append("c", 4.0f)
+        .append("d", 5.0d)
+        .append("e", true)
+        .append("f", "6");
+    for (int i = 0; i < 10; i++) {
+      typed.add("g", i);
+    }
+    Group simple = new SimpleGroupFactory(oneOfEach).newGroup()
+        .append("a", 2l)
+        .append("b", 3)
+        .append("c", 4.0f)
+        .append("d", 5.0d)
+        .append("e", true)
+        .append("f", "6");
+    for (int i = 0; i < 10; i++) {
+      simple.add("g", i);
+    }
+    assertEquals(simple.toString(), typed.toString());
+
+    TypedGroup typedGroup = (TypedGroup) typed;
+    assertEquals(2l, typedGroup.getLong(0, 0));
+    assertEquals(4.0f, typedGroup.getFloat(2, 0), 0);
+    assertEquals(5.0d, typedGroup.getDouble(3, 0), 0);
+    assertEquals(10, typedGroup.getFieldRepetitionCount("g"));
+    assertEquals(9, typedGroup.getInteger("g", 9));
+
+    // written as typed groups and read as simple groups
+    MemPageStore memPageStore = write(oneOfEach, Arrays.asList(typed, typed));
+    List<Group> records = read(oneOfEach, memPageStore, new SimpleGroupFactory(oneOfEach), 2);
+    assertEquals(simple.toString(), records.get(0).toString());
+    assertEquals(simple.toString(), records.get(1).toString());
+  }
+
+  @Test
+  public void testReuse() {
+    MemPageStore memPageStore = write(schema, Arrays.<Group>asList(r1, r2, r1, r2));
+    MessageColumnIO columnIO = new ColumnIOFactory().getColumnIO(schema);
+    RecordReader<Group> recordReader = columnIO.getRecordReader(memPageStore, new GroupRecordConverter(schema, new TypedGroupFactory(schema), true));
+    Group first = recordReader.read();
+    assertEquals(r1.toString(), first.toString());
+    for (Group expected : Arrays.asList(r2, r1, r2)) {
+      Group record = recordReader.read();
+      assertSame(first, record);
+      assertEquals(expected.toString(), record.toString());
+    }
+  }
+
+  private MemPageStore write(MessageType schema, List<Group> records) {
+    MemPageStore memPageStore = new MemPageStore(records.size());
+    ColumnWriteStoreImpl columns = new ColumnWriteStoreImpl(memPageStore, 800, 800, 800, false);
+    GroupWriter groupWriter = new GroupWriter(new ColumnIOFactory().getColumnIO(schema).getRecordWriter(columns), schema);
+    for (Group record : records) {
+      groupWriter.write(record);
+    }
+    columns.flush();
+    return memPageStore;
+  }
+
+  private List<Group> read(MessageType schema, MemPageStore memPageStore, GroupFactory groupFactory, int count) {
+    MessageColumnIO columnIO = new ColumnIOFactory().getColumnIO(schema);
+    RecordReader<Group> recordReader = columnIO.getRecordReader(memPageStore, new GroupRecordConverter(schema, groupFactory, false));
+    Group[] records = new Group[count];
+    for (int i = 0; i < count; i++) {
+      records[i] = recordReader.read();
+    }
+    return Arrays.asList(records);
+  }
+}
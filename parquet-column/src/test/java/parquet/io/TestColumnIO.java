@@ -328,6 +328,28 @@ public class TestColumnIO {
     }
   }
 
+  @Test
+  public void testReuseRecords() {
+    MemPageStore memPageStore = new MemPageStore(4);
+    ColumnWriteStoreImpl columns = newColumnWriteStore(memPageStore);
+    MessageColumnIO columnIO = new ColumnIOFactory(true).getColumnIO(schema);
+    GroupWriter groupWriter = new GroupWriter(columnIO.getRecordWriter(columns), schema);
+    groupWriter.write(r1);
+    groupWriter.write(r2);
+    groupWriter.write(r1);
+    groupWriter.write(r2);
+    columns.flush();
+
+    RecordReader<Group> recordReader = columnIO.getRecordReader(memPageStore, new GroupRecordConverter(schema, true));
+    Group first = recordReader.read();
+    assertEquals("deserialization does not display the same result", r1.toString(), first.toString());
+    for (Group expected : Arrays.asList(r2, r1, r2)) {
+      Group record = recordReader.read();
+      Assert.assertSame("the record should be reused", first, record);
+      assertEquals("deserialization does not display the same result", expected.toString(), record.toString());
+    }
+  }
+
   @Test
   public void testOneOfEach() {
     MessageType oneOfEachSchema = MessageTypeParser.parseMessageType(oneOfEach);
@@ -572,6 +594,13 @@ public class TestColumnIO {
             validate(null, repetitionLevel, definitionLevel);
           }
 
+          @Override
+          public void writeNulls(int count, int repetitionLevel, int definitionLevel) {
+            for (int i = 0; i < count; i++) {
+              validate(null, repetitionLevel, definitionLevel);
+            }
+          }
+
           @Override
           public void write(Binary value, int repetitionLevel, int definitionLevel) {
             validate(value.toStringUsingUTF8(), repetitionLevel, definitionLevel);
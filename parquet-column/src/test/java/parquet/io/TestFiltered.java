@@ -16,6 +16,8 @@
 package parquet.io;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static parquet.example.Paper.r1;
 import static parquet.example.Paper.r2;
 import static parquet.example.Paper.schema;
@@ -40,6 +42,7 @@ import parquet.example.data.GroupWriter;
 import parquet.example.data.simple.convert.GroupRecordConverter;
 import parquet.filter.ColumnPredicates.LongPredicateFunction;
 import parquet.filter.ColumnPredicates.PredicateFunction;
+import parquet.filter.UnboundRecordFilter;
 import parquet.io.api.RecordMaterializer;
 
 public class TestFiltered {
@@ -197,6 +200,68 @@ public class TestFiltered {
     }
   }
 
+  @Test
+  public void testPagedAcrossPages() {
+    MessageColumnIO columnIO =  new ColumnIOFactory(true).getColumnIO(schema);
+    for (boolean enableDictionary : new boolean[] { false, true }) {
+      MemPageStore memPageStore = new MemPageStore(2000);
+      // small pages so that the skipped records span several of them
+      ColumnWriteStoreImpl columns = new ColumnWriteStoreImpl(memPageStore, 100, 100, 100, enableDictionary);
+      GroupWriter groupWriter = new GroupWriter(columnIO.getRecordWriter(columns), schema);
+      for (int i = 0; i < 1000; i++) {
+        groupWriter.write(r1);
+        groupWriter.write(r2);
+      }
+      columns.flush();
+
+      RecordMaterializer<Group> recordConverter = new GroupRecordConverter(schema);
+      RecordReader<Group> recordReader = columnIO.getRecordReader(memPageStore, recordConverter, page(1502, 3));
+
+      List<Group> all = readAll(recordReader);
+      assertEquals("expecting records " + all, 3, all.size());
+      assertEquals("expecting record", r2.toString(), all.get(0).toString());
+      assertEquals("expecting record", r1.toString(), all.get(1).toString());
+      assertEquals("expecting record", r2.toString(), all.get(2).toString());
+    }
+  }
+
+  @Test
+  public void testReuseAcrossRowGroups() {
+    MessageColumnIO columnIO =  new ColumnIOFactory(true).getColumnIO(schema);
+    MemPageStore rowGroup1 = writeTestRecords(columnIO, 2);
+    MemPageStore rowGroup2 = writeTestRecords(columnIO, 3);
+    RecordMaterializer<Group> recordConverter = new GroupRecordConverter(schema);
+
+    RecordReader<Group> recordReader = columnIO.getRecordReader(rowGroup1, recordConverter, null, null);
+    assertEquals(4, readAll(recordReader, 4).size());
+    RecordReader<Group> reused = columnIO.getRecordReader(rowGroup2, recordConverter, null, recordReader);
+    assertSame("the automaton should be reused", recordReader, reused);
+    List<Group> all = readAll(reused, 6);
+    for (int i = 0; i < all.size(); i++) {
+      assertEquals("expecting record", (i%2 == 0 ? r1 : r2).toString(), all.get(i).toString());
+    }
+
+    UnboundRecordFilter filter = column("DocId", equalTo(20l));
+    recordReader = columnIO.getRecordReader(rowGroup1, recordConverter, filter, reused);
+    assertNotSame("the filter is different", reused, recordReader);
+    assertEquals(2, readAll(recordReader).size());
+    reused = columnIO.getRecordReader(rowGroup2, recordConverter, filter, recordReader);
+    assertSame("the automaton should be reused", recordReader, reused);
+    all = readAll(reused);
+    assertEquals(3, all.size());
+    for (Group group : all) {
+      assertEquals("expecting record2", r2.toString(), group.toString());
+    }
+  }
+
+  private List<Group> readAll(RecordReader<Group> reader, int count) {
+    List<Group> result = new ArrayList<Group>();
+    for (int i = 0; i < count; i++) {
+      result.add(reader.read());
+    }
+    return result;
+  }
+
   @Test
   public void testFilteredAndPaged() {
     MessageColumnIO columnIO =  new ColumnIOFactory(true).getColumnIO(schema);
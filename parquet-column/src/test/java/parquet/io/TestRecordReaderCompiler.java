@@ -0,0 +1,152 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static parquet.example.Paper.r1;
+import static parquet.example.Paper.r2;
+import static parquet.example.Paper.schema;
+import static parquet.example.Paper.schema2;
+import static parquet.example.Paper.schema3;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import parquet.column.impl.ColumnWriteStoreImpl;
+import parquet.column.page.mem.MemPageStore;
+import parquet.example.data.Group;
+import parquet.example.data.GroupWriter;
+import parquet.example.data.simple.SimpleGroupFactory;
+import parquet.example.data.simple.convert.GroupRecordConverter;
+import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
+
+public class TestRecordReaderCompiler {
+
+  private static final MessageType nestedSchema = MessageTypeParser.parseMessageType(
+      "message Nested {\n" +
+      "  required int32 id;\n" +
+      "  optional group a {\n" +
+      "    repeated group b {\n" +
+      "      optional binary c;\n" +
+      "      repeated group d {\n" +
+      "        required int64 e;\n" +
+      "        optional int32 f;\n" +
+      "      }\n" +
+      "    }\n" +
+      "    optional double g;\n" +
+      "  }\n" +
+      "  repeated int32 h;\n" +
+      "}\n");
+
+  @Test
+  public void testPaper() {
+    List<Group> records = new ArrayList<Group>();
+    for (int i = 0; i < 10; i++) {
+      records.add(r1);
+      records.add(r2);
+    }
+    MemPageStore memPageStore = write(schema, records);
+    validateEquivalence(schema, schema, memPageStore, records.size());
+    validateEquivalence(schema2, schema, memPageStore, records.size());
+    validateEquivalence(schema3, schema, memPageStore, records.size());
+  }
+
+  @Test
+  public void testNested() {
+    SimpleGroupFactory factory = new SimpleGroupFactory(nestedSchema);
+    List<Group> records = new ArrayList<Group>();
+    for (int i = 0; i < 100; i++) {
+      Group record = factory.newGroup().append("id", i);
+      if (i % 3 != 0) {
+        Group a = record.addGroup("a");
+        for (int j = 0; j < i % 4; j++) {
+          Group b = a.addGroup("b");
+          if (j % 2 == 0) {
+            b.append("c", "c" + j);
+          }
+          for (int k = 0; k < (i + j) % 3; k++) {
+            Group d = b.addGroup("d").append("e", (long)k);
+            if (k % 2 == 1) {
+              d.append("f", k);
+            }
+          }
+        }
+        if (i % 5 == 0) {
+          a.append("g", 1.5 * i);
+        }
+      }
+      for (int j = 0; j < i % 3; j++) {
+        record.append("h", j);
+      }
+      records.add(record);
+    }
+    MemPageStore memPageStore = write(nestedSchema, records);
+    validateEquivalence(nestedSchema, nestedSchema, memPageStore, records.size());
+    validateEquivalence(
+        MessageTypeParser.parseMessageType("message Nested { optional group a { repeated group b { repeated group d { optional int32 f; } } } }"),
+        nestedSchema, memPageStore, records.size());
+  }
+
+  @Test
+  public void testReuse() {
+    List<Group> records = new ArrayList<Group>();
+    records.add(r1);
+    records.add(r2);
+    MemPageStore first = write(schema, records);
+    MemPageStore second = write(schema, records);
+    MessageColumnIO columnIO = new ColumnIOFactory().getColumnIO(schema);
+    GroupRecordConverter recordConverter = new GroupRecordConverter(schema);
+    RecordReader<Group> assemblyReader = columnIO.getRecordReader(first, recordConverter, null, null);
+    RecordReader<Group> compiled = RecordReaderCompiler.compile(assemblyReader, null);
+    assertFalse("the record reader should be compiled", compiled instanceof RecordReaderImplementation);
+    assertEquals(r1.toString(), compiled.read().toString());
+    assertEquals(r2.toString(), compiled.read().toString());
+
+    // next row group: the same compiled reader is bound to the new columns
+    RecordReader<Group> nextAssemblyReader = columnIO.getRecordReader(second, recordConverter, null, assemblyReader);
+    assertSame(assemblyReader, nextAssemblyReader);
+    assertSame(compiled, RecordReaderCompiler.compile(nextAssemblyReader, compiled));
+    assertEquals(r1.toString(), compiled.read().toString());
+    assertEquals(r2.toString(), compiled.read().toString());
+  }
+
+  private MemPageStore write(MessageType schema, List<Group> records) {
+    MemPageStore memPageStore = new MemPageStore(records.size());
+    ColumnWriteStoreImpl columns = new ColumnWriteStoreImpl(memPageStore, 800, 800, 800, false);
+    GroupWriter groupWriter = new GroupWriter(new ColumnIOFactory().getColumnIO(schema).getRecordWriter(columns), schema);
+    for (Group record : records) {
+      groupWriter.write(record);
+    }
+    columns.flush();
+    return memPageStore;
+  }
+
+  private void validateEquivalence(MessageType requestedSchema, MessageType fileSchema, MemPageStore memPageStore, int count) {
+    MessageColumnIO columnIO = new ColumnIOFactory().getColumnIO(requestedSchema, fileSchema);
+    RecordReader<Group> interpreter = columnIO.getRecordReader(memPageStore, new GroupRecordConverter(requestedSchema));
+    RecordReader<Group> compiled = RecordReaderCompiler.compile(
+        columnIO.getRecordReader(memPageStore, new GroupRecordConverter(requestedSchema)));
+    assertFalse("the record reader should be compiled", compiled instanceof RecordReaderImplementation);
+    for (int i = 0; i < count; i++) {
+      assertEquals("record " + i + " of " + requestedSchema, interpreter.read().toString(), compiled.read().toString());
+    }
+  }
+}
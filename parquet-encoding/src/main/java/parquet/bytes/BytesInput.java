@@ -20,6 +20,8 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.util.Arrays;
 import java.util.List;
 
@@ -84,6 +86,17 @@ abstract public class BytesInput {
     return new ByteArrayBytesInput(in, offset, length);
   }
 
+  /**
+   * @param buffer the buffer containing the bytes, its position and limit are left unchanged
+   * @param offset the position of the first byte in the buffer
+   * @param length the number of bytes
+   * @return a BytesInput that will write the given bytes of the buffer without copying them first
+   */
+  public static BytesInput from(ByteBuffer buffer, int offset, int length) {
+    if (DEBUG) LOG.debug("BytesInput from buffer of " + length + " bytes");
+    return new ByteBufferBytesInput(buffer, offset, length);
+  }
+
   /**
    * @param intValue the int to write
    * @return a BytesInput that will write 4 bytes in little endian
@@ -322,4 +335,46 @@ abstract public class BytesInput {
 
   }
 
+  private static class ByteBufferBytesInput extends BytesInput {
+
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    private ByteBufferBytesInput(ByteBuffer buffer, int offset, int length) {
+      this.buffer = buffer;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    private ByteBuffer slice() {
+      ByteBuffer slice = buffer.duplicate();
+      slice.position(offset);
+      slice.limit(offset + length);
+      return slice;
+    }
+
+    @Override
+    public void writeAllTo(OutputStream out) throws IOException {
+      if (buffer.hasArray()) {
+        out.write(buffer.array(), buffer.arrayOffset() + offset, length);
+      } else {
+        Channels.newChannel(out).write(slice());
+      }
+    }
+
+    @Override
+    public byte[] toByteArray() throws IOException {
+      byte[] bytes = new byte[length];
+      slice().get(bytes);
+      return bytes;
+    }
+
+    @Override
+    public long size() {
+      return length;
+    }
+
+  }
+
 }
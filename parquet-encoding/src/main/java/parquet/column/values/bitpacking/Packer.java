@@ -36,6 +36,10 @@ public enum Packer {
     public BytePacker newBytePacker(int width) {
       return beBytePackerFactory.newBytePacker(width);
     }
+    @Override
+    public BytePackerForLong newBytePackerForLong(int width) {
+      return beBytePackerForLongFactory.newBytePackerForLong(width);
+    }
   },
 
   /**
@@ -51,6 +55,10 @@ public enum Packer {
     public BytePacker newBytePacker(int width) {
       return leBytePackerFactory.newBytePacker(width);
     }
+    @Override
+    public BytePackerForLong newBytePackerForLong(int width) {
+      return leBytePackerForLongFactory.newBytePackerForLong(width);
+    }
   };
 
   private static IntPackerFactory getIntPackerFactory(String name) {
@@ -61,6 +69,10 @@ public enum Packer {
     return (BytePackerFactory)getStaticField("parquet.column.values.bitpacking." + name, "factory");
   }
 
+  private static BytePackerForLongFactory getBytePackerForLongFactory(String name) {
+    return (BytePackerForLongFactory)getStaticField("parquet.column.values.bitpacking." + name, "factory");
+  }
+
   private static Object getStaticField(String className, String fieldName) {
     try {
       return Class.forName(className).getField(fieldName).get(null);
@@ -81,6 +93,8 @@ public enum Packer {
   static IntPackerFactory beIntPackerFactory = getIntPackerFactory("LemireBitPackingBE");
   static BytePackerFactory leBytePackerFactory = getBytePackerFactory("ByteBitPackingLE");
   static IntPackerFactory leIntPackerFactory = getIntPackerFactory("LemireBitPackingLE");
+  static BytePackerForLongFactory beBytePackerForLongFactory = getBytePackerForLongFactory("ByteBitPackingForLongBE");
+  static BytePackerForLongFactory leBytePackerForLongFactory = getBytePackerForLongFactory("ByteBitPackingForLongLE");
 
   /**
    * @param width the width in bits of the packed values
@@ -93,4 +107,10 @@ public enum Packer {
    * @return a byte based packer
    */
   public abstract BytePacker newBytePacker(int width);
+
+  /**
+   * @param width the width in bits of the packed values (up to 64)
+   * @return a byte based packer for long values
+   */
+  public abstract BytePackerForLong newBytePackerForLong(int width);
 }
\ No newline at end of file
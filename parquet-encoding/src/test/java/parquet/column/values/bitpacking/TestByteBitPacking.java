@@ -58,6 +58,65 @@ public class TestByteBitPacking {
     return values;
   }
 
+  @Test
+  public void testPackUnPackLong() {
+    System.out.println();
+    System.out.println("testPackUnPackLong");
+    for (Packer pack: Packer.values()) {
+      for (int i = 1; i <= 64; i++) {
+        System.out.println("Width: " + i);
+        final BytePackerForLong packer = pack.newBytePackerForLong(i);
+        long[] values = generateValuesLong(i);
+        long[] unpacked32 = new long[32];
+        byte[] packed32 = new byte[i * 4];
+        packer.pack32Values(values, 0, packed32, 0);
+        packer.unpack32Values(packed32, 0, unpacked32, 0);
+        Assert.assertArrayEquals(pack.name() + " width " + i, values, unpacked32);
+
+        long[] unpacked8 = new long[32];
+        byte[] packed8 = new byte[i * 4];
+        for (int j = 0; j < 4; j++) {
+          packer.pack8Values(values, j * 8, packed8, j * i);
+          packer.unpack8Values(packed8, j * i, unpacked8, j * 8);
+        }
+        Assert.assertArrayEquals(pack.name() + " width " + i, packed32, packed8);
+        Assert.assertArrayEquals(pack.name() + " width " + i, values, unpacked8);
+      }
+    }
+  }
+
+  @Test
+  public void testPackUnPackLongAgainstInt() {
+    System.out.println();
+    System.out.println("testPackUnPackLongAgainstInt");
+    for (Packer pack: Packer.values()) {
+      for (int i = 1; i <= 32; i++) {
+        System.out.println("Width: " + i);
+        int[] values = generateValues(i);
+        long[] longValues = new long[values.length];
+        for (int j = 0; j < values.length; j++) {
+          longValues[j] = values[j] & 0xFFFFFFFFL;
+        }
+        byte[] packed = new byte[i * 4];
+        pack.newBytePacker(i).pack32Values(values, 0, packed, 0);
+        byte[] packedLong = new byte[i * 4];
+        pack.newBytePackerForLong(i).pack32Values(longValues, 0, packedLong, 0);
+        Assert.assertEquals(pack.name() + " width " + i, TestBitPacking.toString(packed), TestBitPacking.toString(packedLong));
+      }
+    }
+  }
+
+  private long[] generateValuesLong(int bitWidth) {
+    long[] values = new long[32];
+    for (int j = 0; j < values.length; j++) {
+      values[j] = (long)(Math.random() * Long.MAX_VALUE) ^ (long)(Math.random() * Long.MAX_VALUE) << 1;
+      if (bitWidth < 64) {
+        values[j] &= (1L << bitWidth) - 1;
+      }
+    }
+    return values;
+  }
+
   @Test
   public void testPackUnPackAgainstHandWritten() throws IOException {
     System.out.println();
@@ -26,6 +26,9 @@ import parquet.bytes.BytesUtils;
  * This class generates bit packers that pack the most significant bit first.
  * The result of the generation is checked in. To regenerate the code run this class and check in the result.
  *
+ * It generates int based packers for bit widths up to 32
+ * and long based packers for bit widths up to 64.
+ *
  * TODO: remove the unnecessary masks for perf
  *
  * @author Julien Le Dem
@@ -34,15 +37,21 @@ import parquet.bytes.BytesUtils;
 public class ByteBasedBitPackingGenerator {
 
   private static final String CLASS_NAME_PREFIX = "ByteBitPacking";
+  private static final String CLASS_NAME_PREFIX_FOR_LONG = "ByteBitPackingForLong";
   private static final int PACKER_COUNT = 32;
+  private static final int PACKER_COUNT_FOR_LONG = 64;
 
   public static void main(String[] args) throws Exception {
     String basePath = args[0];
-    generateScheme(CLASS_NAME_PREFIX + "BE", true, basePath);
-    generateScheme(CLASS_NAME_PREFIX + "LE", false, basePath);
+    generateScheme(CLASS_NAME_PREFIX + "BE", true, false, basePath);
+    generateScheme(CLASS_NAME_PREFIX + "LE", false, false, basePath);
+    generateScheme(CLASS_NAME_PREFIX_FOR_LONG + "BE", true, true, basePath);
+    generateScheme(CLASS_NAME_PREFIX_FOR_LONG + "LE", false, true, basePath);
   }
 
-  private static void generateScheme(String className, boolean msbFirst, String basePath) throws IOException {
+  private static void generateScheme(String className, boolean msbFirst, boolean useLong, String basePath) throws IOException {
+    final int packerCount = useLong ? PACKER_COUNT_FOR_LONG : PACKER_COUNT;
+    final String packerClass = useLong ? "BytePackerForLong" : "BytePacker";
     final File file = new File(basePath + "/parquet/column/values/bitpacking/" + className + ".java").getAbsoluteFile();
     if (!file.getParentFile().exists()) {
       file.getParentFile().mkdirs();
@@ -63,41 +72,41 @@ public class ByteBasedBitPackingGenerator {
     fw.append(" */\n");
     fw.append("public abstract class " + className + " {\n");
     fw.append("\n");
-    fw.append("  private static final BytePacker[] packers = new BytePacker[33];\n");
+    fw.append("  private static final " + packerClass + "[] packers = new " + packerClass + "[" + (packerCount + 1) + "];\n");
     fw.append("  static {\n");
-    for (int i = 0; i <= PACKER_COUNT; i++) {
+    for (int i = 0; i <= packerCount; i++) {
       fw.append("    packers[" + i + "] = new Packer" + i + "();\n");
     }
     fw.append("  }\n");
     fw.append("\n");
-    fw.append("  public static final BytePackerFactory factory = new BytePackerFactory() {\n");
-    fw.append("    public BytePacker newBytePacker(int bitWidth) {\n");
+    fw.append("  public static final " + packerClass + "Factory factory = new " + packerClass + "Factory() {\n");
+    fw.append("    public " + packerClass + " new" + packerClass + "(int bitWidth) {\n");
     fw.append("      return packers[bitWidth];\n");
     fw.append("    }\n");
     fw.append("  };\n");
     fw.append("\n");
-    for (int i = 0; i <= PACKER_COUNT; i++) {
-      generateClass(fw, i, msbFirst);
+    for (int i = 0; i <= packerCount; i++) {
+      generateClass(fw, i, msbFirst, useLong);
       fw.append("\n");
     }
     fw.append("}\n");
     fw.close();
   }
 
-  private static void generateClass(FileWriter fw, int bitWidth, boolean msbFirst) throws IOException {
-    fw.append("  private static final class Packer" + bitWidth + " extends BytePacker {\n");
+  private static void generateClass(FileWriter fw, int bitWidth, boolean msbFirst, boolean useLong) throws IOException {
+    fw.append("  private static final class Packer" + bitWidth + " extends " + (useLong ? "BytePackerForLong" : "BytePacker") + " {\n");
     fw.append("\n");
     fw.append("    private Packer" + bitWidth + "() {\n");
     fw.append("      super("+bitWidth+");\n");
     fw.append("    }\n");
     fw.append("\n");
     // Packing
-    generatePack(fw, bitWidth, 1, msbFirst);
-    generatePack(fw, bitWidth, 4, msbFirst);
+    generatePack(fw, bitWidth, 1, msbFirst, useLong);
+    generatePack(fw, bitWidth, 4, msbFirst, useLong);
 
     // Unpacking
-    generateUnpack(fw, bitWidth, 1, msbFirst);
-    generateUnpack(fw, bitWidth, 4, msbFirst);
+    generateUnpack(fw, bitWidth, 1, msbFirst, useLong);
+    generateUnpack(fw, bitWidth, 4, msbFirst, useLong);
 
     fw.append("  }\n");
   }
@@ -173,9 +182,10 @@ public class ByteBasedBitPackingGenerator {
     fw.append("           ");
   }
 
-  private static void generatePack(FileWriter fw, int bitWidth, int batch, boolean msbFirst) throws IOException {
-    int mask = genMask(bitWidth);
-    fw.append("    public final void pack" + (batch * 8) + "Values(final int[] in, final int inPos, final byte[] out, final int outPos) {\n");
+  private static void generatePack(FileWriter fw, int bitWidth, int batch, boolean msbFirst, boolean useLong) throws IOException {
+    String mask = genMask(bitWidth, useLong);
+    String valueType = useLong ? "long" : "int";
+    fw.append("    public final void pack" + (batch * 8) + "Values(final " + valueType + "[] in, final int inPos, final byte[] out, final int outPos) {\n");
     for (int byteIndex = 0; byteIndex < bitWidth * batch; ++byteIndex) {
       fw.append("      out[" + align(byteIndex, 2) + " + outPos] = (byte)((\n");
       int startIndex = (byteIndex * 8) / bitWidth;
@@ -202,11 +212,12 @@ public class ByteBasedBitPackingGenerator {
     fw.append("    }\n");
   }
 
-  private static void generateUnpack(FileWriter fw, int bitWidth, int batch, boolean msbFirst)
+  private static void generateUnpack(FileWriter fw, int bitWidth, int batch, boolean msbFirst, boolean useLong)
       throws IOException {
-    fw.append("    public final void unpack" + (batch * 8) + "Values(final byte[] in, final int inPos, final int[] out, final int outPos) {\n");
+    String valueType = useLong ? "long" : "int";
+    fw.append("    public final void unpack" + (batch * 8) + "Values(final byte[] in, final int inPos, final " + valueType + "[] out, final int outPos) {\n");
     if (bitWidth > 0) {
-      int mask = genMask(bitWidth);
+      String mask = genMask(bitWidth, useLong);
       for (int valueIndex = 0; valueIndex < (batch * 8); ++valueIndex) {
         fw.append("      out[" + align(valueIndex, 2) + " + outPos] =\n");
 
@@ -227,7 +238,7 @@ public class ByteBasedBitPackingGenerator {
           } else if (shift > 0){
             shiftString = "<<  " + shift;
           }
-          fw.append(" (((((int)in[" + align(byteIndex, 2) + " + inPos]) & 255) " + shiftString + ") & " + mask + ")");
+          fw.append(" (((((" + valueType + ")in[" + align(byteIndex, 2) + " + inPos]) & 255) " + shiftString + ") & " + mask + ")");
         }
         fw.append(";\n");
       }
@@ -235,13 +246,13 @@ public class ByteBasedBitPackingGenerator {
     fw.append("    }\n");
   }
 
-  private static int genMask(int bitWidth) {
-    int mask = 0;
+  private static String genMask(int bitWidth, boolean useLong) {
+    long mask = 0;
     for (int i = 0; i < bitWidth; i++) {
       mask <<= 1;
       mask |= 1;
     }
-    return mask;
+    return useLong ? mask + "L" : String.valueOf((int) mask);
   }
 
   private static String align(int value, int digits) {
@@ -49,6 +49,7 @@ import parquet.hadoop.metadata.BlockMetaData;
 import parquet.hadoop.metadata.ColumnChunkMetaData;
 import parquet.hadoop.metadata.ColumnPath;
 import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.hadoop.metadata.PackedColumnChunks;
 import parquet.hadoop.metadata.ParquetMetadata;
 import parquet.io.ParquetDecodingException;
 import parquet.schema.GroupType;
@@ -276,7 +277,10 @@ public class ParquetMetadataConverter {
     MessageType messageType = fromParquetSchema(parquetMetadata.getSchema());
     List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
     List<RowGroup> row_groups = parquetMetadata.getRow_groups();
+    // the column chunks of all the row groups are stored together
+    PackedColumnChunks.Builder columnChunks = new PackedColumnChunks.Builder();
     for (RowGroup rowGroup : row_groups) {
+      columnChunks.startRowGroup();
       BlockMetaData blockMetaData = new BlockMetaData();
       blockMetaData.setRowCount(rowGroup.getNum_rows());
       blockMetaData.setTotalByteSize(rowGroup.getTotal_byte_size());
@@ -289,7 +293,7 @@ public class ParquetMetadataConverter {
         }
         parquet.format.ColumnMetaData metaData = columnChunk.meta_data;
         ColumnPath path = getPath(metaData);
-        ColumnChunkMetaData column = ColumnChunkMetaData.get(
+        columnChunks.addColumn(
             path,
             messageType.getType(path.toArray()).asPrimitiveType().getPrimitiveTypeName(),
             CompressionCodecName.fromParquet(metaData.codec),
@@ -302,11 +306,14 @@ public class ParquetMetadataConverter {
         // TODO
         // index_page_offset
         // key_value_metadata
-        blockMetaData.addColumn(column);
       }
       blockMetaData.setPath(filePath);
       blocks.add(blockMetaData);
     }
+    PackedColumnChunks packedColumnChunks = columnChunks.build();
+    for (int i = 0; i < blocks.size(); i++) {
+      blocks.get(i).setColumns(packedColumnChunks.getColumns(i));
+    }
     Map<String, String> keyValueMetaData = new HashMap<String, String>();
     List<KeyValue> key_value_metadata = parquetMetadata.getKey_value_metadata();
     if (key_value_metadata != null) {
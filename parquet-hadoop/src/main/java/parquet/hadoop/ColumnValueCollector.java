@@ -0,0 +1,182 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import parquet.hadoop.metadata.ColumnPath;
+import parquet.io.api.Binary;
+import parquet.io.api.RecordConsumer;
+
+/**
+ * Forwards the records to the column writers and passes the values of a few columns to {@link #collect(int, Object)}.
+ * The values of the other columns are not boxed.
+ */
+abstract class ColumnValueCollector extends RecordConsumer {
+
+  private final String[][] paths;
+  private final List<String> currentPath = new ArrayList<String>();
+
+  private RecordConsumer delegate;
+
+  ColumnValueCollector(List<ColumnPath> columns) {
+    this.paths = new String[columns.size()][];
+    for (int i = 0; i < paths.length; i++) {
+      paths[i] = columns.get(i).toArray();
+    }
+  }
+
+  /**
+   * @param delegate the record consumer of the current row group
+   */
+  void setRecordConsumer(RecordConsumer delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * to be called when the row group is flushed
+   */
+  abstract void endRowGroup();
+
+  /**
+   * called with the values of the collected columns
+   * @param column the index of the column in the collected columns
+   * @param value the value, Binary values may be reused by the caller once this returns
+   */
+  abstract void collect(int column, Object value);
+
+  /**
+   * called before the values of a record
+   */
+  void startRecord() {
+  }
+
+  /**
+   * called after the values of a record
+   */
+  void endRecord() {
+  }
+
+  /**
+   * @return the index of the current column in the collected columns or -1 if it is not collected
+   */
+  private int columnIndex() {
+    for (int i = 0; i < paths.length; i++) {
+      if (paths[i].length == currentPath.size() && matches(paths[i])) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private boolean matches(String[] path) {
+    for (int i = path.length - 1; i >= 0; i--) {
+      if (!path[i].equals(currentPath.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void startMessage() {
+    startRecord();
+    delegate.startMessage();
+  }
+
+  @Override
+  public void endMessage() {
+    delegate.endMessage();
+    endRecord();
+  }
+
+  @Override
+  public void startField(String field, int index) {
+    currentPath.add(field);
+    delegate.startField(field, index);
+  }
+
+  @Override
+  public void endField(String field, int index) {
+    currentPath.remove(currentPath.size() - 1);
+    delegate.endField(field, index);
+  }
+
+  @Override
+  public void startGroup() {
+    delegate.startGroup();
+  }
+
+  @Override
+  public void endGroup() {
+    delegate.endGroup();
+  }
+
+  @Override
+  public void addInteger(int value) {
+    int i = columnIndex();
+    if (i >= 0) {
+      collect(i, value);
+    }
+    delegate.addInteger(value);
+  }
+
+  @Override
+  public void addLong(long value) {
+    int i = columnIndex();
+    if (i >= 0) {
+      collect(i, value);
+    }
+    delegate.addLong(value);
+  }
+
+  @Override
+  public void addBoolean(boolean value) {
+    int i = columnIndex();
+    if (i >= 0) {
+      collect(i, value);
+    }
+    delegate.addBoolean(value);
+  }
+
+  @Override
+  public void addBinary(Binary value) {
+    int i = columnIndex();
+    if (i >= 0) {
+      collect(i, value);
+    }
+    delegate.addBinary(value);
+  }
+
+  @Override
+  public void addFloat(float value) {
+    int i = columnIndex();
+    if (i >= 0) {
+      collect(i, value);
+    }
+    delegate.addFloat(value);
+  }
+
+  @Override
+  public void addDouble(double value) {
+    int i = columnIndex();
+    if (i >= 0) {
+      collect(i, value);
+    }
+    delegate.addDouble(value);
+  }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.InputSplit;
+
+/**
+ * An input split made of the row groups of several (small) files
+ *
+ * @see ParquetInputFormat#COMBINE_SPLIT_SIZE
+ */
+public class CombinedParquetInputSplit extends InputSplit implements Writable {
+
+  /** the number of hosts returned as locations, the usual replication factor */
+  private static final int MAX_LOCATIONS = 3;
+
+  private List<ParquetInputSplit> splits;
+
+  /**
+   * Writables must have a parameterless constructor
+   */
+  public CombinedParquetInputSplit() {
+  }
+
+  /**
+   * @param splits the splits to read in the same task
+   */
+  public CombinedParquetInputSplit(List<ParquetInputSplit> splits) {
+    this.splits = splits;
+  }
+
+  /**
+   * @return the splits to read one after the other
+   */
+  public List<ParquetInputSplit> getSplits() {
+    return splits;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getLength() throws IOException, InterruptedException {
+    long length = 0;
+    for (ParquetInputSplit split : splits) {
+      length += split.getLength();
+    }
+    return length;
+  }
+
+  /**
+   * @return the hosts storing the most bytes of the splits
+   */
+  @Override
+  public String[] getLocations() throws IOException, InterruptedException {
+    final Map<String, Long> bytesPerHost = new HashMap<String, Long>();
+    for (ParquetInputSplit split : splits) {
+      for (String host : split.getLocations()) {
+        Long bytes = bytesPerHost.get(host);
+        bytesPerHost.put(host, (bytes == null ? 0 : bytes) + split.getLength());
+      }
+    }
+    List<Entry<String, Long>> hosts = new ArrayList<Entry<String, Long>>(bytesPerHost.entrySet());
+    Collections.sort(hosts, new Comparator<Entry<String, Long>>() {
+      @Override
+      public int compare(Entry<String, Long> e1, Entry<String, Long> e2) {
+        return Long.signum(e2.getValue() - e1.getValue());
+      }
+    });
+    String[] locations = new String[Math.min(MAX_LOCATIONS, hosts.size())];
+    for (int i = 0; i < locations.length; i++) {
+      locations[i] = hosts.get(i).getKey();
+    }
+    return locations;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void readFields(DataInput in) throws IOException {
+    int size = in.readInt();
+    this.splits = new ArrayList<ParquetInputSplit>(size);
+    for (int i = 0; i < size; i++) {
+      ParquetInputSplit split = new ParquetInputSplit();
+      split.readFields(in);
+      splits.add(split);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void write(DataOutput out) throws IOException {
+    out.writeInt(splits.size());
+    for (ParquetInputSplit split : splits) {
+      split.write(out);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "{" + splits + "}";
+  }
+}
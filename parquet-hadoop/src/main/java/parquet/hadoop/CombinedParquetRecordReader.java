@@ -0,0 +1,132 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+
+import parquet.Log;
+
+/**
+ * Reads the records of a {@link CombinedParquetInputSplit}, one file after the other
+ *
+ * @param <T> type of the materialized records
+ */
+public class CombinedParquetRecordReader<T> extends RecordReader<Void, T> {
+
+  private static final Log LOG = Log.getLog(CombinedParquetRecordReader.class);
+
+  private final ParquetInputFormat<T> inputFormat;
+
+  private List<ParquetInputSplit> splits;
+  private TaskAttemptContext context;
+  private RecordReader<Void, T> currentReader;
+  private int currentIndex = -1;
+  private long currentLength;
+  private long completedLength;
+  private long totalLength;
+
+  /**
+   * @param inputFormat creates the reader of each file
+   */
+  public CombinedParquetRecordReader(ParquetInputFormat<T> inputFormat) {
+    this.inputFormat = inputFormat;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void initialize(InputSplit inputSplit, TaskAttemptContext context) throws IOException, InterruptedException {
+    this.splits = ((CombinedParquetInputSplit)inputSplit).getSplits();
+    this.context = context;
+    this.totalLength = inputSplit.getLength();
+  }
+
+  private boolean nextReader() throws IOException, InterruptedException {
+    if (currentReader != null) {
+      currentReader.close();
+      currentReader = null;
+      completedLength += currentLength;
+    }
+    ++ currentIndex;
+    if (currentIndex >= splits.size()) {
+      return false;
+    }
+    ParquetInputSplit split = splits.get(currentIndex);
+    if (Log.DEBUG) LOG.debug("reading " + split.getPath());
+    currentLength = split.getLength();
+    currentReader = inputFormat.createRecordReader(split, context);
+    currentReader.initialize(split, context);
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean nextKeyValue() throws IOException, InterruptedException {
+    while (currentReader == null || !currentReader.nextKeyValue()) {
+      if (!nextReader()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * always returns null
+   */
+  @Override
+  public Void getCurrentKey() throws IOException, InterruptedException {
+    return null;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public T getCurrentValue() throws IOException, InterruptedException {
+    return currentReader.getCurrentValue();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public float getProgress() throws IOException, InterruptedException {
+    if (totalLength == 0) {
+      return currentIndex >= splits.size() ? 1f : 0f;
+    }
+    float current = currentReader == null ? 0 : currentReader.getProgress() * currentLength;
+    return Math.min(1f, (completedLength + current) / totalLength);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void close() throws IOException {
+    if (currentReader != null) {
+      currentReader.close();
+      currentReader = null;
+    }
+  }
+}
@@ -0,0 +1,226 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+
+import parquet.Log;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ParquetMetadata;
+
+/**
+ * A bounded LRU cache of the footers already read in this JVM.
+ *
+ * A footer is identified by the path, length and modification time of its file,
+ * so a file that is rewritten is read again.
+ * The size of a footer is counted in column chunks (plus one for the file), which
+ * is what most of the memory of the deserialized metadata is made of.
+ *
+ * The cached footers are shared: they must not be modified.
+ *
+ * @see ParquetFileReader#readFooter(Configuration, FileStatus)
+ */
+public class FooterCache {
+
+  private static final Log LOG = Log.getLog(FooterCache.class);
+
+  /**
+   * key to configure the maximum number of column chunks of the footers cached in the JVM (0, the default, disables the cache)
+   */
+  public static final String FOOTER_CACHE_SIZE = "parquet.footer.cache.size";
+
+  private static FooterCache shared;
+
+  /**
+   * The size of the shared cache is set by the first configuration that enables it,
+   * so that jobs configured with different sizes do not keep resizing and evicting it.
+   * @param configuration the configuration defining the size of the cache
+   * @return the cache shared in the JVM, or null if it is disabled in this configuration
+   */
+  public static synchronized FooterCache getShared(Configuration configuration) {
+    long capacity = configuration.getLong(FOOTER_CACHE_SIZE, 0);
+    if (capacity <= 0) {
+      return null;
+    }
+    if (shared == null) {
+      shared = new FooterCache(capacity);
+    } else if (Log.DEBUG && capacity != shared.getCapacity()) {
+      LOG.debug("the shared footer cache keeps its size of " + shared.getCapacity() + " instead of " + capacity);
+    }
+    return shared;
+  }
+
+  private static final class Key {
+    private final String path;
+    private final long length;
+    private final long modificationTime;
+
+    Key(FileStatus file) {
+      this.path = file.getPath().toString();
+      this.length = file.getLen();
+      this.modificationTime = file.getModificationTime();
+    }
+
+    @Override
+    public int hashCode() {
+      return path.hashCode() * 31 + (int)(length ^ modificationTime);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key)obj;
+      return length == other.length && modificationTime == other.modificationTime && path.equals(other.path);
+    }
+  }
+
+  private static final class Entry {
+    private final ParquetMetadata footer;
+    private final long size;
+
+    Entry(ParquetMetadata footer, long size) {
+      this.footer = footer;
+      this.size = size;
+    }
+  }
+
+  private final LinkedHashMap<Key, Entry> cache = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+  private long capacity;
+  private long size = 0;
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long evictionCount = 0;
+
+  /**
+   * @param capacity the maximum number of column chunks of the cached footers
+   */
+  public FooterCache(long capacity) {
+    this.capacity = capacity;
+  }
+
+  /**
+   * @param file the file
+   * @return the cached footer of this version of the file or null
+   */
+  public synchronized ParquetMetadata get(FileStatus file) {
+    Entry entry = cache.get(new Key(file));
+    if (entry == null) {
+      ++ missCount;
+      return null;
+    }
+    ++ hitCount;
+    return entry.footer;
+  }
+
+  /**
+   * caches the footer, evicting the least recently used ones if needed
+   * @param file the file
+   * @param footer its footer
+   */
+  public synchronized void put(FileStatus file, ParquetMetadata footer) {
+    long footerSize = sizeOf(footer);
+    if (footerSize > capacity) {
+      if (Log.DEBUG) LOG.debug("footer of " + file.getPath() + " too big to be cached: " + footerSize);
+      return;
+    }
+    Entry previous = cache.put(new Key(file), new Entry(footer, footerSize));
+    if (previous != null) {
+      size -= previous.size;
+    }
+    size += footerSize;
+    evict();
+  }
+
+  /**
+   * @return the maximum number of column chunks of the cached footers
+   */
+  public synchronized long getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * @param capacity the new maximum number of column chunks of the cached footers
+   */
+  public synchronized void setCapacity(long capacity) {
+    this.capacity = capacity;
+    evict();
+  }
+
+  private void evict() {
+    Iterator<Map.Entry<Key, Entry>> iterator = cache.entrySet().iterator();
+    while (size > capacity && iterator.hasNext()) {
+      Entry eldest = iterator.next().getValue();
+      iterator.remove();
+      size -= eldest.size;
+      ++ evictionCount;
+    }
+  }
+
+  private static long sizeOf(ParquetMetadata footer) {
+    long size = 1;
+    for (BlockMetaData block : footer.getBlocks()) {
+      size += block.getColumns().size();
+    }
+    return size;
+  }
+
+  /**
+   * removes all the footers, the counters are kept
+   */
+  public synchronized void clear() {
+    cache.clear();
+    size = 0;
+  }
+
+  /**
+   * @return the number of cached footers
+   */
+  public synchronized int getFooterCount() {
+    return cache.size();
+  }
+
+  /**
+   * @return the number of column chunks of the cached footers
+   */
+  public synchronized long getSize() {
+    return size;
+  }
+
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "FooterCache{footers: " + cache.size() + ", size: " + size + "/" + capacity
+        + ", hits: " + hitCount + ", misses: " + missCount + ", evictions: " + evictionCount + "}";
+  }
+}
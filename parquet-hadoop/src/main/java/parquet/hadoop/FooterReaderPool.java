@@ -0,0 +1,192 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hadoop.conf.Configuration;
+
+import parquet.Log;
+
+/**
+ * The thread pool reading footers, shared in the JVM.
+ *
+ * Reading a footer is mostly waiting for the file system, so the number of reads in flight
+ * adapts to the observed latency: it grows by one after each read as long as the latency stays
+ * close to the best observed one, and is halved when the latency degrades
+ * (the file system or the NameNode is saturated).
+ * It never goes below {@link #MIN_CONCURRENCY} or above the number of threads.
+ *
+ * The threads are daemons and time out when idle.
+ */
+class FooterReaderPool {
+
+  private static final Log LOG = Log.getLog(FooterReaderPool.class);
+
+  /**
+   * key to configure the maximum number of threads reading footers in the JVM
+   */
+  public static final String FOOTER_READ_THREADS = "parquet.footer.read.threads";
+
+  static final int DEFAULT_THREADS = 32;
+
+  static final int MIN_CONCURRENCY = 5;
+
+  /** the latency is considered degraded above this factor of the best latency */
+  private static final double DEGRADED_LATENCY_FACTOR = 2;
+
+  /**
+   * called as the results become available
+   * @param <T> the result type
+   */
+  interface CompletionListener<T> {
+    void completed(int index, T result);
+  }
+
+  private static FooterReaderPool shared;
+
+  /**
+   * @param configuration defines the maximum number of threads
+   * @return the shared pool, grown if the configuration asks for more threads
+   */
+  static synchronized FooterReaderPool getShared(Configuration configuration) {
+    int threads = Math.max(MIN_CONCURRENCY, configuration.getInt(FOOTER_READ_THREADS, DEFAULT_THREADS));
+    if (shared == null) {
+      shared = new FooterReaderPool(threads);
+    } else if (threads > shared.getMaxThreads()) {
+      shared.setMaxThreads(threads);
+    }
+    return shared;
+  }
+
+  private final ThreadPoolExecutor executor;
+  private int concurrency = MIN_CONCURRENCY;
+  private double smoothedLatency = 0;
+  private double bestLatency = 0;
+  private long readCount = 0;
+
+  FooterReaderPool(int threads) {
+    this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+      private final AtomicInteger count = new AtomicInteger();
+      @Override
+      public Thread newThread(Runnable r) {
+        Thread thread = new Thread(r, "parquet-footer-reader-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    this.executor.allowCoreThreadTimeOut(true);
+  }
+
+  synchronized int getMaxThreads() {
+    return executor.getMaximumPoolSize();
+  }
+
+  private synchronized void setMaxThreads(int threads) {
+    executor.setMaximumPoolSize(threads);
+    executor.setCorePoolSize(threads);
+  }
+
+  /**
+   * @return the current number of reads allowed in flight
+   */
+  synchronized int getConcurrency() {
+    return concurrency;
+  }
+
+  /**
+   * @return the number of reads timed so far
+   */
+  synchronized long getReadCount() {
+    return readCount;
+  }
+
+  synchronized void onCompleted(long latencyNanos) {
+    ++ readCount;
+    smoothedLatency = smoothedLatency == 0 ? latencyNanos : 0.8 * smoothedLatency + 0.2 * latencyNanos;
+    if (bestLatency == 0 || smoothedLatency < bestLatency) {
+      bestLatency = smoothedLatency;
+    }
+    if (smoothedLatency <= DEGRADED_LATENCY_FACTOR * bestLatency) {
+      if (concurrency < executor.getMaximumPoolSize()) {
+        ++ concurrency;
+      }
+    } else {
+      concurrency = Math.max(MIN_CONCURRENCY, concurrency / 2);
+      // forget the best latency slowly so that a permanent change is accepted
+      bestLatency = (bestLatency + smoothedLatency) / 2;
+      if (Log.DEBUG) LOG.debug("footer read latency degraded to " + (long)smoothedLatency / 1000 + "us, concurrency reduced to " + concurrency);
+    }
+  }
+
+  /**
+   * runs the tasks, keeping no more than the current concurrency in flight
+   * @param tasks the tasks to run
+   * @param listener notified of each result as soon as it is available, may be null
+   * @return the results in the order of the tasks
+   * @throws InterruptedException if the current thread is interrupted
+   * @throws ExecutionException if one of the tasks failed, the others are then cancelled
+   */
+  <T> List<T> invokeAll(List<? extends Callable<T>> tasks, CompletionListener<T> listener) throws InterruptedException, ExecutionException {
+    ExecutorCompletionService<Integer> completionService = new ExecutorCompletionService<Integer>(executor);
+    @SuppressWarnings("unchecked")
+    final T[] results = (T[])new Object[tasks.size()];
+    List<Future<Integer>> futures = new ArrayList<Future<Integer>>(tasks.size());
+    int submitted = 0;
+    int completed = 0;
+    try {
+      while (completed < tasks.size()) {
+        while (submitted < tasks.size() && submitted - completed < getConcurrency()) {
+          final int index = submitted;
+          final Callable<T> task = tasks.get(index);
+          futures.add(completionService.submit(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+              long t0 = System.nanoTime();
+              results[index] = task.call();
+              onCompleted(System.nanoTime() - t0);
+              return index;
+            }
+          }));
+          ++ submitted;
+        }
+        int index = completionService.take().get();
+        ++ completed;
+        if (listener != null) {
+          listener.completed(index, results[index]);
+        }
+      }
+    } finally {
+      if (completed < tasks.size()) {
+        for (Future<Integer> future : futures) {
+          future.cancel(true);
+        }
+      }
+    }
+    return Arrays.asList(results);
+  }
+}
@@ -16,6 +16,9 @@
 package parquet.hadoop;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.hadoop.conf.Configuration;
@@ -30,6 +33,7 @@ import parquet.hadoop.util.counters.BenchmarkCounter;
 import parquet.io.ColumnIOFactory;
 import parquet.io.MessageColumnIO;
 import parquet.io.ParquetDecodingException;
+import parquet.io.RecordReaderCompiler;
 import parquet.io.api.RecordMaterializer;
 import parquet.schema.GroupType;
 import parquet.schema.MessageType;
@@ -41,7 +45,23 @@ import static parquet.Log.DEBUG;
 class InternalParquetRecordReader<T> {
   private static final Log LOG = Log.getLog(InternalParquetRecordReader.class);
 
-  private final ColumnIOFactory columnIOFactory = new ColumnIOFactory();
+  private static final int COLUMN_IO_CACHE_SIZE = 64;
+
+  private static final ColumnIOFactory columnIOFactory = new ColumnIOFactory();
+
+  /*
+   * the ColumnIO trees by (requested schema, file schema) so that they are shared by the splits of a task.
+   * The key is the string form of the schemas as MessageType.equals() ignores the length of fixed_len_byte_array
+   */
+  private static final Map<List<String>, MessageColumnIO> columnIOCache = Collections.synchronizedMap(
+      new LinkedHashMap<List<String>, MessageColumnIO>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<String>, MessageColumnIO> eldest) {
+          return size() > COLUMN_IO_CACHE_SIZE;
+        }
+      });
+
 
   private MessageType requestedSchema;
   private MessageType fileSchema;
@@ -55,8 +75,13 @@ class InternalParquetRecordReader<T> {
   private int current = 0;
   private int currentBlock = -1;
   private ParquetFileReader reader;
+  /* the ColumnIO tree of the file, shared with the readers of files with the same schema */
+  private MessageColumnIO columnIO;
+  /* the interpreted assembly and its compiled version, reused from one row group to the next */
+  private parquet.io.RecordReader<T> assemblyReader;
   private parquet.io.RecordReader<T> recordReader;
   private UnboundRecordFilter recordFilter;
+  private boolean compileRecordReader;
 
   private long totalTimeSpentReadingBytes;
   private long totalTimeSpentProcessingRecords;
@@ -90,9 +115,11 @@ class InternalParquetRecordReader<T> {
         totalTimeSpentProcessingRecords += timeAssembling;
         LOG.info("Assembled and processed " + totalCountLoadedSoFar + " records from " + columnCount + " columns in " + totalTimeSpentProcessingRecords + " ms: "+((float)totalCountLoadedSoFar / totalTimeSpentProcessingRecords) + " rec/ms, " + ((float)totalCountLoadedSoFar * columnCount / totalTimeSpentProcessingRecords) + " cell/ms");
         long totalTime = totalTimeSpentProcessingRecords + totalTimeSpentReadingBytes;
-        long percentReading = 100 * totalTimeSpentReadingBytes / totalTime;
-        long percentProcessing = 100 * totalTimeSpentProcessingRecords / totalTime;
-        LOG.info("time spent so far " + percentReading + "% reading ("+totalTimeSpentReadingBytes+" ms) and " + percentProcessing + "% processing ("+totalTimeSpentProcessingRecords+" ms)");
+        if (totalTime != 0) {
+          long percentReading = 100 * totalTimeSpentReadingBytes / totalTime;
+          long percentProcessing = 100 * totalTimeSpentProcessingRecords / totalTime;
+          LOG.info("time spent so far " + percentReading + "% reading ("+totalTimeSpentReadingBytes+" ms) and " + percentProcessing + "% processing ("+totalTimeSpentProcessingRecords+" ms)");
+        }
       }
 
       LOG.info("at row " + current + ". reading next block");
@@ -106,14 +133,26 @@ class InternalParquetRecordReader<T> {
       BenchmarkCounter.incrementTime(timeSpentReading);
       LOG.info("block read in memory in " + timeSpentReading + " ms. row count = " + pages.getRowCount());
       if (Log.DEBUG) LOG.debug("initializing Record assembly with requested schema " + requestedSchema);
-      MessageColumnIO columnIO = columnIOFactory.getColumnIO(requestedSchema, fileSchema);
-      recordReader = columnIO.getRecordReader(pages, recordConverter, recordFilter);
+      assemblyReader = getColumnIO().getRecordReader(pages, recordConverter, recordFilter, assemblyReader);
+      recordReader = compileRecordReader ? RecordReaderCompiler.compile(assemblyReader, recordReader) : assemblyReader;
       startedAssemblingCurrentBlockAt = System.currentTimeMillis();
       totalCountLoadedSoFar += pages.getRowCount();
       ++ currentBlock;
     }
   }
 
+  MessageColumnIO getColumnIO() {
+    if (columnIO == null) {
+      List<String> key = Arrays.asList(requestedSchema.toString(), fileSchema.toString());
+      columnIO = columnIOCache.get(key);
+      if (columnIO == null) {
+        columnIO = columnIOFactory.getColumnIO(requestedSchema, fileSchema);
+        columnIOCache.put(key, columnIO);
+      }
+    }
+    return columnIO;
+  }
+
   public void close() throws IOException {
     reader.close();
   }
@@ -139,6 +178,7 @@ class InternalParquetRecordReader<T> {
     this.fileSchema = fileSchema;
     this.file = file;
     this.columnCount = this.requestedSchema.getPaths().size();
+    this.compileRecordReader = configuration.getBoolean(ParquetInputFormat.COMPILE_RECORD_READER, false);
     this.recordConverter = readSupport.prepareForRead(
         configuration, extraMetadata, fileSchema,
         new ReadSupport.ReadContext(requestedSchema, readSupportMetadata));
@@ -22,6 +22,9 @@ import static parquet.Log.DEBUG;
 import static parquet.Preconditions.checkNotNull;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import parquet.Log;
@@ -30,6 +33,7 @@ import parquet.hadoop.CodecFactory.BytesCompressor;
 import parquet.hadoop.api.WriteSupport;
 import parquet.io.ColumnIOFactory;
 import parquet.io.MessageColumnIO;
+import parquet.io.api.RecordConsumer;
 import parquet.schema.MessageType;
 
 class InternalParquetRecordWriter<T> {
@@ -49,6 +53,9 @@ class InternalParquetRecordWriter<T> {
   private final int dictionaryPageSize;
   private final boolean enableDictionary;
   private final boolean validating;
+  private final SortKeyCollector sortKeys;
+  private final RowGroupIndexWriter indexWriter;
+  private final List<ColumnValueCollector> collectors = new ArrayList<ColumnValueCollector>();
 
   private long recordCount = 0;
   private long recordCountForNextMemCheck = MINIMUM_RECORD_COUNT_FOR_CHECK;
@@ -75,6 +82,32 @@ class InternalParquetRecordWriter<T> {
       int dictionaryPageSize,
       boolean enableDictionary,
       boolean validating) {
+    this(w, writeSupport, schema, extraMetaData, blockSize, pageSize, compressor, dictionaryPageSize, enableDictionary, validating, null, null);
+  }
+
+  /**
+   * @param w the file to write to
+   * @param writeSupport the class to convert incoming records
+   * @param schema the schema of the records
+   * @param extraMetaData extra meta data to write in the footer of the file
+   * @param blockSize the size of a block in the file (this will be approximate)
+   * @param codec the codec used to compress
+   * @param sortOrder if not null, the records must be written in this order and it is recorded in the footer
+   * @param indexWriter if not null, collects the row groups of the values of the indexed columns
+   */
+  public InternalParquetRecordWriter(
+      ParquetFileWriter w,
+      WriteSupport<T> writeSupport,
+      MessageType schema,
+      Map<String, String> extraMetaData,
+      int blockSize,
+      int pageSize,
+      BytesCompressor compressor,
+      int dictionaryPageSize,
+      boolean enableDictionary,
+      boolean validating,
+      SortOrder sortOrder,
+      RowGroupIndexWriter indexWriter) {
     this.w = w;
     this.writeSupport = checkNotNull(writeSupport, "writeSupport");
     this.schema = schema;
@@ -85,6 +118,14 @@ class InternalParquetRecordWriter<T> {
     this.dictionaryPageSize = dictionaryPageSize;
     this.enableDictionary = enableDictionary;
     this.validating = validating;
+    this.sortKeys = sortOrder == null ? null : new SortKeyCollector(sortOrder);
+    this.indexWriter = indexWriter;
+    if (sortKeys != null) {
+      collectors.add(sortKeys);
+    }
+    if (indexWriter != null) {
+      collectors.add(indexWriter);
+    }
     initStore();
   }
 
@@ -99,12 +140,27 @@ class InternalParquetRecordWriter<T> {
     int initialPageBufferSize = max(MINIMUM_BUFFER_SIZE, min(pageSize + pageSize / 10, initialBlockBufferSize));
     store = new ColumnWriteStoreImpl(pageStore, pageSize, initialPageBufferSize, dictionaryPageSize, enableDictionary);
     MessageColumnIO columnIO = new ColumnIOFactory(validating).getColumnIO(schema);
-    writeSupport.prepareForWrite(columnIO.getRecordWriter(store));
+    RecordConsumer recordConsumer = columnIO.getRecordWriter(store);
+    for (ColumnValueCollector collector : collectors) {
+      collector.setRecordConsumer(recordConsumer);
+      recordConsumer = collector;
+    }
+    writeSupport.prepareForWrite(recordConsumer);
   }
 
   public void close() throws IOException, InterruptedException {
     flushStore();
-    w.end(extraMetaData);
+    Map<String, String> metaData = extraMetaData;
+    if (sortKeys != null) {
+      SortOrder sortOrder = sortKeys.getSortOrder();
+      metaData = new HashMap<String, String>(extraMetaData);
+      metaData.put(SortOrder.SORT_COLUMNS, SortOrder.formatColumns(sortOrder.getColumns()));
+      metaData.put(SortOrder.SORT_BOUNDS, sortOrder.formatBounds(sortKeys.getBounds()));
+    }
+    w.end(metaData);
+    if (indexWriter != null) {
+      indexWriter.write(w.getBlocks());
+    }
   }
 
   public void write(T value) throws IOException, InterruptedException {
@@ -143,6 +199,9 @@ class InternalParquetRecordWriter<T> {
     pageStore.flushToFileWriter(w);
     recordCount = 0;
     w.endBlock();
+    for (ColumnValueCollector collector : collectors) {
+      collector.endRowGroup();
+    }
     store = null;
     pageStore = null;
   }
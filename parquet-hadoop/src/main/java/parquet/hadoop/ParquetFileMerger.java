@@ -0,0 +1,371 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+
+import parquet.Log;
+import parquet.column.ColumnDescriptor;
+import parquet.column.ColumnReader;
+import parquet.column.ColumnWriter;
+import parquet.column.ColumnWriteStore;
+import parquet.column.impl.ColumnReadStoreImpl;
+import parquet.column.impl.ColumnWriteStoreImpl;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnPath;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.hadoop.metadata.FileMetaData;
+import parquet.hadoop.metadata.ParquetMetadata;
+import parquet.io.ParquetEncodingException;
+import parquet.io.api.Binary;
+import parquet.io.api.Converter;
+import parquet.io.api.GroupConverter;
+import parquet.io.api.PrimitiveConverter;
+import parquet.schema.GroupType;
+import parquet.schema.MessageType;
+import parquet.schema.Type;
+
+/**
+ * Merges Parquet files into one by copying their row groups as is:
+ * the column chunks are not decompressed nor decoded, only the footer is rewritten.
+ *
+ * The schemas of the files must be compatible (see {@link ParquetFileWriter#mergeInto(MessageType, MessageType)})
+ * and have the same columns, as every row group of the merged file contains all the columns of its schema.
+ *
+ * Optionally, consecutive row groups smaller than a target size are coalesced into one row group.
+ * Their values are decoded and encoded again in new pages, with the codec of the first row group,
+ * so that each column of the coalesced row group has one dictionary (if dictionary encoding is enabled, see
+ * {@link ParquetOutputFormat#ENABLE_DICTIONARY}) and pages of the configured size (see {@link ParquetOutputFormat#PAGE_SIZE}).
+ */
+public class ParquetFileMerger {
+  private static final Log LOG = Log.getLog(ParquetFileMerger.class);
+
+  private static final int MINIMUM_BUFFER_SIZE = 64 * 1024;
+
+  public static void main(String[] args) throws Exception {
+    long rowGroupSize = 0;
+    int first = 0;
+    if (args.length > 2 && args[0].equals("-b")) {
+      rowGroupSize = Long.parseLong(args[1]);
+      first = 2;
+    }
+    if (args.length - first < 2) {
+      System.err.println("usage ParquetFileMerger [-b <row group size to coalesce small row groups>] <output> <input>...");
+      return;
+    }
+    List<Path> inputFiles = new ArrayList<Path>();
+    for (int i = first + 1; i < args.length; i++) {
+      inputFiles.add(new Path(new URI(args[i])));
+    }
+    merge(new Configuration(), inputFiles, new Path(new URI(args[first])), rowGroupSize);
+  }
+
+  /**
+   * merges the files into a new one, keeping their row groups
+   * @param configuration to access the file system
+   * @param inputFiles the files to merge, their row groups are written in this order
+   * @param outputFile the merged file, must not exist
+   * @throws IOException
+   */
+  public static void merge(Configuration configuration, List<Path> inputFiles, Path outputFile) throws IOException {
+    merge(configuration, inputFiles, outputFile, 0);
+  }
+
+  /**
+   * merges the files into a new one, coalescing the consecutive row groups smaller than rowGroupSize
+   * @param configuration to access the file system
+   * @param inputFiles the files to merge, their row groups are written in this order
+   * @param outputFile the merged file, must not exist
+   * @param rowGroupSize the target size of the coalesced row groups (as in {@link BlockMetaData#getTotalByteSize()}), 0 to keep the row groups as they are
+   * @throws IOException
+   */
+  public static void merge(Configuration configuration, List<Path> inputFiles, Path outputFile, long rowGroupSize) throws IOException {
+    List<FileStatus> statuses = new ArrayList<FileStatus>(inputFiles.size());
+    for (Path inputFile : inputFiles) {
+      statuses.add(inputFile.getFileSystem(configuration).getFileStatus(inputFile));
+    }
+    List<Footer> footers = new ArrayList<Footer>();
+    for (Footer footer : ParquetFileReader.readAllFootersInParallel(configuration, statuses)) {
+      // the concatenation of sorted files is not sorted and the row groups are not the same
+      ParquetMetadata metadata = footer.getParquetMetadata();
+      FileMetaData fileMetaData = SortOrder.removeKeys(metadata.getFileMetaData(), SortOrder.SORT_COLUMNS, SortOrder.SORT_BOUNDS);
+      footers.add(new Footer(footer.getFile(), new ParquetMetadata(fileMetaData, metadata.getBlocks())));
+    }
+    FileMetaData mergedMetaData = ParquetFileWriter.getGlobalMetaData(footers).merge();
+    MessageType schema = mergedMetaData.getSchema();
+    for (Footer footer : footers) {
+      checkSameColumns(footer, schema);
+    }
+
+    ParquetFileWriter writer = new ParquetFileWriter(configuration, schema, outputFile);
+    writer.start();
+    RowGroupCoalescer coalescer = new RowGroupCoalescer(configuration, writer, schema, rowGroupSize);
+    List<FSDataInputStream> done = new ArrayList<FSDataInputStream>();
+    try {
+      for (Footer footer : footers) {
+        if (Log.INFO) LOG.info("appending " + footer.getParquetMetadata().getBlocks().size() + " row groups of " + footer.getFile());
+        FSDataInputStream from = footer.getFile().getFileSystem(configuration).open(footer.getFile());
+        for (BlockMetaData rowGroup : footer.getParquetMetadata().getBlocks()) {
+          if (coalescer.add(footer.getFile(), from, rowGroup)) {
+            // the pending row groups were written: the files read before are not needed anymore
+            close(done);
+          }
+        }
+        done.add(from);
+      }
+      coalescer.flush();
+    } finally {
+      close(done);
+      coalescer.release();
+    }
+    writer.end(mergedMetaData.getKeyValueMetaData());
+  }
+
+  private static void close(List<FSDataInputStream> streams) throws IOException {
+    for (FSDataInputStream stream : streams) {
+      stream.close();
+    }
+    streams.clear();
+  }
+
+  private static void checkSameColumns(Footer footer, MessageType mergedSchema) {
+    MessageType schema = footer.getParquetMetadata().getFileMetaData().getSchema();
+    if (schema.getPaths().size() != mergedSchema.getPaths().size()) {
+      throw new ParquetEncodingException(footer.getFile() + " can not be merged: its schema does not have all the columns of the merged schema\n" + schema + "\n" + mergedSchema);
+    }
+    for (String[] path : schema.getPaths()) {
+      if (!mergedSchema.containsPath(path)) {
+        throw new ParquetEncodingException(footer.getFile() + " can not be merged: its schema does not have all the columns of the merged schema\n" + schema + "\n" + mergedSchema);
+      }
+    }
+  }
+
+  /**
+   * a row group of an input file
+   */
+  private static final class RowGroup {
+    private final Path file;
+    private final FSDataInputStream from;
+    private final BlockMetaData metaData;
+
+    RowGroup(Path file, FSDataInputStream from, BlockMetaData metaData) {
+      this.file = file;
+      this.from = from;
+      this.metaData = metaData;
+    }
+  }
+
+  /**
+   * accumulates the consecutive small row groups and writes them as one
+   */
+  private static final class RowGroupCoalescer {
+    private final Configuration configuration;
+    private final ParquetFileWriter writer;
+    private final MessageType schema;
+    private final long rowGroupSize;
+    private final CodecFactory codecFactory;
+    private final List<RowGroup> pending = new ArrayList<RowGroup>();
+    private long pendingSize = 0;
+
+    RowGroupCoalescer(Configuration configuration, ParquetFileWriter writer, MessageType schema, long rowGroupSize) {
+      this.configuration = configuration;
+      this.writer = writer;
+      this.schema = schema;
+      this.rowGroupSize = rowGroupSize;
+      this.codecFactory = new CodecFactory(configuration);
+    }
+
+    /**
+     * @return true if the pending row groups were written
+     */
+    boolean add(Path file, FSDataInputStream from, BlockMetaData metaData) throws IOException {
+      if (metaData.getRowCount() == 0) {
+        return false;
+      }
+      boolean flushed = false;
+      if (!pending.isEmpty() && pendingSize + metaData.getTotalByteSize() > rowGroupSize) {
+        flush();
+        flushed = true;
+      }
+      pending.add(new RowGroup(file, from, metaData));
+      pendingSize += metaData.getTotalByteSize();
+      if (pendingSize >= rowGroupSize) {
+        flush();
+        flushed = true;
+      }
+      return flushed;
+    }
+
+    void flush() throws IOException {
+      if (pending.size() == 1) {
+        RowGroup rowGroup = pending.get(0);
+        writer.appendRowGroup(rowGroup.from, rowGroup.metaData);
+      } else if (pending.size() > 1) {
+        writeCoalesced();
+      }
+      pending.clear();
+      pendingSize = 0;
+    }
+
+    private void writeCoalesced() throws IOException {
+      long rowCount = 0;
+      for (RowGroup rowGroup : pending) {
+        rowCount += rowGroup.metaData.getRowCount();
+      }
+      if (Log.DEBUG) LOG.debug("coalescing " + pending.size() + " row groups of " + rowCount + " rows");
+      CompressionCodecName codec = pending.get(0).metaData.getColumns().get(0).getCodec();
+      int pageSize = ParquetOutputFormat.getPageSize(configuration);
+      int initialSize = (int)Math.min(Math.max(MINIMUM_BUFFER_SIZE, pendingSize / schema.getColumns().size()), Integer.MAX_VALUE);
+      ColumnChunkPageWriteStore pageStore = new ColumnChunkPageWriteStore(codecFactory.getCompressor(codec, pageSize), schema, initialSize);
+      ColumnWriteStoreImpl columnStore = new ColumnWriteStoreImpl(
+          pageStore,
+          pageSize,
+          Math.min(pageSize, initialSize),
+          ParquetOutputFormat.getDictionaryPageSize(configuration),
+          ParquetOutputFormat.getEnableDictionary(configuration));
+      Map<ColumnPath, ValueCopier> copiers = new HashMap<ColumnPath, ValueCopier>();
+      GroupConverter root = new CopyingConverter(schema, new String[0], schema, columnStore, copiers);
+      // the binary values written may point to the pages read: the readers are closed once the row group is written
+      List<ParquetFileReader> readers = new ArrayList<ParquetFileReader>();
+      try {
+        for (RowGroup rowGroup : pending) {
+          ParquetFileReader reader = new ParquetFileReader(configuration, rowGroup.file, Arrays.asList(rowGroup.metaData), schema.getColumns());
+          readers.add(reader);
+          ColumnReadStoreImpl columnReadStore = new ColumnReadStoreImpl(reader.readNextRowGroup(), root, schema);
+          for (ColumnDescriptor column : schema.getColumns()) {
+            copiers.get(ColumnPath.get(column.getPath())).copy(column, columnReadStore.getColumnReader(column));
+          }
+        }
+        writer.startBlock(rowCount);
+        columnStore.flush();
+        pageStore.flushToFileWriter(writer);
+        writer.endBlock();
+      } finally {
+        for (ParquetFileReader reader : readers) {
+          reader.close();
+        }
+      }
+    }
+
+    void release() {
+      codecFactory.release();
+    }
+  }
+
+  /**
+   * the converters of the columns of a group: they write the values they receive to the columns of the coalesced row group
+   */
+  private static final class CopyingConverter extends GroupConverter {
+    private final Converter[] converters;
+
+    CopyingConverter(GroupType type, String[] path, MessageType schema, ColumnWriteStore columns, Map<ColumnPath, ValueCopier> copiers) {
+      converters = new Converter[type.getFieldCount()];
+      for (int i = 0; i < converters.length; i++) {
+        Type field = type.getType(i);
+        String[] fieldPath = Arrays.copyOf(path, path.length + 1);
+        fieldPath[path.length] = field.getName();
+        if (field.isPrimitive()) {
+          ValueCopier copier = new ValueCopier(columns.getColumnWriter(schema.getColumnDescription(fieldPath)));
+          copiers.put(ColumnPath.get(fieldPath), copier);
+          converters[i] = copier;
+        } else {
+          converters[i] = new CopyingConverter(field.asGroupType(), fieldPath, schema, columns, copiers);
+        }
+      }
+    }
+
+    @Override
+    public Converter getConverter(int fieldIndex) {
+      return converters[fieldIndex];
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void end() {
+    }
+  }
+
+  /**
+   * writes the values of a column reader to a column writer at the same levels
+   */
+  private static final class ValueCopier extends PrimitiveConverter {
+    private final ColumnWriter columnWriter;
+    private int repetitionLevel;
+    private int definitionLevel;
+
+    ValueCopier(ColumnWriter columnWriter) {
+      this.columnWriter = columnWriter;
+    }
+
+    void copy(ColumnDescriptor column, ColumnReader columnReader) {
+      int maxDefinitionLevel = column.getMaxDefinitionLevel();
+      for (long i = 0, valueCount = columnReader.getTotalValueCount(); i < valueCount; i++) {
+        repetitionLevel = columnReader.getCurrentRepetitionLevel();
+        definitionLevel = columnReader.getCurrentDefinitionLevel();
+        if (definitionLevel == maxDefinitionLevel) {
+          columnReader.writeCurrentValueToConverter();
+        } else {
+          columnWriter.writeNull(repetitionLevel, definitionLevel);
+        }
+        columnReader.consume();
+      }
+    }
+
+    @Override
+    public void addBinary(Binary value) {
+      columnWriter.write(value, repetitionLevel, definitionLevel);
+    }
+
+    @Override
+    public void addBoolean(boolean value) {
+      columnWriter.write(value, repetitionLevel, definitionLevel);
+    }
+
+    @Override
+    public void addDouble(double value) {
+      columnWriter.write(value, repetitionLevel, definitionLevel);
+    }
+
+    @Override
+    public void addFloat(float value) {
+      columnWriter.write(value, repetitionLevel, definitionLevel);
+    }
+
+    @Override
+    public void addInt(int value) {
+      columnWriter.write(value, repetitionLevel, definitionLevel);
+    }
+
+    @Override
+    public void addLong(long value) {
+      columnWriter.write(value, repetitionLevel, definitionLevel);
+    }
+  }
+}
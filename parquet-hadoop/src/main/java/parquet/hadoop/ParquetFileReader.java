@@ -21,8 +21,16 @@ import static parquet.format.Util.readPageHeader;
 import static parquet.hadoop.ParquetFileWriter.MAGIC;
 import static parquet.hadoop.ParquetFileWriter.PARQUET_METADATA_FILE;
 
+import java.io.ByteArrayInputStream;
 import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -34,15 +42,21 @@ import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocalFileSystem;
 import org.apache.hadoop.fs.Path;
-import org.apache.hadoop.mapred.Utils;
+import org.apache.hadoop.fs.RawLocalFileSystem;
 
 import parquet.Log;
 import parquet.bytes.BytesInput;
@@ -51,15 +65,19 @@ import parquet.column.page.DictionaryPage;
 import parquet.column.page.Page;
 import parquet.column.page.PageReadStore;
 import parquet.format.PageHeader;
+import parquet.format.PageType;
 import parquet.format.converter.ParquetMetadataConverter;
 import parquet.hadoop.CodecFactory.BytesDecompressor;
 import parquet.hadoop.ColumnChunkPageReadStore.ColumnChunkPageReader;
+import parquet.hadoop.api.ReadSupport;
 import parquet.hadoop.metadata.BlockMetaData;
 import parquet.hadoop.metadata.ColumnChunkMetaData;
 import parquet.hadoop.metadata.ColumnPath;
 import parquet.hadoop.metadata.ParquetMetadata;
 import parquet.hadoop.util.counters.BenchmarkCounter;
 import parquet.io.ParquetDecodingException;
+import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
 
 /**
  * Internal implementation of the Parquet file reader as a block container
@@ -73,6 +91,54 @@ public class ParquetFileReader implements Closeable {
 
   private static ParquetMetadataConverter parquetMetadataConverter = new ParquetMetadataConverter();
 
+  /**
+   * key to configure how many bytes at the end of a file are read at once when reading its footer.
+   * Footers that fit need a single read, bigger ones a second read.
+   */
+  public static final String FOOTER_READ_SIZE = "parquet.footer.read.size";
+
+  static final int DEFAULT_FOOTER_READ_SIZE = 64 * 1024;
+
+  /**
+   * key to keep only the metadata of the columns in the requested schema ({@link ReadSupport#PARQUET_READ_SCHEMA})
+   * when reading the footers from an indexed summary file
+   * @see SummaryFileIndex
+   */
+  public static final String SUMMARY_PROJECTION = "parquet.summary.projection";
+
+  /**
+   * key to memory-map the files of the local file system instead of reading them through a stream (false by default).
+   * The pages are then slices of the mapping that are copied only when decoded.
+   * The checksums of the {@link LocalFileSystem} are not verified when the file is mapped
+   * and the mapping is released by the garbage collector, not when the reader is closed.
+   */
+  public static final String LOCAL_MMAP = "parquet.read.local.mmap";
+
+  /**
+   * key to configure the maximum number of threads fetching column chunks in the JVM.
+   * The column chunks of a row group are fetched concurrently with positional reads
+   * so that wide projections are not bound by the latency of each read. 1 fetches them one after the other.
+   */
+  public static final String CHUNK_READ_THREADS = "parquet.read.chunk.threads";
+
+  static final int DEFAULT_CHUNK_READ_THREADS = 8;
+
+  /**
+   * key to read the column chunks with the zero copy reads of Hadoop 2.3 and later (false by default).
+   * When the DataNode is co-located and short-circuit reads are enabled the pages are slices of the mapped HDFS block.
+   * The column chunks are then read one after the other. Ignored when the Hadoop version does not provide zero copy reads.
+   */
+  public static final String ZERO_COPY = "parquet.read.zero.copy";
+
+  /**
+   * key to skip the verification of the HDFS checksums in zero copy reads (false by default).
+   * HDFS can then return the mapped block without reading and checking its checksum file.
+   * @see #ZERO_COPY
+   */
+  public static final String ZERO_COPY_SKIP_CHECKSUMS = "parquet.read.zero.copy.skip.checksums";
+
+  private static ThreadPoolExecutor chunkReadPool;
+
   /**
    * for files provided, check if there's a summary file.
    * If a summary file is found it is used otherwise the file footer is used.
@@ -84,19 +150,41 @@ public class ParquetFileReader implements Closeable {
   public static List<Footer> readAllFootersInParallelUsingSummaryFiles(final Configuration configuration, List<FileStatus> partFiles) throws IOException {
 
     // figure out list of all parents to part files
-    Set<Path> parents = new HashSet<Path>();
+    Map<Path, Set<String>> parents = new HashMap<Path, Set<String>>();
     for (FileStatus part : partFiles) {
-      parents.add(part.getPath().getParent());
+      Path parent = part.getPath().getParent();
+      Set<String> names = parents.get(parent);
+      if (names == null) {
+        names = new HashSet<String>();
+        parents.put(parent, names);
+      }
+      names.add(part.getPath().getName());
+    }
+
+    MessageType projection = null;
+    String projectionString = configuration.get(ReadSupport.PARQUET_READ_SCHEMA);
+    if (configuration.getBoolean(SUMMARY_PROJECTION, false) && projectionString != null) {
+      projection = MessageTypeParser.parseMessageType(projectionString);
     }
 
     // read corresponding summary files if they exist
     Map<Path, Footer> cache = new HashMap<Path, Footer>();
-    for (Path path : parents) {
+    for (Entry<Path, Set<String>> parent : parents.entrySet()) {
+      Path path = parent.getKey();
       FileSystem fileSystem = path.getFileSystem(configuration);
       Path summaryFile = new Path(path, PARQUET_METADATA_FILE);
       if (fileSystem.exists(summaryFile)) {
-        if (Log.INFO) LOG.info("reading summary file: " + summaryFile);
-        List<Footer> footers = readSummaryFile(configuration, fileSystem.getFileStatus(summaryFile));
+        FileStatus summaryStatus = fileSystem.getFileStatus(summaryFile);
+        SummaryFileIndex index = SummaryFileIndex.read(configuration, summaryStatus);
+        List<Footer> footers;
+        if (index != null) {
+          // decode only the footers of the requested files
+          if (Log.INFO) LOG.info("reading indexed summary file: " + summaryFile);
+          footers = index.readFooters(configuration, parent.getValue(), projection);
+        } else {
+          if (Log.INFO) LOG.info("reading summary file: " + summaryFile);
+          footers = readSummaryFile(configuration, summaryStatus);
+        }
         for (Footer footer : footers) {
           // the folder may have been moved
           footer = new Footer(new Path(path, footer.getFile().getName()), footer.getParquetMetadata());
@@ -126,43 +214,57 @@ public class ParquetFileReader implements Closeable {
     return result;
   }
 
+  /**
+   * reads the footers of the files using the shared footer reading pool
+   * @param configuration the configuration to access the file system
+   * @param partFiles the files to read
+   * @return the footers in the same order
+   * @throws IOException if a footer could not be read
+   * @see FooterReaderPool#FOOTER_READ_THREADS
+   */
   public static List<Footer> readAllFootersInParallel(final Configuration configuration, List<FileStatus> partFiles) throws IOException {
-    ExecutorService threadPool = Executors.newFixedThreadPool(5);
-    try {
-      List<Future<Footer>> footers = new ArrayList<Future<Footer>>();
-      for (final FileStatus currentFile : partFiles) {
-        footers.add(threadPool.submit(new Callable<Footer>() {
-          @Override
-          public Footer call() throws Exception {
-            try {
-              FileSystem fs = currentFile.getPath().getFileSystem(configuration);
-              return readFooter(fs, currentFile);
-            } catch (IOException e) {
-              throw new IOException("Could not read footer for file " + currentFile, e);
+    // cached footers are resolved here so that the pool only times the footers actually read from the files
+    final FooterCache cache = FooterCache.getShared(configuration);
+    Footer[] footers = new Footer[partFiles.size()];
+    List<Integer> toRead = new ArrayList<Integer>();
+    List<Callable<Footer>> tasks = new ArrayList<Callable<Footer>>();
+    for (int i = 0; i < footers.length; i++) {
+      final FileStatus currentFile = partFiles.get(i);
+      ParquetMetadata cached = cache == null ? null : cache.get(currentFile);
+      if (cached != null) {
+        footers[i] = new Footer(currentFile.getPath(), cached);
+        continue;
+      }
+      toRead.add(i);
+      tasks.add(new Callable<Footer>() {
+        @Override
+        public Footer call() throws Exception {
+          try {
+            // the cache was already looked up, a miss is counted once
+            ParquetMetadata footer = readFooterFromFile(configuration, currentFile);
+            if (cache != null) {
+              cache.put(currentFile, footer);
             }
+            return new Footer(currentFile.getPath(), footer);
+          } catch (IOException e) {
+            throw new IOException("Could not read footer for file " + currentFile, e);
           }
-
-          private Footer readFooter(final FileSystem fs,
-              final FileStatus currentFile) throws IOException {
-            ParquetMetadata parquetMetadata = ParquetFileReader.readFooter(configuration, currentFile);
-            return new Footer(currentFile.getPath(), parquetMetadata);
-          }
-        }));
-      }
-      List<Footer> result = new ArrayList<Footer>(footers.size());
-      for (Future<Footer> futureFooter : footers) {
-        try {
-          result.add(futureFooter.get());
-        } catch (InterruptedException e) {
-          Thread.interrupted();
-          throw new RuntimeException("The thread was interrupted", e);
-        } catch (ExecutionException e) {
-          throw new IOException("Could not read footer: " + e.getMessage(), e.getCause());
+        }
+      });
+    }
+    try {
+      if (!tasks.isEmpty()) {
+        List<Footer> read = FooterReaderPool.getShared(configuration).invokeAll(tasks, null);
+        for (int i = 0; i < read.size(); i++) {
+          footers[toRead.get(i)] = read.get(i);
         }
       }
-      return result;
-    } finally {
-      threadPool.shutdownNow();
+      return Arrays.asList(footers);
+    } catch (InterruptedException e) {
+      Thread.interrupted();
+      throw new RuntimeException("The thread was interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IOException("Could not read footer: " + e.getMessage(), e.getCause());
     }
   }
 
@@ -170,7 +272,7 @@ public class ParquetFileReader implements Closeable {
     final FileSystem fs = fileStatus.getPath().getFileSystem(configuration);
     List<FileStatus> statuses;
     if (fileStatus.isDir()) {
-      statuses = Arrays.asList(fs.listStatus(fileStatus.getPath(), new Utils.OutputFileUtils.OutputFilesFilter()));
+      statuses = Arrays.asList(fs.listStatus(fileStatus.getPath(), ParquetInputFormat.hiddenFileFilter));
     } else {
       statuses = new ArrayList<FileStatus>();
       statuses.add(fileStatus);
@@ -237,12 +339,26 @@ public class ParquetFileReader implements Closeable {
 
   /**
    * Reads the meta data block in the footer of the file
+   * (or gets it from the {@link FooterCache} if it is enabled in the configuration)
    * @param configuration
    * @param file the parquet File
    * @return the metadata blocks in the footer
    * @throws IOException if an error occurs while reading the file
    */
   public static final ParquetMetadata readFooter(Configuration configuration, FileStatus file) throws IOException {
+    FooterCache footerCache = FooterCache.getShared(configuration);
+    if (footerCache == null) {
+      return readFooterFromFile(configuration, file);
+    }
+    ParquetMetadata footer = footerCache.get(file);
+    if (footer == null) {
+      footer = readFooterFromFile(configuration, file);
+      footerCache.put(file, footer);
+    }
+    return footer;
+  }
+
+  private static ParquetMetadata readFooterFromFile(Configuration configuration, FileStatus file) throws IOException {
     FileSystem fileSystem = file.getPath().getFileSystem(configuration);
     FSDataInputStream f = fileSystem.open(file.getPath());
     try {
@@ -252,13 +368,14 @@ public class ParquetFileReader implements Closeable {
       if (l < MAGIC.length + FOOTER_LENGTH_SIZE + MAGIC.length) { // MAGIC + data + footer + footerIndex + MAGIC
         throw new RuntimeException(file.getPath() + " is not a Parquet file (too small)");
       }
+      // read the end of the file in one go, it usually contains the whole footer
+      int tailSize = (int)Math.min(l, Math.max(FOOTER_LENGTH_SIZE + MAGIC.length, configuration.getInt(FOOTER_READ_SIZE, DEFAULT_FOOTER_READ_SIZE)));
+      byte[] tail = new byte[tailSize];
+      f.readFully(l - tailSize, tail);
+      int footerLengthIndexInTail = tailSize - FOOTER_LENGTH_SIZE - MAGIC.length;
       long footerLengthIndex = l - FOOTER_LENGTH_SIZE - MAGIC.length;
-      if (Log.DEBUG) LOG.debug("reading footer index at " + footerLengthIndex);
-
-      f.seek(footerLengthIndex);
-      int footerLength = readIntLittleEndian(f);
-      byte[] magic = new byte[MAGIC.length];
-      f.readFully(magic);
+      int footerLength = readIntLittleEndian(tail, footerLengthIndexInTail);
+      byte[] magic = Arrays.copyOfRange(tail, tailSize - MAGIC.length, tailSize);
       if (!Arrays.equals(MAGIC, magic)) {
         throw new RuntimeException(file.getPath() + " is not a Parquet file. expected magic number at tail " + Arrays.toString(MAGIC) + " but found " + Arrays.toString(magic));
       }
@@ -267,16 +384,33 @@ public class ParquetFileReader implements Closeable {
       if (footerIndex < MAGIC.length || footerIndex >= footerLengthIndex) {
         throw new RuntimeException("corrupted file: the footer index is not within the file");
       }
-      f.seek(footerIndex);
-      return parquetMetadataConverter.readParquetMetadata(f);
+      byte[] footerBytes;
+      int footerOffset;
+      if (footerLength <= footerLengthIndexInTail) {
+        footerBytes = tail;
+        footerOffset = footerLengthIndexInTail - footerLength;
+      } else {
+        // the footer is bigger than the speculative read: read the missing beginning
+        if (Log.DEBUG) LOG.debug("footer of " + footerLength + " bytes bigger than the " + tailSize + " bytes read");
+        footerBytes = new byte[footerLength];
+        footerOffset = 0;
+        int missing = footerLength - footerLengthIndexInTail;
+        f.readFully(footerIndex, footerBytes, 0, missing);
+        System.arraycopy(tail, 0, footerBytes, missing, footerLengthIndexInTail);
+      }
+      return parquetMetadataConverter.readParquetMetadata(new ByteArrayInputStream(footerBytes, footerOffset, footerLength));
     } finally {
       f.close();
     }
   }
+
   private CodecFactory codecFactory;
 
   private final List<BlockMetaData> blocks;
   private final FSDataInputStream f;
+  private final MappedByteBuffer mapping;
+  private final int chunkReadThreads;
+  private final ZeroCopyReader zeroCopyReader;
   private final Path filePath;
   private int currentBlock = 0;
   private Map<ColumnPath, ColumnDescriptor> paths = new HashMap<ColumnPath, ColumnDescriptor>();
@@ -292,7 +426,10 @@ public class ParquetFileReader implements Closeable {
   public ParquetFileReader(Configuration configuration, Path filePath, List<BlockMetaData> blocks, List<ColumnDescriptor> columns) throws IOException {
     this.filePath = filePath;
     FileSystem fs = filePath.getFileSystem(configuration);
-    this.f = fs.open(filePath);
+    this.mapping = configuration.getBoolean(LOCAL_MMAP, false) ? map(fs, filePath) : null;
+    this.f = mapping == null ? fs.open(filePath) : null;
+    this.chunkReadThreads = configuration.getInt(CHUNK_READ_THREADS, DEFAULT_CHUNK_READ_THREADS);
+    this.zeroCopyReader = f != null && configuration.getBoolean(ZERO_COPY, false) && ZeroCopyReader.isAvailable() ? new ZeroCopyReader(f, configuration.getBoolean(ZERO_COPY_SKIP_CHECKSUMS, false)) : null;
     this.blocks = blocks;
     for (ColumnDescriptor col : columns) {
       paths.put(ColumnPath.get(col.getPath()), col);
@@ -300,12 +437,57 @@ public class ParquetFileReader implements Closeable {
     this.codecFactory = new CodecFactory(configuration);
   }
 
+  /**
+   * @param fs the file system of the file
+   * @param file the file to map
+   * @return the mapping of the whole file or null if it is not on the local file system or too big to be mapped at once
+   * @throws IOException
+   */
+  private static MappedByteBuffer map(FileSystem fs, Path file) throws IOException {
+    File localFile;
+    if (fs instanceof LocalFileSystem) {
+      localFile = ((LocalFileSystem)fs).pathToFile(file);
+    } else if (fs instanceof RawLocalFileSystem) {
+      localFile = ((RawLocalFileSystem)fs).pathToFile(file);
+    } else {
+      return null;
+    }
+    RandomAccessFile raf = new RandomAccessFile(localFile, "r");
+    try {
+      FileChannel channel = raf.getChannel();
+      if (channel.size() > Integer.MAX_VALUE) {
+        if (Log.INFO) LOG.info("not mapping " + file + ": " + channel.size() + " bytes is too big");
+        return null;
+      }
+      // the mapping stays valid once the channel is closed
+      if (DEBUG) LOG.debug("mapping " + channel.size() + " bytes of " + file);
+      return channel.map(MapMode.READ_ONLY, 0, channel.size());
+    } finally {
+      raf.close();
+    }
+  }
+
+  /**
+   * @return true if the file is memory-mapped
+   * @see #LOCAL_MMAP
+   */
+  boolean isMemoryMapped() {
+    return mapping != null;
+  }
+
   /**
    * Reads all the columns requested from the row group at the current file position.
+   * The column chunks are fetched concurrently (see {@link #CHUNK_READ_THREADS}) and their pages are
+   * parsed in order as they arrive.
+   * The pages of the previous row group must not be used anymore.
    * @throws IOException if an error occurs while reading
    * @return the PageReadStore which can provide PageReaders for each column.
    */
   public PageReadStore readNextRowGroup() throws IOException {
+    if (zeroCopyReader != null) {
+      // the pages of the previous row group are not used anymore
+      zeroCopyReader.releaseAll();
+    }
     if (currentBlock == blocks.size()) {
       return null;
     }
@@ -313,16 +495,23 @@ public class ParquetFileReader implements Closeable {
     if (block.getRowCount() == 0) {
       throw new RuntimeException("Illegal row group of 0 rows");
     }
-    ColumnChunkPageReadStore columnChunkPageReadStore = new ColumnChunkPageReadStore(block.getRowCount());
+    List<ColumnChunkMetaData> chunks = new ArrayList<ColumnChunkMetaData>();
     for (ColumnChunkMetaData mc : block.getColumns()) {
-      ColumnPath pathKey = mc.getPath();
       BenchmarkCounter.incrementTotalBytes(mc.getTotalSize());
-      ColumnDescriptor columnDescriptor = paths.get(pathKey);
-      if (columnDescriptor != null) {
+      if (paths.containsKey(mc.getPath())) {
         BenchmarkCounter.incrementBytesRead(mc.getTotalSize());
+        chunks.add(mc);
+      }
+    }
+    List<Future<ByteBuffer>> fetches = fetchColumnChunks(chunks);
+    ColumnChunkPageReadStore columnChunkPageReadStore = new ColumnChunkPageReadStore(block.getRowCount());
+    try {
+      for (int i = 0; i < chunks.size(); i++) {
+        ColumnChunkMetaData mc = chunks.get(i);
+        ColumnDescriptor columnDescriptor = paths.get(mc.getPath());
         List<Page> pagesInChunk = new ArrayList<Page>();
         List<DictionaryPage> dictionaryPagesInChunk = new ArrayList<DictionaryPage>();
-        readColumnChunkPages(columnDescriptor, mc, pagesInChunk, dictionaryPagesInChunk);
+        readColumnChunkPages(mc, getColumnChunk(fetches.get(i)), pagesInChunk, dictionaryPagesInChunk);
         if (dictionaryPagesInChunk.size() > 1) {
           throw new ParquetDecodingException("more than one dictionary page: " + dictionaryPagesInChunk);
         }
@@ -330,35 +519,180 @@ public class ParquetFileReader implements Closeable {
         ColumnChunkPageReader columnChunkPageReader = new ColumnChunkPageReader(decompressor, pagesInChunk, dictionaryPagesInChunk.size() == 0 ? null : dictionaryPagesInChunk.get(0));
         columnChunkPageReadStore.addColumn(columnDescriptor, columnChunkPageReader);
       }
+    } finally {
+      // in case of failure
+      for (Future<ByteBuffer> fetch : fetches) {
+        fetch.cancel(true);
+      }
     }
     ++currentBlock;
     return columnChunkPageReadStore;
   }
 
   /**
-   * Read all of the pages in a given column chunk.
-   * @return the list of pages
+   * starts fetching the column chunks, on the shared pool if there are several of them to fetch from the stream
+   * @param chunks the column chunks to fetch
+   * @return the fetches, in the same order
    */
-  private void readColumnChunkPages(ColumnDescriptor columnDescriptor, ColumnChunkMetaData metadata, List<Page> pagesInChunk, List<DictionaryPage> dictionaryPagesInChunk)
-      throws IOException {
+  private List<Future<ByteBuffer>> fetchColumnChunks(List<ColumnChunkMetaData> chunks) {
+    List<Future<ByteBuffer>> fetches = new ArrayList<Future<ByteBuffer>>(chunks.size());
+    // zero copy reads seek the stream
+    ExecutorService pool = mapping == null && zeroCopyReader == null && chunks.size() > 1 && chunkReadThreads > 1 ? getChunkReadPool(chunkReadThreads) : null;
+    for (final ColumnChunkMetaData mc : chunks) {
+      Callable<ByteBuffer> fetch = new Callable<ByteBuffer>() {
+        @Override
+        public ByteBuffer call() throws IOException {
+          return readColumnChunk(mc);
+        }
+      };
+      if (pool != null) {
+        fetches.add(pool.submit(fetch));
+      } else {
+        // fetched when the pages are parsed
+        fetches.add(new FutureTask<ByteBuffer>(fetch));
+      }
+    }
+    return fetches;
+  }
+
+  private ByteBuffer getColumnChunk(Future<ByteBuffer> fetch) throws IOException {
+    if (fetch instanceof FutureTask && !fetch.isDone()) {
+      ((FutureTask<ByteBuffer>)fetch).run();
+    }
+    try {
+      return fetch.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("interrupted while reading " + filePath, e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException)e.getCause();
+      }
+      throw new ParquetDecodingException("could not read a column chunk of " + filePath, e.getCause());
+    }
+  }
+
+  /**
+   * @param threads the maximum number of threads fetching column chunks
+   * @return the pool shared in the JVM, grown if more threads are asked for
+   */
+  private static synchronized ExecutorService getChunkReadPool(int threads) {
+    if (chunkReadPool == null) {
+      chunkReadPool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+        @Override
+        public Thread newThread(Runnable r) {
+          Thread thread = new Thread(r, "parquet-chunk-reader-" + count.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+      chunkReadPool.allowCoreThreadTimeOut(true);
+    } else if (threads > chunkReadPool.getMaximumPoolSize()) {
+      chunkReadPool.setMaximumPoolSize(threads);
+      chunkReadPool.setCorePoolSize(threads);
+    }
+    return chunkReadPool;
+  }
+
+  /**
+   * reads a column chunk with positional reads (the stream is shared by the concurrent fetches)
+   * @param metadata the column chunk
+   * @return the bytes of the column chunk, positioned at its first page
+   * @throws IOException
+   */
+  private ByteBuffer readColumnChunk(ColumnChunkMetaData metadata) throws IOException {
     long startingPos = metadata.getFirstDataPageOffset();
-    if (metadata.getDictionaryPageOffset() > 0 && metadata.getDictionaryPageOffset() < startingPos) {
+    long dictionaryPageOffset = metadata.getDictionaryPageOffset();
+    if (dictionaryPageOffset > 0 && dictionaryPageOffset < startingPos) {
       // if there's a dictionary and it's before the first data page, start from there
-      startingPos = metadata.getDictionaryPageOffset();
+      startingPos = dictionaryPageOffset;
+    }
+    if (mapping != null) {
+      // the pages are slices of the mapping
+      ByteBuffer chunk = mapping.duplicate();
+      chunk.position((int)startingPos);
+      return chunk;
+    }
+    if (zeroCopyReader != null) {
+      ByteBuffer chunk = readColumnChunkZeroCopy(metadata, startingPos);
+      if (chunk != null) {
+        return chunk;
+      }
+    }
+    byte[] chunk = new byte[(int)metadata.getTotalSize()];
+    f.readFully(startingPos, chunk);
+    // the total size in the footer does not include the header of the dictionary page: read the missing bytes
+    // (the few extra bytes are not used if the writer did include it)
+    int headerSize = getDictionaryPageHeaderSize(ByteBuffer.wrap(chunk));
+    if (headerSize > 0) {
+      chunk = Arrays.copyOf(chunk, chunk.length + headerSize);
+      f.readFully(startingPos + metadata.getTotalSize(), chunk, chunk.length - headerSize, headerSize);
+    }
+    if (DEBUG) LOG.debug(startingPos + ": read column chunk " + metadata.getPath() + " of " + chunk.length + " bytes");
+    return ByteBuffer.wrap(chunk);
+  }
+
+  /**
+   * @param metadata the column chunk
+   * @param startingPos the position of its first page
+   * @return the column chunk in a buffer of the stream or null if it could not be read at once
+   * @throws IOException
+   */
+  private ByteBuffer readColumnChunkZeroCopy(ColumnChunkMetaData metadata, long startingPos) throws IOException {
+    int length = (int)metadata.getTotalSize();
+    ByteBuffer chunk = zeroCopyReader.read(startingPos, length);
+    if (chunk != null) {
+      int headerSize = getDictionaryPageHeaderSize(chunk);
+      if (headerSize > 0) {
+        // the buffer can not be extended: read again including the header of the dictionary page
+        zeroCopyReader.release(chunk);
+        chunk = zeroCopyReader.read(startingPos, length + headerSize);
+      }
+    }
+    if (chunk == null) {
+      if (DEBUG) LOG.debug(startingPos + ": could not read column chunk " + metadata.getPath() + " without copy");
+      return null;
+    }
+    if (DEBUG) LOG.debug(startingPos + ": read column chunk " + metadata.getPath() + " without copy");
+    // the position of the buffer of the stream is left unchanged
+    return chunk.duplicate();
+  }
+
+  /**
+   * @param chunk a column chunk, positioned at its first page
+   * @return the size of the header of its dictionary page or 0 if it does not start with a dictionary page
+   * @throws IOException
+   */
+  private static int getDictionaryPageHeaderSize(ByteBuffer chunk) throws IOException {
+    ByteBuffer header = chunk.duplicate();
+    if (readPageHeader(new ByteBufferInputStream(header)).type != PageType.DICTIONARY_PAGE) {
+      return 0;
     }
-    f.seek(startingPos);
+    return header.position() - chunk.position();
+  }
+
+  /**
+   * Read all of the pages in a given column chunk.
+   * @param metadata the column chunk
+   * @param chunk its bytes, positioned at its first page
+   */
+  private void readColumnChunkPages(ColumnChunkMetaData metadata, ByteBuffer chunk, List<Page> pagesInChunk, List<DictionaryPage> dictionaryPagesInChunk)
+      throws IOException {
+    int chunkStart = chunk.position();
+    InputStream in = new ByteBufferInputStream(chunk);
     if (DEBUG) {
-      LOG.debug(f.getPos() + ": start column chunk " + metadata.getPath() +
+      LOG.debug("start column chunk " + metadata.getPath() +
         " " + metadata.getType() + " count=" + metadata.getValueCount());
     }
     long valuesCountReadSoFar = 0;
     while (valuesCountReadSoFar < metadata.getValueCount()) {
-      PageHeader pageHeader = readPageHeader(f);
+      PageHeader pageHeader = readPageHeader(in);
       switch (pageHeader.type) {
         case DICTIONARY_PAGE:
           dictionaryPagesInChunk.add(
               new DictionaryPage(
-                  BytesInput.copy(BytesInput.from(f, pageHeader.compressed_page_size)),
+                  readPageBytes(chunk, pageHeader.compressed_page_size),
                   pageHeader.uncompressed_page_size,
                   pageHeader.dictionary_page_header.num_values,
                   parquetMetadataConverter.getEncoding(pageHeader.dictionary_page_header.encoding)
@@ -367,7 +701,7 @@ public class ParquetFileReader implements Closeable {
         case DATA_PAGE:
           pagesInChunk.add(
               new Page(
-                  BytesInput.copy(BytesInput.from(f, pageHeader.compressed_page_size)),
+                  readPageBytes(chunk, pageHeader.compressed_page_size),
                   pageHeader.data_page_header.num_values,
                   pageHeader.uncompressed_page_size,
                   parquetMetadataConverter.getEncoding(pageHeader.data_page_header.repetition_level_encoding),
@@ -378,7 +712,7 @@ public class ParquetFileReader implements Closeable {
           break;
         default:
           if (DEBUG) LOG.debug("skipping page of type " + pageHeader.type + " of size " + pageHeader.compressed_page_size);
-          f.skip(pageHeader.compressed_page_size);
+          in.skip(pageHeader.compressed_page_size);
           break;
       }
     }
@@ -388,13 +722,75 @@ public class ParquetFileReader implements Closeable {
           "Expected " + metadata.getValueCount() + " values in column chunk at " +
           filePath + " offset " + metadata.getFirstDataPageOffset() +
           " but got " + valuesCountReadSoFar + " values instead over " + pagesInChunk.size()
-          + " pages ending at file offset " + f.getPos());
+          + " pages after " + (chunk.position() - chunkStart) + " bytes");
+    }
+  }
+
+  /**
+   * @param chunk the column chunk positioned at the page
+   * @param size the size of the page
+   * @return the bytes of the page, a slice of the chunk
+   * @throws IOException
+   */
+  private BytesInput readPageBytes(ByteBuffer chunk, int size) throws IOException {
+    if (size > chunk.remaining()) {
+      throw new ParquetDecodingException("page of " + size + " bytes past the end of the column chunk in " + filePath);
+    }
+    BytesInput bytes = BytesInput.from(chunk, chunk.position(), size);
+    chunk.position(chunk.position() + size);
+    return bytes;
+  }
+
+  /**
+   * reads the page headers from a column chunk
+   */
+  private static final class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (len == 0) {
+        return 0;
+      }
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int n = Math.min(len, buffer.remaining());
+      buffer.get(b, off, n);
+      return n;
+    }
+
+    @Override
+    public long skip(long n) {
+      int skipped = (int)Math.min(Math.max(n, 0), buffer.remaining());
+      buffer.position(buffer.position() + skipped);
+      return skipped;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
     }
   }
 
   @Override
   public void close() throws IOException {
-    f.close();
+    // the mapping is released once the pages referring to it are garbage collected
+    if (zeroCopyReader != null) {
+      zeroCopyReader.releaseAll();
+    }
+    if (f != null) {
+      f.close();
+    }
     this.codecFactory.release();
   }
 
@@ -16,6 +16,7 @@
 package parquet.hadoop;
 
 import static parquet.Log.DEBUG;
+import static parquet.format.Util.readPageHeader;
 import static parquet.format.Util.writeFileMetaData;
 
 import java.io.IOException;
@@ -29,6 +30,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -39,6 +41,8 @@ import parquet.bytes.BytesInput;
 import parquet.bytes.BytesUtils;
 import parquet.column.ColumnDescriptor;
 import parquet.column.page.DictionaryPage;
+import parquet.format.PageHeader;
+import parquet.format.PageType;
 import parquet.format.converter.ParquetMetadataConverter;
 import parquet.hadoop.metadata.BlockMetaData;
 import parquet.hadoop.metadata.ColumnChunkMetaData;
@@ -66,6 +70,8 @@ public class ParquetFileWriter {
 
   private static final ParquetMetadataConverter metadataConverter = new ParquetMetadataConverter();
 
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
   private final MessageType schema;
   private final FSDataOutputStream out;
   private BlockMetaData currentBlock;
@@ -302,6 +308,81 @@ public class ParquetFileWriter {
     currentBlock = null;
   }
 
+  /**
+   * copies a row group of another file as is: the column chunks are copied byte for byte,
+   * only their offsets change in the footer
+   * @param from the file containing the row group
+   * @param rowGroup the metadata of the row group in this file
+   * @throws IOException
+   */
+  public void appendRowGroup(FSDataInputStream from, BlockMetaData rowGroup) throws IOException {
+    startBlock(rowGroup.getRowCount());
+    for (ColumnChunkMetaData chunk : rowGroup.getColumns()) {
+      ColumnDescriptor descriptor = schema.getColumnDescription(chunk.getPath().toArray());
+      startColumn(descriptor, chunk.getValueCount(), chunk.getCodec());
+      state = state.write();
+      long start = chunk.getFirstDataPageOffset();
+      if (chunk.getDictionaryPageOffset() > 0 && chunk.getDictionaryPageOffset() < start) {
+        start = chunk.getDictionaryPageOffset();
+      }
+      // the total size in the footer does not always include the page headers: find the end from the pages
+      long length = getColumnChunkEnd(from, chunk, start) - start;
+      long newStart = out.getPos();
+      if (DEBUG) LOG.debug(newStart + ": copy column chunk " + chunk.getPath() + " of " + length + " bytes from " + start);
+      copy(from, start, length, out);
+      currentChunkFirstDataPage = newStart + chunk.getFirstDataPageOffset() - start;
+      currentChunkDictionaryPageOffset = chunk.getDictionaryPageOffset() > 0 ? newStart + chunk.getDictionaryPageOffset() - start : 0;
+      currentEncodings.addAll(chunk.getEncodings());
+      compressedLength = chunk.getTotalSize();
+      uncompressedLength = chunk.getTotalUncompressedSize();
+      endColumn();
+    }
+    endBlock();
+  }
+
+  /**
+   * copies all the row groups of another file as is
+   * @param configuration to access the file system
+   * @param file the file to append
+   * @throws IOException
+   * @see #appendRowGroup(FSDataInputStream, BlockMetaData)
+   */
+  public void appendFile(Configuration configuration, Path file) throws IOException {
+    ParquetMetadata footer = ParquetFileReader.readFooter(configuration, file);
+    FSDataInputStream from = file.getFileSystem(configuration).open(file);
+    try {
+      for (BlockMetaData rowGroup : footer.getBlocks()) {
+        appendRowGroup(from, rowGroup);
+      }
+    } finally {
+      from.close();
+    }
+  }
+
+  private static long getColumnChunkEnd(FSDataInputStream from, ColumnChunkMetaData chunk, long start) throws IOException {
+    from.seek(start);
+    long valueCount = 0;
+    while (valueCount < chunk.getValueCount()) {
+      PageHeader pageHeader = readPageHeader(from);
+      if (pageHeader.type == PageType.DATA_PAGE) {
+        valueCount += pageHeader.data_page_header.num_values;
+      }
+      from.seek(from.getPos() + pageHeader.compressed_page_size);
+    }
+    return from.getPos();
+  }
+
+  private static void copy(FSDataInputStream from, long start, long length, FSDataOutputStream to) throws IOException {
+    byte[] buffer = new byte[(int)Math.min(length, COPY_BUFFER_SIZE)];
+    long copied = 0;
+    while (copied < length) {
+      int toCopy = (int)Math.min(buffer.length, length - copied);
+      from.readFully(start + copied, buffer, 0, toCopy);
+      to.write(buffer, 0, toCopy);
+      copied += toCopy;
+    }
+  }
+
   /**
    * ends a file once all blocks have been written.
    * closes the file.
@@ -316,6 +397,13 @@ public class ParquetFileWriter {
     out.close();
   }
 
+  /**
+   * @return the row groups written so far
+   */
+  List<BlockMetaData> getBlocks() {
+    return blocks;
+  }
+
   private static void serializeFooter(ParquetMetadata footer, FSDataOutputStream out) throws IOException {
     long footerIndex = out.getPos();
     parquet.format.FileMetaData parquetMetadata = new ParquetMetadataConverter().toParquetMetadata(CURRENT_VERSION, footer);
@@ -339,30 +427,65 @@ public class ParquetFileWriter {
     FSDataOutputStream metadata = fs.create(metaDataPath);
     metadata.write(MAGIC);
     ParquetMetadata metadataFooter = mergeFooters(outputPath, footers);
+    if (ParquetOutputFormat.getSummaryIndex(configuration)) {
+      List<String> files = new ArrayList<String>(footers.size());
+      List<ParquetMetadata> fileFooters = new ArrayList<ParquetMetadata>(footers.size());
+      for (Footer footer : footers) {
+        files.add(getRelativePath(outputPath, footer.getFile()));
+        fileFooters.add(footer.getParquetMetadata());
+      }
+      SummaryFileIndex.write(metadata, files, fileFooters);
+    }
     serializeFooter(metadataFooter, metadata);
     metadata.close();
   }
 
   private static ParquetMetadata mergeFooters(Path root, List<Footer> footers) {
-    String rootPath = root.toString();
     GlobalMetaData fileMetaData = null;
     List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
+    // the row group bounds of sorted files are specific to each file: they are kept with their path
+    StringBuilder sortBounds = new StringBuilder();
     for (Footer footer : footers) {
-      String path = footer.getFile().toString();
-      if (!path.startsWith(rootPath)) {
-        throw new ParquetEncodingException(path + " invalid: all the files must be contained in the root " + root);
-      }
-      path = path.substring(rootPath.length());
-      while (path.startsWith("/")) {
-        path = path.substring(1);
+      String path = getRelativePath(root, footer.getFile());
+      FileMetaData currentMetaData = footer.getParquetMetadata().getFileMetaData();
+      String bounds = currentMetaData.getKeyValueMetaData().get(SortOrder.SORT_BOUNDS);
+      if (bounds != null) {
+        sortBounds.append(SortOrder.qualifyBounds(bounds, path));
+        currentMetaData = SortOrder.removeKeys(currentMetaData, SortOrder.SORT_BOUNDS);
       }
-      fileMetaData = mergeInto(footer.getParquetMetadata().getFileMetaData(), fileMetaData);
+      fileMetaData = mergeInto(currentMetaData, fileMetaData);
       for (BlockMetaData block : footer.getParquetMetadata().getBlocks()) {
-        block.setPath(path);
-        blocks.add(block);
+        // the footers may be shared through the FooterCache: the blocks are copied to set their path
+        BlockMetaData copy = new BlockMetaData();
+        copy.setRowCount(block.getRowCount());
+        copy.setTotalByteSize(block.getTotalByteSize());
+        for (ColumnChunkMetaData column : block.getColumns()) {
+          copy.addColumn(column);
+        }
+        copy.setPath(path);
+        blocks.add(copy);
       }
     }
-    return new ParquetMetadata(fileMetaData.merge(), blocks);
+    FileMetaData mergedMetaData = fileMetaData.merge();
+    if (sortBounds.length() > 0) {
+      Map<String, String> keyValues = new HashMap<String, String>(mergedMetaData.getKeyValueMetaData());
+      keyValues.put(SortOrder.SORT_BOUNDS, sortBounds.toString());
+      mergedMetaData = new FileMetaData(mergedMetaData.getSchema(), keyValues, mergedMetaData.getCreatedBy());
+    }
+    return new ParquetMetadata(mergedMetaData, blocks);
+  }
+
+  private static String getRelativePath(Path root, Path file) {
+    String rootPath = root.toString();
+    String path = file.toString();
+    if (!path.startsWith(rootPath)) {
+      throw new ParquetEncodingException(path + " invalid: all the files must be contained in the root " + root);
+    }
+    path = path.substring(rootPath.length());
+    while (path.startsWith("/")) {
+      path = path.substring(1);
+    }
+    return path;
   }
 
   /**
@@ -18,7 +18,11 @@ package parquet.hadoop;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -77,8 +81,45 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
    */
   public static final String UNBOUND_RECORD_FILTER = "parquet.read.filter";
 
+  /**
+   * key to enable compiling the record assembly into a specialized class (false by default)
+   */
+  public static final String COMPILE_RECORD_READER = "parquet.read.compile";
+
+  /**
+   * key to combine the splits smaller than this size (in bytes) into splits of about this size (0, the default, does not combine).
+   * Useful when reading many small files that would otherwise each get their own task.
+   * Only the mapreduce API combines splits, {@link parquet.hadoop.mapred.DeprecatedParquetInputFormat} ignores this key.
+   */
+  public static final String COMBINE_SPLIT_SIZE = "parquet.read.combine.split.size";
+
+  /**
+   * key to read only the row groups of sorted files that may contain keys whose first column is at least this value.
+   * Binary values are UTF-8 strings.
+   * @see ParquetOutputFormat#SORT_COLUMNS
+   */
+  public static final String SORT_KEY_MIN = "parquet.read.sort.min";
+
+  /**
+   * key to read only the row groups of sorted files that may contain keys whose first column is at most this value.
+   * @see #SORT_KEY_MIN
+   */
+  public static final String SORT_KEY_MAX = "parquet.read.sort.max";
+
+  /**
+   * key to read only the row groups that contain a value in a column, using the {@link RowGroupIndex} of the files that have one
+   * @see ParquetOutputFormat#INDEX_COLUMNS
+   */
+  public static final String LOOKUP_COLUMN = "parquet.read.lookup.column";
+
+  /**
+   * key of the value looked up in {@link #LOOKUP_COLUMN}. Binary values are UTF-8 strings.
+   */
+  public static final String LOOKUP_VALUE = "parquet.read.lookup.value";
+
   private Class<?> readSupportClass;
   private List<Footer> footers;
+  private List<FileStatus> fileStatusesOfFooters;
 
   public static void setReadSupportClass(Job job,  Class<?> readSupportClass) {
     ContextUtil.getConfiguration(job).set(READ_SUPPORT_CLASS, readSupportClass.getName());
@@ -100,6 +141,58 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
     return ConfigurationUtil.getClassFromConfig(configuration, READ_SUPPORT_CLASS, ReadSupport.class);
   }
 
+  public static void setCombineSplitSize(Job job, long combineSplitSize) {
+    ContextUtil.getConfiguration(job).setLong(COMBINE_SPLIT_SIZE, combineSplitSize);
+  }
+
+  public static long getCombineSplitSize(Configuration configuration) {
+    return configuration.getLong(COMBINE_SPLIT_SIZE, 0);
+  }
+
+  /**
+   * sets the range of the first column of the sort key to read, the row groups of sorted files outside of it are skipped
+   * @param job the job to configure
+   * @param min the lower bound (inclusive) or null
+   * @param max the upper bound (inclusive) or null
+   */
+  public static void setSortKeyRange(Job job, String min, String max) {
+    Configuration configuration = ContextUtil.getConfiguration(job);
+    if (min != null) {
+      configuration.set(SORT_KEY_MIN, min);
+    }
+    if (max != null) {
+      configuration.set(SORT_KEY_MAX, max);
+    }
+  }
+
+  public static String getSortKeyMin(Configuration configuration) {
+    return configuration.get(SORT_KEY_MIN);
+  }
+
+  public static String getSortKeyMax(Configuration configuration) {
+    return configuration.get(SORT_KEY_MAX);
+  }
+
+  /**
+   * reads only the row groups that contain the value in the column, in the files that have an index of this column
+   * @param job the job to configure
+   * @param column the indexed column (dot separated path)
+   * @param value the value looked up
+   */
+  public static void setLookup(Job job, String column, String value) {
+    Configuration configuration = ContextUtil.getConfiguration(job);
+    configuration.set(LOOKUP_COLUMN, column);
+    configuration.set(LOOKUP_VALUE, value);
+  }
+
+  public static String getLookupColumn(Configuration configuration) {
+    return configuration.get(LOOKUP_COLUMN);
+  }
+
+  public static String getLookupValue(Configuration configuration) {
+    return configuration.get(LOOKUP_VALUE);
+  }
+
   /**
    * Hadoop will instantiate using this constructor
    */
@@ -121,6 +214,9 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
   public RecordReader<Void, T> createRecordReader(
       InputSplit inputSplit,
       TaskAttemptContext taskAttemptContext) throws IOException, InterruptedException {
+    if (inputSplit instanceof CombinedParquetInputSplit) {
+      return new CombinedParquetRecordReader<T>(this);
+    }
     ReadSupport<T> readSupport = getReadSupport(ContextUtil.getConfiguration(taskAttemptContext));
     Class<?> unboundRecordFilterClass = getUnboundRecordFilter(ContextUtil.getConfiguration(taskAttemptContext));
     if (unboundRecordFilterClass == null) {
@@ -242,11 +338,112 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
    */
   @Override
   public List<InputSplit> getSplits(JobContext jobContext) throws IOException {
+    Configuration configuration = ContextUtil.getConfiguration(jobContext);
+    List<Footer> footers = getFooters(jobContext);
+    // reuse the statuses of the listing rather than asking the file system again for each file
+    Map<Path, FileStatus> fileStatuses = new HashMap<Path, FileStatus>();
+    for (FileStatus fileStatus : fileStatusesOfFooters) {
+      fileStatuses.put(fileStatus.getPath(), fileStatus);
+    }
+    List<ParquetInputSplit> parquetSplits = getSplits(configuration, footers, fileStatuses);
+    long combineSplitSize = getCombineSplitSize(configuration);
+    if (combineSplitSize > 0) {
+      try {
+        return combineSplits(parquetSplits, combineSplitSize);
+      } catch (InterruptedException e) {
+        throw new IOException(e);
+      }
+    }
     List<InputSplit> splits = new ArrayList<InputSplit>();
-    splits.addAll(getSplits(ContextUtil.getConfiguration(jobContext), getFooters(jobContext)));
+    splits.addAll(parquetSplits);
     return splits;
   }
 
+  /**
+   * packs the splits smaller than maxSize together into {@link CombinedParquetInputSplit}s of about maxSize.
+   * The small splits are first grouped by host so that the combined splits are read locally,
+   * what is left for each host is then packed regardless of locality.
+   * @param splits the splits to combine
+   * @param maxSize the target size of a combined split
+   * @return the big splits unchanged and the combined ones
+   * @throws IOException
+   * @throws InterruptedException
+   */
+  static List<InputSplit> combineSplits(List<ParquetInputSplit> splits, long maxSize) throws IOException, InterruptedException {
+    List<InputSplit> result = new ArrayList<InputSplit>();
+    Map<String, List<ParquetInputSplit>> splitsByHost = new LinkedHashMap<String, List<ParquetInputSplit>>();
+    Map<String, Long> bytesByHost = new HashMap<String, Long>();
+    List<ParquetInputSplit> noHost = new ArrayList<ParquetInputSplit>();
+    for (ParquetInputSplit split : splits) {
+      if (split.getLength() >= maxSize) {
+        result.add(split);
+        continue;
+      }
+      // prefer the host that already has the most bytes to fill its splits first
+      String bestHost = null;
+      long bestBytes = -1;
+      for (String host : split.getLocations()) {
+        Long bytes = bytesByHost.get(host);
+        if (bytes == null) {
+          bytes = 0l;
+        }
+        if (bytes > bestBytes) {
+          bestHost = host;
+          bestBytes = bytes;
+        }
+      }
+      if (bestHost == null) {
+        noHost.add(split);
+      } else {
+        List<ParquetInputSplit> hostSplits = splitsByHost.get(bestHost);
+        if (hostSplits == null) {
+          hostSplits = new ArrayList<ParquetInputSplit>();
+          splitsByHost.put(bestHost, hostSplits);
+        }
+        hostSplits.add(split);
+        bytesByHost.put(bestHost, bestBytes + split.getLength());
+      }
+    }
+    List<ParquetInputSplit> leftOver = new ArrayList<ParquetInputSplit>();
+    for (List<ParquetInputSplit> hostSplits : splitsByHost.values()) {
+      leftOver.addAll(pack(hostSplits, maxSize, result));
+    }
+    leftOver.addAll(noHost);
+    List<ParquetInputSplit> last = pack(leftOver, maxSize, result);
+    if (!last.isEmpty()) {
+      addCombined(last, result);
+    }
+    if (Log.INFO) LOG.info("combined " + splits.size() + " splits into " + result.size());
+    return result;
+  }
+
+  /**
+   * adds the full combined splits to result
+   * @return the splits that did not fill a combined split
+   */
+  private static List<ParquetInputSplit> pack(List<ParquetInputSplit> splits, long maxSize, List<InputSplit> result) throws IOException, InterruptedException {
+    List<ParquetInputSplit> current = new ArrayList<ParquetInputSplit>();
+    long currentSize = 0;
+    for (ParquetInputSplit split : splits) {
+      current.add(split);
+      currentSize += split.getLength();
+      if (currentSize >= maxSize) {
+        addCombined(current, result);
+        current = new ArrayList<ParquetInputSplit>();
+        currentSize = 0;
+      }
+    }
+    return current;
+  }
+
+  private static void addCombined(List<ParquetInputSplit> splits, List<InputSplit> result) {
+    if (splits.size() == 1) {
+      result.add(splits.get(0));
+    } else {
+      result.add(new CombinedParquetInputSplit(splits));
+    }
+  }
+
   /**
    * @param configuration the configuration to connect to the file system
    * @param footers the footers of the files to read
@@ -254,19 +451,71 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
    * @throws IOException
    */
   public List<ParquetInputSplit> getSplits(Configuration configuration, List<Footer> footers) throws IOException {
+    return getSplits(configuration, footers, Collections.<Path, FileStatus>emptyMap());
+  }
+
+  /**
+   * @param configuration the configuration to connect to the file system
+   * @param footers the footers of the files to read
+   * @param fileStatuses the known statuses of the files, the other ones are read from the file system
+   * @return the splits for the footers
+   * @throws IOException
+   */
+  private List<ParquetInputSplit> getSplits(Configuration configuration, List<Footer> footers, Map<Path, FileStatus> fileStatuses) throws IOException {
     List<ParquetInputSplit> splits = new ArrayList<ParquetInputSplit>();
     GlobalMetaData globalMetaData = ParquetFileWriter.getGlobalMetaData(footers);
     ReadContext readContext = getReadSupport(configuration).init(new InitContext(
         configuration,
         globalMetaData.getKeyValueMetaData(),
         globalMetaData.getSchema()));
+    String sortKeyMin = getSortKeyMin(configuration);
+    String sortKeyMax = getSortKeyMax(configuration);
+    String lookupColumn = getLookupColumn(configuration);
+    String lookupValue = getLookupValue(configuration);
+    // the footers read from a summary file share their metadata
+    Map<FileMetaData, SortOrder> sortOrders = new IdentityHashMap<FileMetaData, SortOrder>();
+    int rowGroupCount = 0;
+    int skippedRowGroupCount = 0;
+    int lookupSkippedRowGroupCount = 0;
     for (Footer footer : footers) {
       final Path file = footer.getFile();
       LOG.debug(file);
-      FileSystem fs = file.getFileSystem(configuration);
-      FileStatus fileStatus = fs.getFileStatus(file);
       ParquetMetadata parquetMetaData = footer.getParquetMetadata();
       List<BlockMetaData> blocks = parquetMetaData.getBlocks();
+      FileSystem fs = file.getFileSystem(configuration);
+      FileStatus fileStatus = fileStatuses.get(file);
+      if (fileStatus == null) {
+        fileStatus = fs.getFileStatus(file);
+      }
+      if (sortKeyMin != null || sortKeyMax != null) {
+        FileMetaData fileMetaData = parquetMetaData.getFileMetaData();
+        if (!sortOrders.containsKey(fileMetaData)) {
+          sortOrders.put(fileMetaData, SortOrder.fromMetaData(fileMetaData));
+        }
+        SortOrder sortOrder = sortOrders.get(fileMetaData);
+        if (sortOrder != null) {
+          rowGroupCount += blocks.size();
+          blocks = sortOrder.filterRowGroups(blocks, sortKeyMin, sortKeyMax);
+          skippedRowGroupCount += parquetMetaData.getBlocks().size() - blocks.size();
+          if (blocks.isEmpty()) {
+            if (Log.DEBUG) LOG.debug("skipping " + file + ": no row group in the sort key range");
+            continue;
+          }
+        }
+      }
+      if (lookupColumn != null && lookupValue != null) {
+        // the row groups are identified by their index in the file: both filters apply to all of them
+        List<BlockMetaData> matching = RowGroupIndex.lookup(configuration, footer, fileStatus, lookupColumn, lookupValue);
+        if (matching.size() < parquetMetaData.getBlocks().size()) {
+          blocks = new ArrayList<BlockMetaData>(blocks);
+          blocks.retainAll(matching);
+          lookupSkippedRowGroupCount += parquetMetaData.getBlocks().size() - matching.size();
+          if (blocks.isEmpty()) {
+            if (Log.DEBUG) LOG.debug("skipping " + file + ": " + lookupColumn + "=" + lookupValue + " is in no row group");
+            continue;
+          }
+        }
+      }
       BlockLocation[] fileBlockLocations = fs.getFileBlockLocations(fileStatus, 0, fileStatus.getLen());
       splits.addAll(
           generateSplits(
@@ -279,6 +528,8 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
               readContext.getReadSupportMetadata())
           );
     }
+    if (Log.INFO && skippedRowGroupCount > 0) LOG.info("skipped " + skippedRowGroupCount + " out of " + rowGroupCount + " row groups of sorted files outside of the sort key range");
+    if (Log.INFO && lookupSkippedRowGroupCount > 0) LOG.info("skipped " + lookupSkippedRowGroupCount + " row groups without " + lookupColumn + "=" + lookupValue);
     return splits;
   }
 
@@ -322,7 +573,10 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
     }
   }
 
-  private static final PathFilter hiddenFileFilter = new PathFilter(){
+  /**
+   * rejects the summary files, the index side files ({@link RowGroupIndex}) and other hidden files
+   */
+  static final PathFilter hiddenFileFilter = new PathFilter(){
     public boolean accept(Path p){
       String name = p.getName();
       return !name.startsWith("_") && !name.startsWith(".");
@@ -336,7 +590,8 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
    */
   public List<Footer> getFooters(JobContext jobContext) throws IOException {
     if (footers == null) {
-      footers = getFooters(ContextUtil.getConfiguration(jobContext), listStatus(jobContext));
+      fileStatusesOfFooters = listStatus(jobContext);
+      footers = getFooters(ContextUtil.getConfiguration(jobContext), fileStatusesOfFooters);
     }
 
     return footers;
@@ -16,18 +16,24 @@
 package parquet.hadoop;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-
+import java.util.Map;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.Utils;
 import org.apache.hadoop.mapreduce.JobContext;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputCommitter;
 
 import parquet.Log;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.hadoop.metadata.ParquetMetadata;
 import parquet.hadoop.util.ContextUtil;
 
 public class ParquetOutputCommitter extends FileOutputCommitter {
@@ -42,11 +48,28 @@ public class ParquetOutputCommitter extends FileOutputCommitter {
 
   public void commitJob(JobContext jobContext) throws IOException {
     super.commitJob(jobContext);
+    Configuration configuration = ContextUtil.getConfiguration(jobContext);
+    writeMetaDataFile(configuration, outputPath);
+  }
+
+  /**
+   * writes the summary file of the output directory.
+   * If {@link ParquetOutputFormat#INCREMENTAL_SUMMARY} is set, the existing summary file is reused
+   * and only the footers of the files it does not contain are read.
+   * Otherwise all the footers are read and the summary file is rebuilt from scratch.
+   * @param configuration the configuration to access the file system
+   * @param outputPath the output directory
+   */
+  public static void writeMetaDataFile(Configuration configuration, Path outputPath) {
     try {
-      Configuration configuration = ContextUtil.getConfiguration(jobContext);
       final FileSystem fileSystem = outputPath.getFileSystem(configuration);
-      FileStatus outputStatus = fileSystem.getFileStatus(outputPath);
-      List<Footer> footers = ParquetFileReader.readAllFootersInParallel(configuration, outputStatus);
+      List<FileStatus> files = listDataFiles(fileSystem, outputPath);
+      List<Footer> footers;
+      if (ParquetOutputFormat.getIncrementalSummary(configuration)) {
+        footers = readFootersIncrementally(configuration, outputPath, files);
+      } else {
+        footers = ParquetFileReader.readAllFootersInParallel(configuration, files);
+      }
       try {
         ParquetFileWriter.writeMetadataFile(configuration, outputPath, footers);
       } catch (Exception e) {
@@ -61,4 +84,87 @@ public class ParquetOutputCommitter extends FileOutputCommitter {
     }
   }
 
+  /**
+   * gets the footers of the files in the output directory from the existing summary file
+   * and reads only the footers of the files that are not in it.
+   * The files are identified by name, the footer of a file that may have been replaced since the summary
+   * was written is read again (see {@link #isReplaced(FileStatus, ParquetMetadata, long)}).
+   * @param configuration the configuration to access the file system
+   * @param outputPath the output directory
+   * @param files the data files in the directory
+   * @return the footers of the files
+   * @throws IOException if a footer could not be read
+   */
+  static List<Footer> readFootersIncrementally(Configuration configuration, Path outputPath, List<FileStatus> files) throws IOException {
+    final FileSystem fileSystem = outputPath.getFileSystem(configuration);
+    Map<String, ParquetMetadata> summarized = new HashMap<String, ParquetMetadata>();
+    Path summaryPath = new Path(outputPath, ParquetFileWriter.PARQUET_METADATA_FILE);
+    long summaryTime = 0;
+    if (fileSystem.exists(summaryPath)) {
+      try {
+        FileStatus summaryStatus = fileSystem.getFileStatus(summaryPath);
+        summaryTime = summaryStatus.getModificationTime();
+        for (Footer footer : ParquetFileReader.readSummaryFile(configuration, summaryStatus)) {
+          summarized.put(footer.getFile().getName(), footer.getParquetMetadata());
+        }
+      } catch (IOException e) {
+        LOG.warn("could not read summary file " + summaryPath + ", rebuilding it", e);
+        summarized.clear();
+      }
+    }
+    List<Footer> footers = new ArrayList<Footer>(files.size());
+    List<FileStatus> toRead = new ArrayList<FileStatus>();
+    for (FileStatus file : files) {
+      ParquetMetadata footer = summarized.get(file.getPath().getName());
+      if (footer == null || isReplaced(file, footer, summaryTime)) {
+        toRead.add(file);
+      } else {
+        footers.add(new Footer(file.getPath(), footer));
+      }
+    }
+    if (Log.INFO) LOG.info("reusing " + footers.size() + " footers from the summary file, reading " + toRead.size() + " new footers");
+    footers.addAll(ParquetFileReader.readAllFootersInParallel(configuration, toRead));
+    return footers;
+  }
+
+  /**
+   * The summary does not know the length of the files: a file is considered replaced if it was modified
+   * after the summary (or in the same time unit) or if the row groups of its summarized footer do not fit in it.
+   * @param file the data file
+   * @param footer its footer in the summary
+   * @param summaryTime the modification time of the summary
+   * @return true if the footer in the summary may not be the footer of the file
+   */
+  static boolean isReplaced(FileStatus file, ParquetMetadata footer, long summaryTime) {
+    if (file.getModificationTime() >= summaryTime) {
+      return true;
+    }
+    long end = ParquetFileWriter.MAGIC.length;
+    for (BlockMetaData block : footer.getBlocks()) {
+      for (ColumnChunkMetaData column : block.getColumns()) {
+        long start = column.getFirstDataPageOffset();
+        if (column.getDictionaryPageOffset() > 0 && column.getDictionaryPageOffset() < start) {
+          start = column.getDictionaryPageOffset();
+        }
+        end = Math.max(end, start + column.getTotalSize());
+      }
+    }
+    // the row groups are followed by the footer, its length and the magic number
+    return end + 4 + ParquetFileWriter.MAGIC.length >= file.getLen();
+  }
+
+  /**
+   * @return the files of the output directory, without the summary file itself nor the other hidden files
+   */
+  private static List<FileStatus> listDataFiles(FileSystem fileSystem, Path outputPath) throws IOException {
+    List<FileStatus> files = new ArrayList<FileStatus>();
+    for (FileStatus file : fileSystem.listStatus(outputPath, new Utils.OutputFileUtils.OutputFilesFilter())) {
+      String name = file.getPath().getName();
+      if (!file.isDir() && !name.startsWith("_") && !name.startsWith(".")) {
+        files.add(file);
+      }
+    }
+    return files;
+  }
+
 }
@@ -21,6 +21,8 @@ import static parquet.hadoop.ParquetWriter.DEFAULT_PAGE_SIZE;
 import static parquet.hadoop.util.ContextUtil.getConfiguration;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
@@ -35,6 +37,7 @@ import parquet.Log;
 import parquet.hadoop.api.WriteSupport;
 import parquet.hadoop.api.WriteSupport.WriteContext;
 import parquet.hadoop.codec.CodecConfig;
+import parquet.hadoop.metadata.ColumnPath;
 import parquet.hadoop.metadata.CompressionCodecName;
 
 /**
@@ -69,6 +72,20 @@ import parquet.hadoop.metadata.CompressionCodecName;
  *
  * # To enable/disable dictionary encoding
  * parquet.enable.dictionary=true # false to disable dictionary encoding
+ *
+ * # To maintain the _metadata summary file incrementally when appending to an existing output directory
+ * parquet.summary.incremental=false # true to read only the footers of the files missing from the existing summary
+ *
+ * # To index the footers of each file in the _metadata summary file so that readers can decode only the ones they need
+ * parquet.summary.index=false # true to write the index
+ *
+ * # To declare that the records are written sorted. The order is checked and the key bounds of each row group
+ * # are stored in the footer so that readers can skip row groups (see ParquetInputFormat.SORT_KEY_MIN)
+ * parquet.sort.columns= # comma separated list of dot separated column paths, default: not sorted
+ *
+ * # To write a secondary index of the row groups containing each value of a few columns (see RowGroupIndex)
+ * parquet.index.columns= # comma separated list of dot separated column paths, default: no index
+ * parquet.index.max.values=100000 # columns with more distinct values in a file are not indexed
  * </pre>
  *
  * If parquet.compression is not set, the following properties are checked (FileOutputFormat behavior).
@@ -94,6 +111,13 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
   public static final String DICTIONARY_PAGE_SIZE = "parquet.dictionary.page.size";
   public static final String ENABLE_DICTIONARY    = "parquet.enable.dictionary";
   public static final String VALIDATION           = "parquet.validation";
+  public static final String INCREMENTAL_SUMMARY  = "parquet.summary.incremental";
+  public static final String SUMMARY_INDEX        = "parquet.summary.index";
+  public static final String SORT_COLUMNS         = "parquet.sort.columns";
+  public static final String INDEX_COLUMNS        = "parquet.index.columns";
+  public static final String INDEX_MAX_VALUES     = "parquet.index.max.values";
+
+  public static final int DEFAULT_INDEX_MAX_VALUES = 100000;
 
   public static void setWriteSupportClass(Job job,  Class<?> writeSupportClass) {
     getConfiguration(job).set(WRITE_SUPPORT_CLASS, writeSupportClass.getName());
@@ -199,6 +223,72 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
     return configuration.getBoolean(VALIDATION, false);
   }
 
+  public static void setIncrementalSummary(Job job, boolean incrementalSummary) {
+    getConfiguration(job).setBoolean(INCREMENTAL_SUMMARY, incrementalSummary);
+  }
+
+  public static boolean getIncrementalSummary(Configuration configuration) {
+    return configuration.getBoolean(INCREMENTAL_SUMMARY, false);
+  }
+
+  public static void setSummaryIndex(Job job, boolean summaryIndex) {
+    getConfiguration(job).setBoolean(SUMMARY_INDEX, summaryIndex);
+  }
+
+  public static boolean getSummaryIndex(Configuration configuration) {
+    return configuration.getBoolean(SUMMARY_INDEX, false);
+  }
+
+  /**
+   * @param job the job to configure
+   * @param columns the columns of the sort key (dot separated paths), the records must be written in this order
+   */
+  public static void setSortColumns(Job job, String... columns) {
+    StringBuilder sb = new StringBuilder();
+    for (String column : columns) {
+      if (sb.length() > 0) {
+        sb.append(',');
+      }
+      sb.append(column);
+    }
+    getConfiguration(job).set(SORT_COLUMNS, sb.toString());
+  }
+
+  public static List<ColumnPath> getSortColumns(Configuration configuration) {
+    String columns = configuration.get(SORT_COLUMNS);
+    if (columns == null) {
+      return Collections.emptyList();
+    }
+    return SortOrder.parseColumns(columns);
+  }
+
+  /**
+   * @param job the job to configure
+   * @param columns the columns to index (dot separated paths)
+   */
+  public static void setIndexColumns(Job job, String... columns) {
+    StringBuilder sb = new StringBuilder();
+    for (String column : columns) {
+      if (sb.length() > 0) {
+        sb.append(',');
+      }
+      sb.append(column);
+    }
+    getConfiguration(job).set(INDEX_COLUMNS, sb.toString());
+  }
+
+  public static List<ColumnPath> getIndexColumns(Configuration configuration) {
+    String columns = configuration.get(INDEX_COLUMNS);
+    if (columns == null) {
+      return Collections.emptyList();
+    }
+    return SortOrder.parseColumns(columns);
+  }
+
+  public static int getIndexMaxValues(Configuration configuration) {
+    return configuration.getInt(INDEX_MAX_VALUES, DEFAULT_INDEX_MAX_VALUES);
+  }
+
   private CompressionCodecName getCodec(TaskAttemptContext taskAttemptContext) {
     return CodecConfig.from(taskAttemptContext).getCodec();
   }
@@ -259,6 +349,18 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
 
     boolean enableDictionary = getEnableDictionary(conf);
     WriteContext init = writeSupport.init(conf);
+    List<ColumnPath> sortColumns = getSortColumns(conf);
+    SortOrder sortOrder = null;
+    if (!sortColumns.isEmpty()) {
+      sortOrder = new SortOrder(init.getSchema(), sortColumns);
+      if (INFO) LOG.info("Records sorted by " + sortColumns);
+    }
+    List<ColumnPath> indexColumns = getIndexColumns(conf);
+    RowGroupIndexWriter indexWriter = null;
+    if (!indexColumns.isEmpty()) {
+      indexWriter = new RowGroupIndexWriter(conf, file, init.getSchema(), indexColumns, getIndexMaxValues(conf));
+      if (INFO) LOG.info("Indexing " + indexColumns);
+    }
     ParquetFileWriter w = new ParquetFileWriter(conf, init.getSchema(), file);
     w.start();
     boolean validating = getValidation(conf);
@@ -273,7 +375,9 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
         codecFactory.getCompressor(codec, pageSize),
         dictionaryPageSize,
         enableDictionary,
-        validating);
+        validating,
+        sortOrder,
+        indexWriter);
   }
 
   /**
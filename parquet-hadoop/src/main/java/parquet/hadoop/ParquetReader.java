@@ -92,7 +92,8 @@ public class ParquetReader<T> implements Closeable {
     this.conf = conf;
 
     FileSystem fs = FileSystem.get(conf);
-    List<FileStatus> statuses = Arrays.asList(fs.listStatus(file));
+    // the summary and index files are not data files
+    List<FileStatus> statuses = Arrays.asList(fs.listStatus(file, ParquetInputFormat.hiddenFileFilter));
     List<Footer> footers = ParquetFileReader.readAllFootersInParallelUsingSummaryFiles(conf, statuses);
     this.footersIterator = footers.iterator();
     globalMetaData = ParquetFileWriter.getGlobalMetaData(footers);
@@ -129,12 +130,22 @@ public class ParquetReader<T> implements Closeable {
       reader.close();
       reader = null;
     }
-    if (footersIterator.hasNext()) {
+    String lookupColumn = ParquetInputFormat.getLookupColumn(conf);
+    String lookupValue = ParquetInputFormat.getLookupValue(conf);
+    while (footersIterator.hasNext()) {
       Footer footer = footersIterator.next();
+      List<BlockMetaData> blocks = footer.getParquetMetadata().getBlocks();
+      if (lookupColumn != null && lookupValue != null) {
+        blocks = RowGroupIndex.lookup(conf, footer, lookupColumn, lookupValue);
+        if (blocks.isEmpty()) {
+          continue;
+        }
+      }
       reader = new InternalParquetRecordReader<T>(readSupport, filter);
       reader.initialize(
           readContext.getRequestedSchema(), globalMetaData.getSchema(), footer.getParquetMetadata().getFileMetaData().getKeyValueMetaData(),
-          readContext.getReadSupportMetadata(), footer.getFile(), footer.getParquetMetadata().getBlocks(), conf);
+          readContext.getReadSupportMetadata(), footer.getFile(), blocks, conf);
+      return;
     }
   }
 
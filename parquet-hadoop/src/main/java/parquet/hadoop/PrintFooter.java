@@ -21,7 +21,6 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Deque;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,16 +28,11 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingDeque;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
-import org.apache.hadoop.fs.PathFilter;
 
 import parquet.column.ColumnDescriptor;
 import parquet.column.Encoding;
@@ -77,66 +71,54 @@ public class PrintFooter {
       List<FileStatus> statuses;
       if (fileStatus.isDir()) {
         System.out.println("listing files in " + fileStatus.getPath());
-        statuses = Arrays.asList(fs.listStatus(fileStatus.getPath(), new PathFilter() {
-          @Override
-          public boolean accept(Path path) {
-            return !path.getName().startsWith("_");
-          }
-        }));
+        statuses = Arrays.asList(fs.listStatus(fileStatus.getPath(), ParquetInputFormat.hiddenFileFilter));
       } else {
         statuses = new ArrayList<FileStatus>();
         statuses.add(fileStatus);
       }
       System.out.println("opening " + statuses.size() + " files");
-      int i = 0;
-      ExecutorService threadPool = Executors.newFixedThreadPool(5);
-      try {
-        long t0 = System.currentTimeMillis();
-        Deque<Future<ParquetMetadata>> footers = new LinkedBlockingDeque<Future<ParquetMetadata>>();
-        for (final FileStatus currentFile : statuses) {
-          footers.add(threadPool.submit(new Callable<ParquetMetadata>() {
-            @Override
-            public ParquetMetadata call() throws Exception {
-              try {
-                ParquetMetadata footer = ParquetFileReader.readFooter(configuration, currentFile);
-                return footer;
-              } catch (Exception e) {
-                throw new ParquetDecodingException("could not read footer", e);
-              }
+      List<Callable<ParquetMetadata>> tasks = new ArrayList<Callable<ParquetMetadata>>(statuses.size());
+      for (final FileStatus currentFile : statuses) {
+        tasks.add(new Callable<ParquetMetadata>() {
+          @Override
+          public ParquetMetadata call() throws Exception {
+            try {
+              ParquetMetadata footer = ParquetFileReader.readFooter(configuration, currentFile);
+              return footer;
+            } catch (Exception e) {
+              throw new ParquetDecodingException("could not read footer", e);
             }
-          }));
-        }
-        int previousPercent = 0;
-        int n = 60;
-        System.out.print("0% [");
-        for (int j = 0; j < n; j++) {
-          System.out.print(" ");
-
-        }
-        System.out.print("] 100%");
-        for (int j = 0; j < n + 6; j++) {
-          System.out.print('\b');
-        }
-        while (!footers.isEmpty()) {
-          Future<ParquetMetadata> futureFooter = footers.removeFirst();
-          if (!futureFooter.isDone()) {
-            footers.addLast(futureFooter);
-            continue;
           }
-          ParquetMetadata footer = futureFooter.get();
-          int currentPercent = (++i * n / statuses.size());
+        });
+      }
+      long t0 = System.currentTimeMillis();
+      final int n = 60;
+      System.out.print("0% [");
+      for (int j = 0; j < n; j++) {
+        System.out.print(" ");
+
+      }
+      System.out.print("] 100%");
+      for (int j = 0; j < n + 6; j++) {
+        System.out.print('\b');
+      }
+      final int fileCount = statuses.size();
+      FooterReaderPool.getShared(configuration).invokeAll(tasks, new FooterReaderPool.CompletionListener<ParquetMetadata>() {
+        private int i = 0;
+        private int previousPercent = 0;
+        @Override
+        public void completed(int index, ParquetMetadata footer) {
+          int currentPercent = (++i * n / fileCount);
           while (currentPercent > previousPercent) {
             System.out.print("*");
             previousPercent ++;
           }
           add(footer);
         }
-        System.out.println("");
-        long t1 = System.currentTimeMillis();
-        System.out.println("read all footers in " + (t1 - t0) + " ms");
-      } finally {
-        threadPool.shutdownNow();
-      }
+      });
+      System.out.println("");
+      long t1 = System.currentTimeMillis();
+      System.out.println("read all footers in " + (t1 - t0) + " ms");
     }
     Set<Entry<ColumnDescriptor, ColStats>> entries = stats.entrySet();
     long total = 0;
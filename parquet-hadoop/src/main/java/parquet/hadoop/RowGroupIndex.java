@@ -0,0 +1,358 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+
+import parquet.Log;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.hadoop.metadata.ColumnPath;
+import parquet.io.ParquetDecodingException;
+import parquet.io.api.Binary;
+import parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+/**
+ * A secondary index of a Parquet file: for each indexed column, the row groups that contain each value.
+ * It is stored in a side file next to the data file (see {@link #getIndexPath(Path)}) so that the
+ * data file is unchanged. The side file is hidden from the input formats by its "." prefix.
+ * <pre>
+ * INDEX_MAGIC
+ * length of the data file (8 bytes), checksum of its row group metadata (8 bytes), row group count (4 bytes)
+ * for each row group: its start offset in the data file (8 bytes)
+ * column count (4 bytes)
+ * for each column: path, type, offset and length of its values (from the end of this header)
+ * for each column: value count, the offset of each value (from the end of the offsets),
+ *   then for each value in increasing order (see {@link #compare(byte[], byte[])}): bytes, row group count, row group indexes
+ * </pre>
+ * Binary values are stored as is, the other ones as the UTF-8 bytes of their string representation.
+ * The index is ignored if the length or the row groups of the data file are not the ones it was written for.
+ * A lookup reads the offsets of the values of the column looked up and then only the values of its binary search.
+ *
+ * @see ParquetOutputFormat#INDEX_COLUMNS
+ * @see ParquetInputFormat#LOOKUP_COLUMN
+ */
+public class RowGroupIndex implements Closeable {
+  private static final Log LOG = Log.getLog(RowGroupIndex.class);
+
+  public static final byte[] INDEX_MAGIC = "PRI2".getBytes(Charset.forName("ASCII"));
+
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  /**
+   * @param file a data file
+   * @return the path of its index
+   */
+  public static Path getIndexPath(Path file) {
+    return new Path(file.getParent(), "." + file.getName() + ".index");
+  }
+
+  /**
+   * @param value a value as passed to the {@link parquet.io.api.RecordConsumer}
+   * @return the bytes stored in the index for this value
+   */
+  static byte[] toBytes(Object value) {
+    if (value instanceof Binary) {
+      return ((Binary)value).getBytes();
+    }
+    return String.valueOf(value).getBytes(UTF8);
+  }
+
+  /**
+   * the order of the values in the index: unsigned lexicographic order of their bytes
+   */
+  static int compare(byte[] a, byte[] b) {
+    int length = Math.min(a.length, b.length);
+    for (int i = 0; i < length; i++) {
+      int diff = (a[i] & 0xFF) - (b[i] & 0xFF);
+      if (diff != 0) {
+        return diff;
+      }
+    }
+    return a.length - b.length;
+  }
+
+  /**
+   * @return the offset of the first data page of the row group in the data file
+   * (the dictionary page offsets are not kept in the footer)
+   */
+  static long getStart(BlockMetaData block) {
+    long start = Long.MAX_VALUE;
+    for (ColumnChunkMetaData column : block.getColumns()) {
+      start = Math.min(start, column.getFirstDataPageOffset());
+    }
+    return start;
+  }
+
+  /**
+   * @return a checksum of the metadata of the row groups of a data file as found in its footer
+   */
+  static long checksum(List<BlockMetaData> blocks) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    for (BlockMetaData block : blocks) {
+      out.writeLong(block.getRowCount());
+      for (ColumnChunkMetaData column : block.getColumns()) {
+        out.writeUTF(column.getPath().toString());
+        out.writeUTF(column.getCodec().name());
+        out.writeLong(column.getFirstDataPageOffset());
+        out.writeLong(column.getValueCount());
+        out.writeLong(column.getTotalSize());
+        out.writeLong(column.getTotalUncompressedSize());
+      }
+    }
+    out.close();
+    CRC32 crc = new CRC32();
+    crc.update(bytes.toByteArray());
+    return crc.getValue();
+  }
+
+  /**
+   * opens the index of a file and checks that it was written for this file
+   * @param configuration to access the file system
+   * @param file the status of the data file
+   * @param blocks the row groups of the data file
+   * @return its index, to be closed, or null if it has none or the index is not the one of the current file
+   * @throws IOException
+   */
+  public static RowGroupIndex open(Configuration configuration, FileStatus file, List<BlockMetaData> blocks) throws IOException {
+    Path indexPath = getIndexPath(file.getPath());
+    FSDataInputStream in;
+    try {
+      in = indexPath.getFileSystem(configuration).open(indexPath);
+    } catch (FileNotFoundException e) {
+      return null;
+    }
+    RowGroupIndex index = null;
+    try {
+      index = readHeader(in, indexPath, file.getLen(), blocks);
+      return index;
+    } finally {
+      if (index == null) {
+        in.close();
+      }
+    }
+  }
+
+  private static RowGroupIndex readHeader(FSDataInputStream in, Path indexPath, long fileLength, List<BlockMetaData> blocks) throws IOException {
+    byte[] magic = new byte[INDEX_MAGIC.length];
+    in.readFully(magic);
+    if (!Arrays.equals(INDEX_MAGIC, magic)) {
+      LOG.warn("ignoring invalid index " + indexPath);
+      return null;
+    }
+    long indexedFileLength = in.readLong();
+    long checksum = in.readLong();
+    int rowGroupCount = in.readInt();
+    if (indexedFileLength != fileLength
+        || rowGroupCount != blocks.size()
+        || checksum != checksum(blocks)) {
+      LOG.warn("ignoring index " + indexPath + ": it was written for a different file");
+      return null;
+    }
+    for (BlockMetaData block : blocks) {
+      if (in.readLong() != getStart(block)) {
+        LOG.warn("ignoring index " + indexPath + ": it was written for different row groups");
+        return null;
+      }
+    }
+    int columnCount = in.readInt();
+    Map<ColumnPath, Column> columns = new HashMap<ColumnPath, Column>();
+    for (int i = 0; i < columnCount; i++) {
+      ColumnPath path = ColumnPath.get(in.readUTF().split("\\."));
+      PrimitiveTypeName type = PrimitiveTypeName.valueOf(in.readUTF());
+      long offset = in.readLong();
+      int length = in.readInt();
+      columns.put(path, new Column(type, offset, length));
+    }
+    long valuesStart = in.getPos();
+    if (Log.DEBUG) LOG.debug("read the index of " + columnCount + " columns in " + indexPath);
+    return new RowGroupIndex(in, indexPath, rowGroupCount, valuesStart, columns);
+  }
+
+  /**
+   * keeps the row groups of a file that contain a value in a column, using the index of the file if there is one
+   * @param configuration to access the file system
+   * @param footer the file and its row groups
+   * @param column the column looked up (dot separated path)
+   * @param value the value looked up (binary values are UTF-8 strings)
+   * @return the row groups that contain the value or all of them if the column is not indexed
+   * @throws IOException
+   */
+  public static List<BlockMetaData> lookup(Configuration configuration, Footer footer, String column, String value) throws IOException {
+    FileStatus file = footer.getFile().getFileSystem(configuration).getFileStatus(footer.getFile());
+    return lookup(configuration, footer, file, column, value);
+  }
+
+  /**
+   * keeps the row groups of a file that contain a value in a column, using the index of the file if there is one
+   * @param configuration to access the file system
+   * @param footer the file and its row groups
+   * @param file the status of the file
+   * @param column the column looked up (dot separated path)
+   * @param value the value looked up (binary values are UTF-8 strings)
+   * @return the row groups that contain the value or all of them if the column is not indexed
+   * @throws IOException
+   */
+  public static List<BlockMetaData> lookup(Configuration configuration, Footer footer, FileStatus file, String column, String value) throws IOException {
+    List<BlockMetaData> blocks = footer.getParquetMetadata().getBlocks();
+    RowGroupIndex index = open(configuration, file, blocks);
+    if (index == null) {
+      return blocks;
+    }
+    BitSet rowGroups;
+    try {
+      rowGroups = index.getRowGroups(ColumnPath.get(column.split("\\.")), value);
+    } finally {
+      index.close();
+    }
+    if (rowGroups == null) {
+      return blocks;
+    }
+    List<BlockMetaData> result = new ArrayList<BlockMetaData>(rowGroups.cardinality());
+    for (int i = rowGroups.nextSetBit(0); i >= 0; i = rowGroups.nextSetBit(i + 1)) {
+      result.add(blocks.get(i));
+    }
+    return result;
+  }
+
+  private static final class Column {
+    private final PrimitiveTypeName type;
+    private final long offset;
+    private final int length;
+
+    Column(PrimitiveTypeName type, long offset, int length) {
+      this.type = type;
+      this.offset = offset;
+      this.length = length;
+    }
+  }
+
+  private final FSDataInputStream in;
+  private final Path indexPath;
+  private final int rowGroupCount;
+  private final long valuesStart;
+  private final Map<ColumnPath, Column> columns;
+
+  private RowGroupIndex(FSDataInputStream in, Path indexPath, int rowGroupCount, long valuesStart, Map<ColumnPath, Column> columns) {
+    this.in = in;
+    this.indexPath = indexPath;
+    this.rowGroupCount = rowGroupCount;
+    this.valuesStart = valuesStart;
+    this.columns = columns;
+  }
+
+  /**
+   * @return the number of row groups in the data file
+   */
+  public int getRowGroupCount() {
+    return rowGroupCount;
+  }
+
+  /**
+   * @param column a column of the file
+   * @return true if it is indexed
+   */
+  public boolean isIndexed(ColumnPath column) {
+    return columns.containsKey(column);
+  }
+
+  /**
+   * @param column the column looked up
+   * @param value the value looked up (binary values are UTF-8 strings)
+   * @return the indexes of the row groups that contain the value or null if the column is not indexed
+   * @throws IOException
+   */
+  public BitSet getRowGroups(ColumnPath column, String value) throws IOException {
+    Column indexedColumn = columns.get(column);
+    if (indexedColumn == null) {
+      return null;
+    }
+    byte[] expected = toBytes(SortOrder.parseValue(indexedColumn.type, value));
+    long columnStart = valuesStart + indexedColumn.offset;
+    byte[] header = new byte[4];
+    in.readFully(columnStart, header);
+    int valueCount = readInt(header, 0);
+    byte[] offsets = new byte[valueCount * 4];
+    in.readFully(columnStart + 4, offsets);
+    long entriesStart = columnStart + 4 + offsets.length;
+    long columnEnd = columnStart + indexedColumn.length;
+    BitSet rowGroups = new BitSet(rowGroupCount);
+    int low = 0;
+    int high = valueCount - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      long entryStart = entriesStart + readInt(offsets, middle * 4);
+      long entryEnd = middle + 1 < valueCount ? entriesStart + readInt(offsets, (middle + 1) * 4) : columnEnd;
+      if (entryEnd < entryStart + 8 || entryEnd > columnEnd) {
+        throw new ParquetDecodingException("corrupted index " + indexPath + ": value " + middle + " of " + column + " at " + entryStart);
+      }
+      byte[] entry = new byte[(int)(entryEnd - entryStart)];
+      in.readFully(entryStart, entry);
+      int length = readInt(entry, 0);
+      int cmp = compare(Arrays.copyOfRange(entry, 4, 4 + length), expected);
+      if (cmp < 0) {
+        low = middle + 1;
+      } else if (cmp > 0) {
+        high = middle - 1;
+      } else {
+        int count = readInt(entry, 4 + length);
+        for (int j = 0; j < count; j++) {
+          int rowGroup = readInt(entry, 8 + length + j * 4);
+          if (rowGroup < 0 || rowGroup >= rowGroupCount) {
+            throw new ParquetDecodingException("corrupted index " + indexPath + ": row group " + rowGroup + " out of " + rowGroupCount);
+          }
+          rowGroups.set(rowGroup);
+        }
+        break;
+      }
+    }
+    if (Log.DEBUG) LOG.debug(column + "=" + value + " is in " + rowGroups.cardinality() + " out of " + rowGroupCount + " row groups");
+    return rowGroups;
+  }
+
+  /**
+   * @return the big endian int at offset, as written by {@link java.io.DataOutput#writeInt(int)}
+   */
+  private static int readInt(byte[] bytes, int offset) {
+    return ((bytes[offset] & 0xFF) << 24)
+        | ((bytes[offset + 1] & 0xFF) << 16)
+        | ((bytes[offset + 2] & 0xFF) << 8)
+        | (bytes[offset + 3] & 0xFF);
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
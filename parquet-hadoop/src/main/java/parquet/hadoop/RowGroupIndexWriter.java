@@ -0,0 +1,197 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import parquet.Log;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnPath;
+import parquet.io.ParquetEncodingException;
+import parquet.io.api.Binary;
+import parquet.schema.MessageType;
+import parquet.schema.PrimitiveType.PrimitiveTypeName;
+import parquet.schema.Type;
+
+/**
+ * Collects the row groups of each value of the indexed columns while the records are written
+ * and writes the {@link RowGroupIndex} of the file once it is closed.
+ */
+class RowGroupIndexWriter extends ColumnValueCollector {
+  private static final Log LOG = Log.getLog(RowGroupIndexWriter.class);
+
+  private static final Comparator<Entry<byte[], BitSet>> ENTRY_COMPARATOR = new Comparator<Entry<byte[], BitSet>>() {
+    @Override
+    public int compare(Entry<byte[], BitSet> e1, Entry<byte[], BitSet> e2) {
+      return RowGroupIndex.compare(e1.getKey(), e2.getKey());
+    }
+  };
+
+  private final Configuration configuration;
+  private final Path file;
+  private final List<ColumnPath> columns;
+  private final PrimitiveTypeName[] types;
+  private final int maxValues;
+  // value => row groups, null once the column has more than maxValues values
+  private final List<Map<Object, BitSet>> values = new ArrayList<Map<Object, BitSet>>();
+  private int rowGroup = 0;
+
+  /**
+   * @param configuration to access the file system
+   * @param file the data file
+   * @param schema its schema
+   * @param columns the indexed columns
+   * @param maxValues the maximum number of distinct values of a column, above it the column is not indexed
+   */
+  RowGroupIndexWriter(Configuration configuration, Path file, MessageType schema, List<ColumnPath> columns, int maxValues) {
+    super(columns);
+    this.configuration = configuration;
+    this.file = file;
+    this.columns = columns;
+    this.maxValues = maxValues;
+    this.types = new PrimitiveTypeName[columns.size()];
+    for (int i = 0; i < types.length; i++) {
+      String[] path = columns.get(i).toArray();
+      if (!schema.containsPath(path)) {
+        throw new ParquetEncodingException("indexed column " + columns.get(i) + " is not a column of " + schema);
+      }
+      Type type = schema.getType(path);
+      if (!type.isPrimitive() || type.asPrimitiveType().getPrimitiveTypeName() == PrimitiveTypeName.INT96) {
+        throw new ParquetEncodingException("indexed column " + columns.get(i) + " must be a primitive column");
+      }
+      types[i] = type.asPrimitiveType().getPrimitiveTypeName();
+      values.add(new HashMap<Object, BitSet>());
+    }
+  }
+
+  @Override
+  void collect(int column, Object value) {
+    Map<Object, BitSet> columnValues = values.get(column);
+    if (columnValues == null) {
+      return;
+    }
+    BitSet rowGroups = columnValues.get(value);
+    if (rowGroups == null) {
+      if (columnValues.size() >= maxValues) {
+        LOG.warn("not indexing " + columns.get(column) + ": more than " + maxValues + " values");
+        values.set(column, null);
+        return;
+      }
+      if (value instanceof Binary) {
+        // the bytes may be reused by the caller
+        byte[] bytes = ((Binary)value).getBytes();
+        value = Binary.fromByteArray(Arrays.copyOf(bytes, bytes.length));
+      }
+      rowGroups = new BitSet();
+      columnValues.put(value, rowGroups);
+    }
+    rowGroups.set(rowGroup);
+  }
+
+  @Override
+  void endRowGroup() {
+    ++ rowGroup;
+  }
+
+  /**
+   * writes the index, to be called once the data file is closed
+   * @param blocks the row groups of the data file
+   * @throws IOException
+   */
+  void write(List<BlockMetaData> blocks) throws IOException {
+    if (blocks.size() != rowGroup) {
+      throw new ParquetEncodingException("the index has " + rowGroup + " row groups instead of " + blocks.size());
+    }
+    FileSystem fs = file.getFileSystem(configuration);
+    long fileLength = fs.getFileStatus(file).getLen();
+    ByteArrayOutputStream header = new ByteArrayOutputStream();
+    DataOutputStream headerOut = new DataOutputStream(header);
+    ByteArrayOutputStream columnValues = new ByteArrayOutputStream();
+    DataOutputStream valuesOut = new DataOutputStream(columnValues);
+    int columnCount = 0;
+    for (int i = 0; i < columns.size(); i++) {
+      Map<Object, BitSet> indexedValues = values.get(i);
+      if (indexedValues == null) {
+        continue;
+      }
+      int offset = valuesOut.size();
+      // sorted for the binary search of the lookups
+      List<Entry<byte[], BitSet>> entries = new ArrayList<Entry<byte[], BitSet>>(indexedValues.size());
+      for (Entry<Object, BitSet> entry : indexedValues.entrySet()) {
+        entries.add(new SimpleImmutableEntry<byte[], BitSet>(RowGroupIndex.toBytes(entry.getKey()), entry.getValue()));
+      }
+      Collections.sort(entries, ENTRY_COMPARATOR);
+      ByteArrayOutputStream entryBytes = new ByteArrayOutputStream();
+      DataOutputStream entriesOut = new DataOutputStream(entryBytes);
+      valuesOut.writeInt(entries.size());
+      for (Entry<byte[], BitSet> entry : entries) {
+        valuesOut.writeInt(entriesOut.size());
+        byte[] bytes = entry.getKey();
+        entriesOut.writeInt(bytes.length);
+        entriesOut.write(bytes);
+        BitSet rowGroups = entry.getValue();
+        entriesOut.writeInt(rowGroups.cardinality());
+        for (int j = rowGroups.nextSetBit(0); j >= 0; j = rowGroups.nextSetBit(j + 1)) {
+          entriesOut.writeInt(j);
+        }
+      }
+      entriesOut.close();
+      entryBytes.writeTo(valuesOut);
+      headerOut.writeUTF(SortOrder.formatColumns(Arrays.asList(columns.get(i))));
+      headerOut.writeUTF(types[i].name());
+      headerOut.writeLong(offset);
+      headerOut.writeInt(valuesOut.size() - offset);
+      ++ columnCount;
+    }
+    headerOut.close();
+    valuesOut.close();
+
+    Path indexPath = RowGroupIndex.getIndexPath(file);
+    FSDataOutputStream out = fs.create(indexPath, true);
+    try {
+      out.write(RowGroupIndex.INDEX_MAGIC);
+      out.writeLong(fileLength);
+      out.writeLong(RowGroupIndex.checksum(blocks));
+      out.writeInt(rowGroup);
+      for (BlockMetaData block : blocks) {
+        out.writeLong(RowGroupIndex.getStart(block));
+      }
+      out.writeInt(columnCount);
+      header.writeTo(out);
+      columnValues.writeTo(out);
+    } finally {
+      out.close();
+    }
+    if (Log.INFO) LOG.info("wrote the index of " + columnCount + " columns in " + indexPath);
+  }
+}
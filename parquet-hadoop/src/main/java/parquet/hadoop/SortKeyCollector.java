@@ -0,0 +1,88 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import parquet.io.ParquetEncodingException;
+import parquet.io.api.Binary;
+
+/**
+ * Collects the values of the sort key while the records are written.
+ * It checks that the records are written in order and keeps the key bounds of each row group.
+ */
+class SortKeyCollector extends ColumnValueCollector {
+
+  private final SortOrder sortOrder;
+  private final Object[] currentKey;
+  private Object[] previousKey;
+  private Object[] rowGroupMin;
+  private final List<Object[][]> bounds = new ArrayList<Object[][]>();
+
+  SortKeyCollector(SortOrder sortOrder) {
+    super(sortOrder.getColumns());
+    this.sortOrder = sortOrder;
+    this.currentKey = new Object[sortOrder.getColumns().size()];
+  }
+
+  SortOrder getSortOrder() {
+    return sortOrder;
+  }
+
+  @Override
+  void endRowGroup() {
+    bounds.add(rowGroupMin == null ? null : new Object[][] { rowGroupMin, previousKey });
+    rowGroupMin = null;
+  }
+
+  /**
+   * @return the { min, max } keys of each row group, null for an empty row group
+   */
+  List<Object[][]> getBounds() {
+    return bounds;
+  }
+
+  @Override
+  void collect(int column, Object value) {
+    if (value instanceof Binary) {
+      // the bytes may be reused by the caller
+      byte[] bytes = ((Binary)value).getBytes();
+      value = Binary.fromByteArray(Arrays.copyOf(bytes, bytes.length));
+    }
+    currentKey[column] = value;
+  }
+
+  @Override
+  void startRecord() {
+    Arrays.fill(currentKey, null);
+  }
+
+  @Override
+  void endRecord() {
+    Object[] key = currentKey.clone();
+    if (previousKey != null && sortOrder.compare(previousKey, key) > 0) {
+      throw new ParquetEncodingException(
+          "records must be sorted by " + sortOrder.getColumns() + ": "
+          + sortOrder.formatKey(key) + " written after " + sortOrder.formatKey(previousKey));
+    }
+    if (rowGroupMin == null) {
+      rowGroupMin = key;
+    }
+    previousKey = key;
+  }
+}
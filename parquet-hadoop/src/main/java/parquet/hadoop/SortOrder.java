@@ -0,0 +1,381 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import parquet.Log;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnPath;
+import parquet.hadoop.metadata.FileMetaData;
+import parquet.io.ParquetDecodingException;
+import parquet.io.ParquetEncodingException;
+import parquet.io.api.Binary;
+import parquet.schema.MessageType;
+import parquet.schema.PrimitiveType.PrimitiveTypeName;
+import parquet.schema.Type;
+import parquet.schema.Type.Repetition;
+
+/**
+ * The sort key of a file and the key bounds of its row groups, stored in the key value metadata of the footer.
+ *
+ * The sort key is a list of primitive columns that are not repeated, records are compared on
+ * the first column, then the second, and so on. Null values (missing optional fields) come first.
+ * <pre>
+ * parquet.sort.columns=a,b.c # the columns of the sort key (dot separated paths)
+ * parquet.sort.bounds=       # one line per non-empty row group: path \t row group index \t min key \t max key
+ * </pre>
+ * The path is empty in the footer of a data file, it is the path relative to the summary file in a _metadata file.
+ * Binary values are written in hexadecimal and the other ones as their string representation.
+ *
+ * @see ParquetOutputFormat#SORT_COLUMNS
+ * @see ParquetInputFormat#SORT_KEY_MIN
+ */
+public class SortOrder {
+  private static final Log LOG = Log.getLog(SortOrder.class);
+
+  public static final String SORT_COLUMNS = "parquet.sort.columns";
+  public static final String SORT_BOUNDS = "parquet.sort.bounds";
+
+  private static final String NULL = "null";
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  /**
+   * @param columns comma separated list of dot separated paths
+   * @return the corresponding columns
+   */
+  public static List<ColumnPath> parseColumns(String columns) {
+    List<ColumnPath> result = new ArrayList<ColumnPath>();
+    for (String column : columns.split(",")) {
+      column = column.trim();
+      if (column.length() > 0) {
+        result.add(ColumnPath.get(column.split("\\.")));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @param columns the columns
+   * @return comma separated list of dot separated paths
+   */
+  public static String formatColumns(List<ColumnPath> columns) {
+    StringBuilder sb = new StringBuilder();
+    for (ColumnPath column : columns) {
+      if (sb.length() > 0) {
+        sb.append(',');
+      }
+      String separator = "";
+      for (String name : column) {
+        sb.append(separator).append(name);
+        separator = ".";
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * @param fileMetaData the metadata of a file (or of a summary file)
+   * @return the sort order of the file or null if it was not written sorted
+   */
+  public static SortOrder fromMetaData(FileMetaData fileMetaData) {
+    String columns = fileMetaData.getKeyValueMetaData().get(SORT_COLUMNS);
+    if (columns == null) {
+      return null;
+    }
+    try {
+      SortOrder sortOrder = new SortOrder(fileMetaData.getSchema(), parseColumns(columns));
+      String bounds = fileMetaData.getKeyValueMetaData().get(SORT_BOUNDS);
+      if (bounds != null) {
+        sortOrder.parseBounds(bounds);
+      }
+      return sortOrder;
+    } catch (RuntimeException e) {
+      // the file is read as if it was not sorted
+      LOG.warn("ignoring invalid sort order " + columns, e);
+      return null;
+    }
+  }
+
+  /**
+   * adds the path of the file to the bounds of its row groups, to store them in a summary file
+   * @param bounds the value of {@link #SORT_BOUNDS} in the footer of the file
+   * @param path the path of the file relative to the summary file
+   * @return the bounds of the row groups of this file only, with its path
+   */
+  static String qualifyBounds(String bounds, String path) {
+    StringBuilder sb = new StringBuilder();
+    for (String line : bounds.split("\n")) {
+      String[] fields = line.split("\t", -1);
+      if (fields.length == 4 && (fields[0].length() == 0 || fields[0].equals(path))) {
+        sb.append(path).append('\t').append(fields[1]).append('\t').append(fields[2]).append('\t').append(fields[3]).append('\n');
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * @param fileMetaData the metadata of a file
+   * @param keys the keys to remove
+   * @return the same metadata without the given keys
+   */
+  static FileMetaData removeKeys(FileMetaData fileMetaData, String... keys) {
+    Map<String, String> keyValues = new HashMap<String, String>(fileMetaData.getKeyValueMetaData());
+    for (String key : keys) {
+      keyValues.remove(key);
+    }
+    return new FileMetaData(fileMetaData.getSchema(), keyValues, fileMetaData.getCreatedBy());
+  }
+
+  private final List<ColumnPath> columns;
+  private final PrimitiveTypeName[] types;
+  // "path \t row group index" => { min, max }
+  private final Map<String, Object[][]> bounds = new HashMap<String, Object[][]>();
+
+  /**
+   * @param schema the schema of the file
+   * @param columns the columns of the sort key
+   * @throws ParquetEncodingException if a column is not a primitive column outside of any repeated field
+   */
+  public SortOrder(MessageType schema, List<ColumnPath> columns) {
+    if (columns.isEmpty()) {
+      throw new ParquetEncodingException("the sort key must have at least one column");
+    }
+    this.columns = columns;
+    this.types = new PrimitiveTypeName[columns.size()];
+    for (int i = 0; i < types.length; i++) {
+      String[] path = columns.get(i).toArray();
+      if (!schema.containsPath(path)) {
+        throw new ParquetEncodingException("sort column " + columns.get(i) + " is not a column of " + schema);
+      }
+      if (schema.getMaxRepetitionLevel(path) > 0) {
+        throw new ParquetEncodingException("sort column " + columns.get(i) + " can not be repeated");
+      }
+      Type type = schema.getType(path);
+      if (!type.isPrimitive() || type.isRepetition(Repetition.REPEATED)) {
+        throw new ParquetEncodingException("sort column " + columns.get(i) + " must be a primitive column");
+      }
+      types[i] = type.asPrimitiveType().getPrimitiveTypeName();
+      if (types[i] == PrimitiveTypeName.INT96) {
+        throw new ParquetEncodingException("sort column " + columns.get(i) + " has an unsupported type: " + types[i]);
+      }
+    }
+  }
+
+  /**
+   * @return the columns of the sort key
+   */
+  public List<ColumnPath> getColumns() {
+    return columns;
+  }
+
+  PrimitiveTypeName getType(int column) {
+    return types[column];
+  }
+
+  /**
+   * compares keys column by column
+   * @return a negative number, zero or a positive number as key1 is less than, equal to or greater than key2
+   */
+  int compare(Object[] key1, Object[] key2) {
+    for (int i = 0; i < types.length; i++) {
+      int c = compare(i, key1[i], key2[i]);
+      if (c != 0) {
+        return c;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * compares two values of a column of the key, null comes first
+   */
+  int compare(int column, Object value1, Object value2) {
+    if (value1 == null || value2 == null) {
+      return value1 == null ? (value2 == null ? 0 : -1) : 1;
+    }
+    switch (types[column]) {
+    case INT32:
+      return ((Integer)value1).compareTo((Integer)value2);
+    case INT64:
+      return ((Long)value1).compareTo((Long)value2);
+    case BOOLEAN:
+      return ((Boolean)value1).compareTo((Boolean)value2);
+    case FLOAT:
+      return ((Float)value1).compareTo((Float)value2);
+    case DOUBLE:
+      return ((Double)value1).compareTo((Double)value2);
+    case BINARY:
+    case FIXED_LEN_BYTE_ARRAY:
+      return compareUnsigned(((Binary)value1).getBytes(), ((Binary)value2).getBytes());
+    default:
+      throw new ParquetEncodingException("unsupported type " + types[column]);
+    }
+  }
+
+  private static int compareUnsigned(byte[] b1, byte[] b2) {
+    int length = Math.min(b1.length, b2.length);
+    for (int i = 0; i < length; i++) {
+      int c = (b1[i] & 0xFF) - (b2[i] & 0xFF);
+      if (c != 0) {
+        return c;
+      }
+    }
+    return b1.length - b2.length;
+  }
+
+  /**
+   * @param bounds the { min, max } keys of each row group, null for an empty row group
+   * @return the value of {@link #SORT_BOUNDS} in the footer of a data file
+   */
+  String formatBounds(List<Object[][]> bounds) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < bounds.size(); i++) {
+      Object[][] rowGroupBounds = bounds.get(i);
+      if (rowGroupBounds != null) {
+        sb.append('\t').append(i).append('\t').append(formatKey(rowGroupBounds[0])).append('\t').append(formatKey(rowGroupBounds[1])).append('\n');
+      }
+    }
+    return sb.toString();
+  }
+
+  String formatKey(Object[] key) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < key.length; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      Object value = key[i];
+      if (value == null) {
+        sb.append(NULL);
+      } else if (value instanceof Binary) {
+        for (byte b : ((Binary)value).getBytes()) {
+          sb.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+        }
+      } else {
+        sb.append(value);
+      }
+    }
+    return sb.toString();
+  }
+
+  private Object[] parseKey(String key) {
+    String[] values = key.split(",", -1);
+    if (values.length != types.length) {
+      throw new ParquetDecodingException("invalid key " + key + " for sort columns " + columns);
+    }
+    Object[] result = new Object[values.length];
+    for (int i = 0; i < values.length; i++) {
+      if (!values[i].equals(NULL)) {
+        if (types[i] == PrimitiveTypeName.BINARY || types[i] == PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY) {
+          byte[] bytes = new byte[values[i].length() / 2];
+          for (int j = 0; j < bytes.length; j++) {
+            bytes[j] = (byte)Integer.parseInt(values[i].substring(j * 2, j * 2 + 2), 16);
+          }
+          result[i] = Binary.fromByteArray(bytes);
+        } else {
+          result[i] = parseValue(i, values[i]);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @param column the index of the column in the sort key
+   * @param value a value of this column, binary values are UTF-8 strings
+   * @return the value in the representation used to compare keys
+   */
+  Object parseValue(int column, String value) {
+    return parseValue(types[column], value);
+  }
+
+  /**
+   * @param type the type of the column
+   * @param value a value of this column, binary values are UTF-8 strings
+   * @return the value as passed to the {@link parquet.io.api.RecordConsumer}
+   */
+  static Object parseValue(PrimitiveTypeName type, String value) {
+    switch (type) {
+    case INT32:
+      return Integer.valueOf(value);
+    case INT64:
+      return Long.valueOf(value);
+    case BOOLEAN:
+      return Boolean.valueOf(value);
+    case FLOAT:
+      return Float.valueOf(value);
+    case DOUBLE:
+      return Double.valueOf(value);
+    case BINARY:
+    case FIXED_LEN_BYTE_ARRAY:
+      return Binary.fromString(value);
+    default:
+      throw new ParquetDecodingException("unsupported type " + type);
+    }
+  }
+
+  private void parseBounds(String value) {
+    for (String line : value.split("\n")) {
+      if (line.length() == 0) {
+        continue;
+      }
+      String[] fields = line.split("\t", -1);
+      if (fields.length != 4) {
+        throw new ParquetDecodingException("invalid row group bounds: " + line);
+      }
+      bounds.put(fields[0] + '\t' + fields[1], new Object[][] { parseKey(fields[2]), parseKey(fields[3]) });
+    }
+  }
+
+  /**
+   * keeps the row groups that may contain keys whose first column is between min and max
+   * @param blocks the row groups of a file, in order
+   * @param min the lower bound of the first column (inclusive) or null
+   * @param max the upper bound of the first column (inclusive) or null
+   * @return the row groups that may contain such keys
+   */
+  public List<BlockMetaData> filterRowGroups(List<BlockMetaData> blocks, String min, String max) {
+    Object minValue = min == null ? null : parseValue(0, min);
+    Object maxValue = max == null ? null : parseValue(0, max);
+    List<BlockMetaData> result = new ArrayList<BlockMetaData>(blocks.size());
+    for (int i = 0; i < blocks.size(); i++) {
+      BlockMetaData block = blocks.get(i);
+      Object[][] rowGroupBounds = null;
+      if (block.getPath() != null) {
+        rowGroupBounds = bounds.get(block.getPath() + '\t' + i);
+      }
+      if (rowGroupBounds == null) {
+        rowGroupBounds = bounds.get("\t" + i);
+      }
+      if (rowGroupBounds == null
+          || ((minValue == null || compare(0, rowGroupBounds[1][0], minValue) >= 0)
+              && (maxValue == null || compare(0, rowGroupBounds[0][0], maxValue) <= 0))) {
+        result.add(block);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "SortOrder{columns: " + columns + ", types: " + Arrays.toString(types) + "}";
+  }
+}
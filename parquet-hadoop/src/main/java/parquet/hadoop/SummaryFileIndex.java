@@ -0,0 +1,223 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import static parquet.bytes.BytesUtils.readIntLittleEndian;
+import static parquet.format.Util.writeFileMetaData;
+import static parquet.hadoop.ParquetFileWriter.CURRENT_VERSION;
+import static parquet.hadoop.ParquetFileWriter.MAGIC;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import parquet.Log;
+import parquet.bytes.BytesUtils;
+import parquet.format.converter.ParquetMetadataConverter;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.hadoop.metadata.ParquetMetadata;
+import parquet.schema.MessageType;
+
+/**
+ * The index of a summary file, to read the footers of a few files without deserializing
+ * the merged footer of the whole directory.
+ *
+ * The footer of each file is serialized on its own at the beginning of the summary file,
+ * followed by the index of their offsets. The merged footer stays at the end so that
+ * the summary file is still read the same way by readers ignoring the index:
+ * <pre>
+ * MAGIC
+ * footer of file 1
+ * ...
+ * footer of file N
+ * index: N, then for each file: relative path, offset, length
+ * index length (4 bytes little endian)
+ * INDEX_MAGIC
+ * merged footer
+ * merged footer length (4 bytes little endian)
+ * MAGIC
+ * </pre>
+ *
+ * @see ParquetOutputFormat#SUMMARY_INDEX
+ */
+public class SummaryFileIndex {
+  private static final Log LOG = Log.getLog(SummaryFileIndex.class);
+
+  public static final byte[] INDEX_MAGIC = "PIX1".getBytes(Charset.forName("ASCII"));
+
+  private static final int FOOTER_LENGTH_SIZE = 4;
+
+  private static final ParquetMetadataConverter metadataConverter = new ParquetMetadataConverter();
+
+  /**
+   * writes the footers and their index, must be called right after the MAGIC at the beginning of the file
+   * @param out the summary file
+   * @param files the relative paths of the files
+   * @param footers their footers
+   * @throws IOException
+   */
+  static void write(FSDataOutputStream out, List<String> files, List<ParquetMetadata> footers) throws IOException {
+    ByteArrayOutputStream index = new ByteArrayOutputStream();
+    DataOutputStream indexOut = new DataOutputStream(index);
+    indexOut.writeInt(files.size());
+    for (int i = 0; i < files.size(); i++) {
+      long offset = out.getPos();
+      writeFileMetaData(metadataConverter.toParquetMetadata(CURRENT_VERSION, footers.get(i)), out);
+      indexOut.writeUTF(files.get(i));
+      indexOut.writeLong(offset);
+      indexOut.writeInt((int)(out.getPos() - offset));
+    }
+    indexOut.close();
+    index.writeTo(out);
+    BytesUtils.writeIntLittleEndian(out, index.size());
+    out.write(INDEX_MAGIC);
+  }
+
+  /**
+   * reads the index of a summary file
+   * @param configuration to access the file system
+   * @param summaryStatus the summary file
+   * @return the index or null if the summary file was written without it
+   * @throws IOException
+   */
+  public static SummaryFileIndex read(Configuration configuration, FileStatus summaryStatus) throws IOException {
+    FileSystem fileSystem = summaryStatus.getPath().getFileSystem(configuration);
+    FSDataInputStream in = fileSystem.open(summaryStatus.getPath());
+    try {
+      long l = summaryStatus.getLen();
+      long minLength = MAGIC.length + FOOTER_LENGTH_SIZE + INDEX_MAGIC.length + FOOTER_LENGTH_SIZE + MAGIC.length;
+      if (l < minLength) {
+        return null;
+      }
+      byte[] tail = new byte[FOOTER_LENGTH_SIZE + MAGIC.length];
+      in.readFully(l - tail.length, tail);
+      long footerIndex = l - tail.length - readIntLittleEndian(tail, 0);
+      byte[] indexTail = new byte[FOOTER_LENGTH_SIZE + INDEX_MAGIC.length];
+      if (footerIndex - indexTail.length < MAGIC.length || footerIndex >= l) {
+        return null;
+      }
+      in.readFully(footerIndex - indexTail.length, indexTail);
+      if (!Arrays.equals(INDEX_MAGIC, Arrays.copyOfRange(indexTail, FOOTER_LENGTH_SIZE, indexTail.length))) {
+        return null;
+      }
+      int indexLength = readIntLittleEndian(indexTail, 0);
+      long indexStart = footerIndex - indexTail.length - indexLength;
+      if (indexStart < MAGIC.length) {
+        throw new RuntimeException("corrupted summary file " + summaryStatus.getPath() + ": the index is not within the file");
+      }
+      byte[] index = new byte[indexLength];
+      in.readFully(indexStart, index);
+      DataInputStream indexIn = new DataInputStream(new ByteArrayInputStream(index));
+      int count = indexIn.readInt();
+      Map<String, long[]> entries = new LinkedHashMap<String, long[]>();
+      for (int i = 0; i < count; i++) {
+        String file = indexIn.readUTF();
+        long offset = indexIn.readLong();
+        int length = indexIn.readInt();
+        entries.put(file, new long[] { offset, length });
+      }
+      if (Log.DEBUG) LOG.debug("read the index of " + count + " footers in " + summaryStatus.getPath());
+      return new SummaryFileIndex(summaryStatus, entries);
+    } finally {
+      in.close();
+    }
+  }
+
+  private final FileStatus summaryStatus;
+  private final Map<String, long[]> entries;
+
+  private SummaryFileIndex(FileStatus summaryStatus, Map<String, long[]> entries) {
+    this.summaryStatus = summaryStatus;
+    this.entries = entries;
+  }
+
+  /**
+   * @return the relative paths of the files in the index
+   */
+  public Set<String> getFiles() {
+    return Collections.unmodifiableSet(entries.keySet());
+  }
+
+  /**
+   * reads the footers of the requested files, ignoring the ones that are not in the index
+   * @param configuration to access the file system
+   * @param files the relative paths of the requested files
+   * @param projection if not null, only the metadata of the columns in this schema is kept
+   * @return the footers of the requested files that are in the index, in the order of the index
+   * @throws IOException
+   */
+  public List<Footer> readFooters(Configuration configuration, Collection<String> files, MessageType projection) throws IOException {
+    Path parent = summaryStatus.getPath().getParent();
+    FileSystem fileSystem = summaryStatus.getPath().getFileSystem(configuration);
+    List<Footer> footers = new ArrayList<Footer>();
+    FSDataInputStream in = fileSystem.open(summaryStatus.getPath());
+    try {
+      for (Map.Entry<String, long[]> entry : entries.entrySet()) {
+        if (!files.contains(entry.getKey())) {
+          continue;
+        }
+        byte[] footerBytes = new byte[(int)entry.getValue()[1]];
+        in.readFully(entry.getValue()[0], footerBytes);
+        ParquetMetadata footer = metadataConverter.readParquetMetadata(new ByteArrayInputStream(footerBytes));
+        if (projection != null) {
+          footer = project(footer, projection);
+        }
+        footers.add(new Footer(new Path(parent, entry.getKey()), footer));
+      }
+    } finally {
+      in.close();
+    }
+    if (Log.DEBUG) LOG.debug("read " + footers.size() + " out of " + entries.size() + " footers in " + summaryStatus.getPath());
+    return footers;
+  }
+
+  private static ParquetMetadata project(ParquetMetadata footer, MessageType projection) {
+    List<BlockMetaData> blocks = new ArrayList<BlockMetaData>(footer.getBlocks().size());
+    for (BlockMetaData block : footer.getBlocks()) {
+      BlockMetaData projected = new BlockMetaData();
+      projected.setPath(block.getPath());
+      projected.setRowCount(block.getRowCount());
+      projected.setTotalByteSize(block.getTotalByteSize());
+      for (ColumnChunkMetaData column : block.getColumns()) {
+        if (projection.containsPath(column.getPath().toArray())) {
+          projected.addColumn(column);
+        }
+      }
+      blocks.add(projected);
+    }
+    return new ParquetMetadata(footer.getFileMetaData(), blocks);
+  }
+
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+
+import parquet.Log;
+
+/**
+ * Reads into ByteBuffers with the enhanced byte buffer access of Hadoop 2.3 and later
+ * (FSDataInputStream.read(ByteBufferPool, int, EnumSet&lt;ReadOption&gt;)).
+ * HDFS then returns a slice of the memory-mapped block when the DataNode is co-located
+ * and a buffer from the pool otherwise.
+ * Parquet is compiled against Hadoop 1 so the API is looked up by reflection, see {@link #isAvailable()}.
+ *
+ * The buffers are owned by the stream until they are released.
+ */
+class ZeroCopyReader {
+  private static final Log LOG = Log.getLog(ZeroCopyReader.class);
+
+  /**
+   * The zero copy API of a stream class, looked up by reflection.
+   */
+  static class Api {
+    private final Method read;
+    private final Method releaseBuffer;
+    private final Object pool;
+    private final Class<?> readOptionClass;
+
+    /**
+     * @param streamClass the stream class providing read(pool, int, EnumSet) and releaseBuffer(ByteBuffer)
+     * @param poolClassName the type of the pool parameter
+     * @param poolImplementationClassName the implementation of the pool to instantiate
+     * @param readOptionClassName the type of the read options
+     * @throws Exception if the API is not provided
+     */
+    Api(Class<? extends FSDataInputStream> streamClass, String poolClassName, String poolImplementationClassName, String readOptionClassName) throws Exception {
+      this.read = streamClass.getMethod("read", Class.forName(poolClassName), int.class, EnumSet.class);
+      this.releaseBuffer = streamClass.getMethod("releaseBuffer", ByteBuffer.class);
+      this.pool = Class.forName(poolImplementationClassName).newInstance();
+      this.readOptionClass = Class.forName(readOptionClassName);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    Object options(boolean skipChecksums) {
+      Class enumClass = readOptionClass;
+      return skipChecksums ? EnumSet.of(Enum.valueOf(enumClass, "SKIP_CHECKSUMS")) : EnumSet.noneOf(enumClass);
+    }
+  }
+
+  private static final Api HADOOP;
+
+  static {
+    Api api = null;
+    try {
+      api = new Api(FSDataInputStream.class, "org.apache.hadoop.io.ByteBufferPool", "org.apache.hadoop.io.ElasticByteBufferPool", "org.apache.hadoop.fs.ReadOption");
+    } catch (Exception e) {
+      if (Log.DEBUG) LOG.debug("zero copy reads are not available: " + e);
+    }
+    HADOOP = api;
+  }
+
+  /**
+   * @return true if the version of Hadoop provides zero copy reads
+   */
+  static boolean isAvailable() {
+    return HADOOP != null;
+  }
+
+  private final FSDataInputStream in;
+  private final Api api;
+  private final Object options;
+  private final List<ByteBuffer> buffers = new ArrayList<ByteBuffer>();
+  private boolean supported = true;
+
+  /**
+   * @param in the stream to read from, {@link #isAvailable()} must be true
+   * @param skipChecksums whether the checksums of the data are not verified
+   */
+  ZeroCopyReader(FSDataInputStream in, boolean skipChecksums) {
+    this(in, HADOOP, skipChecksums);
+  }
+
+  /**
+   * @param in the stream to read from
+   * @param api the zero copy API of the stream
+   * @param skipChecksums whether the checksums of the data are not verified
+   */
+  ZeroCopyReader(FSDataInputStream in, Api api, boolean skipChecksums) {
+    this.in = in;
+    this.api = api;
+    this.options = api.options(skipChecksums);
+  }
+
+  /**
+   * reads bytes in a single buffer, kept until {@link #release(ByteBuffer)} or {@link #releaseAll()}
+   * @param position the position in the file
+   * @param length the number of bytes
+   * @return the bytes, from the position to the limit of the buffer, or null if they could not be read at once
+   * @throws IOException
+   */
+  ByteBuffer read(long position, int length) throws IOException {
+    if (!supported) {
+      return null;
+    }
+    in.seek(position);
+    ByteBuffer buffer;
+    try {
+      buffer = (ByteBuffer)invoke(api.read, api.pool, length, options);
+    } catch (UnsupportedOperationException e) {
+      if (Log.DEBUG) LOG.debug("zero copy reads are not supported by " + in + ": " + e.getMessage());
+      supported = false;
+      return null;
+    }
+    if (buffer == null) {
+      // end of file
+      return null;
+    }
+    if (buffer.remaining() < length) {
+      // for example across the boundary of an HDFS block
+      invoke(api.releaseBuffer, buffer);
+      return null;
+    }
+    buffers.add(buffer);
+    return buffer;
+  }
+
+  /**
+   * gives a buffer back to the stream
+   * @param buffer a buffer returned by {@link #read(long, int)}
+   * @throws IOException
+   */
+  void release(ByteBuffer buffer) throws IOException {
+    for (int i = 0; i < buffers.size(); i++) {
+      if (buffers.get(i) == buffer) {
+        buffers.remove(i);
+        invoke(api.releaseBuffer, buffer);
+        return;
+      }
+    }
+  }
+
+  /**
+   * gives all the buffers back to the stream, they must not be used anymore
+   * @throws IOException
+   */
+  void releaseAll() throws IOException {
+    for (ByteBuffer buffer : buffers) {
+      invoke(api.releaseBuffer, buffer);
+    }
+    buffers.clear();
+  }
+
+  private Object invoke(Method method, Object... args) throws IOException {
+    try {
+      return method.invoke(in, args);
+    } catch (IllegalAccessException e) {
+      throw new IOException("could not call " + method, e);
+    } catch (InvocationTargetException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException)cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException)cause;
+      } else if (cause instanceof Error) {
+        throw (Error)cause;
+      }
+      throw new IOException("could not call " + method, cause);
+    }
+  }
+}
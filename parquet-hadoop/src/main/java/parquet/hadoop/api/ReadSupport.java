@@ -37,6 +37,20 @@ abstract public class ReadSupport<T> {
    */
 	public static final String PARQUET_READ_SCHEMA = "parquet.read.schema";
 
+  /**
+   * configuration key to let the materializers reuse the same record instance from one record to the next
+   * (off by default). see {@link RecordMaterializer#getCurrentRecord()}
+   */
+  public static final String PARQUET_READ_REUSE_RECORDS = "parquet.read.reuse.records";
+
+  /**
+   * @param configuration the job configuration
+   * @return true if the materializers should reuse the record instances
+   */
+  public static boolean isReuseRecords(Configuration configuration) {
+    return configuration.getBoolean(PARQUET_READ_REUSE_RECORDS, false);
+  }
+
   /**
    * attempts to validate and construct a {@link MessageType} from a read projection schema
    *
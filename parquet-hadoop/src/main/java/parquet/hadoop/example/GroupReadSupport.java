@@ -20,13 +20,38 @@ import java.util.Map;
 import org.apache.hadoop.conf.Configuration;
 
 import parquet.example.data.Group;
+import parquet.example.data.GroupFactory;
+import parquet.example.data.simple.SimpleGroupFactory;
 import parquet.example.data.simple.convert.GroupRecordConverter;
+import parquet.example.data.typed.TypedGroup;
+import parquet.example.data.typed.TypedGroupFactory;
 import parquet.hadoop.api.ReadSupport;
 import parquet.io.api.RecordMaterializer;
 import parquet.schema.MessageType;
 
 public class GroupReadSupport extends ReadSupport<Group> {
 
+  /**
+   * configuration key to read {@link TypedGroup}s that store primitive values without boxing them (false by default)
+   */
+  public static final String PARQUET_EXAMPLE_TYPED_GROUPS = "parquet.example.typed.groups";
+
+  public static void setTypedGroups(Configuration configuration, boolean typedGroups) {
+    configuration.setBoolean(PARQUET_EXAMPLE_TYPED_GROUPS, typedGroups);
+  }
+
+  /**
+   * @param schema the schema of the groups
+   * @param configuration the job configuration
+   * @return the factory for the configured Group implementation
+   */
+  public static GroupFactory getGroupFactory(MessageType schema, Configuration configuration) {
+    if (configuration.getBoolean(PARQUET_EXAMPLE_TYPED_GROUPS, false)) {
+      return new TypedGroupFactory(schema);
+    }
+    return new SimpleGroupFactory(schema);
+  }
+
   @Override
   public parquet.hadoop.api.ReadSupport.ReadContext init(
       Configuration configuration, Map<String, String> keyValueMetaData,
@@ -40,7 +65,11 @@ public class GroupReadSupport extends ReadSupport<Group> {
   public RecordMaterializer<Group> prepareForRead(Configuration configuration,
       Map<String, String> keyValueMetaData, MessageType fileSchema,
       parquet.hadoop.api.ReadSupport.ReadContext readContext) {
-    return new GroupRecordConverter(readContext.getRequestedSchema());
+    MessageType requestedSchema = readContext.getRequestedSchema();
+    return new GroupRecordConverter(
+        requestedSchema,
+        getGroupFactory(requestedSchema, configuration),
+        isReuseRecords(configuration));
   }
 
 }
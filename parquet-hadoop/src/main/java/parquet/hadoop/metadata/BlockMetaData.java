@@ -83,9 +83,20 @@ public class BlockMetaData {
    * @param column the metadata for a column
    */
   public void addColumn(ColumnChunkMetaData column) {
+    if (!(columns instanceof ArrayList)) {
+      // a packed read only view
+      columns = new ArrayList<ColumnChunkMetaData>(columns);
+    }
     columns.add(column);
   }
 
+  /**
+   * @param columns the metadata for the columns, usually a view of {@link PackedColumnChunks}
+   */
+  public void setColumns(List<ColumnChunkMetaData> columns) {
+    this.columns = columns;
+  }
+
   /**
    *
    * @return the metadata for columns
@@ -0,0 +1,192 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop.metadata;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import parquet.column.Encoding;
+import parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+/**
+ * The column chunks of all the row groups of a file, stored in a few arrays instead of one object per column chunk.
+ *
+ * The properties shared by many column chunks (path, type, codec, encodings) are interned in {@link ColumnChunkProperties}
+ * and the offsets and sizes are stored in a primitive array, in ints when they all fit.
+ * {@link #getColumns(int)} returns a view of the column chunks of a row group:
+ * the {@link ColumnChunkMetaData} are created when accessed and can be discarded right after.
+ *
+ * @see BlockMetaData#setColumns(List)
+ */
+public final class PackedColumnChunks {
+
+  private static final int FIRST_DATA_PAGE = 0;
+  private static final int DICTIONARY_PAGE_OFFSET = 1;
+  private static final int VALUE_COUNT = 2;
+  private static final int TOTAL_SIZE = 3;
+  private static final int TOTAL_UNCOMPRESSED_SIZE = 4;
+  private static final int FIELDS = 5;
+
+  /**
+   * collects the column chunks of the row groups, in order
+   */
+  public static final class Builder {
+
+    private int[] rowGroupStarts = new int[16];
+    private int rowGroupCount = 0;
+    private ColumnChunkProperties[] properties = new ColumnChunkProperties[64];
+    private long[] values = new long[64 * FIELDS];
+    private int count = 0;
+
+    /**
+     * starts the next row group, the following column chunks belong to it
+     * @return the index of the row group
+     */
+    public int startRowGroup() {
+      if (rowGroupCount == rowGroupStarts.length) {
+        rowGroupStarts = Arrays.copyOf(rowGroupStarts, rowGroupCount * 2);
+      }
+      rowGroupStarts[rowGroupCount] = count;
+      return rowGroupCount ++;
+    }
+
+    public void addColumn(
+        ColumnPath path, PrimitiveTypeName type, CompressionCodecName codec, Set<Encoding> encodings,
+        long firstDataPage,
+        long dictionaryPageOffset,
+        long valueCount,
+        long totalSize,
+        long totalUncompressedSize) {
+      if (rowGroupCount == 0) {
+        throw new IllegalStateException("startRowGroup() must be called first");
+      }
+      if (count == properties.length) {
+        properties = Arrays.copyOf(properties, count * 2);
+        values = Arrays.copyOf(values, count * 2 * FIELDS);
+      }
+      properties[count] = ColumnChunkProperties.get(path, type, codec, encodings);
+      int offset = count * FIELDS;
+      values[offset + FIRST_DATA_PAGE] = firstDataPage;
+      values[offset + DICTIONARY_PAGE_OFFSET] = dictionaryPageOffset;
+      values[offset + VALUE_COUNT] = valueCount;
+      values[offset + TOTAL_SIZE] = totalSize;
+      values[offset + TOTAL_UNCOMPRESSED_SIZE] = totalUncompressedSize;
+      ++ count;
+    }
+
+    public PackedColumnChunks build() {
+      int[] starts = Arrays.copyOf(rowGroupStarts, rowGroupCount + 1);
+      starts[rowGroupCount] = count;
+      long[] longValues = Arrays.copyOf(values, count * FIELDS);
+      int[] intValues = new int[longValues.length];
+      for (int i = 0; i < longValues.length; i++) {
+        if (longValues[i] > Integer.MAX_VALUE || longValues[i] < Integer.MIN_VALUE) {
+          intValues = null;
+          break;
+        }
+        intValues[i] = (int)longValues[i];
+      }
+      return new PackedColumnChunks(starts, Arrays.copyOf(properties, count), intValues, intValues == null ? longValues : null);
+    }
+  }
+
+  private final int[] rowGroupStarts;
+  private final ColumnChunkProperties[] properties;
+  // FIELDS values per column chunk, in ints if they all fit
+  private final int[] intValues;
+  private final long[] longValues;
+
+  private PackedColumnChunks(int[] rowGroupStarts, ColumnChunkProperties[] properties, int[] intValues, long[] longValues) {
+    this.rowGroupStarts = rowGroupStarts;
+    this.properties = properties;
+    this.intValues = intValues;
+    this.longValues = longValues;
+  }
+
+  /**
+   * @return the number of row groups
+   */
+  public int getRowGroupCount() {
+    return rowGroupStarts.length - 1;
+  }
+
+  /**
+   * @param rowGroup the index of the row group
+   * @return a read only view of the column chunks of this row group
+   */
+  public List<ColumnChunkMetaData> getColumns(final int rowGroup) {
+    final int start = rowGroupStarts[rowGroup];
+    final int size = rowGroupStarts[rowGroup + 1] - start;
+    return new AbstractList<ColumnChunkMetaData>() {
+      @Override
+      public ColumnChunkMetaData get(int index) {
+        if (index < 0 || index >= size) {
+          throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return new PackedColumnChunkMetaData(PackedColumnChunks.this, start + index);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  private long getValue(int columnChunk, int field) {
+    int index = columnChunk * FIELDS + field;
+    return intValues != null ? intValues[index] : longValues[index];
+  }
+
+  private static final class PackedColumnChunkMetaData extends ColumnChunkMetaData {
+
+    private final PackedColumnChunks columnChunks;
+    private final int index;
+
+    PackedColumnChunkMetaData(PackedColumnChunks columnChunks, int index) {
+      super(columnChunks.properties[index]);
+      this.columnChunks = columnChunks;
+      this.index = index;
+    }
+
+    @Override
+    public long getFirstDataPageOffset() {
+      return columnChunks.getValue(index, FIRST_DATA_PAGE);
+    }
+
+    @Override
+    public long getDictionaryPageOffset() {
+      return columnChunks.getValue(index, DICTIONARY_PAGE_OFFSET);
+    }
+
+    @Override
+    public long getValueCount() {
+      return columnChunks.getValue(index, VALUE_COUNT);
+    }
+
+    @Override
+    public long getTotalUncompressedSize() {
+      return columnChunks.getValue(index, TOTAL_UNCOMPRESSED_SIZE);
+    }
+
+    @Override
+    public long getTotalSize() {
+      return columnChunks.getValue(index, TOTAL_SIZE);
+    }
+  }
+}
@@ -22,6 +22,10 @@ import static parquet.format.Util.writePageHeader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 
 import org.junit.Test;
@@ -33,7 +37,14 @@ import parquet.format.PageHeader;
 import parquet.format.PageType;
 import parquet.format.SchemaElement;
 import parquet.format.Type;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.hadoop.metadata.ColumnPath;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.hadoop.metadata.FileMetaData;
+import parquet.hadoop.metadata.ParquetMetadata;
 import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
 import parquet.schema.PrimitiveType.PrimitiveTypeName;
 import parquet.schema.Type.Repetition;
 
@@ -82,4 +93,52 @@ public class TestParquetMetadataConverter {
     }
   }
 
+  @Test
+  public void testColumnChunksRoundTrip() throws IOException {
+    MessageType schema = MessageTypeParser.parseMessageType("message m { required int32 a; optional binary b; }");
+    List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
+    for (int i = 0; i < 3; i++) {
+      BlockMetaData block = new BlockMetaData();
+      block.setRowCount(10 + i);
+      block.setTotalByteSize(100 + i);
+      long base = i == 2 ? 10L * Integer.MAX_VALUE : i * 1000;
+      block.addColumn(ColumnChunkMetaData.get(ColumnPath.get("a"), PrimitiveTypeName.INT32, CompressionCodecName.SNAPPY,
+          new HashSet<Encoding>(Arrays.asList(Encoding.PLAIN)), base + 4, 0, 10 + i, 40, 80));
+      block.addColumn(ColumnChunkMetaData.get(ColumnPath.get("b"), PrimitiveTypeName.BINARY, CompressionCodecName.GZIP,
+          new HashSet<Encoding>(Arrays.asList(Encoding.PLAIN_DICTIONARY, Encoding.RLE)), base + 60, base + 44, 10 + i, 56, 100));
+      blocks.add(block);
+    }
+    ParquetMetadata metadata = new ParquetMetadata(new FileMetaData(schema, new HashMap<String, String>(), "test"), blocks);
+    ParquetMetadataConverter converter = new ParquetMetadataConverter();
+    ParquetMetadata read = converter.fromParquetMetadata(converter.toParquetMetadata(1, metadata));
+
+    assertEquals(blocks.size(), read.getBlocks().size());
+    for (int i = 0; i < blocks.size(); i++) {
+      BlockMetaData expected = blocks.get(i);
+      BlockMetaData actual = read.getBlocks().get(i);
+      assertEquals(expected.getRowCount(), actual.getRowCount());
+      assertEquals(expected.getTotalByteSize(), actual.getTotalByteSize());
+      assertEquals(expected.getColumns().size(), actual.getColumns().size());
+      for (int j = 0; j < expected.getColumns().size(); j++) {
+        ColumnChunkMetaData expectedColumn = expected.getColumns().get(j);
+        ColumnChunkMetaData actualColumn = actual.getColumns().get(j);
+        assertEquals(expectedColumn.getPath(), actualColumn.getPath());
+        assertEquals(expectedColumn.getType(), actualColumn.getType());
+        assertEquals(expectedColumn.getCodec(), actualColumn.getCodec());
+        assertEquals(expectedColumn.getEncodings(), actualColumn.getEncodings());
+        assertEquals(expectedColumn.getFirstDataPageOffset(), actualColumn.getFirstDataPageOffset());
+        assertEquals(expectedColumn.getDictionaryPageOffset(), actualColumn.getDictionaryPageOffset());
+        assertEquals(expectedColumn.getValueCount(), actualColumn.getValueCount());
+        assertEquals(expectedColumn.getTotalSize(), actualColumn.getTotalSize());
+        assertEquals(expectedColumn.getTotalUncompressedSize(), actualColumn.getTotalUncompressedSize());
+      }
+    }
+
+    // the packed columns can still be modified
+    BlockMetaData block = read.getBlocks().get(0);
+    block.addColumn(blocks.get(1).getColumns().get(0));
+    assertEquals(3, block.getColumns().size());
+    assertEquals(1004, block.getColumns().get(2).getFirstDataPageOffset());
+  }
+
 }
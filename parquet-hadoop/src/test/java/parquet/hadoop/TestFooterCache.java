@@ -0,0 +1,215 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.Test;
+
+import parquet.column.Encoding;
+import parquet.example.data.Group;
+import parquet.example.data.simple.SimpleGroupFactory;
+import parquet.hadoop.example.GroupWriteSupport;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.hadoop.metadata.ColumnPath;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.hadoop.metadata.FileMetaData;
+import parquet.hadoop.metadata.ParquetMetadata;
+import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
+import parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+public class TestFooterCache {
+
+  private static final MessageType SCHEMA = MessageTypeParser.parseMessageType("message test { required int32 id; }");
+
+  @Test
+  public void testLRU() {
+    FooterCache cache = new FooterCache(10);
+    FileStatus a = status("a", 1);
+    FileStatus b = status("b", 1);
+    FileStatus c = status("c", 1);
+    ParquetMetadata footerA = footer(3); // size 4
+    ParquetMetadata footerB = footer(3);
+    ParquetMetadata footerC = footer(3);
+    cache.put(a, footerA);
+    cache.put(b, footerB);
+    assertEquals(8, cache.getSize());
+    assertSame(footerA, cache.get(a)); // a is now more recent than b
+    cache.put(c, footerC);
+    assertEquals(2, cache.getFooterCount());
+    assertEquals(1, cache.getEvictionCount());
+    assertNull(cache.get(b));
+    assertSame(footerA, cache.get(a));
+    assertSame(footerC, cache.get(c));
+    // another version of the file
+    assertNull(cache.get(status("a", 2)));
+    assertEquals(3, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+    // too big
+    cache.put(b, footer(10));
+    assertNull(cache.get(b));
+    cache.setCapacity(4);
+    assertEquals(1, cache.getFooterCount());
+    assertSame(footerC, cache.get(c));
+  }
+
+  @Test
+  public void testReadFooter() throws Exception {
+    File file = new File("target/test/TestFooterCache/test.parquet");
+    file.delete();
+    Path path = new Path(file.toURI());
+    write(path, 10);
+    Configuration conf = new Configuration();
+    ParquetMetadata uncached = ParquetFileReader.readFooter(conf, path);
+    assertNotSame(uncached, ParquetFileReader.readFooter(conf, path));
+
+    conf.setLong(FooterCache.FOOTER_CACHE_SIZE, 1000);
+    FooterCache cache = FooterCache.getShared(conf);
+    cache.clear();
+    long misses = cache.getMissCount();
+    long hits = cache.getHitCount();
+    ParquetMetadata footer = ParquetFileReader.readFooter(conf, path);
+    assertSame(footer, ParquetFileReader.readFooter(conf, path));
+    FileSystem fs = path.getFileSystem(conf);
+    List<Footer> footers = ParquetFileReader.readAllFootersInParallel(conf, Arrays.asList(fs.getFileStatus(path)));
+    assertSame(footer, footers.get(0).getParquetMetadata());
+    assertEquals(misses + 1, cache.getMissCount());
+    assertEquals(hits + 2, cache.getHitCount());
+
+    // rewriting the file changes its length
+    file.delete();
+    write(path, 1000);
+    ParquetMetadata newFooter = ParquetFileReader.readFooter(conf, path);
+    assertNotSame(footer, newFooter);
+    assertEquals(1000, newFooter.getBlocks().get(0).getRowCount());
+    cache.clear();
+  }
+
+  @Test
+  public void testReadAllFootersInParallel() throws Exception {
+    Configuration conf = new Configuration();
+    conf.setLong(FooterCache.FOOTER_CACHE_SIZE, 1000);
+    FooterCache cache = FooterCache.getShared(conf);
+    cache.clear();
+    List<FileStatus> statuses = new ArrayList<FileStatus>();
+    for (int i = 0; i < 4; i++) {
+      File file = new File("target/test/TestFooterCache/parallel/test" + i + ".parquet");
+      file.delete();
+      Path path = new Path(file.toURI());
+      write(path, i + 1);
+      statuses.add(path.getFileSystem(conf).getFileStatus(path));
+    }
+    FooterReaderPool pool = FooterReaderPool.getShared(conf);
+    long reads = pool.getReadCount();
+    long misses = cache.getMissCount();
+    long hits = cache.getHitCount();
+    List<Footer> first = ParquetFileReader.readAllFootersInParallel(conf, statuses.subList(0, 2));
+    assertEquals(reads + 2, pool.getReadCount());
+    assertEquals(misses + 2, cache.getMissCount());
+
+    // the cached footers are not timed as reads of the pool
+    List<Footer> all = ParquetFileReader.readAllFootersInParallel(conf, statuses);
+    assertEquals(reads + 4, pool.getReadCount());
+    assertEquals(misses + 4, cache.getMissCount());
+    assertEquals(hits + 2, cache.getHitCount());
+    assertEquals(4, all.size());
+    for (int i = 0; i < 4; i++) {
+      assertEquals(statuses.get(i).getPath(), all.get(i).getFile());
+      assertEquals(i + 1, all.get(i).getParquetMetadata().getBlocks().get(0).getRowCount());
+    }
+    assertSame(first.get(0).getParquetMetadata(), all.get(0).getParquetMetadata());
+    assertSame(first.get(1).getParquetMetadata(), all.get(1).getParquetMetadata());
+
+    ParquetFileReader.readAllFootersInParallel(conf, statuses);
+    assertEquals(reads + 4, pool.getReadCount());
+    cache.clear();
+  }
+
+  @Test
+  public void testSharedFootersAreNotModified() throws Exception {
+    File dir = new File("target/test/TestFooterCache/summary");
+    File file = new File(dir, "part-0.parquet");
+    file.delete();
+    new File(dir, ParquetFileWriter.PARQUET_METADATA_FILE).delete();
+    Path path = new Path(file.toURI());
+    write(path, 10);
+    Configuration conf = new Configuration();
+    conf.setLong(FooterCache.FOOTER_CACHE_SIZE, 1000);
+    FooterCache cache = FooterCache.getShared(conf);
+    cache.clear();
+    FileStatus status = path.getFileSystem(conf).getFileStatus(path);
+    List<Footer> footers = ParquetFileReader.readAllFootersInParallel(conf, Arrays.asList(status));
+    ParquetFileWriter.writeMetadataFile(conf, path.getParent(), footers);
+    ParquetMetadata cached = cache.get(status);
+    assertSame(footers.get(0).getParquetMetadata(), cached);
+    assertNull(cached.getBlocks().get(0).getPath());
+
+    // the size of the shared cache is not changed by another configuration
+    Configuration other = new Configuration();
+    other.setLong(FooterCache.FOOTER_CACHE_SIZE, 1);
+    assertSame(cache, FooterCache.getShared(other));
+    assertEquals(1000, cache.getCapacity());
+    assertSame(cached, cache.get(status));
+    cache.clear();
+  }
+
+  private void write(Path path, int count) throws Exception {
+    ParquetWriter<Group> writer = new ParquetWriter<Group>(path, new GroupWriteSupport() {
+      @Override
+      public WriteContext init(Configuration configuration) {
+        setSchema(SCHEMA, configuration);
+        return super.init(configuration);
+      }
+    });
+    SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    for (int i = 0; i < count; i++) {
+      writer.write(factory.newGroup().append("id", i));
+    }
+    writer.close();
+  }
+
+  private FileStatus status(String name, long modificationTime) {
+    return new FileStatus(100, false, 1, 100, modificationTime, new Path("hdfs://foo.namenode:1234/" + name));
+  }
+
+  private ParquetMetadata footer(int columns) {
+    List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
+    BlockMetaData block = new BlockMetaData();
+    for (int i = 0; i < columns; i++) {
+      block.addColumn(ColumnChunkMetaData.get(
+          ColumnPath.get("c" + i), PrimitiveTypeName.INT32, CompressionCodecName.UNCOMPRESSED, new HashSet<Encoding>(Arrays.asList(Encoding.PLAIN)),
+          0l, 0l, 0l, 0l, 0l));
+    }
+    blocks.add(block);
+    return new ParquetMetadata(new FileMetaData(SCHEMA, new HashMap<String, String>(), "test"), blocks);
+  }
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class TestFooterReaderPool {
+
+  @Test
+  public void testInvokeAll() throws Exception {
+    FooterReaderPool pool = new FooterReaderPool(16);
+    final AtomicInteger inFlight = new AtomicInteger();
+    final AtomicInteger maxInFlight = new AtomicInteger();
+    List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+    for (int i = 0; i < 200; i++) {
+      final int value = i;
+      tasks.add(new Callable<Integer>() {
+        @Override
+        public Integer call() throws Exception {
+          int current = inFlight.incrementAndGet();
+          synchronized (maxInFlight) {
+            maxInFlight.set(Math.max(maxInFlight.get(), current));
+          }
+          Thread.sleep(1);
+          inFlight.decrementAndGet();
+          return value;
+        }
+      });
+    }
+    final List<Integer> completed = new ArrayList<Integer>();
+    List<Integer> results = pool.invokeAll(tasks, new FooterReaderPool.CompletionListener<Integer>() {
+      @Override
+      public void completed(int index, Integer result) {
+        assertEquals(index, result.intValue());
+        completed.add(result);
+      }
+    });
+    assertEquals(200, completed.size());
+    for (int i = 0; i < results.size(); i++) {
+      assertEquals(i, results.get(i).intValue());
+    }
+    assertTrue(maxInFlight.get() <= 16);
+    // the latency is stable: the concurrency grew
+    assertTrue(pool.getConcurrency() > FooterReaderPool.MIN_CONCURRENCY);
+  }
+
+  @Test
+  public void testAdaptiveConcurrency() {
+    FooterReaderPool pool = new FooterReaderPool(64);
+    assertEquals(FooterReaderPool.MIN_CONCURRENCY, pool.getConcurrency());
+    for (int i = 0; i < 20; i++) {
+      pool.onCompleted(1000000);
+    }
+    assertEquals(FooterReaderPool.MIN_CONCURRENCY + 20, pool.getConcurrency());
+    // the latency degrades: the concurrency is halved until the smoothed latency catches up
+    for (int i = 0; i < 3; i++) {
+      pool.onCompleted(50000000);
+    }
+    assertEquals(FooterReaderPool.MIN_CONCURRENCY, pool.getConcurrency());
+    // a permanent change becomes the new reference and the concurrency grows again
+    for (int i = 0; i < 50; i++) {
+      pool.onCompleted(50000000);
+    }
+    assertTrue(pool.getConcurrency() > FooterReaderPool.MIN_CONCURRENCY);
+  }
+
+  @Test
+  public void testFailure() throws Exception {
+    FooterReaderPool pool = new FooterReaderPool(4);
+    List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+    for (int i = 0; i < 20; i++) {
+      final int value = i;
+      tasks.add(new Callable<Integer>() {
+        @Override
+        public Integer call() throws Exception {
+          if (value == 7) {
+            throw new IOException("7");
+          }
+          return value;
+        }
+      });
+    }
+    try {
+      pool.invokeAll(tasks, null);
+      fail("should have failed");
+    } catch (ExecutionException e) {
+      assertEquals("7", e.getCause().getMessage());
+    }
+  }
+}
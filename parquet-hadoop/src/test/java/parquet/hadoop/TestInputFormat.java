@@ -16,7 +16,12 @@
 package parquet.hadoop;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -24,18 +29,36 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.BlockLocation;
 import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 import org.junit.Test;
 
 import parquet.column.Encoding;
+import parquet.example.data.Group;
+import parquet.example.data.simple.SimpleGroupFactory;
 import parquet.hadoop.api.ReadSupport;
+import parquet.hadoop.example.GroupReadSupport;
+import parquet.hadoop.example.GroupWriteSupport;
 import parquet.hadoop.metadata.BlockMetaData;
 import parquet.hadoop.metadata.ColumnChunkMetaData;
 import parquet.hadoop.metadata.ColumnPath;
 import parquet.hadoop.metadata.CompressionCodecName;
 import parquet.hadoop.metadata.FileMetaData;
+import parquet.hadoop.metadata.ParquetMetadata;
+import parquet.hadoop.util.ContextUtil;
+import parquet.io.ParquetEncodingException;
 import parquet.schema.MessageType;
 import parquet.schema.MessageTypeParser;
 import parquet.schema.PrimitiveType.PrimitiveTypeName;
@@ -69,6 +92,299 @@ public class TestInputFormat {
     }
   }
 
+  @Test
+  public void testCombineSplits() throws IOException, InterruptedException {
+    List<ParquetInputSplit> splits = new ArrayList<ParquetInputSplit>();
+    for (int i = 0; i < 10; i++) {
+      splits.add(newSplit("small" + i, 10, "host" + (i % 2)));
+    }
+    splits.add(newSplit("big", 100, "host0"));
+    List<InputSplit> combined = ParquetInputFormat.combineSplits(splits, 30);
+    // big alone, 3 small local to each host, then the 4 left over packed 3 + 1
+    assertEquals(combined.toString(), 5, combined.size());
+    assertEquals(100, combined.get(0).getLength());
+    assertEquals("[host0]", Arrays.toString(combined.get(1).getLocations()));
+    assertEquals("[host1]", Arrays.toString(combined.get(2).getLocations()));
+    assertEquals("[host0, host1]", Arrays.toString(combined.get(3).getLocations()));
+    assertTrue(combined.get(4) instanceof ParquetInputSplit);
+    long total = 0;
+    for (InputSplit split : combined) {
+      total += split.getLength();
+      if (split instanceof CombinedParquetInputSplit) {
+        CombinedParquetInputSplit combinedSplit = (CombinedParquetInputSplit) split;
+        assertEquals(3, combinedSplit.getSplits().size());
+        DataOutputBuffer out = new DataOutputBuffer();
+        combinedSplit.write(out);
+        DataInputBuffer in = new DataInputBuffer();
+        in.reset(out.getData(), out.getLength());
+        CombinedParquetInputSplit read = new CombinedParquetInputSplit();
+        read.readFields(in);
+        assertEquals(combinedSplit.toString(), read.toString());
+      }
+    }
+    assertEquals(200, total);
+  }
+
+  @Test
+  public void testReadCombinedSplit() throws Exception {
+    final MessageType schema = MessageTypeParser.parseMessageType("message test { required int32 id; }");
+    File dir = new File("target/test/TestInputFormat/combine");
+    for (File f : dir.exists() ? dir.listFiles() : new File[0]) {
+      f.delete();
+    }
+    SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+    int id = 0;
+    for (int i = 0; i < 5; i++) {
+      ParquetWriter<Group> writer = new ParquetWriter<Group>(new Path(new File(dir, "part-" + i + ".parquet").toURI()), new GroupWriteSupport() {
+        @Override
+        public WriteContext init(Configuration configuration) {
+          setSchema(schema, configuration);
+          return super.init(configuration);
+        }
+      });
+      for (int j = 0; j < 10; j++) {
+        writer.write(factory.newGroup().append("id", id++));
+      }
+      writer.close();
+    }
+
+    Configuration conf = new Configuration();
+    conf.setLong(ParquetInputFormat.COMBINE_SPLIT_SIZE, 1024 * 1024);
+    Job job = new Job(conf);
+    FileInputFormat.setInputPaths(job, new Path(dir.toURI()));
+    ParquetInputFormat<Group> inputFormat = new ParquetInputFormat<Group>(GroupReadSupport.class);
+    List<InputSplit> splits = inputFormat.getSplits(job);
+    assertEquals(1, splits.size());
+    assertTrue(splits.get(0) instanceof CombinedParquetInputSplit);
+
+    TaskAttemptContext context = ContextUtil.newTaskAttemptContext(conf, new TaskAttemptID());
+    RecordReader<Void, Group> reader = inputFormat.createRecordReader(splits.get(0), context);
+    reader.initialize(splits.get(0), context);
+    boolean[] seen = new boolean[id];
+    int count = 0;
+    while (reader.nextKeyValue()) {
+      seen[reader.getCurrentValue().getInteger("id", 0)] = true;
+      ++ count;
+    }
+    assertEquals(1f, reader.getProgress(), 0);
+    reader.close();
+    assertEquals(id, count);
+    for (boolean b : seen) {
+      assertTrue(b);
+    }
+  }
+
+  @Test
+  public void testSortKeyRange() throws Exception {
+    File dir = new File("target/test/TestInputFormat/sorted");
+    for (File f : dir.exists() ? dir.listFiles() : new File[0]) {
+      f.delete();
+    }
+    Configuration conf = new Configuration();
+    conf.set(ParquetOutputFormat.SORT_COLUMNS, "id");
+    conf.setInt(ParquetOutputFormat.BLOCK_SIZE, 1024);
+    List<Footer> footers = new ArrayList<Footer>();
+    for (int i = 0; i < 3; i++) {
+      Path file = new Path(new File(dir, "part-" + i + ".parquet").toURI());
+      writeSorted(conf, file, i * 1000, (i + 1) * 1000);
+      footers.add(new Footer(file, ParquetFileReader.readFooter(conf, file)));
+    }
+    ParquetMetadata footer = footers.get(1).getParquetMetadata();
+    assertTrue(footer.getBlocks().size() > 1);
+    assertEquals("id", footer.getFileMetaData().getKeyValueMetaData().get(SortOrder.SORT_COLUMNS));
+    ParquetFileWriter.writeMetadataFile(conf, new Path(dir.toURI()), footers);
+
+    conf.set(ParquetInputFormat.SORT_KEY_MIN, "1500");
+    conf.set(ParquetInputFormat.SORT_KEY_MAX, "1600");
+    Job job = new Job(conf);
+    FileInputFormat.setInputPaths(job, new Path(dir.toURI()));
+    ParquetInputFormat<Group> inputFormat = new ParquetInputFormat<Group>(GroupReadSupport.class);
+    List<InputSplit> splits = inputFormat.getSplits(job);
+    assertEquals(1, splits.size());
+    ParquetInputSplit split = (ParquetInputSplit)splits.get(0);
+    assertTrue(split.getPath().getName().equals("part-1.parquet"));
+    assertTrue(split.getBlocks().size() < footer.getBlocks().size());
+
+    TaskAttemptContext context = ContextUtil.newTaskAttemptContext(conf, new TaskAttemptID());
+    RecordReader<Void, Group> reader = inputFormat.createRecordReader(split, context);
+    reader.initialize(split, context);
+    HashSet<Integer> ids = new HashSet<Integer>();
+    while (reader.nextKeyValue()) {
+      ids.add(reader.getCurrentValue().getInteger("id", 0));
+    }
+    reader.close();
+    for (int id = 1500; id <= 1600; id++) {
+      assertTrue(String.valueOf(id), ids.contains(id));
+    }
+  }
+
+  @Test
+  public void testNotSorted() throws Exception {
+    Configuration conf = new Configuration();
+    conf.set(ParquetOutputFormat.SORT_COLUMNS, "name,id");
+    Path file = new Path(new File("target/test/TestInputFormat/notsorted.parquet").toURI());
+    new File(file.toUri()).delete();
+    try {
+      writeSorted(conf, file, 0, 20);
+      fail("the records are not sorted by name");
+    } catch (ParquetEncodingException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testListIndexedDirectory() throws Exception {
+    File dir = new File("target/test/TestInputFormat/indexedListing");
+    for (File f : dir.exists() ? dir.listFiles() : new File[0]) {
+      f.delete();
+    }
+    Configuration conf = new Configuration();
+    conf.set(ParquetOutputFormat.INDEX_COLUMNS, "name");
+    MessageType schema = MessageTypeParser.parseMessageType("message test { required int32 id; required binary name; }");
+    GroupWriteSupport.setSchema(schema, conf);
+    SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+    for (int i = 0; i < 2; i++) {
+      RecordWriter<Void, Group> writer = new ParquetOutputFormat<Group>(new GroupWriteSupport())
+          .getRecordWriter(conf, new Path(new File(dir, "part-" + i + ".parquet").toURI()), CompressionCodecName.UNCOMPRESSED);
+      for (int j = 0; j < 100; j++) {
+        writer.write(null, factory.newGroup().append("id", j).append("name", "name" + j));
+      }
+      writer.close(null);
+    }
+    assertTrue(new File(dir, ".part-0.parquet.index").exists());
+    assertFalse(new File(dir, ParquetFileWriter.PARQUET_METADATA_FILE).exists());
+
+    // the index side files are not data files
+    Path dirPath = new Path(dir.toURI());
+    List<Footer> footers = ParquetFileReader.readFooters(conf, dirPath);
+    assertEquals(2, footers.size());
+    for (Footer footer : footers) {
+      assertTrue(footer.getFile().getName(), footer.getFile().getName().startsWith("part-"));
+    }
+    PrintFooter.main(new String[] { dirPath.toString() });
+  }
+
+  @Test
+  public void testLookup() throws Exception {
+    File dir = new File("target/test/TestInputFormat/indexed");
+    for (File f : dir.exists() ? dir.listFiles() : new File[0]) {
+      f.delete();
+    }
+    Configuration conf = new Configuration();
+    conf.set(ParquetOutputFormat.INDEX_COLUMNS, "name");
+    conf.setInt(ParquetOutputFormat.BLOCK_SIZE, 1024);
+    MessageType schema = MessageTypeParser.parseMessageType("message test { required int32 id; required binary name; }");
+    GroupWriteSupport.setSchema(schema, conf);
+    SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+    Path file = new Path(new File(dir, "part-0.parquet").toURI());
+    RecordWriter<Void, Group> writer = new ParquetOutputFormat<Group>(new GroupWriteSupport())
+        .getRecordWriter(conf, file, CompressionCodecName.UNCOMPRESSED);
+    for (int i = 0; i < 3000; i++) {
+      writer.write(null, factory.newGroup().append("id", i).append("name", "name" + (i / 100)));
+    }
+    writer.close(null);
+    assertTrue(new File(dir, ".part-0.parquet.index").exists());
+    int rowGroupCount = ParquetFileReader.readFooter(conf, file).getBlocks().size();
+    assertTrue(rowGroupCount > 2);
+
+    conf.set(ParquetInputFormat.LOOKUP_COLUMN, "name");
+    conf.set(ParquetInputFormat.LOOKUP_VALUE, "name15");
+    Job job = new Job(conf);
+    FileInputFormat.setInputPaths(job, new Path(dir.toURI()));
+    List<InputSplit> splits = new ParquetInputFormat<Group>(GroupReadSupport.class).getSplits(job);
+    assertEquals(1, splits.size());
+    int blocks = ((ParquetInputSplit)splits.get(0)).getBlocks().size();
+    assertTrue(blocks + " row groups out of " + rowGroupCount, blocks < rowGroupCount);
+
+    ParquetReader<Group> reader = new ParquetReader<Group>(conf, new Path(dir.toURI()), new GroupReadSupport());
+    int count = 0;
+    int matching = 0;
+    for (Group group = reader.read(); group != null; group = reader.read()) {
+      ++ count;
+      if (group.getBinary("name", 0).toStringUsingUTF8().equals("name15")) {
+        ++ matching;
+      }
+    }
+    reader.close();
+    assertEquals(100, matching);
+    assertTrue(count < 3000);
+
+    conf.set(ParquetInputFormat.LOOKUP_VALUE, "missing");
+    job = new Job(conf);
+    FileInputFormat.setInputPaths(job, new Path(dir.toURI()));
+    assertEquals(0, new ParquetInputFormat<Group>(GroupReadSupport.class).getSplits(job).size());
+  }
+
+  @Test
+  public void testIndexValidation() throws Exception {
+    File dir = new File("target/test/TestInputFormat/indexValidation");
+    for (File f : dir.exists() ? dir.listFiles() : new File[0]) {
+      f.delete();
+    }
+    Configuration conf = new Configuration();
+    conf.set(ParquetOutputFormat.INDEX_COLUMNS, "name");
+    conf.setInt(ParquetOutputFormat.BLOCK_SIZE, 1024);
+    MessageType schema = MessageTypeParser.parseMessageType("message test { required int32 id; required binary name; }");
+    GroupWriteSupport.setSchema(schema, conf);
+    SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+    Path[] files = new Path[2];
+    for (int i = 0; i < files.length; i++) {
+      files[i] = new Path(new File(dir, "part-" + i + ".parquet").toURI());
+      RecordWriter<Void, Group> writer = new ParquetOutputFormat<Group>(new GroupWriteSupport())
+          .getRecordWriter(conf, files[i], CompressionCodecName.UNCOMPRESSED);
+      for (int j = 0; j < 3000 + i * 10; j++) {
+        writer.write(null, factory.newGroup().append("id", j).append("name", "name" + (j / 100)));
+      }
+      writer.close(null);
+    }
+    FileSystem fs = files[0].getFileSystem(conf);
+    FileStatus status = fs.getFileStatus(files[0]);
+    Footer footer = new Footer(files[0], ParquetFileReader.readFooter(conf, files[0]));
+    List<BlockMetaData> blocks = footer.getParquetMetadata().getBlocks();
+
+    // the values are found by binary search, including the first and last ones
+    for (int i = 0; i < 30; i++) {
+      List<BlockMetaData> matching = RowGroupIndex.lookup(conf, footer, status, "name", "name" + i);
+      assertFalse(matching.isEmpty());
+      assertTrue(matching.size() < blocks.size());
+    }
+    assertTrue(RowGroupIndex.lookup(conf, footer, status, "name", "name").isEmpty());
+    assertTrue(RowGroupIndex.lookup(conf, footer, status, "name", "name99").isEmpty());
+
+    RowGroupIndex index = RowGroupIndex.open(conf, status, blocks);
+    assertEquals(blocks.size(), index.getRowGroupCount());
+    index.close();
+    // the row groups of another file
+    assertNull(RowGroupIndex.open(conf, status, ParquetFileReader.readFooter(conf, files[1]).getBlocks()));
+    // no index
+    assertTrue(new File(dir, ".part-1.parquet.index").delete());
+    assertNull(RowGroupIndex.open(conf, fs.getFileStatus(files[1]), ParquetFileReader.readFooter(conf, files[1]).getBlocks()));
+  }
+
+  private void writeSorted(Configuration conf, Path file, int from, int to) throws Exception {
+    MessageType schema = MessageTypeParser.parseMessageType("message test { required int32 id; required binary name; }");
+    GroupWriteSupport.setSchema(schema, conf);
+    RecordWriter<Void, Group> writer = new ParquetOutputFormat<Group>(new GroupWriteSupport())
+        .getRecordWriter(conf, file, CompressionCodecName.UNCOMPRESSED);
+    SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+    for (int i = from; i < to; i++) {
+      writer.write(null, factory.newGroup().append("id", i).append("name", "name" + (i % 10)));
+    }
+    writer.close(null);
+  }
+
+  private ParquetInputSplit newSplit(String file, long length, String host) {
+    List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
+    BlockMetaData block = new BlockMetaData();
+    block.addColumn(ColumnChunkMetaData.get(
+        ColumnPath.get("foo"), PrimitiveTypeName.BINARY, CompressionCodecName.GZIP, new HashSet<Encoding>(Arrays.asList(Encoding.PLAIN)),
+        0l, 0l, 0l, length, 0l));
+    blocks.add(block);
+    String schema = "message doc { required binary foo; }";
+    return new ParquetInputSplit(new Path("hdfs://foo.namenode:1234/" + file), 0, length, new String[] { host },
+        blocks, schema, schema, new HashMap<String, String>(), new HashMap<String, String>());
+  }
+
   private BlockMetaData newBlock(long start) {
     BlockMetaData blockMetaData = new BlockMetaData();
     ColumnChunkMetaData column = ColumnChunkMetaData.get(
@@ -0,0 +1,199 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.junit.Test;
+
+import parquet.column.ColumnDescriptor;
+import parquet.column.Encoding;
+import parquet.column.page.PageReadStore;
+import parquet.column.page.PageReader;
+import parquet.example.data.Group;
+import parquet.example.data.simple.SimpleGroupFactory;
+import parquet.hadoop.example.GroupReadSupport;
+import parquet.hadoop.example.GroupWriteSupport;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.hadoop.metadata.ColumnPath;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.hadoop.metadata.ParquetMetadata;
+import parquet.io.ParquetEncodingException;
+import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
+
+public class TestParquetFileMerger {
+
+  private static final MessageType SCHEMA = MessageTypeParser.parseMessageType(
+      "message test { required int32 id; required binary name; optional int64 value; }");
+
+  private final File testDir = new File("target/test/TestParquetFileMerger");
+  private final Configuration conf = new Configuration();
+
+  @Test
+  public void testMerge() throws Exception {
+    Path file1 = write("file1", SCHEMA, 0, 1000, CompressionCodecName.UNCOMPRESSED);
+    Path file2 = write("file2", SCHEMA, 1000, 3000, CompressionCodecName.SNAPPY);
+    Path file3 = write("file3", SCHEMA, 3000, 3010, CompressionCodecName.GZIP);
+    Path merged = path("merged");
+    ParquetFileMerger.merge(conf, Arrays.asList(file1, file2, file3), merged);
+
+    int rowGroups = 0;
+    for (Path file : Arrays.asList(file1, file2, file3)) {
+      rowGroups += ParquetFileReader.readFooter(conf, file).getBlocks().size();
+    }
+    ParquetMetadata footer = ParquetFileReader.readFooter(conf, merged);
+    assertEquals(rowGroups, footer.getBlocks().size());
+    assertEquals(SCHEMA, footer.getFileMetaData().getSchema());
+    assertEquals("bar", footer.getFileMetaData().getKeyValueMetaData().get("foo"));
+
+    ParquetReader<Group> reader = new ParquetReader<Group>(merged, new GroupReadSupport());
+    for (int i = 0; i < 3010; i++) {
+      Group group = reader.read();
+      assertEquals(i, group.getInteger("id", 0));
+      assertEquals("name" + (i % 10), group.getBinary("name", 0).toStringUsingUTF8());
+      assertEquals(i % 3 == 0 ? 0 : 1, group.getFieldRepetitionCount("value"));
+    }
+    assertNull(reader.read());
+    reader.close();
+  }
+
+  @Test
+  public void testCoalesce() throws Exception {
+    List<Path> files = new ArrayList<Path>();
+    CompressionCodecName[] codecs = { CompressionCodecName.SNAPPY, CompressionCodecName.UNCOMPRESSED, CompressionCodecName.GZIP };
+    for (int i = 0; i < 12; i++) {
+      files.add(write("small" + i, SCHEMA, i * 100, (i + 1) * 100, codecs[i % codecs.length]));
+    }
+    int rowGroups = 0;
+    for (Path file : files) {
+      rowGroups += ParquetFileReader.readFooter(conf, file).getBlocks().size();
+    }
+    Path merged = path("coalesced");
+    ParquetFileMerger.merge(conf, files, merged, 64 * 1024);
+
+    ParquetMetadata footer = ParquetFileReader.readFooter(conf, merged);
+    assertTrue(footer.getBlocks().size() + " row groups out of " + rowGroups, footer.getBlocks().size() < rowGroups);
+    assertEquals(SCHEMA, footer.getFileMetaData().getSchema());
+    // the values of the coalesced row groups are written in new pages of the default size
+    BlockMetaData coalesced = footer.getBlocks().get(0);
+    assertTrue(coalesced.getRowCount() > 100);
+    ParquetFileReader fileReader = new ParquetFileReader(conf, merged, Arrays.asList(coalesced), SCHEMA.getColumns());
+    PageReadStore pages = fileReader.readNextRowGroup();
+    for (ColumnDescriptor column : SCHEMA.getColumns()) {
+      PageReader pageReader = pages.getPageReader(column);
+      assertEquals(coalesced.getRowCount(), pageReader.getTotalValueCount());
+      assertEquals(coalesced.getRowCount(), pageReader.readPage().getValueCount());
+      assertNull(pageReader.readPage());
+    }
+    fileReader.close();
+
+    ParquetReader<Group> reader = new ParquetReader<Group>(merged, new GroupReadSupport());
+    for (int i = 0; i < 1200; i++) {
+      Group group = reader.read();
+      assertEquals(i, group.getInteger("id", 0));
+      assertEquals("name" + (i % 10), group.getBinary("name", 0).toStringUsingUTF8());
+      assertEquals(i % 3 == 0 ? 0 : 1, group.getFieldRepetitionCount("value"));
+      if (i % 3 != 0) {
+        assertEquals(String.valueOf(i), group.getValueToString(group.getType().getFieldIndex("value"), 0));
+      }
+    }
+    assertNull(reader.read());
+    reader.close();
+  }
+
+  @Test
+  public void testCoalesceDifferentDictionaries() throws Exception {
+    Path file1 = write("dictionary1", SCHEMA, 0, 100, CompressionCodecName.UNCOMPRESSED, "name");
+    Path file2 = write("dictionary2", SCHEMA, 100, 200, CompressionCodecName.UNCOMPRESSED, "other");
+    Path merged = path("coalesced");
+    ParquetFileMerger.merge(conf, Arrays.asList(file1, file2), merged, 64 * 1024);
+
+    // the name columns have different dictionaries: they are merged in one
+    List<BlockMetaData> blocks = ParquetFileReader.readFooter(conf, merged).getBlocks();
+    assertEquals(1, blocks.size());
+    assertEquals(200, blocks.get(0).getRowCount());
+    for (ColumnChunkMetaData column : blocks.get(0).getColumns()) {
+      if (column.getPath().equals(ColumnPath.get("name"))) {
+        assertTrue(column.getEncodings().toString(), column.getEncodings().contains(Encoding.PLAIN_DICTIONARY));
+      }
+    }
+    ParquetReader<Group> reader = new ParquetReader<Group>(merged, new GroupReadSupport());
+    for (int i = 0; i < 200; i++) {
+      Group group = reader.read();
+      assertEquals(i, group.getInteger("id", 0));
+      assertEquals((i < 100 ? "name" : "other") + (i % 10), group.getBinary("name", 0).toStringUsingUTF8());
+    }
+    assertNull(reader.read());
+    reader.close();
+  }
+
+  @Test
+  public void testDifferentColumns() throws Exception {
+    Path file1 = write("file1", SCHEMA, 0, 10, CompressionCodecName.UNCOMPRESSED);
+    MessageType otherSchema = MessageTypeParser.parseMessageType("message test { required int32 id; required binary name; }");
+    Path file2 = write("file2", otherSchema, 10, 20, CompressionCodecName.UNCOMPRESSED);
+    try {
+      ParquetFileMerger.merge(conf, Arrays.asList(file1, file2), path("merged"));
+      fail("the columns are different");
+    } catch (ParquetEncodingException e) {
+      // expected
+    }
+  }
+
+  private Path path(String name) {
+    File file = new File(testDir, name);
+    file.delete();
+    return new Path(file.getAbsoluteFile().toURI());
+  }
+
+  private Path write(String name, final MessageType schema, int from, int to, CompressionCodecName codec) throws Exception {
+    return write(name, schema, from, to, codec, "name");
+  }
+
+  private Path write(String name, final MessageType schema, int from, int to, CompressionCodecName codec, String namePrefix) throws Exception {
+    Path path = path(name);
+    ParquetWriter<Group> writer = new ParquetWriter<Group>(path, new GroupWriteSupport() {
+      @Override
+      public WriteContext init(Configuration configuration) {
+        setSchema(schema, configuration);
+        return new WriteContext(super.init(configuration).getSchema(), Collections.singletonMap("foo", "bar"));
+      }
+    }, codec, 4 * 1024, 1024, true, false);
+    SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+    for (int i = from; i < to; i++) {
+      Group group = factory.newGroup().append("id", i).append("name", namePrefix + (i % 10));
+      if (schema.containsField("value") && i % 3 != 0) {
+        group.append("value", (long)i);
+      }
+      writer.write(group);
+    }
+    writer.close();
+    return path;
+  }
+}
@@ -17,7 +17,10 @@ package parquet.hadoop;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static parquet.column.Encoding.BIT_PACKED;
 import static parquet.column.Encoding.PLAIN;
@@ -31,6 +34,7 @@ import java.io.IOException;
 import java.util.*;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -44,10 +48,19 @@ import parquet.column.Encoding;
 import parquet.column.page.Page;
 import parquet.column.page.PageReadStore;
 import parquet.column.page.PageReader;
+import parquet.example.data.Group;
+import parquet.example.data.simple.SimpleGroupFactory;
+import parquet.hadoop.api.ReadSupport;
+import parquet.hadoop.example.GroupReadSupport;
+import parquet.hadoop.example.GroupWriteSupport;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnPath;
 import parquet.hadoop.metadata.CompressionCodecName;
 import parquet.hadoop.metadata.FileMetaData;
 import parquet.hadoop.metadata.GlobalMetaData;
 import parquet.hadoop.metadata.ParquetMetadata;
+import parquet.io.MessageColumnIO;
+import parquet.io.api.Binary;
 import parquet.schema.MessageType;
 import parquet.schema.MessageTypeParser;
 import parquet.schema.PrimitiveType;
@@ -144,6 +157,158 @@ public class TestParquetFileWriter {
     PrintFooter.main(new String[] {path.toString()});
   }
 
+  @Test
+  public void testMemoryMappedRead() throws Exception {
+    File testFile = new File("target/test/TestParquetFileWriter/testMemoryMappedRead").getAbsoluteFile();
+    testFile.delete();
+    Path path = new Path(testFile.toURI());
+    Configuration configuration = new Configuration();
+    MessageType schema = MessageTypeParser.parseMessageType("message m { required group a {required binary b;} required group c { required int64 d; }}");
+    createFile(configuration, path, schema);
+    ParquetMetadata readFooter = ParquetFileReader.readFooter(configuration, path);
+    String[] path1 = {"a", "b"};
+    String[] path2 = {"c", "d"};
+
+    // not mapped by default
+    ParquetFileReader defaultReader = new ParquetFileReader(configuration, path, readFooter.getBlocks(), schema.getColumns());
+    assertFalse(defaultReader.isMemoryMapped());
+    defaultReader.close();
+    for (boolean mmap : new boolean[] { true, false }) {
+      configuration.setBoolean(ParquetFileReader.LOCAL_MMAP, mmap);
+      ParquetFileReader r = new ParquetFileReader(configuration, path, readFooter.getBlocks(), Arrays.asList(schema.getColumnDescription(path1), schema.getColumnDescription(path2)));
+      assertEquals(mmap, r.isMemoryMapped());
+      PageReadStore pages = r.readNextRowGroup();
+      assertEquals(3, pages.getRowCount());
+      validateContains(schema, pages, path1, 2, BytesInput.from(new byte[] { 0, 1, 2, 3 }));
+      validateContains(schema, pages, path1, 3, BytesInput.from(new byte[] { 0, 1, 2, 3 }));
+      validateContains(schema, pages, path2, 2, BytesInput.from(new byte[] { 1, 2, 3, 4 }));
+      validateContains(schema, pages, path2, 3, BytesInput.from(new byte[] { 1, 2, 3, 4 }));
+      validateContains(schema, pages, path2, 1, BytesInput.from(new byte[] { 1, 2, 3, 4 }));
+      pages = r.readNextRowGroup();
+      assertEquals(4, pages.getRowCount());
+      validateContains(schema, pages, path1, 7, BytesInput.from(new byte[] { 2, 3, 4, 5 }));
+      validateContains(schema, pages, path2, 8, BytesInput.from(new byte[] { 3, 4, 5, 6 }));
+      assertNull(r.readNextRowGroup());
+      r.close();
+    }
+  }
+
+  @Test
+  public void testPositionalReads() throws Exception {
+    File testFile = new File("target/test/TestParquetFileWriter/testPositionalReads").getAbsoluteFile();
+    testFile.delete();
+    Path path = new Path(testFile.toURI());
+    final MessageType schema = MessageTypeParser.parseMessageType("message m { required int32 id; required binary name; optional int64 value; }");
+    ParquetWriter<Group> writer = new ParquetWriter<Group>(path, new GroupWriteSupport() {
+      @Override
+      public WriteContext init(Configuration configuration) {
+        setSchema(schema, configuration);
+        return super.init(configuration);
+      }
+    }, CompressionCodecName.GZIP, 4 * 1024, 1024, 1024, true, false);
+    SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+    List<String> expected = new ArrayList<String>();
+    for (int i = 0; i < 2000; i++) {
+      Group group = factory.newGroup().append("id", i).append("name", "name" + (i % 10));
+      if (i % 3 != 0) {
+        group.append("value", (long)i);
+      }
+      writer.write(group);
+      expected.add(group.toString());
+    }
+    writer.close();
+    assertTrue(ParquetFileReader.readFooter(new Configuration(), path).getBlocks().size() > 1);
+
+    // the total size of the column chunks does not include the header of their dictionary page
+    for (int threads : new int[] { 1, 8 }) {
+      Configuration configuration = new Configuration();
+      configuration.setBoolean(ParquetFileReader.LOCAL_MMAP, false);
+      configuration.setInt(ParquetFileReader.CHUNK_READ_THREADS, threads);
+      ParquetReader<Group> reader = new ParquetReader<Group>(configuration, path, new GroupReadSupport());
+      List<String> actual = new ArrayList<String>();
+      Group group;
+      while ((group = reader.read()) != null) {
+        actual.add(group.toString());
+      }
+      reader.close();
+      assertEquals("threads: " + threads, expected, actual);
+    }
+  }
+
+  @Test
+  public void testFixedLengthColumns() throws Exception {
+    // the schemas of the two files only differ by the length of their column
+    Path path4 = writeFixedLength("testFixedLengthColumns4", 4);
+    Path path8 = writeFixedLength("testFixedLengthColumns8", 8);
+    for (boolean compile : new boolean[] { false, true }) {
+      Configuration configuration = new Configuration();
+      configuration.setBoolean(ParquetInputFormat.COMPILE_RECORD_READER, compile);
+      validateFixedLength(configuration, path4, 4);
+      validateFixedLength(configuration, path8, 8);
+    }
+  }
+
+  @Test
+  public void testSharedColumnIO() throws Exception {
+    Path first = writeFixedLength("testSharedColumnIO1", 4);
+    Path second = writeFixedLength("testSharedColumnIO2", 4);
+    Path other = writeFixedLength("testSharedColumnIO3", 8);
+    Configuration configuration = new Configuration();
+    MessageColumnIO columnIO = readFirstRecord(configuration, first);
+    assertSame(columnIO, readFirstRecord(configuration, second));
+    assertNotSame(columnIO, readFirstRecord(configuration, other));
+  }
+
+  private MessageColumnIO readFirstRecord(Configuration configuration, Path path) throws Exception {
+    ParquetMetadata footer = ParquetFileReader.readFooter(configuration, path);
+    MessageType schema = footer.getFileMetaData().getSchema();
+    InternalParquetRecordReader<Group> reader = new InternalParquetRecordReader<Group>(new GroupReadSupport());
+    reader.initialize(schema, schema, footer.getFileMetaData().getKeyValueMetaData(), new HashMap<String, String>(),
+        path, footer.getBlocks(), configuration);
+    assertTrue(reader.nextKeyValue());
+    assertEquals(schema.toString(), reader.getCurrentValue().getType().toString());
+    MessageColumnIO columnIO = reader.getColumnIO();
+    reader.close();
+    return columnIO;
+  }
+
+  private Path writeFixedLength(String name, int length) throws IOException {
+    File testFile = new File("target/test/TestParquetFileWriter/" + name).getAbsoluteFile();
+    testFile.delete();
+    Path path = new Path(testFile.toURI());
+    final MessageType schema = MessageTypeParser.parseMessageType("message m { required fixed_len_byte_array(" + length + ") f; }");
+    ParquetWriter<Group> writer = new ParquetWriter<Group>(path, new GroupWriteSupport() {
+      @Override
+      public WriteContext init(Configuration configuration) {
+        setSchema(schema, configuration);
+        return super.init(configuration);
+      }
+    }, CompressionCodecName.UNCOMPRESSED, 1024, 512);
+    SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+    for (int i = 0; i < 500; i++) {
+      writer.write(factory.newGroup().append("f", Binary.fromByteArray(fixedLengthValue(i, length))));
+    }
+    writer.close();
+    return path;
+  }
+
+  private byte[] fixedLengthValue(int i, int length) {
+    byte[] value = new byte[length];
+    for (int j = 0; j < length; j++) {
+      value[j] = (byte)(i + j);
+    }
+    return value;
+  }
+
+  private void validateFixedLength(Configuration configuration, Path path, int length) throws IOException {
+    ParquetReader<Group> reader = new ParquetReader<Group>(configuration, path, new GroupReadSupport());
+    for (int i = 0; i < 500; i++) {
+      assertArrayEquals("record " + i + " of " + path, fixedLengthValue(i, length), reader.read().getBinary("f", 0).getBytes());
+    }
+    assertNull(reader.read());
+    reader.close();
+  }
+
   @Test
   public void testMetaDataFile() throws Exception {
 
@@ -191,6 +356,162 @@ public class TestParquetFileWriter {
 
   }
 
+  @Test
+  public void testIncrementalMetaDataFile() throws Exception {
+    File testDir = new File("target/test/TestParquetFileWriter/testIncrementalMetaDataFileDir").getAbsoluteFile();
+    Path testDirPath = new Path(testDir.toURI());
+    Configuration configuration = new Configuration();
+    configuration.setBoolean(ParquetOutputFormat.INCREMENTAL_SUMMARY, true);
+    final FileSystem fs = testDirPath.getFileSystem(configuration);
+    fs.delete(testDirPath, true);
+    fs.mkdirs(testDirPath);
+    Path metadataPath = new Path(testDirPath, ParquetFileWriter.PARQUET_METADATA_FILE);
+
+    MessageType schema = MessageTypeParser.parseMessageType("message m { required group a {required binary b;} required group c { required int64 d; }}");
+    createFile(configuration, new Path(testDirPath, "part0"), schema);
+    createFile(configuration, new Path(testDirPath, "part1"), schema);
+    ParquetOutputCommitter.writeMetaDataFile(configuration, testDirPath);
+    assertEquals(2, ParquetFileReader.readSummaryFile(configuration, fs.getFileStatus(metadataPath)).size());
+
+    // the footer of an unchanged part0 is not read again: it is taken from the summary
+    // (its content is replaced by bytes of the same length and its modification time is set back)
+    Path part0 = new Path(testDirPath, "part0");
+    long length = fs.getFileStatus(part0).getLen();
+    long summaryTime = fs.getFileStatus(metadataPath).getModificationTime();
+    fs.delete(part0, false);
+    FSDataOutputStream out = fs.create(part0);
+    out.write(new byte[(int)length]);
+    out.close();
+    new File(testDir, "part0").setLastModified(summaryTime - 10000);
+    createFile(configuration, new Path(testDirPath, "part2"), schema);
+    ParquetOutputCommitter.writeMetaDataFile(configuration, testDirPath);
+    validateFooters(ParquetFileReader.readSummaryFile(configuration, fs.getFileStatus(metadataPath)));
+
+    // rebuilding the summary reads all the footers again
+    fs.delete(new Path(testDirPath, "part0"), false);
+    createFile(configuration, new Path(testDirPath, "part0"), schema);
+    configuration.setBoolean(ParquetOutputFormat.INCREMENTAL_SUMMARY, false);
+    ParquetOutputCommitter.writeMetaDataFile(configuration, testDirPath);
+    validateFooters(ParquetFileReader.readSummaryFile(configuration, fs.getFileStatus(metadataPath)));
+  }
+
+  @Test
+  public void testIncrementalMetaDataFileOverwrite() throws Exception {
+    File testDir = new File("target/test/TestParquetFileWriter/testIncrementalMetaDataFileOverwriteDir").getAbsoluteFile();
+    Path testDirPath = new Path(testDir.toURI());
+    Configuration configuration = new Configuration();
+    configuration.setBoolean(ParquetOutputFormat.INCREMENTAL_SUMMARY, true);
+    final FileSystem fs = testDirPath.getFileSystem(configuration);
+    fs.delete(testDirPath, true);
+    fs.mkdirs(testDirPath);
+    Path metadataPath = new Path(testDirPath, ParquetFileWriter.PARQUET_METADATA_FILE);
+
+    MessageType schema = MessageTypeParser.parseMessageType("message m { required group a {required binary b;} required group c { required int64 d; }}");
+    createFile(configuration, new Path(testDirPath, "part0"), schema);
+    createFile(configuration, new Path(testDirPath, "part1"), schema);
+    createFile(configuration, new Path(testDirPath, "part2"), schema);
+    ParquetOutputCommitter.writeMetaDataFile(configuration, testDirPath);
+    validateFooters(ParquetFileReader.readSummaryFile(configuration, fs.getFileStatus(metadataPath)));
+
+    // part1 is replaced by another file with the same name
+    Path part1 = new Path(testDirPath, "part1");
+    fs.delete(part1, false);
+    ParquetFileWriter w = new ParquetFileWriter(configuration, schema, part1);
+    w.start();
+    w.startBlock(5);
+    w.startColumn(schema.getColumnDescription(new String[] {"a", "b"}), 5, CompressionCodecName.UNCOMPRESSED);
+    w.writeDataPage(5, 4, BytesInput.from(new byte[] { 4, 5, 6, 7 }), BIT_PACKED, BIT_PACKED, PLAIN);
+    w.endColumn();
+    w.startColumn(schema.getColumnDescription(new String[] {"c", "d"}), 5, CompressionCodecName.UNCOMPRESSED);
+    w.writeDataPage(5, 4, BytesInput.from(new byte[] { 5, 6, 7, 8 }), BIT_PACKED, BIT_PACKED, PLAIN);
+    w.endColumn();
+    w.endBlock();
+    w.end(new HashMap<String, String>());
+    ParquetOutputCommitter.writeMetaDataFile(configuration, testDirPath);
+
+    List<Footer> footers = ParquetFileReader.readSummaryFile(configuration, fs.getFileStatus(metadataPath));
+    assertEquals(3, footers.size());
+    for (Footer footer : footers) {
+      List<BlockMetaData> blocks = footer.getParquetMetadata().getBlocks();
+      if (footer.getFile().getName().equals("part1")) {
+        assertEquals(1, blocks.size());
+        assertEquals(5, blocks.get(0).getRowCount());
+      } else {
+        assertEquals(2, blocks.size());
+      }
+    }
+  }
+
+  @Test
+  public void testIndexedMetaDataFile() throws Exception {
+    File testDir = new File("target/test/TestParquetFileWriter/testIndexedMetaDataFileDir").getAbsoluteFile();
+    Path testDirPath = new Path(testDir.toURI());
+    Configuration configuration = new Configuration();
+    final FileSystem fs = testDirPath.getFileSystem(configuration);
+    fs.delete(testDirPath, true);
+    fs.mkdirs(testDirPath);
+    Path metadataPath = new Path(testDirPath, ParquetFileWriter.PARQUET_METADATA_FILE);
+
+    MessageType schema = MessageTypeParser.parseMessageType("message m { required group a {required binary b;} required group c { required int64 d; }}");
+    createFile(configuration, new Path(testDirPath, "part0"), schema);
+    createFile(configuration, new Path(testDirPath, "part1"), schema);
+    createFile(configuration, new Path(testDirPath, "part2"), schema);
+    List<Footer> footers = ParquetFileReader.readAllFootersInParallel(configuration, fs.getFileStatus(testDirPath));
+    ParquetFileWriter.writeMetadataFile(configuration, testDirPath, footers);
+    assertNull(SummaryFileIndex.read(configuration, fs.getFileStatus(metadataPath)));
+
+    configuration.setBoolean(ParquetOutputFormat.SUMMARY_INDEX, true);
+    ParquetFileWriter.writeMetadataFile(configuration, testDirPath, footers);
+    // still readable as a regular summary file
+    validateFooters(ParquetFileReader.readSummaryFile(configuration, fs.getFileStatus(metadataPath)));
+    SummaryFileIndex index = SummaryFileIndex.read(configuration, fs.getFileStatus(metadataPath));
+    assertEquals(new HashSet<String>(Arrays.asList("part0", "part1", "part2")), index.getFiles());
+
+    List<FileStatus> requested = Arrays.asList(
+        fs.getFileStatus(new Path(testDirPath, "part0")),
+        fs.getFileStatus(new Path(testDirPath, "part2")));
+    List<Footer> read = ParquetFileReader.readAllFootersInParallelUsingSummaryFiles(configuration, requested);
+    assertEquals(2, read.size());
+    for (Footer footer : read) {
+      assertEquals(footer.getFile().getName(), footer.getParquetMetadata().getFileMetaData().getKeyValueMetaData().get(footer.getFile().getName()));
+      assertEquals(2, footer.getParquetMetadata().getBlocks().size());
+      assertEquals(2, footer.getParquetMetadata().getBlocks().get(0).getColumns().size());
+    }
+
+    configuration.set(ReadSupport.PARQUET_READ_SCHEMA, "message m { required group a {required binary b;} }");
+    configuration.setBoolean(ParquetFileReader.SUMMARY_PROJECTION, true);
+    read = ParquetFileReader.readAllFootersInParallelUsingSummaryFiles(configuration, requested);
+    assertEquals(2, read.size());
+    for (Footer footer : read) {
+      for (BlockMetaData block : footer.getParquetMetadata().getBlocks()) {
+        assertEquals(1, block.getColumns().size());
+        assertEquals(ColumnPath.get("a", "b"), block.getColumns().get(0).getPath());
+      }
+    }
+  }
+
+  @Test
+  public void testReadFooterTail() throws Exception {
+    File testFile = new File("target/test/TestParquetFileWriter/testReadFooterTail.parquet").getAbsoluteFile();
+    testFile.delete();
+    Path path = new Path(testFile.toURI());
+    Configuration configuration = new Configuration();
+    MessageType schema = MessageTypeParser.parseMessageType("message m { required group a {required binary b;} required group c { required int64 d; }}");
+    createFile(configuration, path, schema);
+
+    ParquetMetadata footer = ParquetFileReader.readFooter(configuration, path);
+    // the footer does not fit in the tail: it needs a second read
+    configuration.setInt(ParquetFileReader.FOOTER_READ_SIZE, 16);
+    ParquetMetadata smallTailFooter = ParquetFileReader.readFooter(configuration, path);
+    // the tail is the whole file
+    configuration.setInt(ParquetFileReader.FOOTER_READ_SIZE, (int)testFile.length());
+    ParquetMetadata wholeFileFooter = ParquetFileReader.readFooter(configuration, path);
+
+    assertEquals(ParquetMetadata.toJSON(footer), ParquetMetadata.toJSON(smallTailFooter));
+    assertEquals(ParquetMetadata.toJSON(footer), ParquetMetadata.toJSON(wholeFileFooter));
+    assertEquals("bar", smallTailFooter.getFileMetaData().getKeyValueMetaData().get("foo"));
+  }
+
   private void validateFooters(final List<Footer> metadata) {
     LOG.debug(metadata);
     assertEquals(3, metadata.size());
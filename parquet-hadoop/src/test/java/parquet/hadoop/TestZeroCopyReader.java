@@ -0,0 +1,201 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.PositionedReadable;
+import org.apache.hadoop.fs.Seekable;
+import org.junit.Test;
+
+/**
+ * drives the zero copy reads through a stream with the signatures of Hadoop 2.3,
+ * the pool and read option types are stand-ins as they do not exist in Hadoop 1
+ */
+public class TestZeroCopyReader {
+
+  public interface StubPool {
+  }
+
+  public static class StubPoolImplementation implements StubPool {
+  }
+
+  public enum StubReadOption {
+    SKIP_CHECKSUMS
+  }
+
+  private static class SeekableBytes extends ByteArrayInputStream implements Seekable, PositionedReadable {
+    SeekableBytes(byte[] bytes) {
+      super(bytes);
+    }
+
+    @Override
+    public void seek(long position) {
+      pos = (int)position;
+    }
+
+    @Override
+    public long getPos() {
+      return pos;
+    }
+
+    @Override
+    public boolean seekToNewSource(long targetPos) {
+      return false;
+    }
+
+    @Override
+    public int read(long position, byte[] buffer, int offset, int length) {
+      int read = Math.min(length, count - (int)position);
+      System.arraycopy(buf, (int)position, buffer, offset, read);
+      return read;
+    }
+
+    @Override
+    public void readFully(long position, byte[] buffer, int offset, int length) {
+      read(position, buffer, offset, length);
+    }
+
+    @Override
+    public void readFully(long position, byte[] buffer) {
+      read(position, buffer, 0, buffer.length);
+    }
+  }
+
+  public static class StubStream extends FSDataInputStream {
+    private final byte[] bytes;
+    private final int maxReadLength;
+    private final boolean supported;
+    final List<ByteBuffer> outstanding = new ArrayList<ByteBuffer>();
+    final List<EnumSet<StubReadOption>> options = new ArrayList<EnumSet<StubReadOption>>();
+    int released = 0;
+
+    StubStream(byte[] bytes, int maxReadLength, boolean supported) throws IOException {
+      super(new SeekableBytes(bytes));
+      this.bytes = bytes;
+      this.maxReadLength = maxReadLength;
+      this.supported = supported;
+    }
+
+    public ByteBuffer read(StubPool pool, int maxLength, EnumSet<StubReadOption> opts) throws IOException {
+      assertTrue(pool instanceof StubPoolImplementation);
+      if (!supported) {
+        throw new UnsupportedOperationException("not a zero copy stream");
+      }
+      options.add(opts);
+      int position = (int)getPos();
+      if (position >= bytes.length) {
+        return null;
+      }
+      int length = Math.min(Math.min(maxLength, maxReadLength), bytes.length - position);
+      ByteBuffer buffer = ByteBuffer.wrap(bytes, position, length).slice();
+      seek(position + length);
+      outstanding.add(buffer);
+      return buffer;
+    }
+
+    public void releaseBuffer(ByteBuffer buffer) {
+      assertTrue("unknown buffer", outstanding.remove(buffer));
+      ++ released;
+    }
+  }
+
+  private static byte[] bytes(int count) {
+    byte[] bytes = new byte[count];
+    for (int i = 0; i < count; i++) {
+      bytes[i] = (byte)i;
+    }
+    return bytes;
+  }
+
+  private static ZeroCopyReader reader(StubStream in, boolean skipChecksums) throws Exception {
+    ZeroCopyReader.Api api = new ZeroCopyReader.Api(StubStream.class,
+        StubPool.class.getName(), StubPoolImplementation.class.getName(), StubReadOption.class.getName());
+    return new ZeroCopyReader(in, api, skipChecksums);
+  }
+
+  @Test
+  public void testReadAndRelease() throws Exception {
+    StubStream in = new StubStream(bytes(100), 100, true);
+    ZeroCopyReader reader = reader(in, false);
+    ByteBuffer first = reader.read(10, 20);
+    assertEquals(20, first.remaining());
+    assertEquals(10, first.get(first.position()));
+    ByteBuffer second = reader.read(50, 10);
+    assertEquals(50, second.get(second.position()));
+    assertEquals(5, reader.read(70, 5).remaining());
+    assertEquals(EnumSet.noneOf(StubReadOption.class), in.options.get(0));
+    assertEquals(3, in.outstanding.size());
+
+    reader.release(second);
+    assertEquals(1, in.released);
+    assertEquals(2, in.outstanding.size());
+    // not a buffer of this reader anymore
+    reader.release(second);
+    assertEquals(1, in.released);
+
+    reader.releaseAll();
+    assertEquals(3, in.released);
+    assertTrue(in.outstanding.isEmpty());
+    reader.releaseAll();
+    assertEquals(3, in.released);
+  }
+
+  @Test
+  public void testSkipChecksums() throws Exception {
+    StubStream in = new StubStream(bytes(100), 100, true);
+    ZeroCopyReader reader = reader(in, true);
+    reader.read(0, 10);
+    assertEquals(EnumSet.of(StubReadOption.SKIP_CHECKSUMS), in.options.get(0));
+    reader.releaseAll();
+  }
+
+  @Test
+  public void testShortRead() throws Exception {
+    // for example at the boundary of an HDFS block
+    StubStream in = new StubStream(bytes(100), 16, true);
+    ZeroCopyReader reader = reader(in, false);
+    assertNull(reader.read(10, 20));
+    assertEquals(1, in.released);
+    assertTrue(in.outstanding.isEmpty());
+    assertEquals(16, reader.read(10, 16).remaining());
+    // end of file
+    assertNull(reader.read(100, 10));
+    reader.releaseAll();
+    assertEquals(2, in.released);
+  }
+
+  @Test
+  public void testUnsupported() throws Exception {
+    StubStream in = new StubStream(bytes(100), 100, false);
+    ZeroCopyReader reader = reader(in, false);
+    assertNull(reader.read(0, 10));
+    assertNull(reader.read(0, 10));
+    assertTrue(in.options.isEmpty());
+    reader.releaseAll();
+    assertEquals(0, in.released);
+  }
+}
@@ -91,6 +91,8 @@ public class MapredParquetInputFormat extends FileInputFormat<Void, ArrayWritabl
 
     final Path tmpPath = new Path((dirs[dirs.length - 1]).makeQualified(FileSystem.get(job)).toUri().getPath());
     final JobConf cloneJobConf = hiveBinding.pushProjectionsAndFilters(job, tmpPath);
+    // the splits are wrapped one file at a time, Hive combines them itself
+    cloneJobConf.setLong(ParquetInputFormat.COMBINE_SPLIT_SIZE, 0);
     final List<org.apache.hadoop.mapreduce.InputSplit> splits = realInput.
         getSplits(ContextUtil.newJobContext(cloneJobConf, null));
 
@@ -17,6 +17,8 @@ import java.util.List;
 import org.apache.hadoop.io.ArrayWritable;
 import org.apache.hadoop.io.Writable;
 
+import parquet.hive.writable.LazyArrayWritable;
+import parquet.io.api.Binary;
 import parquet.io.api.Converter;
 import parquet.schema.GroupType;
 import parquet.schema.Type;
@@ -35,11 +37,41 @@ public class DataWritableGroupConverter extends HiveGroupConverter {
   private final int index;
   private final Object[] currentArr;
   private Writable[] rootMap;
+  // only at the root in reuse mode
+  private ArrayWritable rootArray;
+  private List<Writable>[] rootBuffers;
+  // the ArrayWritables of the list fields, reused with the buffers
+  private ArrayWritable[] rootLists;
+  // only at the root in lazy mode: the primitive fields are stored in it without creating Writables
+  private LazyArrayWritable lazyRow;
 
   public DataWritableGroupConverter(final GroupType requestedSchema, final GroupType tableSchema) {
+    this(requestedSchema, tableSchema, false);
+  }
+
+  public DataWritableGroupConverter(final GroupType requestedSchema, final GroupType tableSchema, final boolean reuseRecords) {
+    this(requestedSchema, tableSchema, reuseRecords, false);
+  }
+
+  /**
+   * @param reuseRecords if true the same ArrayWritable is refilled for every record, as well as the Writables of its fields
+   * @param lazyRows if true the records are {@link LazyArrayWritable}s (which are always reused)
+   */
+  @SuppressWarnings("unchecked")
+  public DataWritableGroupConverter(final GroupType requestedSchema, final GroupType tableSchema, final boolean reuseRecords, final boolean lazyRows) {
     this(requestedSchema, null, 0, tableSchema);
     final int fieldCount = tableSchema.getFieldCount();
     this.rootMap = new Writable[fieldCount];
+    if (lazyRows) {
+      this.lazyRow = new LazyArrayWritable(fieldCount);
+      this.rootBuffers = new List[fieldCount];
+      this.rootLists = new ArrayWritable[fieldCount];
+    } else if (reuseRecords) {
+      this.rootArray = new ArrayWritable(Writable.class, rootMap);
+      this.rootBuffers = new List[fieldCount];
+      this.rootLists = new ArrayWritable[fieldCount];
+      reuseFieldWritables(fieldCount);
+    }
   }
 
   public DataWritableGroupConverter(final GroupType groupType, final HiveGroupConverter parent, final int index) {
@@ -67,6 +99,9 @@ public class DataWritableGroupConverter extends HiveGroupConverter {
   }
 
   final public ArrayWritable getCurrentArray() {
+    if (lazyRow != null) {
+      return getCurrentLazyRow();
+    }
     final Writable[] writableArr;
     if (this.rootMap != null) { // We're at the root : we can safely re-use the same map to save perf
       writableArr = this.rootMap;
@@ -77,21 +112,114 @@ public class DataWritableGroupConverter extends HiveGroupConverter {
     for (int i = 0; i < currentArr.length; i++) {
       final Object obj = currentArr[i];
       if (obj instanceof List) {
-        final List<?> objList = (List<?>)obj;
-        final ArrayWritable arr = new ArrayWritable(Writable.class, objList.toArray(new Writable[objList.size()]));
-        writableArr[i] = arr;
+        writableArr[i] = toArrayWritable(i, (List<?>) obj);
       } else {
         writableArr[i] = (Writable) obj;
       }
     }
+    if (rootArray != null) {
+      return rootArray;
+    }
     return new ArrayWritable(Writable.class, writableArr);
   }
 
+  private LazyArrayWritable getCurrentLazyRow() {
+    // the primitive fields are already in lazyRow, only the nested ones are left
+    for (int i = 0; i < currentArr.length; i++) {
+      final Object obj = currentArr[i];
+      if (obj instanceof List) {
+        lazyRow.set(i, toArrayWritable(i, (List<?>) obj));
+      } else if (obj != null) {
+        lazyRow.set(i, (Writable) obj);
+      }
+    }
+    return lazyRow;
+  }
+
+  private ArrayWritable toArrayWritable(final int index, final List<?> list) {
+    if (rootLists == null) {
+      return new ArrayWritable(Writable.class, list.toArray(new Writable[list.size()]));
+    }
+    ArrayWritable arr = rootLists[index];
+    if (arr == null) {
+      arr = new ArrayWritable(Writable.class, new Writable[list.size()]);
+      rootLists[index] = arr;
+    } else if (arr.get().length != list.size()) {
+      // the length of the array is the length of the list
+      arr.set(new Writable[list.size()]);
+    }
+    list.toArray(arr.get());
+    return arr;
+  }
+
   @Override
   final protected void set(final int index, final Writable value) {
     currentArr[index] = value;
   }
 
+  @Override
+  protected void setBoolean(final int index, final boolean value) {
+    if (lazyRow != null) {
+      lazyRow.setBoolean(index, value);
+    } else {
+      super.setBoolean(index, value);
+    }
+  }
+
+  @Override
+  protected void setInt(final int index, final int value) {
+    if (lazyRow != null) {
+      lazyRow.setInt(index, value);
+    } else {
+      super.setInt(index, value);
+    }
+  }
+
+  @Override
+  protected void setLong(final int index, final long value) {
+    if (lazyRow != null) {
+      lazyRow.setLong(index, value);
+    } else {
+      super.setLong(index, value);
+    }
+  }
+
+  @Override
+  protected void setFloat(final int index, final float value) {
+    if (lazyRow != null) {
+      lazyRow.setFloat(index, value);
+    } else {
+      super.setFloat(index, value);
+    }
+  }
+
+  @Override
+  protected void setDouble(final int index, final double value) {
+    if (lazyRow != null) {
+      lazyRow.setDouble(index, value);
+    } else {
+      super.setDouble(index, value);
+    }
+  }
+
+  @Override
+  protected void setBinary(final int index, final Binary value) {
+    if (lazyRow != null) {
+      lazyRow.setBinary(index, value);
+    } else {
+      super.setBinary(index, value);
+    }
+  }
+
+  @Override
+  protected void setDictionaryBinary(final int index, final Binary value, final String string) {
+    if (lazyRow != null) {
+      lazyRow.setDictionaryBinary(index, value, string);
+    } else {
+      super.setDictionaryBinary(index, value, string);
+    }
+  }
+
   @Override
   public Converter getConverter(final int fieldIndex) {
     return converters[fieldIndex];
@@ -102,6 +230,9 @@ public class DataWritableGroupConverter extends HiveGroupConverter {
     for (int i = 0; i < currentArr.length; i++) {
       currentArr[i] = null;
     }
+    if (lazyRow != null) {
+      lazyRow.reset();
+    }
   }
 
   @Override
@@ -129,7 +260,16 @@ public class DataWritableGroupConverter extends HiveGroupConverter {
       // and it is more flexible than ArrayWritable.
       //
       // converted to ArrayWritable by getCurrentArray().
-      final List<Writable> buffer = new ArrayList<Writable>();
+      final List<Writable> buffer;
+      if (rootBuffers != null) { // the buffers are copied to an ArrayWritable so they can be reused
+        if (rootBuffers[index] == null) {
+          rootBuffers[index] = new ArrayList<Writable>();
+        }
+        buffer = rootBuffers[index];
+        buffer.clear();
+      } else {
+        buffer = new ArrayList<Writable>();
+      }
       buffer.add(value);
       currentArr[index] = (Object) buffer;
     }
@@ -29,7 +29,23 @@ public class DataWritableRecordConverter extends RecordMaterializer<ArrayWritabl
   private final DataWritableGroupConverter root;
 
   public DataWritableRecordConverter(final GroupType requestedSchema, final GroupType tableSchema) {
-    this.root = new DataWritableGroupConverter(requestedSchema, tableSchema);
+    this(requestedSchema, tableSchema, false);
+  }
+
+  /**
+   * @param reuseRecords if true the same ArrayWritable is refilled for every record
+   */
+  public DataWritableRecordConverter(final GroupType requestedSchema, final GroupType tableSchema, final boolean reuseRecords) {
+    this(requestedSchema, tableSchema, reuseRecords, false);
+  }
+
+  /**
+   * @param reuseRecords if true the same ArrayWritable is refilled for every record
+   * @param lazyRows if true the records are {@link parquet.hive.writable.LazyArrayWritable}s
+   * converting their primitive fields to Writables only when they are read
+   */
+  public DataWritableRecordConverter(final GroupType requestedSchema, final GroupType tableSchema, final boolean reuseRecords, final boolean lazyRows) {
+    this.root = new DataWritableGroupConverter(requestedSchema, tableSchema, reuseRecords, lazyRows);
   }
 
   @Override
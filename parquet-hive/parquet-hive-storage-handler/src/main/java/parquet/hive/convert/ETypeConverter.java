@@ -17,15 +17,7 @@ package parquet.hive.convert;
 
 import java.math.BigDecimal;
 
-import org.apache.hadoop.hive.serde2.io.DoubleWritable;
-import org.apache.hadoop.io.BooleanWritable;
-import org.apache.hadoop.io.FloatWritable;
-import org.apache.hadoop.io.IntWritable;
-import org.apache.hadoop.io.LongWritable;
-
 import parquet.column.Dictionary;
-import parquet.hive.writable.BinaryWritable;
-import parquet.hive.writable.BinaryWritable.DicBinaryWritable;
 import parquet.io.api.Binary;
 import parquet.io.api.Converter;
 import parquet.io.api.PrimitiveConverter;
@@ -46,7 +38,7 @@ public enum ETypeConverter {
       return new PrimitiveConverter() {
         @Override
         final public void addDouble(final double value) {
-          parent.set(index, new DoubleWritable(value));
+          parent.setDouble(index, value);
         }
       };
     }
@@ -57,7 +49,7 @@ public enum ETypeConverter {
       return new PrimitiveConverter() {
         @Override
         final public void addBoolean(final boolean value) {
-          parent.set(index, new BooleanWritable(value));
+          parent.setBoolean(index, value);
         }
       };
     }
@@ -68,7 +60,7 @@ public enum ETypeConverter {
       return new PrimitiveConverter() {
         @Override
         final public void addFloat(final float value) {
-          parent.set(index, new FloatWritable(value));
+          parent.setFloat(index, value);
         }
       };
     }
@@ -79,7 +71,7 @@ public enum ETypeConverter {
       return new PrimitiveConverter() {
         @Override
         final public void addInt(final int value) {
-          parent.set(index, new IntWritable(value));
+          parent.setInt(index, value);
         }
       };
     }
@@ -90,7 +82,7 @@ public enum ETypeConverter {
       return new PrimitiveConverter() {
         @Override
         final public void addLong(final long value) {
-          parent.set(index, new LongWritable(value));
+          parent.setLong(index, value);
         }
       };
     }
@@ -101,7 +93,7 @@ public enum ETypeConverter {
       return new PrimitiveConverter() {
         @Override
         final public void addDouble(final double value) {
-          parent.set(index, new DoubleWritable(value));
+          parent.setDouble(index, value);
         }
       };
     }
@@ -131,12 +123,12 @@ public enum ETypeConverter {
 
         @Override
         public void addValueFromDictionary(int dictionaryId) {
-          parent.set(index, new DicBinaryWritable(dictBinary[dictionaryId],  dict[dictionaryId]));
+          parent.setDictionaryBinary(index, dictBinary[dictionaryId], dict[dictionaryId]);
         }
 
         @Override
         final public void addBinary(Binary value) {
-          parent.set(index, new BinaryWritable(value));
+          parent.setBinary(index, value);
         }
       };
     }
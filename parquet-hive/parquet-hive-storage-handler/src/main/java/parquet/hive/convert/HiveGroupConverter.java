@@ -15,8 +15,16 @@
  */
 package parquet.hive.convert;
 
+import org.apache.hadoop.hive.serde2.io.DoubleWritable;
+import org.apache.hadoop.io.BooleanWritable;
+import org.apache.hadoop.io.FloatWritable;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Writable;
 
+import parquet.hive.writable.BinaryWritable;
+import parquet.hive.writable.BinaryWritable.DicBinaryWritable;
+import parquet.io.api.Binary;
 import parquet.io.api.Converter;
 import parquet.io.api.GroupConverter;
 import parquet.schema.Type;
@@ -44,4 +52,101 @@ public abstract class HiveGroupConverter extends GroupConverter {
 
   abstract protected void add(int index, Writable value);
 
+  // if not null, the Writable of each primitive field is kept and set again for the next record
+  private Writable[] fieldWritables;
+
+  /**
+   * keeps one mutable Writable per primitive field instead of creating one per value.
+   * Only for a group set once per record: the values added to a list must be distinct.
+   * @param fieldCount the number of fields of the group
+   */
+  protected void reuseFieldWritables(final int fieldCount) {
+    fieldWritables = new Writable[fieldCount];
+  }
+
+  private Writable getFieldWritable(final int index) {
+    return fieldWritables == null ? null : fieldWritables[index];
+  }
+
+  private Writable keepFieldWritable(final int index, final Writable value) {
+    if (fieldWritables != null) {
+      fieldWritables[index] = value;
+    }
+    return value;
+  }
+
+  // the primitive converters go through these so that a group may keep the primitive values
+  // and create the Writables lazily (see DataWritableGroupConverter)
+
+  protected void setBoolean(final int index, final boolean value) {
+    final Writable writable = getFieldWritable(index);
+    if (writable instanceof BooleanWritable) {
+      ((BooleanWritable) writable).set(value);
+      set(index, writable);
+    } else {
+      set(index, keepFieldWritable(index, new BooleanWritable(value)));
+    }
+  }
+
+  protected void setInt(final int index, final int value) {
+    final Writable writable = getFieldWritable(index);
+    if (writable instanceof IntWritable) {
+      ((IntWritable) writable).set(value);
+      set(index, writable);
+    } else {
+      set(index, keepFieldWritable(index, new IntWritable(value)));
+    }
+  }
+
+  protected void setLong(final int index, final long value) {
+    final Writable writable = getFieldWritable(index);
+    if (writable instanceof LongWritable) {
+      ((LongWritable) writable).set(value);
+      set(index, writable);
+    } else {
+      set(index, keepFieldWritable(index, new LongWritable(value)));
+    }
+  }
+
+  protected void setFloat(final int index, final float value) {
+    final Writable writable = getFieldWritable(index);
+    if (writable instanceof FloatWritable) {
+      ((FloatWritable) writable).set(value);
+      set(index, writable);
+    } else {
+      set(index, keepFieldWritable(index, new FloatWritable(value)));
+    }
+  }
+
+  protected void setDouble(final int index, final double value) {
+    final Writable writable = getFieldWritable(index);
+    if (writable instanceof DoubleWritable) {
+      ((DoubleWritable) writable).set(value);
+      set(index, writable);
+    } else {
+      set(index, keepFieldWritable(index, new DoubleWritable(value)));
+    }
+  }
+
+  protected void setBinary(final int index, final Binary value) {
+    final Writable writable = getFieldWritable(index);
+    // a DicBinaryWritable would keep its string
+    if (writable != null && writable.getClass() == BinaryWritable.class) {
+      ((BinaryWritable) writable).setBinary(value);
+      set(index, writable);
+    } else {
+      set(index, keepFieldWritable(index, new BinaryWritable(value)));
+    }
+  }
+
+  protected void setDictionaryBinary(final int index, final Binary value, final String string) {
+    final Writable writable = getFieldWritable(index);
+    if (writable instanceof DicBinaryWritable) {
+      ((DicBinaryWritable) writable).set(value, string);
+      set(index, writable);
+    } else {
+      set(index, keepFieldWritable(index, new DicBinaryWritable(value, string)));
+    }
+  }
+
 }
@@ -0,0 +1,127 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hive.read;
+
+import java.util.Arrays;
+
+/**
+ * A batch of rows decoded column by column into primitive arrays.
+ *
+ * The layout is the one of Hive's vectorized row batches (long, double and
+ * bytes vectors with a null mask) so that the arrays can be handed over without copying.
+ */
+public class ColumnBatch {
+
+  /**
+   * One column of the batch
+   */
+  public static abstract class ColumnVector {
+    /** isNull[i] is true if the value of row i is null */
+    public final boolean[] isNull;
+    /** true if no value of the batch is null, isNull can then be ignored */
+    public boolean noNulls = true;
+
+    ColumnVector(int capacity) {
+      this.isNull = new boolean[capacity];
+    }
+
+    /**
+     * resets the null mask before the vector is refilled
+     */
+    public void reset() {
+      if (!noNulls) {
+        Arrays.fill(isNull, false);
+        noNulls = true;
+      }
+    }
+
+    /**
+     * marks the value of a row as null
+     * @param row the row in the batch
+     */
+    public void setNull(int row) {
+      isNull[row] = true;
+      noNulls = false;
+    }
+  }
+
+  /**
+   * booleans, ints and longs
+   */
+  public static class LongVector extends ColumnVector {
+    public final long[] vector;
+
+    public LongVector(int capacity) {
+      super(capacity);
+      this.vector = new long[capacity];
+    }
+  }
+
+  /**
+   * floats and doubles
+   */
+  public static class DoubleVector extends ColumnVector {
+    public final double[] vector;
+
+    public DoubleVector(int capacity) {
+      super(capacity);
+      this.vector = new double[capacity];
+    }
+  }
+
+  /**
+   * binaries, the value of row i is vector[i][start[i] .. start[i] + length[i]].
+   * The arrays are references to the decoded pages or dictionaries, not copies.
+   */
+  public static class BytesVector extends ColumnVector {
+    public final byte[][] vector;
+    public final int[] start;
+    public final int[] length;
+
+    public BytesVector(int capacity) {
+      super(capacity);
+      this.vector = new byte[capacity][];
+      this.start = new int[capacity];
+      this.length = new int[capacity];
+    }
+
+    public void setRef(int row, byte[] bytes, int start, int length) {
+      this.vector[row] = bytes;
+      this.start[row] = start;
+      this.length[row] = length;
+    }
+  }
+
+  /** default number of rows in a batch, the same as Hive's */
+  public static final int DEFAULT_SIZE = 1024;
+
+  public final ColumnVector[] cols;
+  /** number of rows currently in the batch */
+  public int size;
+
+  /**
+   * @param cols the column vectors, all of the same capacity
+   */
+  public ColumnBatch(ColumnVector[] cols) {
+    this.cols = cols;
+  }
+
+  /**
+   * @return the maximum number of rows of this batch
+   */
+  public int getCapacity() {
+    return cols.length == 0 ? DEFAULT_SIZE : cols[0].isNull.length;
+  }
+
+}
@@ -0,0 +1,493 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hive.read;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+
+import parquet.Log;
+import parquet.bytes.BytesUtils;
+import parquet.column.ColumnDescriptor;
+import parquet.column.Dictionary;
+import parquet.column.Encoding;
+import parquet.column.ValuesType;
+import parquet.column.page.DictionaryPage;
+import parquet.column.page.Page;
+import parquet.column.page.PageReadStore;
+import parquet.column.page.PageReader;
+import parquet.column.values.ValuesReader;
+import parquet.column.values.rle.RunLengthBitPackingHybridDecoder;
+import parquet.hadoop.ParquetFileReader;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hive.read.ColumnBatch.BytesVector;
+import parquet.hive.read.ColumnBatch.ColumnVector;
+import parquet.hive.read.ColumnBatch.DoubleVector;
+import parquet.hive.read.ColumnBatch.LongVector;
+import parquet.io.ParquetDecodingException;
+import parquet.io.api.Binary;
+import parquet.schema.MessageType;
+import parquet.schema.PrimitiveType.PrimitiveTypeName;
+import parquet.schema.Type;
+import parquet.schema.Type.Repetition;
+
+/**
+ * Reads the row groups of a file column by column into {@link ColumnBatch}es
+ * instead of assembling one record at a time.
+ *
+ * Only flat schemas of primitive columns are supported, which is what Hive
+ * vectorizes. The pages are decoded directly into the vectors: the definition
+ * levels of a batch are decoded at once into its null mask and so are the ids of
+ * dictionary encoded pages. Dictionaries are decoded once: the values of a batch
+ * reference the decoded dictionary entries. Binary values of plain pages reference
+ * the page buffer. In both cases the references are only valid until the next call
+ * to {@link #nextBatch(ColumnBatch)}.
+ */
+public class ColumnBatchReader implements Closeable {
+  private static final Log LOG = Log.getLog(ColumnBatchReader.class);
+
+  private final ParquetFileReader reader;
+  private final List<ColumnDescriptor> columns;
+  private final ColumnVectorReader[] columnReaders;
+  private final long total;
+
+  private long rowsLeftInRowGroup = 0;
+  private long current = 0;
+
+  /**
+   * @param configuration the configuration to access the file system
+   * @param file the file to read
+   * @param blocks the row groups to read
+   * @param requestedSchema the projection, a flat schema of primitive columns
+   * @throws IOException if the file can not be opened
+   */
+  public ColumnBatchReader(Configuration configuration, Path file, List<BlockMetaData> blocks, MessageType requestedSchema) throws IOException {
+    this.columns = requestedSchema.getColumns();
+    final List<Type> fields = requestedSchema.getFields();
+    this.columnReaders = new ColumnVectorReader[fields.size()];
+    for (int i = 0; i < columnReaders.length; i++) {
+      final Type field = fields.get(i);
+      if (!field.isPrimitive() || field.getRepetition() == Repetition.REPEATED) {
+        throw new IllegalArgumentException("vectorized reads only support flat schemas of primitive columns: " + field);
+      }
+      columnReaders[i] = newColumnReader(columns.get(i));
+    }
+    long total = 0;
+    for (BlockMetaData block : blocks) {
+      total += block.getRowCount();
+    }
+    this.total = total;
+    this.reader = new ParquetFileReader(configuration, file, blocks, columns);
+  }
+
+  private static ColumnVectorReader newColumnReader(ColumnDescriptor column) {
+    switch (column.getType()) {
+    case BOOLEAN:
+    case INT32:
+    case INT64:
+      return new LongColumnReader(column);
+    case FLOAT:
+    case DOUBLE:
+      return new DoubleColumnReader(column);
+    case BINARY:
+    case FIXED_LEN_BYTE_ARRAY:
+    case INT96:
+      return new BytesColumnReader(column);
+    default:
+      throw new IllegalArgumentException("unknown type " + column.getType());
+    }
+  }
+
+  /**
+   * @param capacity the maximum number of rows of a batch
+   * @return a batch with a vector of the right kind for each requested column
+   */
+  public ColumnBatch createBatch(int capacity) {
+    final ColumnVector[] cols = new ColumnVector[columnReaders.length];
+    for (int i = 0; i < cols.length; i++) {
+      cols[i] = columnReaders[i].newVector(capacity);
+    }
+    return new ColumnBatch(cols);
+  }
+
+  /**
+   * fills the batch with the next rows
+   * @param batch a batch created by {@link #createBatch(int)}
+   * @return false if there are no rows left
+   * @throws IOException if the row group can not be read
+   */
+  public boolean nextBatch(ColumnBatch batch) throws IOException {
+    if (rowsLeftInRowGroup == 0 && !nextRowGroup()) {
+      batch.size = 0;
+      return false;
+    }
+    final int size = (int)Math.min(batch.getCapacity(), rowsLeftInRowGroup);
+    for (int i = 0; i < columnReaders.length; i++) {
+      columnReaders[i].read(batch.cols[i], size);
+    }
+    batch.size = size;
+    rowsLeftInRowGroup -= size;
+    current += size;
+    return true;
+  }
+
+  private boolean nextRowGroup() throws IOException {
+    final PageReadStore pages = reader.readNextRowGroup();
+    if (pages == null) {
+      return false;
+    }
+    if (Log.DEBUG) LOG.debug("reading " + pages.getRowCount() + " rows in vectorized mode");
+    for (int i = 0; i < columnReaders.length; i++) {
+      columnReaders[i].init(pages.getPageReader(columns.get(i)));
+    }
+    rowsLeftInRowGroup = pages.getRowCount();
+    return true;
+  }
+
+  /**
+   * @return the fraction of the rows already read
+   */
+  public float getProgress() {
+    return total == 0 ? 1f : (float)current / total;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  /**
+   * Decodes the pages of a column chunk into vectors, a batch at a time
+   */
+  private static abstract class ColumnVectorReader {
+    final ColumnDescriptor column;
+    private final int maxDefinitionLevel;
+    private PageReader pageReader;
+    private boolean hasDictionary;
+    private int leftInPage;
+    private int[] definitionLevels = new int[0];
+    private int[] dictionaryIds = new int[0];
+    // the definition levels of the current page, in bulk if they are RLE encoded
+    private RunLengthBitPackingHybridDecoder definitionLevelDecoder;
+    private ValuesReader definitionLevelColumn;
+    // the values of the current page, the ids in bulk if it is dictionary encoded
+    private RunLengthBitPackingHybridDecoder dictionaryIdDecoder;
+    ValuesReader dataColumn;
+
+    ColumnVectorReader(ColumnDescriptor column) {
+      this.column = column;
+      this.maxDefinitionLevel = column.getMaxDefinitionLevel();
+    }
+
+    abstract ColumnVector newVector(int capacity);
+
+    /**
+     * decodes the dictionary once for the column chunk
+     * @param dictionary the dictionary of the column chunk
+     */
+    abstract void setDictionary(Dictionary dictionary);
+
+    /**
+     * sets the values of the rows that are not null
+     * @param vector the vector to fill
+     * @param row the first row
+     * @param count the number of rows
+     * @param ids the dictionary ids of the rows that are not null, in order
+     */
+    abstract void readDictionaryValues(ColumnVector vector, int row, int count, int[] ids);
+
+    /**
+     * sets the values of the rows that are not null from {@link #dataColumn}
+     * @param vector the vector to fill
+     * @param row the first row
+     * @param count the number of rows
+     */
+    abstract void readPlainValues(ColumnVector vector, int row, int count);
+
+    void init(PageReader pageReader) {
+      this.pageReader = pageReader;
+      this.leftInPage = 0;
+      final DictionaryPage dictionaryPage = pageReader.readDictionaryPage();
+      this.hasDictionary = dictionaryPage != null;
+      if (hasDictionary) {
+        try {
+          setDictionary(dictionaryPage.getEncoding().initDictionary(column, dictionaryPage));
+        } catch (IOException e) {
+          throw new ParquetDecodingException("could not decode the dictionary for " + column, e);
+        }
+      }
+    }
+
+    void read(ColumnVector vector, int size) {
+      vector.reset();
+      if (definitionLevels.length < size) {
+        definitionLevels = new int[size];
+        dictionaryIds = new int[size];
+      }
+      int row = 0;
+      while (row < size) {
+        if (leftInPage == 0) {
+          readPage();
+        }
+        final int count = Math.min(size - row, leftInPage);
+        final int nonNullCount = readDefinitionLevels(vector, row, count);
+        try {
+          if (dictionaryIdDecoder != null) {
+            dictionaryIdDecoder.readInts(dictionaryIds, 0, nonNullCount);
+            readDictionaryValues(vector, row, count, dictionaryIds);
+          } else {
+            readPlainValues(vector, row, count);
+          }
+        } catch (IOException e) {
+          throw new ParquetDecodingException("could not read the values of " + column, e);
+        }
+        row += count;
+        leftInPage -= count;
+      }
+    }
+
+    /**
+     * decodes the definition levels into the null mask of the vector
+     * @return the number of values that are not null
+     */
+    private int readDefinitionLevels(ColumnVector vector, int row, int count) {
+      if (maxDefinitionLevel == 0) {
+        return count;
+      }
+      if (definitionLevelDecoder != null) {
+        try {
+          definitionLevelDecoder.readInts(definitionLevels, 0, count);
+        } catch (IOException e) {
+          throw new ParquetDecodingException("could not read the definition levels of " + column, e);
+        }
+      } else {
+        for (int i = 0; i < count; i++) {
+          definitionLevels[i] = definitionLevelColumn.readInteger();
+        }
+      }
+      int nonNullCount = 0;
+      for (int i = 0; i < count; i++) {
+        if (definitionLevels[i] == maxDefinitionLevel) {
+          ++ nonNullCount;
+        } else {
+          vector.setNull(row + i);
+        }
+      }
+      return nonNullCount;
+    }
+
+    private void readPage() {
+      final Page page = pageReader.readPage();
+      if (page == null) {
+        throw new ParquetDecodingException("no more pages in " + column);
+      }
+      final int valueCount = page.getValueCount();
+      try {
+        final byte[] bytes = page.getBytes().toByteArray();
+        // flat schemas have no repetition levels but the encoding still tells where they end
+        int next = page.getRlEncoding().getValuesReader(column, ValuesType.REPETITION_LEVEL).initFromPage(valueCount, bytes, 0);
+        definitionLevelDecoder = null;
+        definitionLevelColumn = null;
+        if (maxDefinitionLevel > 0 && page.getDlEncoding() == Encoding.RLE) {
+          // 4 bytes little endian of length followed by the runs
+          final int length = BytesUtils.readIntLittleEndian(bytes, next);
+          definitionLevelDecoder = new RunLengthBitPackingHybridDecoder(
+              BytesUtils.getWidthFromMaxInt(maxDefinitionLevel), new ByteArrayInputStream(bytes, next + 4, length));
+          next += 4 + length;
+        } else {
+          definitionLevelColumn = page.getDlEncoding().getValuesReader(column, ValuesType.DEFINITION_LEVEL);
+          next = definitionLevelColumn.initFromPage(valueCount, bytes, next);
+        }
+        dictionaryIdDecoder = null;
+        dataColumn = null;
+        if (page.getValueEncoding().usesDictionary()) {
+          if (!hasDictionary) {
+            throw new ParquetDecodingException(
+                "could not read page " + page + " in col " + column + " as the dictionary was missing for encoding " + page.getValueEncoding());
+          }
+          // 1 byte of bit width followed by the runs of ids
+          final int bitWidth = bytes[next] & 0xFF;
+          dictionaryIdDecoder = new RunLengthBitPackingHybridDecoder(bitWidth, new ByteArrayInputStream(bytes, next + 1, bytes.length - next - 1));
+        } else {
+          dataColumn = page.getValueEncoding().getValuesReader(column, ValuesType.VALUES);
+          dataColumn.initFromPage(valueCount, bytes, next);
+        }
+      } catch (IOException e) {
+        throw new ParquetDecodingException("could not read page " + page + " in col " + column, e);
+      }
+      leftInPage = valueCount;
+    }
+  }
+
+  private static final class LongColumnReader extends ColumnVectorReader {
+    private final PrimitiveTypeName type;
+    private long[] dictionary;
+
+    LongColumnReader(ColumnDescriptor column) {
+      super(column);
+      this.type = column.getType();
+    }
+
+    @Override
+    ColumnVector newVector(int capacity) {
+      return new LongVector(capacity);
+    }
+
+    @Override
+    void setDictionary(Dictionary dictionary) {
+      this.dictionary = new long[dictionary.getMaxId() + 1];
+      for (int i = 0; i < this.dictionary.length; i++) {
+        this.dictionary[i] = type == PrimitiveTypeName.INT32 ? dictionary.decodeToInt(i) : dictionary.decodeToLong(i);
+      }
+    }
+
+    @Override
+    void readDictionaryValues(ColumnVector vector, int row, int count, int[] ids) {
+      final long[] values = ((LongVector)vector).vector;
+      final boolean[] isNull = vector.isNull;
+      final boolean noNulls = vector.noNulls;
+      for (int i = row, j = 0; i < row + count; i++) {
+        if (noNulls || !isNull[i]) {
+          values[i] = dictionary[ids[j++]];
+        }
+      }
+    }
+
+    @Override
+    void readPlainValues(ColumnVector vector, int row, int count) {
+      final long[] values = ((LongVector)vector).vector;
+      final boolean[] isNull = vector.isNull;
+      final boolean noNulls = vector.noNulls;
+      for (int i = row; i < row + count; i++) {
+        if (noNulls || !isNull[i]) {
+          switch (type) {
+          case BOOLEAN:
+            values[i] = dataColumn.readBoolean() ? 1 : 0;
+            break;
+          case INT32:
+            values[i] = dataColumn.readInteger();
+            break;
+          default:
+            values[i] = dataColumn.readLong();
+          }
+        }
+      }
+    }
+  }
+
+  private static final class DoubleColumnReader extends ColumnVectorReader {
+    private final PrimitiveTypeName type;
+    private double[] dictionary;
+
+    DoubleColumnReader(ColumnDescriptor column) {
+      super(column);
+      this.type = column.getType();
+    }
+
+    @Override
+    ColumnVector newVector(int capacity) {
+      return new DoubleVector(capacity);
+    }
+
+    @Override
+    void setDictionary(Dictionary dictionary) {
+      this.dictionary = new double[dictionary.getMaxId() + 1];
+      for (int i = 0; i < this.dictionary.length; i++) {
+        this.dictionary[i] = type == PrimitiveTypeName.FLOAT ? dictionary.decodeToFloat(i) : dictionary.decodeToDouble(i);
+      }
+    }
+
+    @Override
+    void readDictionaryValues(ColumnVector vector, int row, int count, int[] ids) {
+      final double[] values = ((DoubleVector)vector).vector;
+      final boolean[] isNull = vector.isNull;
+      final boolean noNulls = vector.noNulls;
+      for (int i = row, j = 0; i < row + count; i++) {
+        if (noNulls || !isNull[i]) {
+          values[i] = dictionary[ids[j++]];
+        }
+      }
+    }
+
+    @Override
+    void readPlainValues(ColumnVector vector, int row, int count) {
+      final double[] values = ((DoubleVector)vector).vector;
+      final boolean[] isNull = vector.isNull;
+      final boolean noNulls = vector.noNulls;
+      for (int i = row; i < row + count; i++) {
+        if (noNulls || !isNull[i]) {
+          values[i] = type == PrimitiveTypeName.FLOAT ? dataColumn.readFloat() : dataColumn.readDouble();
+        }
+      }
+    }
+  }
+
+  private static final class BytesColumnReader extends ColumnVectorReader {
+    private byte[][] dictionary;
+
+    BytesColumnReader(ColumnDescriptor column) {
+      super(column);
+    }
+
+    @Override
+    ColumnVector newVector(int capacity) {
+      return new BytesVector(capacity);
+    }
+
+    @Override
+    void setDictionary(Dictionary dictionary) {
+      this.dictionary = new byte[dictionary.getMaxId() + 1][];
+      for (int i = 0; i < this.dictionary.length; i++) {
+        this.dictionary[i] = dictionary.decodeToBinary(i).getBytes();
+      }
+    }
+
+    @Override
+    void readDictionaryValues(ColumnVector vector, int row, int count, int[] ids) {
+      final BytesVector bytesVector = (BytesVector)vector;
+      final boolean[] isNull = vector.isNull;
+      final boolean noNulls = vector.noNulls;
+      for (int i = row, j = 0; i < row + count; i++) {
+        if (noNulls || !isNull[i]) {
+          final byte[] bytes = dictionary[ids[j++]];
+          bytesVector.setRef(i, bytes, 0, bytes.length);
+        }
+      }
+    }
+
+    @Override
+    void readPlainValues(ColumnVector vector, int row, int count) {
+      final BytesVector bytesVector = (BytesVector)vector;
+      final boolean[] isNull = vector.isNull;
+      final boolean noNulls = vector.noNulls;
+      for (int i = row; i < row + count; i++) {
+        if (noNulls || !isNull[i]) {
+          final Binary value = dataColumn.readBytes();
+          final ByteBuffer buffer = value.toByteBuffer();
+          if (buffer.hasArray()) {
+            bytesVector.setRef(i, buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+          } else {
+            final byte[] bytes = value.getBytes();
+            bytesVector.setRef(i, bytes, 0, bytes.length);
+          }
+        }
+      }
+    }
+  }
+}
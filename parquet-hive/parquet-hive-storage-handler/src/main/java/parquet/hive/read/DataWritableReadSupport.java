@@ -45,6 +45,13 @@ public class DataWritableReadSupport extends ReadSupport<ArrayWritable> {
 
   public static final String HIVE_SCHEMA_KEY = "HIVE_TABLE_SCHEMA";
 
+  /**
+   * configuration key to read the rows as {@link parquet.hive.writable.LazyArrayWritable}s which
+   * create the Writable of a primitive field only when Hive reads it (false by default).
+   * The same row is then refilled for every record.
+   */
+  public static final String PARQUET_HIVE_LAZY_ROWS = "parquet.hive.lazy.rows";
+
   /**
    *
    * It creates the readContext for Parquet side with the requested schema during the init phase.
@@ -106,6 +113,7 @@ public class DataWritableReadSupport extends ReadSupport<ArrayWritable> {
       throw new RuntimeException("ReadContext not initialized properly. Don't know the Hive Schema.");
     }
     final MessageType tableSchema = MessageTypeParser.parseMessageType(metadata.get(HIVE_SCHEMA_KEY));
-    return new DataWritableRecordConverter(readContext.getRequestedSchema(), tableSchema);
+    return new DataWritableRecordConverter(readContext.getRequestedSchema(), tableSchema, isReuseRecords(configuration),
+        configuration.getBoolean(PARQUET_HIVE_LAZY_ROWS, false));
   }
 }
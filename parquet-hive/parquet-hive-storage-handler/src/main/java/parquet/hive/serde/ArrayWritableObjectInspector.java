@@ -28,6 +28,7 @@ import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
 import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
 import org.apache.hadoop.io.ArrayWritable;
 import parquet.hive.serde.primitive.ParquetPrimitiveInspectorFactory;
+import parquet.hive.writable.LazyArrayWritable;
 
 /**
  *
@@ -124,6 +125,10 @@ public class ArrayWritableObjectInspector extends SettableStructObjectInspector
       return null;
     }
 
+    if (data instanceof LazyArrayWritable) {
+      return ((LazyArrayWritable) data).get(((StructFieldImpl) fieldRef).getIndex());
+    }
+
     if (data instanceof ArrayWritable) {
       final ArrayWritable arr = (ArrayWritable) data;
       return arr.get()[((StructFieldImpl) fieldRef).getIndex()];
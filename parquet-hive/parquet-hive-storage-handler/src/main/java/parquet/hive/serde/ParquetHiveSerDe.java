@@ -57,6 +57,7 @@ import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.Writable;
 
 import parquet.hive.writable.BinaryWritable;
+import parquet.hive.writable.LazyArrayWritable;
 import parquet.io.api.Binary;
 
 /**
@@ -128,7 +129,10 @@ public class ParquetHiveSerDe implements SerDe {
   public Object deserialize(final Writable blob) throws SerDeException {
     status = LAST_OPERATION.DESERIALIZE;
     deserializedSize = 0;
-    if (blob instanceof ArrayWritable) {
+    if (blob instanceof LazyArrayWritable) { // get() would convert all the fields
+      deserializedSize = ((LazyArrayWritable) blob).size();
+      return blob;
+    } else if (blob instanceof ArrayWritable) {
       deserializedSize = ((ArrayWritable) blob).get().length;
       return blob;
     } else {
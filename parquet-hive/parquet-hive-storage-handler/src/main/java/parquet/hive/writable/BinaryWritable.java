@@ -46,6 +46,10 @@ public class BinaryWritable implements Writable {
     return binary;
   }
 
+  public void setBinary(final Binary binary) {
+    this.binary = binary;
+  }
+
   public byte[] getBytes() {
     return binary.getBytes();
   }
@@ -90,6 +94,11 @@ public class BinaryWritable implements Writable {
       this.string = string;
     }
 
+    public void set(Binary binary, String string) {
+      setBinary(binary);
+      this.string = string;
+    }
+
     public String getString() {
       return string;
     }
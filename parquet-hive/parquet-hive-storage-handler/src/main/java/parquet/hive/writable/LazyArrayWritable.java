@@ -0,0 +1,198 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hive.writable;
+
+import java.util.Arrays;
+
+import org.apache.hadoop.hive.serde2.io.DoubleWritable;
+import org.apache.hadoop.io.ArrayWritable;
+import org.apache.hadoop.io.BooleanWritable;
+import org.apache.hadoop.io.FloatWritable;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Writable;
+
+import parquet.hive.writable.BinaryWritable.DicBinaryWritable;
+import parquet.io.api.Binary;
+
+/**
+ *
+ * An ArrayWritable holding the primitive fields of a row as primitive values.
+ * The Writable of a field is created the first time it is read through {@link #get(int)},
+ * so the fields a query never looks at are never converted.
+ *
+ * The instance is refilled for every record: the values are only valid until the next one is read.
+ *
+ */
+public class LazyArrayWritable extends ArrayWritable {
+
+  private static final byte NONE = 0;
+  private static final byte WRITABLE = 1;
+  private static final byte BOOLEAN = 2;
+  private static final byte INT = 3;
+  private static final byte LONG = 4;
+  private static final byte FLOAT = 5;
+  private static final byte DOUBLE = 6;
+  private static final byte BINARY = 7;
+  private static final byte DICTIONARY_BINARY = 8;
+
+  private final Writable[] values;
+  private final byte[] kinds;
+  private final long[] longs;
+  private final double[] doubles;
+  private final Binary[] binaries;
+  private final String[] strings;
+
+  public LazyArrayWritable(final int size) {
+    super(Writable.class, new Writable[size]);
+    this.values = super.get();
+    this.kinds = new byte[size];
+    this.longs = new long[size];
+    this.doubles = new double[size];
+    this.binaries = new Binary[size];
+    this.strings = new String[size];
+  }
+
+  /**
+   * forgets the values of the previous record
+   */
+  public void reset() {
+    Arrays.fill(values, null);
+    Arrays.fill(kinds, NONE);
+    Arrays.fill(binaries, null);
+    Arrays.fill(strings, null);
+  }
+
+  /**
+   * @return the number of fields, without converting them
+   */
+  public int size() {
+    return values.length;
+  }
+
+  /**
+   * @param index the field
+   * @return the Writable for the field, created on the first call
+   */
+  public Writable get(final int index) {
+    switch (kinds[index]) {
+    case NONE:
+    case WRITABLE:
+      return values[index];
+    case BOOLEAN:
+      values[index] = new BooleanWritable(longs[index] != 0);
+      break;
+    case INT:
+      values[index] = new IntWritable((int) longs[index]);
+      break;
+    case LONG:
+      values[index] = new LongWritable(longs[index]);
+      break;
+    case FLOAT:
+      values[index] = new FloatWritable((float) doubles[index]);
+      break;
+    case DOUBLE:
+      values[index] = new DoubleWritable(doubles[index]);
+      break;
+    case BINARY:
+      values[index] = new BinaryWritable(binaries[index]);
+      break;
+    case DICTIONARY_BINARY:
+      values[index] = new DicBinaryWritable(binaries[index], strings[index]);
+      break;
+    default:
+      throw new IllegalStateException("Unknown kind " + kinds[index]);
+    }
+    kinds[index] = WRITABLE;
+    return values[index];
+  }
+
+  /**
+   * converts all the fields
+   * @return the Writables of all the fields
+   */
+  @Override
+  public Writable[] get() {
+    for (int i = 0; i < values.length; i++) {
+      get(i);
+    }
+    return values;
+  }
+
+  /**
+   * replaces the values of the fields, the fields after the given values are null
+   * @param values at most {@link #size()} values
+   */
+  @Override
+  public void set(final Writable[] values) {
+    if (values.length > this.values.length) {
+      throw new IllegalArgumentException("Expected at most " + this.values.length + " values but got " + values.length);
+    }
+    reset();
+    for (int i = 0; i < values.length; i++) {
+      set(i, values[i]);
+    }
+  }
+
+  @Override
+  public Object toArray() {
+    get();
+    return super.toArray();
+  }
+
+  public void set(final int index, final Writable value) {
+    values[index] = value;
+    kinds[index] = WRITABLE;
+  }
+
+  public void setBoolean(final int index, final boolean value) {
+    longs[index] = value ? 1 : 0;
+    kinds[index] = BOOLEAN;
+  }
+
+  public void setInt(final int index, final int value) {
+    longs[index] = value;
+    kinds[index] = INT;
+  }
+
+  public void setLong(final int index, final long value) {
+    longs[index] = value;
+    kinds[index] = LONG;
+  }
+
+  public void setFloat(final int index, final float value) {
+    doubles[index] = value;
+    kinds[index] = FLOAT;
+  }
+
+  public void setDouble(final int index, final double value) {
+    doubles[index] = value;
+    kinds[index] = DOUBLE;
+  }
+
+  public void setBinary(final int index, final Binary value) {
+    binaries[index] = value;
+    kinds[index] = BINARY;
+  }
+
+  /**
+   * @param value a dictionary entry
+   * @param string its value already decoded to a String
+   */
+  public void setDictionaryBinary(final int index, final Binary value, final String string) {
+    binaries[index] = value;
+    strings[index] = string;
+    kinds[index] = DICTIONARY_BINARY;
+  }
+}
@@ -28,6 +28,7 @@ import org.apache.hadoop.io.Writable;
 
 import parquet.hive.serde.ParquetHiveSerDe;
 import parquet.hive.writable.BinaryWritable;
+import parquet.hive.writable.LazyArrayWritable;
 import parquet.io.api.Binary;
 
 /**
@@ -90,6 +91,46 @@ public class TestParquetSerDe extends TestCase {
     }
   }
 
+  public void testLazyRow() throws Throwable {
+    final ParquetHiveSerDe serDe = new ParquetHiveSerDe();
+    final Properties tbl = new Properties();
+    tbl.setProperty("columns", "aint,along,adouble,astring");
+    tbl.setProperty("columns.types", "int:bigint:double:string");
+    serDe.initialize(new Configuration(), tbl);
+    final StructObjectInspector oi = (StructObjectInspector) serDe.getObjectInspector();
+
+    final LazyArrayWritable lazyRow = new LazyArrayWritable(4);
+    lazyRow.setInt(0, 789);
+    lazyRow.setLong(1, 1000l);
+    lazyRow.setDouble(2, 5.3);
+    lazyRow.setBinary(3, Binary.fromString("parquet"));
+
+    final Object row = serDe.deserialize(lazyRow);
+    assertSame(lazyRow, row);
+    assertEquals(4, serDe.getSerDeStats().getRawDataSize());
+
+    assertEquals(new IntWritable(789), oi.getStructFieldData(row, oi.getStructFieldRef("aint")));
+    // the field is converted once
+    assertSame(oi.getStructFieldData(row, oi.getStructFieldRef("aint")), oi.getStructFieldData(row, oi.getStructFieldRef("aint")));
+    assertEquals(new DoubleWritable(5.3), oi.getStructFieldData(row, oi.getStructFieldRef("adouble")));
+    assertEquals(new BinaryWritable(Binary.fromString("parquet")), oi.getStructFieldData(row, oi.getStructFieldRef("astring")));
+
+    final ArrayWritable serializedArr = (ArrayWritable) serDe.serialize(row, oi);
+    assertEquals(new LongWritable(1000l), serializedArr.get()[1]);
+
+    lazyRow.reset();
+    lazyRow.setInt(0, 1);
+    assertEquals(new IntWritable(1), oi.getStructFieldData(row, oi.getStructFieldRef("aint")));
+    assertNull(oi.getStructFieldData(row, oi.getStructFieldRef("along")));
+
+    // set as a regular ArrayWritable
+    lazyRow.set(new Writable[] { new IntWritable(2), new LongWritable(3l) });
+    assertEquals(new IntWritable(2), oi.getStructFieldData(row, oi.getStructFieldRef("aint")));
+    assertEquals(new LongWritable(3l), oi.getStructFieldData(row, oi.getStructFieldRef("along")));
+    assertNull(oi.getStructFieldData(row, oi.getStructFieldRef("adouble")));
+    assertEquals(4, lazyRow.get().length);
+  }
+
   private void deserializeAndSerializeLazySimple(final ParquetHiveSerDe serDe, final ArrayWritable t) throws SerDeException {
 
     // Get the row structure
@@ -0,0 +1,117 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hive.read;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Collections;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.junit.Test;
+
+import parquet.example.data.Group;
+import parquet.example.data.simple.SimpleGroupFactory;
+import parquet.hadoop.ParquetFileReader;
+import parquet.hadoop.ParquetWriter;
+import parquet.hadoop.example.GroupWriteSupport;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.hadoop.metadata.ParquetMetadata;
+import parquet.hive.read.ColumnBatch.BytesVector;
+import parquet.hive.read.ColumnBatch.DoubleVector;
+import parquet.hive.read.ColumnBatch.LongVector;
+import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
+
+public class TestColumnBatchReader {
+
+  private static final MessageType SCHEMA = MessageTypeParser.parseMessageType(
+      "message test { "
+      + "required int32 id; "
+      + "optional binary name; "
+      + "optional double score; "
+      + "required boolean flag; "
+      + "}");
+
+  @Test
+  public void testReadBatches() throws Exception {
+    final File file = new File("target/test/TestColumnBatchReader/test.parquet");
+    file.delete();
+    final Path path = new Path(file.toURI());
+    final int rows = 5000;
+
+    final ParquetWriter<Group> writer = new ParquetWriter<Group>(path, new GroupWriteSupport() {
+      @Override
+      public WriteContext init(Configuration configuration) {
+        setSchema(SCHEMA, configuration);
+        return super.init(configuration);
+      }
+    }, CompressionCodecName.UNCOMPRESSED, 64 * 1024, 1024, true, false);
+    final SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    for (int i = 0; i < rows; i++) {
+      final Group group = factory.newGroup().append("id", i);
+      if (i % 3 != 0) {
+        group.append("name", "name_" + (i % 10));
+      }
+      if (i % 7 != 0) {
+        group.append("score", i * 0.5);
+      }
+      group.append("flag", i % 2 == 0);
+      writer.write(group);
+    }
+    writer.close();
+
+    final Configuration conf = new Configuration();
+    final ParquetMetadata footer = ParquetFileReader.readFooter(conf, path);
+    final ColumnBatchReader reader = new ColumnBatchReader(conf, path, footer.getBlocks(), SCHEMA);
+    final ColumnBatch batch = reader.createBatch(ColumnBatch.DEFAULT_SIZE);
+    int row = 0;
+    while (reader.nextBatch(batch)) {
+      assertTrue(batch.size > 0);
+      final LongVector ids = (LongVector) batch.cols[0];
+      final BytesVector names = (BytesVector) batch.cols[1];
+      final DoubleVector scores = (DoubleVector) batch.cols[2];
+      final LongVector flags = (LongVector) batch.cols[3];
+      assertTrue(ids.noNulls);
+      assertFalse(names.noNulls);
+      for (int i = 0; i < batch.size; i++, row++) {
+        assertEquals(row, ids.vector[i]);
+        assertEquals(row % 3 == 0, names.isNull[i]);
+        if (row % 3 != 0) {
+          assertEquals("name_" + (row % 10), new String(names.vector[i], names.start[i], names.length[i], "UTF-8"));
+        }
+        assertEquals(row % 7 == 0, scores.isNull[i]);
+        if (row % 7 != 0) {
+          assertEquals(row * 0.5, scores.vector[i], 0);
+        }
+        assertEquals(row % 2 == 0 ? 1 : 0, flags.vector[i]);
+      }
+    }
+    reader.close();
+    assertEquals(rows, row);
+    assertEquals(1f, reader.getProgress(), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNestedSchema() throws Exception {
+    final MessageType nested = MessageTypeParser.parseMessageType(
+        "message test { optional group g { required int32 id; } }");
+    new ColumnBatchReader(new Configuration(), new Path("target/test/TestColumnBatchReader/none.parquet"),
+        Collections.<BlockMetaData>emptyList(), nested);
+  }
+}
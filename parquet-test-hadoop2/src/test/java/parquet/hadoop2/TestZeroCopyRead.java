@@ -0,0 +1,89 @@
+/**
+ * Copyright 2012 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package parquet.hadoop2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.junit.Test;
+
+import parquet.example.data.Group;
+import parquet.example.data.simple.SimpleGroupFactory;
+import parquet.hadoop.ParquetFileReader;
+import parquet.hadoop.ParquetReader;
+import parquet.hadoop.ParquetWriter;
+import parquet.hadoop.example.GroupReadSupport;
+import parquet.hadoop.example.GroupWriteSupport;
+import parquet.hadoop.metadata.CompressionCodecName;
+import parquet.schema.MessageType;
+import parquet.schema.MessageTypeParser;
+
+public class TestZeroCopyRead {
+
+  @Test
+  public void testZeroCopyRead() throws Exception {
+    File testFile = new File("target/test/hadoop2/TestZeroCopyRead/file.parquet").getAbsoluteFile();
+    testFile.delete();
+    Path path = new Path(testFile.toURI());
+    final MessageType schema = MessageTypeParser.parseMessageType("message m { required int32 id; required binary name; optional int64 value; }");
+    ParquetWriter<Group> writer = new ParquetWriter<Group>(path, new GroupWriteSupport() {
+      @Override
+      public WriteContext init(Configuration configuration) {
+        setSchema(schema, configuration);
+        return super.init(configuration);
+      }
+    }, CompressionCodecName.GZIP, 4 * 1024, 1024, 1024, true, false);
+    SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+    List<String> expected = new ArrayList<String>();
+    for (int i = 0; i < 2000; i++) {
+      Group group = factory.newGroup().append("id", i).append("name", "name" + (i % 10));
+      if (i % 3 != 0) {
+        group.append("value", (long)i);
+      }
+      writer.write(group);
+      expected.add(group.toString());
+    }
+    writer.close();
+    assertTrue(ParquetFileReader.readFooter(new Configuration(), path).getBlocks().size() > 1);
+
+    // zero copy reads are used if this version of Hadoop provides them, otherwise the column chunks are copied
+    Configuration configuration = new Configuration();
+    configuration.setBoolean(ParquetFileReader.LOCAL_MMAP, false);
+    configuration.setBoolean(ParquetFileReader.ZERO_COPY, true);
+    assertEquals(expected, read(configuration, path));
+    configuration.setBoolean(ParquetFileReader.ZERO_COPY_SKIP_CHECKSUMS, true);
+    assertEquals(expected, read(configuration, path));
+    assertEquals(expected, read(new Configuration(), path));
+  }
+
+  private List<String> read(Configuration configuration, Path path) throws IOException {
+    ParquetReader<Group> reader = new ParquetReader<Group>(configuration, path, new GroupReadSupport());
+    List<String> result = new ArrayList<String>();
+    Group group;
+    while ((group = reader.read()) != null) {
+      result.add(group.toString());
+    }
+    reader.close();
+    return result;
+  }
+}